@@ -0,0 +1,131 @@
+package com.pinapp.customerservice;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import com.pinapp.customerservice.dto.CustomerDto;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logging cost of one customer creation as seen by the request threads, with every thread writing to the
+ * same file. {@link #previousCreateLogging} is the old INFO logging of a create (the DTO logged by the
+ * controller and the service, then a success line); {@link #createLogging} is the current single INFO
+ * line with key-values. SYNC_CALLER_DATA is the old appender setup; ASYNC_JSON matches logback-spring.xml
+ * in the prod profile.
+ * <p>
+ * ASYNC_JSON drops INFO events once its buffer is nearly full, which a flood like this reaches, so its score
+ * is what request threads see rather than how many lines reach the file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class LoggingBenchmark {
+
+    public enum Appenders {
+        SYNC_CALLER_DATA,
+        SYNC,
+        ASYNC_JSON
+    }
+
+    @Param
+    public Appenders appenders;
+
+    private LoggerContext context;
+    private Logger controllerLog;
+    private Logger serviceLog;
+    private Path logFile;
+    private CustomerDto customer;
+
+    @Setup
+    public void setUp() throws IOException {
+        logFile = Files.createTempFile("logging-benchmark", ".log");
+        context = new LoggerContext();
+
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(context);
+        file.setFile(logFile.toString());
+        file.setEncoder(encoder());
+        file.start();
+
+        Appender<ILoggingEvent> appender = file;
+        if (appenders == Appenders.ASYNC_JSON) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.setDiscardingThreshold(1638);
+            async.setNeverBlock(true);
+            async.addAppender(file);
+            async.start();
+            appender = async;
+        }
+
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.detachAndStopAllAppenders();
+        root.addAppender(appender);
+        root.setLevel(Level.INFO);
+        controllerLog = context.getLogger("com.pinapp.customerservice.controller.CustomerController");
+        serviceLog = context.getLogger("com.pinapp.customerservice.service.impl.CustomerServiceImpl");
+
+        customer = CustomerDto.builder()
+                .id(42L)
+                .firstName("John")
+                .lastName("Doe")
+                .age(30)
+                .dateOfBirth(LocalDate.of(1994, 1, 1))
+                .version(0L)
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.stop();
+        Files.deleteIfExists(logFile);
+    }
+
+    @Benchmark
+    public void previousCreateLogging() {
+        controllerLog.info("Received request to create customer: {}", customer);
+        serviceLog.info("Creating new customer: {}", customer);
+        serviceLog.info("Customer created successfully with ID: {}", customer.getId());
+    }
+
+    @Benchmark
+    public void createLogging() {
+        controllerLog.debug("Received request to create customer");
+        serviceLog.debug("Creating new customer");
+        serviceLog.atInfo().addKeyValue("customerId", customer.getId()).log("Customer created");
+    }
+
+    private Encoder<ILoggingEvent> encoder() {
+        if (appenders == Appenders.ASYNC_JSON) {
+            LogstashEncoder json = new LogstashEncoder();
+            json.setContext(context);
+            json.start();
+            return json;
+        }
+        PatternLayoutEncoder pattern = new PatternLayoutEncoder();
+        pattern.setContext(context);
+        pattern.setPattern(appenders == Appenders.SYNC_CALLER_DATA
+                ? "%d{ISO8601} %-5level [%t] %C{1}: %msg%n%throwable"
+                : "%d{ISO8601} %-5level [%t] %logger{0}: %msg %kvp%n%throwable");
+        pattern.start();
+        return pattern;
+    }
+}
@@ -0,0 +1,61 @@
+package com.pinapp.customerservice.columnstore;
+
+import com.pinapp.customerservice.dto.CustomerDetailDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scans behind the column store's metrics and analytics, and a 100-row listing page, over 1M and 10M
+ * customers. Names repeat every 5000 rows, so the dictionary stays small next to the 28 bytes per row
+ * the columns take on the heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CustomerColumnsBenchmark {
+
+    @Param({"1000000", "10000000"})
+    private int rows;
+
+    private CustomerColumns columns;
+    private LocalDate firstSignup;
+    private LocalDate lastSignup;
+
+    @Setup
+    public void setUp() {
+        columns = new CustomerColumns(rows, 1 << 20);
+        firstSignup = LocalDate.of(2020, 1, 1);
+        lastSignup = firstSignup.plusDays(1000);
+        for (int i = 0; i < rows; i++) {
+            int age = 18 + i % 70;
+            columns.put(i + 1, "First" + i % 5000, "Last" + i % 5000, age,
+                    LocalDate.of(2006 - age, 1, 1), firstSignup.plusDays(i % 1500));
+        }
+    }
+
+    @Benchmark
+    public long[] summarizeAges() {
+        return columns.summarizeAges();
+    }
+
+    @Benchmark
+    public long[] countByAge() {
+        return columns.countByAge();
+    }
+
+    @Benchmark
+    public CustomerColumns.DayCounts signupsOverThousandDays() {
+        return columns.countCreatedBetween(firstSignup, lastSignup);
+    }
+
+    @Benchmark
+    public List<CustomerDetailDto> pageInTheMiddle() {
+        return columns.page(rows / 2, 100);
+    }
+}
@@ -0,0 +1,74 @@
+package com.pinapp.customerservice.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes a customer listing the way the list endpoint does, into a stream that only counts
+ * bytes so the result is not dominated by buffer growth.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CustomerDetailDtoSerializationBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int rows;
+
+    private ObjectMapper objectMapper;
+    private List<CustomerDetailDto> customers;
+
+    @Setup
+    public void setUp() {
+        // Same defaults as the ObjectMapper Spring Boot configures for MVC
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        LocalDate today = LocalDate.now();
+        customers = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            int age = 18 + i % 70;
+            customers.add(CustomerDetailDto.builder()
+                    .id((long) i + 1)
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .age(age)
+                    .dateOfBirth(today.minusYears(age))
+                    .createdAt(today)
+                    .estimatedLifeExpectancy(today.plusYears(80 - age))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public long serializeList() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        objectMapper.writeValue(out, customers);
+        return out.count;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.pinapp.customerservice.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pinapp.customerservice.config.JacksonConfig;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encodes 10k customer details in each format the list endpoint can send: JSON or CBOR from the
+ * converters the application registers, each with and without the gzip Tomcat applies (default
+ * level). The time per page is the score; the bytes put on the wire are counted alongside it
+ * (see {@link EncodedSize}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerListingEncodingBenchmark {
+
+    static final int ROWS = 10_000;
+
+    public enum Encoding {
+        JSON,
+        JSON_GZIP,
+        CBOR,
+        CBOR_GZIP
+    }
+
+    @Param
+    public Encoding encoding;
+
+    private ObjectMapper objectMapper;
+    private List<CustomerDetailDto> customers;
+
+    @Setup
+    public void setUp() {
+        objectMapper = switch (encoding) {
+            case JSON, JSON_GZIP -> Jackson2ObjectMapperBuilder.json().build();
+            case CBOR, CBOR_GZIP -> new JacksonConfig()
+                    .cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json())
+                    .getObjectMapper();
+        };
+
+        LocalDate today = LocalDate.now();
+        customers = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            int age = 18 + i % 70;
+            customers.add(CustomerDetailDto.builder()
+                    .id((long) i + 1)
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .age(age)
+                    .dateOfBirth(today.minusYears(age))
+                    .createdAt(today)
+                    .estimatedLifeExpectancy(today.plusYears(80 - age))
+                    .build());
+        }
+    }
+
+    /**
+     * Counts what was written, reported next to the score as the secondary results
+     * {@code encodePage:encodedBytes} and {@code encodePage:encodedPages}. JMH sums event counters over the
+     * measurement iterations, so the size of one page is their ratio.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedSize {
+
+        public long encodedBytes;
+        public long encodedPages;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            encodedBytes = 0;
+            encodedPages = 0;
+        }
+    }
+
+    @Benchmark
+    public long encodePage(EncodedSize encodedSize) throws IOException {
+        CountingOutputStream counter = new CountingOutputStream();
+        if (encoding == Encoding.JSON_GZIP || encoding == Encoding.CBOR_GZIP) {
+            try (GZIPOutputStream gzip = new GZIPOutputStream(counter)) {
+                objectMapper.writeValue(gzip, customers);
+            }
+        } else {
+            objectMapper.writeValue(counter, customers);
+        }
+        encodedSize.encodedBytes += counter.count;
+        encodedSize.encodedPages++;
+        return counter.count;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.pinapp.customerservice.repository;
+
+import com.pinapp.customerservice.dto.CustomerDetailDto;
+import com.pinapp.customerservice.entity.Customer;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares loading a page of managed Customer entities and copying them into DTOs with projecting the
+ * page straight into DTOs. Run with {@code -prof gc} and compare {@code gc.alloc.rate.norm}, which is
+ * bytes per page of {@link #PAGE_SIZE} rows. Uses an in-memory H2 database, so the numbers isolate
+ * Hibernate's per-row cost rather than network or PostgreSQL time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerReadPathBenchmark {
+
+    static final int PAGE_SIZE = 100;
+
+    private SessionFactory sessionFactory;
+
+    @Setup
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Customer.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:read-path;DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.connection.username", "sa")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setProperty("hibernate.jdbc.batch_size", "50")
+                .buildSessionFactory();
+
+        sessionFactory.inTransaction(session -> {
+            for (int i = 0; i < 1_000; i++) {
+                session.persist(Customer.builder()
+                        .firstName("First" + i)
+                        .lastName("Last" + i)
+                        .age(20 + i % 60)
+                        .dateOfBirth(LocalDate.of(1960 + i % 60, 1, 1))
+                        .build());
+            }
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    /**
+     * The previous read path: managed entities in a read-write session, then a copy per row.
+     */
+    @Benchmark
+    public List<CustomerDetailDto> entityPage() {
+        return sessionFactory.fromTransaction(session -> toDetails(loadEntities(session)));
+    }
+
+    /**
+     * Entities in a read-only session with flush mode MANUAL, as Spring sets up for readOnly transactions.
+     */
+    @Benchmark
+    public List<CustomerDetailDto> readOnlyEntityPage() {
+        return sessionFactory.fromTransaction(session -> {
+            session.setDefaultReadOnly(true);
+            session.setHibernateFlushMode(FlushMode.MANUAL);
+            return toDetails(loadEntities(session));
+        });
+    }
+
+    /**
+     * The constructor expression used by {@link CustomerRepository#findDetailsByIdGreaterThan}.
+     */
+    @Benchmark
+    public List<CustomerDetailDto> projectionPage() {
+        return sessionFactory.fromTransaction(session -> {
+            session.setDefaultReadOnly(true);
+            session.setHibernateFlushMode(FlushMode.MANUAL);
+            return session.createQuery("SELECT " + CustomerRepository.CUSTOMER_DETAIL_DTO
+                            + " FROM Customer c WHERE c.id > :id ORDER BY c.id", CustomerDetailDto.class)
+                    .setParameter("id", 0L)
+                    .setMaxResults(PAGE_SIZE)
+                    .getResultList();
+        });
+    }
+
+    private List<Customer> loadEntities(Session session) {
+        return session.createQuery("SELECT c FROM Customer c WHERE c.id > :id ORDER BY c.id", Customer.class)
+                .setParameter("id", 0L)
+                .setMaxResults(PAGE_SIZE)
+                .getResultList();
+    }
+
+    private List<CustomerDetailDto> toDetails(List<Customer> customers) {
+        List<CustomerDetailDto> details = new ArrayList<>(customers.size());
+        for (Customer customer : customers) {
+            details.add(new CustomerDetailDto(customer.getId(), customer.getFirstName(), customer.getLastName(),
+                    customer.getAge(), customer.getDateOfBirth(), customer.getCreatedAt()));
+        }
+        return details;
+    }
+}
@@ -0,0 +1,50 @@
+package com.pinapp.customerservice.service.impl;
+
+import com.pinapp.customerservice.dto.CustomerDetailDto;
+import com.pinapp.customerservice.dto.CustomerDto;
+import com.pinapp.customerservice.entity.Customer;
+import com.pinapp.customerservice.util.LifeExpectancyCalculator;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerMappingBenchmark {
+
+    private LifeExpectancyCalculator lifeExpectancyCalculator;
+    private Customer customer;
+
+    @Setup
+    public void setUp() {
+        lifeExpectancyCalculator = new LifeExpectancyCalculator();
+        customer = Customer.builder()
+                .id(1L)
+                .firstName("John")
+                .lastName("Doe")
+                .age(30)
+                .dateOfBirth(LocalDate.of(1993, 1, 1))
+                .createdAt(LocalDate.now())
+                .build();
+    }
+
+    @Benchmark
+    public CustomerDto mapToDto() {
+        return CustomerServiceImpl.mapToDto(customer);
+    }
+
+    @Benchmark
+    public CustomerDetailDto fillLifeExpectancy() {
+        CustomerDetailDto detail = new CustomerDetailDto(customer.getId(), customer.getFirstName(),
+                customer.getLastName(), customer.getAge(), customer.getDateOfBirth(), customer.getCreatedAt());
+        // Includes the per-page table lookup, as the service does
+        CustomerServiceImpl.fillLifeExpectancy(lifeExpectancyCalculator.currentTable(), List.of(detail));
+        return detail;
+    }
+}
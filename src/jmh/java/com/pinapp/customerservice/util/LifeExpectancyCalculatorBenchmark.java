@@ -0,0 +1,55 @@
+package com.pinapp.customerservice.util;
+
+import com.pinapp.customerservice.entity.Customer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LifeExpectancyCalculatorBenchmark {
+
+    private LifeExpectancyCalculator calculator;
+    private Customer customer;
+    private int[] ages;
+
+    @Setup
+    public void setUp() {
+        calculator = new LifeExpectancyCalculator();
+        customer = Customer.builder()
+                .id(1L)
+                .firstName("John")
+                .lastName("Doe")
+                .age(30)
+                .dateOfBirth(LocalDate.of(1993, 1, 1))
+                .build();
+        ages = new int[10_000];
+        for (int i = 0; i < ages.length; i++) {
+            ages[i] = 18 + i % 80;
+        }
+    }
+
+    @Benchmark
+    public LocalDate calculateLifeExpectancy() {
+        return calculator.calculateLifeExpectancy(customer);
+    }
+
+    // A 10k-row listing computed one row at a time, as a per-row mapper would
+    @Benchmark
+    public void calculateLifeExpectancyPerRow(Blackhole blackhole) {
+        for (int age : ages) {
+            blackhole.consume(calculator.calculateLifeExpectancy(age));
+        }
+    }
+
+    @Benchmark
+    public long[] calculateLifeExpectancyBatch() {
+        return calculator.calculateLifeExpectancyEpochDays(ages);
+    }
+}
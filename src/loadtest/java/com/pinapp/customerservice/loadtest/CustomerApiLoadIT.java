@@ -0,0 +1,233 @@
+package com.pinapp.customerservice.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.boot.web.reactive.context.ReactiveWebApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Boots the whole service against throwaway PostgreSQL and RabbitMQ containers, drives a weighted
+ * request mix from a fixed number of concurrent users and checks the latency SLOs. Reports land in
+ * {@code target/load-test/<stack>/report.{json,md}}, where stack is {@code platform}, {@code virtual}
+ * when run with the virtual-threads profile on Java 21, or {@code reactive} with the reactive profile.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.com.pinapp.customerservice=INFO",
+        "management.tracing.sampling.probability=0.0",
+        // Tokens are signed with HS512, which needs at least 512 bits; the development default is shorter
+        "security.jwt.secret=load-test-jwt-secret-0123456789abcdef0123456789abcdef0123456789abcdef"
+})
+@Testcontainers
+@Slf4j
+public class CustomerApiLoadIT {
+
+    private static final int SEED_CUSTOMERS = 1000;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Container
+    @ServiceConnection
+    static RabbitMQContainer rabbitmq = new RabbitMQContainer("rabbitmq:3-management-alpine");
+
+    @DynamicPropertySource
+    static void r2dbcProperties(DynamicPropertyRegistry registry) {
+        // Only read by the reactive profile; the service connection covers JDBC
+        registry.add("spring.r2dbc.url", () -> "r2dbc:postgresql://" + postgres.getHost() + ":"
+                + postgres.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT) + "/" + postgres.getDatabaseName());
+        registry.add("spring.r2dbc.username", postgres::getUsername);
+        registry.add("spring.r2dbc.password", postgres::getPassword);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final List<Long> customerIds = new CopyOnWriteArrayList<>();
+    private String token;
+
+    @Test
+    void customerApi_ShouldMeetLatencySlosUnderLoad() throws Exception {
+        int users = Integer.getInteger("loadtest.users", 32);
+        Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT15S"));
+        Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT60S"));
+        Path reportDir = Path.of(System.getProperty("loadtest.report-dir", "target/load-test"));
+
+        token = login();
+        seedCustomers();
+
+        run(users, warmup, new LatencyRecorder());
+        // Only the measured phase should show up in the server-side histograms
+        meterRegistry.find("http.server.requests").timers().forEach(meterRegistry::remove);
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        ResourceSampler sampler = new ResourceSampler();
+        try (sampler) {
+            run(users, duration, recorder);
+        }
+
+        String stack = stack();
+        LoadTestReport report = LoadTestReport.of(recorder, duration, users, stack, sampler.usage(), meterRegistry);
+        report.write(reportDir.resolve(stack));
+        log.info("Load test report:\n{}", report.toMarkdown());
+
+        assertTrue(report.passed(), () -> "SLO violations: " + report.violations());
+    }
+
+    private void run(int users, Duration duration, LatencyRecorder recorder) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(users);
+        for (int i = 0; i < users; i++) {
+            executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    LoadOperation operation = LoadOperation.pick(random.nextInt(LoadOperation.totalWeight()));
+                    long start = System.nanoTime();
+                    boolean success;
+                    try {
+                        success = execute(operation, random);
+                    } catch (IOException e) {
+                        success = false;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    recorder.record(operation, System.nanoTime() - start, success);
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS);
+    }
+
+    private boolean execute(LoadOperation operation, ThreadLocalRandom random) throws IOException, InterruptedException {
+        return switch (operation) {
+            case GET_CUSTOMER -> send(get("/api/customers/" + customerIds.get(random.nextInt(customerIds.size())))).statusCode() == 200;
+            case LIST_CUSTOMERS -> send(get("/api/customers?limit=50&after="
+                    + customerIds.get(random.nextInt(customerIds.size())))).statusCode() == 200;
+            case METRICS -> send(get("/api/customers/metrics")).statusCode() == 200;
+            case CREATE_CUSTOMER -> createCustomer(random);
+            case LOGIN -> send(loginRequest()).statusCode() == 200;
+        };
+    }
+
+    private boolean createCustomer(ThreadLocalRandom random) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(authorized("/api/customers")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(customerJson(random)))
+                .build());
+        if (response.statusCode() != 201 && response.statusCode() != 200) {
+            return false;
+        }
+        customerIds.add(objectMapper.readTree(response.body()).get("id").asLong());
+        return true;
+    }
+
+    private void seedCustomers() throws IOException, InterruptedException {
+        StringBuilder ndjson = new StringBuilder();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < SEED_CUSTOMERS; i++) {
+            ndjson.append(customerJson(random)).append('\n');
+        }
+        HttpResponse<String> response = send(authorized("/api/customers/batch")
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(ndjson.toString()))
+                .build());
+        for (JsonNode result : objectMapper.readTree(response.body()).get("results")) {
+            if (result.hasNonNull("id")) {
+                customerIds.add(result.get("id").asLong());
+            }
+        }
+        assertTrue(customerIds.size() == SEED_CUSTOMERS, () -> "Seeding failed: " + response.body());
+    }
+
+    private String stack() {
+        if (applicationContext instanceof ReactiveWebApplicationContext) {
+            return "reactive";
+        }
+        return Threading.VIRTUAL.isActive(environment) ? "virtual" : "platform";
+    }
+
+    private String login() throws IOException, InterruptedException {
+        HttpResponse<String> response = send(loginRequest());
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    private HttpRequest loginRequest() {
+        return HttpRequest.newBuilder(uri("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"admin\",\"password\":\"admin\"}"))
+                .build();
+    }
+
+    private HttpRequest get(String path) {
+        return authorized(path).GET().build();
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        return HttpRequest.newBuilder(uri(path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + token);
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private String customerJson(ThreadLocalRandom random) {
+        int age = 18 + random.nextInt(70);
+        LocalDate dateOfBirth = LocalDate.now().minusYears(age).minusDays(random.nextInt(365));
+        return String.format("{\"firstName\":\"Load%d\",\"lastName\":\"Test%d\",\"age\":%d,\"dateOfBirth\":\"%s\"}",
+                random.nextInt(1_000_000), random.nextInt(1_000_000), age, dateOfBirth);
+    }
+}
@@ -0,0 +1,44 @@
+package com.pinapp.customerservice.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Client-side latency per operation, recorded in microseconds from 1 µs to 60 s at three
+ * significant digits.
+ */
+class LatencyRecorder {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+    private final Map<LoadOperation, Histogram> latencies = new EnumMap<>(LoadOperation.class);
+    private final Map<LoadOperation, AtomicLong> errors = new EnumMap<>(LoadOperation.class);
+
+    LatencyRecorder() {
+        for (LoadOperation operation : LoadOperation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(MAX_LATENCY_MICROS, 3));
+            errors.put(operation, new AtomicLong());
+        }
+    }
+
+    void record(LoadOperation operation, long elapsedNanos, boolean success) {
+        long micros = Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), 1L), MAX_LATENCY_MICROS);
+        latencies.get(operation).recordValue(micros);
+        if (!success) {
+            errors.get(operation).incrementAndGet();
+        }
+    }
+
+    Histogram latencies(LoadOperation operation) {
+        return latencies.get(operation);
+    }
+
+    long errors(LoadOperation operation) {
+        return errors.get(operation).get();
+    }
+}
@@ -0,0 +1,52 @@
+package com.pinapp.customerservice.loadtest;
+
+/**
+ * The requests in the load mix, weighted roughly like production traffic: mostly reads, a steady
+ * trickle of signups and an occasional login.
+ */
+enum LoadOperation {
+
+    GET_CUSTOMER("GET /api/customers/{id}", 50, true),
+    LIST_CUSTOMERS("GET /api/customers", 20, true),
+    CREATE_CUSTOMER("POST /api/customers", 15, true),
+    METRICS("GET /api/customers/metrics", 10, true),
+    // BCrypt makes login deliberately slow, so it is reported but not held to the latency SLOs
+    LOGIN("POST /api/auth/login", 5, false);
+
+    private final String label;
+    private final int weight;
+    private final boolean sloChecked;
+
+    LoadOperation(String label, int weight, boolean sloChecked) {
+        this.label = label;
+        this.weight = weight;
+        this.sloChecked = sloChecked;
+    }
+
+    String label() {
+        return label;
+    }
+
+    boolean sloChecked() {
+        return sloChecked;
+    }
+
+    static LoadOperation pick(int roll) {
+        int remaining = roll;
+        for (LoadOperation operation : values()) {
+            remaining -= operation.weight;
+            if (remaining < 0) {
+                return operation;
+            }
+        }
+        return GET_CUSTOMER;
+    }
+
+    static int totalWeight() {
+        int total = 0;
+        for (LoadOperation operation : values()) {
+            total += operation.weight;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,199 @@
+package com.pinapp.customerservice.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency and throughput of one load-test run, checked against the SLOs. The p50/p95/p99 targets
+ * are the 50/100/200 ms {@code http.server.requests} SLO buckets from application.yml; the server
+ * section reports, per URI, the share of requests the application itself counted into each bucket.
+ * Each run also records the stack it ran on and its heap, thread and CPU usage, so runs of the
+ * platform-thread, virtual-thread and reactive stacks can be compared side by side.
+ */
+class LoadTestReport {
+
+    static final Duration SLO_P50 = Duration.ofMillis(50);
+    static final Duration SLO_P95 = Duration.ofMillis(100);
+    static final Duration SLO_P99 = Duration.ofMillis(200);
+    static final double MAX_ERROR_RATE = 0.01;
+
+    private static final double[] SERVER_SLO_BUCKETS_MS = {50, 100, 200};
+
+    record OperationResult(String operation, long requests, long errors, double throughputPerSecond,
+                           double p50Ms, double p95Ms, double p99Ms, double maxMs, boolean sloChecked,
+                           List<String> violations) {
+    }
+
+    record ServerResult(String method, String uri, String status, long requests, Map<String, Double> shareWithinMs) {
+    }
+
+    record Summary(Instant finishedAt, String stack, int users, long durationSeconds, long requests,
+                   double throughputPerSecond, boolean passed, ResourceSampler.Usage resources,
+                   List<OperationResult> operations, List<ServerResult> server) {
+    }
+
+    private final Summary summary;
+
+    private LoadTestReport(Summary summary) {
+        this.summary = summary;
+    }
+
+    static LoadTestReport of(LatencyRecorder recorder, Duration duration, int users, String stack,
+                             ResourceSampler.Usage resources, MeterRegistry meterRegistry) {
+        double seconds = duration.toMillis() / 1000.0;
+        List<OperationResult> operations = new ArrayList<>();
+        long totalRequests = 0;
+
+        for (LoadOperation operation : LoadOperation.values()) {
+            Histogram histogram = recorder.latencies(operation);
+            long requests = histogram.getTotalCount();
+            long errors = recorder.errors(operation);
+            totalRequests += requests;
+
+            double p50 = percentileMs(histogram, 50);
+            double p95 = percentileMs(histogram, 95);
+            double p99 = percentileMs(histogram, 99);
+            List<String> violations = new ArrayList<>();
+            if (requests > 0 && (double) errors / requests > MAX_ERROR_RATE) {
+                violations.add(String.format("error rate %.2f%% > %.0f%%", 100.0 * errors / requests, 100 * MAX_ERROR_RATE));
+            }
+            if (operation.sloChecked()) {
+                checkLatency(violations, "p50", p50, SLO_P50);
+                checkLatency(violations, "p95", p95, SLO_P95);
+                checkLatency(violations, "p99", p99, SLO_P99);
+            }
+
+            operations.add(new OperationResult(operation.label(), requests, errors, requests / seconds,
+                    p50, p95, p99, histogram.getMaxValue() / 1000.0, operation.sloChecked(), violations));
+        }
+
+        boolean passed = operations.stream().allMatch(result -> result.violations().isEmpty());
+        return new LoadTestReport(new Summary(Instant.now(), stack, users, duration.toSeconds(), totalRequests,
+                totalRequests / seconds, passed, resources, operations, serverResults(meterRegistry)));
+    }
+
+    boolean passed() {
+        return summary.passed();
+    }
+
+    List<String> violations() {
+        List<String> violations = new ArrayList<>();
+        summary.operations().forEach(result ->
+                result.violations().forEach(violation -> violations.add(result.operation() + ": " + violation)));
+        return violations;
+    }
+
+    void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .writerWithDefaultPrettyPrinter()
+                .writeValue(directory.resolve("report.json").toFile(), summary);
+        Files.writeString(directory.resolve("report.md"), toMarkdown());
+    }
+
+    String toMarkdown() {
+        StringBuilder md = new StringBuilder();
+        md.append("# Load test report\n\n")
+                .append(String.format("%d users for %d s, %d requests, %.1f req/s. SLOs: p50 <= %d ms, "
+                                + "p95 <= %d ms, p99 <= %d ms, errors <= %.0f%%. **%s**%n%n",
+                        summary.users(), summary.durationSeconds(), summary.requests(), summary.throughputPerSecond(),
+                        SLO_P50.toMillis(), SLO_P95.toMillis(), SLO_P99.toMillis(), 100 * MAX_ERROR_RATE,
+                        summary.passed() ? "PASSED" : "FAILED"))
+                .append(String.format("Stack: %s. Heap used: peak %.0f MB, mean %.0f MB. Peak platform threads: %d. "
+                                + "GC: %d ms. CPU: %.1f s (%.2f ms per request).%n%n",
+                        summary.stack(), summary.resources().peakHeapMb(), summary.resources().meanHeapMb(),
+                        summary.resources().peakThreads(), summary.resources().gcPauseMs(),
+                        summary.resources().cpuSeconds(),
+                        summary.requests() == 0 ? 0 : 1000 * summary.resources().cpuSeconds() / summary.requests()))
+                .append("| Operation | Requests | Errors | req/s | p50 ms | p95 ms | p99 ms | max ms | SLO |\n")
+                .append("|---|---:|---:|---:|---:|---:|---:|---:|---|\n");
+        for (OperationResult result : summary.operations()) {
+            String slo = !result.sloChecked() ? "not checked"
+                    : result.violations().isEmpty() ? "ok" : String.join("; ", result.violations());
+            md.append(String.format("| %s | %d | %d | %.1f | %.1f | %.1f | %.1f | %.1f | %s |%n",
+                    result.operation(), result.requests(), result.errors(), result.throughputPerSecond(),
+                    result.p50Ms(), result.p95Ms(), result.p99Ms(), result.maxMs(), slo));
+        }
+
+        md.append("\n## Server-side `http.server.requests`\n\n")
+                .append("| Request | Status | Count | <= 50 ms | <= 100 ms | <= 200 ms |\n")
+                .append("|---|---|---:|---:|---:|---:|\n");
+        for (ServerResult result : summary.server()) {
+            md.append(String.format("| %s %s | %s | %d",
+                    result.method(), result.uri(), result.status(), result.requests()));
+            for (double bucket : SERVER_SLO_BUCKETS_MS) {
+                Double share = result.shareWithinMs().get(bucketKey(bucket));
+                md.append(share != null ? String.format(" | %.1f%%", 100 * share) : " | -");
+            }
+            md.append(" |\n");
+        }
+        return md.toString();
+    }
+
+    private static void checkLatency(List<String> violations, String percentile, double actualMs, Duration slo) {
+        if (actualMs > slo.toMillis()) {
+            violations.add(String.format("%s %.1f ms > %d ms", percentile, actualMs, slo.toMillis()));
+        }
+    }
+
+    private static double percentileMs(Histogram histogram, double percentile) {
+        return histogram.getTotalCount() == 0 ? 0 : histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static List<ServerResult> serverResults(MeterRegistry meterRegistry) {
+        // WebFlux splits a request's timings across outcomes (a response finished just before a cancel
+        // signal is tagged UNKNOWN), so timers are merged per method, URI and status
+        Map<List<String>, Long> counts = new LinkedHashMap<>();
+        Map<List<String>, Map<String, Double>> bucketCounts = new LinkedHashMap<>();
+        for (Timer timer : meterRegistry.find("http.server.requests").timers()) {
+            if (timer.count() == 0) {
+                continue;
+            }
+            List<String> key = List.of(timer.getId().getTag("method"), timer.getId().getTag("uri"),
+                    timer.getId().getTag("status"));
+            counts.merge(key, timer.count(), Long::sum);
+            Map<String, Double> buckets = bucketCounts.computeIfAbsent(key, ignored -> new LinkedHashMap<>());
+            for (CountAtBucket bucket : timer.takeSnapshot().histogramCounts()) {
+                double bucketMs = bucket.bucket(TimeUnit.MILLISECONDS);
+                for (double slo : SERVER_SLO_BUCKETS_MS) {
+                    if (Math.abs(bucketMs - slo) < 0.001) {
+                        buckets.merge(bucketKey(slo), bucket.count(), Double::sum);
+                    }
+                }
+            }
+        }
+
+        List<ServerResult> results = new ArrayList<>();
+        counts.forEach((key, count) -> {
+            Map<String, Double> shares = new LinkedHashMap<>();
+            bucketCounts.get(key).forEach((bucket, bucketCount) -> shares.put(bucket, bucketCount / count));
+            results.add(new ServerResult(key.get(0), key.get(1), key.get(2), count, shares));
+        });
+        results.sort(Comparator.comparing(ServerResult::uri)
+                .thenComparing(ServerResult::method)
+                .thenComparing(ServerResult::status));
+        return results;
+    }
+
+    private static String bucketKey(double bucketMs) {
+        return String.valueOf((long) bucketMs);
+    }
+}
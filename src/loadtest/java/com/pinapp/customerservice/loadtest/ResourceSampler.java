@@ -0,0 +1,82 @@
+package com.pinapp.customerservice.loadtest;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+
+/**
+ * Samples the JVM's heap and platform threads while a load-test phase runs, so the platform-thread and
+ * virtual-thread stacks can be compared on memory as well as throughput. The load generator shares the
+ * JVM, so its {@code users} threads and their share of the heap are included in every run alike.
+ */
+class ResourceSampler implements AutoCloseable {
+
+    private static final Duration INTERVAL = Duration.ofMillis(100);
+
+    record Usage(double peakHeapMb, double meanHeapMb, int peakThreads, long gcPauseMs, double cpuSeconds) {
+    }
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final Thread sampler;
+    private final long gcMillisAtStart;
+    private final long cpuNanosAtStart;
+
+    private volatile boolean running = true;
+    // Sampler thread only until close() has joined it
+    private long peakHeapBytes;
+    private double heapBytesSum;
+    private long samples;
+    private Usage usage;
+
+    ResourceSampler() {
+        threads.resetPeakThreadCount();
+        gcMillisAtStart = gcMillis();
+        cpuNanosAtStart = cpuNanos();
+        sampler = new Thread(this::sample, "load-test-resource-sampler");
+        sampler.setDaemon(true);
+        sampler.start();
+    }
+
+    // Available once closed
+    Usage usage() {
+        return usage;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        sampler.interrupt();
+        sampler.join();
+        usage = new Usage(peakHeapBytes / 1_048_576.0, samples == 0 ? 0 : heapBytesSum / samples / 1_048_576.0,
+                threads.getPeakThreadCount(), gcMillis() - gcMillisAtStart, (cpuNanos() - cpuNanosAtStart) / 1e9);
+    }
+
+    private void sample() {
+        while (running) {
+            long used = memory.getHeapMemoryUsage().getUsed();
+            peakHeapBytes = Math.max(peakHeapBytes, used);
+            heapBytesSum += used;
+            samples++;
+            try {
+                Thread.sleep(INTERVAL.toMillis());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private static long gcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+                .filter(time -> time > 0)
+                .sum();
+    }
+
+    private static long cpuNanos() {
+        return ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os
+                ? os.getProcessCpuTime() : 0;
+    }
+}
@@ -0,0 +1,236 @@
+package com.pinapp.customerservice.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+import com.pinapp.customerservice.dto.CustomerDto;
+import com.pinapp.customerservice.event.CustomerChangedEvent;
+import com.pinapp.customerservice.event.CustomerInvalidatedEvent;
+import com.pinapp.customerservice.metrics.BusinessMetricsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of customers keyed by ID. Misses are cached as well (as an empty
+ * {@link Optional}) with a shorter TTL, so repeated lookups of unknown IDs do not reach the database.
+ * Cached DTOs are shared between callers and must be treated as read-only.
+ * <p>
+ * Each committed change, local or reported by another instance, also leaves a version floor for the ID:
+ * a load that returns an older version (a lagging replica, or invalidations arriving out of order) is
+ * returned to its caller but not cached.
+ */
+@Component
+@Slf4j
+public class CustomerCache {
+
+    private final AsyncCache<Long, Optional<CustomerDto>> cache;
+    private final Cache<Long, Long> versionFloors;
+    private final RequestCoalescer requestCoalescer;
+
+    public CustomerCache(BusinessMetricsService metricsService,
+                         RequestCoalescer requestCoalescer,
+                         @Value("${customer.cache.maximum-size:10000}") long maximumSize,
+                         @Value("${customer.cache.ttl:PT5M}") Duration ttl,
+                         @Value("${customer.cache.negative-ttl:PT30S}") Duration negativeTtl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new CustomerExpiry(ttl.toNanos(), negativeTtl.toNanos()))
+                .recordStats(() -> new MetricsStatsCounter(metricsService))
+                .buildAsync();
+        // Kept as long as a cached entry, which is longer than any replica lag worth tolerating
+        this.versionFloors = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.requestCoalescer = requestCoalescer;
+    }
+
+    /**
+     * Returns the cached lookup result for the given ID, invoking the loader on a miss. Concurrent
+     * callers for the same ID wait for a single load, for at most the {@link RequestCoalescer} wait.
+     * <p>
+     * The loader runs on the calling thread after an in-flight placeholder has been published,
+     * not inside the map's compute lock, so a database round-trip never holds a monitor (which
+     * would pin the carrier of a virtual thread). An invalidation during the load discards the
+     * placeholder, so the possibly stale result is returned to this caller but not cached.
+     */
+    public Optional<CustomerDto> get(Long id, Function<Long, Optional<CustomerDto>> loader) {
+        CompletableFuture<Optional<CustomerDto>> cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return cached.isDone() ? cached.join() : awaitLoad(id, cached, loader);
+        }
+
+        CompletableFuture<Optional<CustomerDto>> loading = new CompletableFuture<>();
+        CompletableFuture<Optional<CustomerDto>> inFlight = cache.asMap().putIfAbsent(id, loading);
+        if (inFlight != null) {
+            return awaitLoad(id, inFlight, loader);
+        }
+        try {
+            Optional<CustomerDto> loaded = loader.apply(id);
+            if (isOlderThanFloor(id, loaded)) {
+                cache.asMap().remove(id, loading);
+            }
+            loading.complete(loaded);
+        } catch (RuntimeException | Error e) {
+            // Failed futures are removed by the cache, so the next caller retries the load
+            loading.completeExceptionally(e);
+            throw e;
+        }
+        return loading.join();
+    }
+
+    /**
+     * Non-blocking form of {@link #get} for the reactive API. Callers arriving during a load are handed the
+     * in-flight future instead of waiting on a thread, so no {@link RequestCoalescer} wait applies; the loaded
+     * result is cached under the same version floors. The returned future is shared and must not be completed
+     * or cancelled by the caller.
+     */
+    public CompletableFuture<Optional<CustomerDto>> getAsync(
+            Long id, Function<Long, CompletableFuture<Optional<CustomerDto>>> loader) {
+        CompletableFuture<Optional<CustomerDto>> cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<Optional<CustomerDto>> loading = new CompletableFuture<>();
+        CompletableFuture<Optional<CustomerDto>> inFlight = cache.asMap().putIfAbsent(id, loading);
+        if (inFlight != null) {
+            return inFlight;
+        }
+        try {
+            loader.apply(id).whenComplete((loaded, failure) -> {
+                if (failure != null) {
+                    loading.completeExceptionally(failure);
+                    return;
+                }
+                if (isOlderThanFloor(id, loaded)) {
+                    cache.asMap().remove(id, loading);
+                }
+                loading.complete(loaded);
+            });
+        } catch (RuntimeException e) {
+            loading.completeExceptionally(e);
+        }
+        return loading;
+    }
+
+    public void invalidate(Long id) {
+        cache.synchronous().invalidate(id);
+    }
+
+    /**
+     * Invalidates the entry and stops versions older than the given one from being cached again. Floors
+     * only ever rise, so a late invalidation for an older version cannot lower them.
+     */
+    public void invalidate(Long id, long version) {
+        versionFloors.asMap().merge(id, version, Math::max);
+        invalidate(id);
+    }
+
+    public long size() {
+        cache.synchronous().cleanUp();
+        return cache.synchronous().estimatedSize();
+    }
+
+    /**
+     * Invalidates only once the change is committed, so a concurrent reader cannot repopulate
+     * the entry with the pre-commit row.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        log.debug("Invalidating cached customer {} after {}", event.getCustomerId(), event.getType());
+        switch (event.getType()) {
+            // Only a negative entry can exist for a new ID, and any load after the commit may replace it
+            case CREATED -> invalidate(event.getCustomerId());
+            case UPDATED -> invalidate(event.getCustomerId(), event.getCustomer().getVersion());
+            case DELETED -> invalidate(event.getCustomerId(), CustomerInvalidatedEvent.DELETED_VERSION);
+        }
+    }
+
+    @EventListener
+    public void onCustomerInvalidated(CustomerInvalidatedEvent event) {
+        log.debug("Invalidating cached customer {} at version {} changed on another instance",
+                event.getCustomerId(), event.getVersion());
+        invalidate(event.getCustomerId(), event.getVersion());
+    }
+
+    // A load that outlasts the wait is repeated here but not cached; the slow one still is, if current
+    private Optional<CustomerDto> awaitLoad(Long id, CompletableFuture<Optional<CustomerDto>> inFlight,
+                                            Function<Long, Optional<CustomerDto>> loader) {
+        return requestCoalescer.await("customer", inFlight, () -> loader.apply(id));
+    }
+
+    // Absence is only current once the customer is known to be deleted
+    private boolean isOlderThanFloor(Long id, Optional<CustomerDto> loaded) {
+        Long floor = versionFloors.getIfPresent(id);
+        if (floor == null) {
+            return false;
+        }
+        return loaded.map(customer -> customer.getVersion() == null || customer.getVersion() < floor)
+                .orElse(floor != CustomerInvalidatedEvent.DELETED_VERSION);
+    }
+
+    private record CustomerExpiry(long ttlNanos, long negativeTtlNanos) implements Expiry<Long, Optional<CustomerDto>> {
+
+        @Override
+        public long expireAfterCreate(Long key, Optional<CustomerDto> value, long currentTime) {
+            return value.isPresent() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Long key, Optional<CustomerDto> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long key, Optional<CustomerDto> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * Forwards cache statistics to the business meters instead of keeping a separate snapshot.
+     */
+    private record MetricsStatsCounter(BusinessMetricsService metricsService) implements StatsCounter {
+
+        @Override
+        public void recordHits(int count) {
+            metricsService.recordCustomerCacheHits(count);
+        }
+
+        @Override
+        public void recordMisses(int count) {
+            metricsService.recordCustomerCacheMisses(count);
+        }
+
+        @Override
+        public void recordLoadSuccess(long loadTime) {
+        }
+
+        @Override
+        public void recordLoadFailure(long loadTime) {
+        }
+
+        @Override
+        public void recordEviction(int weight, RemovalCause cause) {
+            metricsService.recordCustomerCacheEviction(cause.name());
+        }
+
+        @Override
+        public CacheStats snapshot() {
+            return CacheStats.empty();
+        }
+    }
+}
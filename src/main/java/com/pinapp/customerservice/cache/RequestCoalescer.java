@@ -0,0 +1,127 @@
+package com.pinapp.customerservice.cache;
+
+import com.pinapp.customerservice.event.CustomerChangedEvent;
+import com.pinapp.customerservice.event.CustomerInvalidatedEvent;
+import com.pinapp.customerservice.metrics.BusinessMetricsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for identical concurrent reads: the first caller for an operation and key runs the call,
+ * and callers arriving while it is in flight share its result, so a burst of identical requests costs one
+ * database round-trip. Nothing is kept once the flight lands; results are shared between callers and must
+ * be treated as read-only.
+ * <p>
+ * The leader publishes a future and runs the call on its own thread, outside any lock. Followers wait at
+ * most {@code customer.coalescing.max-wait} and then run the call themselves, so a slow leader delays them
+ * but cannot hang them. Inside a read-only transaction a follower waits without holding a connection, as
+ * the connection is only fetched for the first statement.
+ */
+@Component
+@Slf4j
+public class RequestCoalescer {
+
+    private final ConcurrentMap<Flight, CompletableFuture<Object>> flights = new ConcurrentHashMap<>();
+    private final BusinessMetricsService metricsService;
+    private final long maxWaitNanos;
+
+    public RequestCoalescer(BusinessMetricsService metricsService,
+                            @Value("${customer.coalescing.max-wait:PT2S}") Duration maxWait) {
+        this.metricsService = metricsService;
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    public <T> T execute(String operation, Supplier<T> call) {
+        return execute(operation, null, call);
+    }
+
+    /**
+     * Runs the call, or joins the identical one already in flight. The key must have value equality, such
+     * as a list of the call's arguments.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, Object key, Supplier<T> call) {
+        Flight flight = new Flight(operation, key);
+        CompletableFuture<Object> leading = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = flights.putIfAbsent(flight, leading);
+        if (inFlight != null) {
+            return (T) await(operation, inFlight, call);
+        }
+
+        try {
+            T result = call.get();
+            leading.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            leading.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(flight, leading);
+        }
+    }
+
+    /**
+     * Waits for a call another thread has in flight, falling back to running it here once the wait is
+     * exceeded. A failure of the in-flight call is rethrown, as this caller would have run the same query.
+     */
+    <T> T await(String operation, CompletableFuture<? extends T> inFlight, Supplier<? extends T> fallback) {
+        metricsService.recordCoalescedRequest(operation);
+        try {
+            return inFlight.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            metricsService.recordCoalescingTimeout(operation);
+            log.debug("Gave up waiting for in-flight {} call, running it separately", operation);
+            return fallback.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("In-flight " + operation + " call failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for in-flight " + operation + " call", e);
+        }
+    }
+
+    /**
+     * Once a change commits, callers arriving afterwards start a new flight instead of joining a read that
+     * began before the commit and may not see it. Callers already waiting keep the earlier result. Flights
+     * that read another single customer are unaffected and keep coalescing.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        land(event.getCustomerId());
+    }
+
+    @EventListener
+    public void onCustomerInvalidated(CustomerInvalidatedEvent event) {
+        land(event.getCustomerId());
+    }
+
+    private void land(Long customerId) {
+        flights.keySet().removeIf(flight -> flight.reads(customerId));
+    }
+
+    private record Flight(String operation, Object key) {
+
+        /**
+         * A flight keyed by a bare customer ID reads only that customer; any other flight, such as a listing,
+         * search, metrics or analytics call, may read every customer.
+         */
+        boolean reads(Long customerId) {
+            return !(key instanceof Long id) || id.equals(customerId);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.pinapp.customerservice.changefeed;
+
+import com.pinapp.customerservice.config.ChangeFeedConfig;
+import com.pinapp.customerservice.dto.CustomerChangeDto;
+import com.pinapp.customerservice.exception.CustomerException;
+import com.pinapp.customerservice.metrics.BusinessMetricsService;
+import com.pinapp.customerservice.repository.CustomerChangeRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams the customer change log to subscribers in sequence order. A subscriber starts after a sequence
+ * (the last event it saw, or the current end of the log), catches up by paging the log, then switches to
+ * live delivery from a poller that reads new changes once for all subscribers.
+ * <p>
+ * Each subscriber has its own sender thread and bounded buffer (see {@link CustomerChangeSubscription}).
+ * Reads use the replica when one is configured: replicas apply commits in order, so a lagging replica
+ * delays events but never skips one.
+ */
+@Component
+@Slf4j
+public class CustomerChangeFeed {
+
+    static final int PAGE_SIZE = 500;
+
+    private final CustomerChangeRepository changeRepository;
+    private final BusinessMetricsService metricsService;
+    private final Executor executor;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final Duration heartbeatInterval;
+
+    private final Set<CustomerChangeSubscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    // Poller thread only: the last sequence handed to live subscribers
+    private long head = -1;
+
+    public CustomerChangeFeed(CustomerChangeRepository changeRepository,
+                              BusinessMetricsService metricsService,
+                              @Qualifier(ChangeFeedConfig.CUSTOMER_CHANGE_FEED_EXECUTOR) Executor executor,
+                              @Value("${customer.change-feed.buffer-size:1000}") int bufferSize,
+                              @Value("${customer.change-feed.max-subscribers:100}") int maxSubscribers,
+                              @Value("${customer.change-feed.heartbeat-interval:PT15S}") Duration heartbeatInterval) {
+        this.changeRepository = changeRepository;
+        this.metricsService = metricsService;
+        this.executor = executor;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.heartbeatInterval = heartbeatInterval;
+    }
+
+    /**
+     * Starts streaming the changes after {@code after} (or after the latest change when null) to the sink
+     * on a thread of its own.
+     */
+    public CustomerChangeSubscription subscribe(Long after, CustomerChangeSink sink) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new CustomerException("Too many change feed subscribers, retry later", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        try {
+            CustomerChangeSubscription subscription =
+                    new CustomerChangeSubscription(sink, bufferSize, after != null ? after : latestSequence());
+            subscriptions.add(subscription);
+            metricsService.updateChangeFeedSubscribers(subscriberCount.get());
+            try {
+                executor.execute(() -> serve(subscription));
+            } catch (RejectedExecutionException e) {
+                subscriptions.remove(subscription);
+                throw new CustomerException("Too many change feed subscribers, retry later", HttpStatus.SERVICE_UNAVAILABLE);
+            }
+            return subscription;
+        } catch (RuntimeException e) {
+            // serve() never started, so it will not release the slot
+            metricsService.updateChangeFeedSubscribers(subscriberCount.decrementAndGet());
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the changes numbered since the last poll once and offers them to every live subscriber.
+     */
+    @Scheduled(fixedDelayString = "${customer.change-feed.poll-interval-ms:200}")
+    public void poll() {
+        try {
+            // Read before checking for live subscribers: a subscriber going live after the check reads
+            // everything up to here from the log itself
+            long latest = latestSequence();
+            if (subscriptions.stream().noneMatch(CustomerChangeSubscription::isLive)) {
+                head = latest;
+                return;
+            }
+
+            List<CustomerChangeDto> page;
+            do {
+                page = changeRepository.findChangesAfter(head, Limit.of(PAGE_SIZE));
+                for (CustomerChangeSubscription subscription : subscriptions) {
+                    offer(subscription, page);
+                }
+                if (!page.isEmpty()) {
+                    head = page.get(page.size() - 1).getSequence();
+                }
+            } while (page.size() == PAGE_SIZE);
+        } catch (RuntimeException e) {
+            log.warn("Change feed poll failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        subscriptions.forEach(CustomerChangeSubscription::close);
+    }
+
+    int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    void serve(CustomerChangeSubscription subscription) {
+        try {
+            resetIfPurged(subscription);
+            while (!subscription.isClosed()) {
+                catchUp(subscription);
+                // Changes polled before the switch are in the log, so the second catch-up covers them
+                subscription.goLive();
+                catchUp(subscription);
+                streamLive(subscription);
+            }
+        } catch (IOException e) {
+            log.debug("Change feed subscriber went away: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Change feed subscription failed", e);
+        } finally {
+            subscriptions.remove(subscription);
+            metricsService.updateChangeFeedSubscribers(subscriberCount.decrementAndGet());
+            subscription.complete();
+        }
+    }
+
+    private void resetIfPurged(CustomerChangeSubscription subscription) throws IOException {
+        Long earliest = changeRepository.findEarliestSequence();
+        if (earliest != null && subscription.lastSent() < earliest - 1) {
+            subscription.reset(latestSequence());
+        }
+    }
+
+    private void catchUp(CustomerChangeSubscription subscription) throws IOException {
+        List<CustomerChangeDto> page;
+        do {
+            page = changeRepository.findChangesAfter(subscription.lastSent(), Limit.of(PAGE_SIZE));
+            int sent = 0;
+            for (CustomerChangeDto change : page) {
+                if (subscription.send(change)) {
+                    sent++;
+                }
+            }
+            metricsService.recordChangeFeedEventsSent(sent);
+        } while (page.size() == PAGE_SIZE && !subscription.isClosed());
+    }
+
+    /**
+     * Sends buffered changes until the subscription is closed or its buffer overflows. After an overflow
+     * the changes buffered before it are still sent, then the caller resumes from the log.
+     */
+    private void streamLive(CustomerChangeSubscription subscription) throws IOException, InterruptedException {
+        while (!subscription.isClosed()) {
+            // Read before polling: no change is buffered after the overflow, so an empty poll means drained
+            boolean overflowed = subscription.hasOverflowed();
+            CustomerChangeDto change = subscription.poll(overflowed ? Duration.ZERO : heartbeatInterval);
+            if (change != null) {
+                if (subscription.send(change)) {
+                    metricsService.recordChangeFeedEventsSent(1);
+                }
+            } else if (overflowed) {
+                return;
+            } else {
+                subscription.heartbeat();
+            }
+        }
+    }
+
+    private void offer(CustomerChangeSubscription subscription, List<CustomerChangeDto> changes) {
+        for (CustomerChangeDto change : changes) {
+            if (!subscription.isLive()) {
+                return;
+            }
+            if (!subscription.offer(change)) {
+                metricsService.recordChangeFeedOverflow();
+                log.debug("Change feed subscriber fell behind at sequence {}, resuming from the log",
+                        change.getSequence());
+                return;
+            }
+        }
+    }
+
+    private long latestSequence() {
+        Long latest = changeRepository.findLatestSequence();
+        return latest != null ? latest : 0L;
+    }
+}
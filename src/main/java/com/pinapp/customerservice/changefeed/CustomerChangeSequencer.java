@@ -0,0 +1,89 @@
+package com.pinapp.customerservice.changefeed;
+
+import com.pinapp.customerservice.repository.CustomerChangeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Numbers committed change-log rows for the change feed and purges expired ones. Every instance runs it;
+ * an advisory lock lets one at a time assign sequences, so numbers never collide and a row only gets a
+ * number once every row numbered before it is visible.
+ */
+@Component
+@ConditionalOnProperty(name = "customer.change-feed.sequencer.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class CustomerChangeSequencer {
+
+    // Arbitrary, but the same on every instance
+    static final long SEQUENCER_LOCK_KEY = 0x637573745f636867L;
+
+    private static final int PURGE_BATCH_SIZE = 10_000;
+
+    private final CustomerChangeRepository changeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration retention;
+
+    public CustomerChangeSequencer(CustomerChangeRepository changeRepository,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${customer.change-feed.sequencer.batch-size:1000}") int batchSize,
+                                   @Value("${customer.change-feed.retention:P7D}") Duration retention) {
+        this.changeRepository = changeRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${customer.change-feed.sequencer.interval-ms:100}")
+    public void sequence() {
+        try {
+            Integer numbered;
+            do {
+                numbered = transactionTemplate.execute(status -> sequenceBatch());
+            } while (numbered != null && numbered == batchSize);
+        } catch (RuntimeException e) {
+            log.error("Change log sequencing failed", e);
+        }
+    }
+
+    /**
+     * Numbers one batch inside the caller's transaction and returns how many rows it numbered; zero when
+     * another instance holds the lock.
+     */
+    int sequenceBatch() {
+        if (!changeRepository.tryLockSequencer(SEQUENCER_LOCK_KEY)) {
+            return 0;
+        }
+        return changeRepository.sequencePending(batchSize);
+    }
+
+    /**
+     * Drops numbered changes older than the retention. Clients resuming from before the oldest remaining
+     * change are told to resynchronize instead.
+     */
+    @Scheduled(fixedDelayString = "${customer.change-feed.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        try {
+            Instant cutoff = Instant.now().minus(retention);
+            int purged = 0;
+            Integer deleted;
+            do {
+                deleted = transactionTemplate.execute(status ->
+                        changeRepository.deleteSequencedBefore(cutoff, PURGE_BATCH_SIZE));
+                purged += deleted != null ? deleted : 0;
+            } while (deleted != null && deleted == PURGE_BATCH_SIZE);
+            if (purged > 0) {
+                log.debug("Purged {} expired customer changes", purged);
+            }
+        } catch (RuntimeException e) {
+            log.error("Change log purge failed", e);
+        }
+    }
+}
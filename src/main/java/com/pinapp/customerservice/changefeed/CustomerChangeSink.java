@@ -0,0 +1,25 @@
+package com.pinapp.customerservice.changefeed;
+
+import com.pinapp.customerservice.dto.CustomerChangeDto;
+
+import java.io.IOException;
+
+/**
+ * Where one subscriber's events are written, such as an SSE connection. Calls come from a single thread
+ * and block while the client is slow to read; an IOException ends the subscription.
+ */
+public interface CustomerChangeSink {
+
+    void send(CustomerChangeDto change) throws IOException;
+
+    // Keeps idle connections open through proxies and detects clients that went away
+    void heartbeat() throws IOException;
+
+    /**
+     * The changes the client asked to resume after have been purged. The client should reload what it
+     * holds; events continue after {@code sequence}.
+     */
+    void reset(long sequence) throws IOException;
+
+    void complete();
+}
@@ -0,0 +1,109 @@
+package com.pinapp.customerservice.changefeed;
+
+import com.pinapp.customerservice.dto.CustomerChangeDto;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One subscriber of the change feed. While live it receives new changes from the feed's poller through a
+ * bounded buffer; a full buffer takes it out of live delivery, and its sender goes back to reading the
+ * change log at the pace the client accepts. A slow client therefore costs a few database reads, never
+ * unbounded memory or a stalled poller.
+ */
+public class CustomerChangeSubscription {
+
+    private final CustomerChangeSink sink;
+    private final BlockingQueue<CustomerChangeDto> buffer;
+
+    private volatile boolean live;
+    private volatile boolean overflowed;
+    private volatile boolean closed;
+
+    // Sender thread only
+    private long lastSent;
+
+    CustomerChangeSubscription(CustomerChangeSink sink, int bufferSize, long after) {
+        this.sink = sink;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.lastSent = after;
+    }
+
+    /**
+     * Stops the subscription, e.g. when the client disconnects. The sender notices within a heartbeat
+     * interval and releases its thread.
+     */
+    public void close() {
+        closed = true;
+        live = false;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    boolean isLive() {
+        return live;
+    }
+
+    boolean hasOverflowed() {
+        return overflowed;
+    }
+
+    long lastSent() {
+        return lastSent;
+    }
+
+    void goLive() {
+        overflowed = false;
+        live = !closed;
+    }
+
+    /**
+     * Called by the poller. Returns false, and stops live delivery, when the buffer is full; the change is
+     * then read from the log instead.
+     */
+    boolean offer(CustomerChangeDto change) {
+        if (buffer.offer(change)) {
+            return true;
+        }
+        live = false;
+        overflowed = true;
+        return false;
+    }
+
+    CustomerChangeDto poll(Duration timeout) throws InterruptedException {
+        return buffer.poll(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Writes the change unless it was already sent; the log and the buffer overlap around the switch to
+     * live delivery. Returns whether it was written.
+     */
+    boolean send(CustomerChangeDto change) throws IOException {
+        if (change.getSequence() <= lastSent) {
+            return false;
+        }
+        sink.send(change);
+        lastSent = change.getSequence();
+        return true;
+    }
+
+    void heartbeat() throws IOException {
+        sink.heartbeat();
+    }
+
+    void reset(long sequence) throws IOException {
+        sink.reset(sequence);
+        lastSent = sequence;
+    }
+
+    void complete() {
+        close();
+        buffer.clear();
+        sink.complete();
+    }
+}
@@ -0,0 +1,296 @@
+package com.pinapp.customerservice.columnstore;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pinapp.customerservice.dto.CustomerDetailDto;
+import com.pinapp.customerservice.dto.CustomerDto;
+import com.pinapp.customerservice.entity.CustomerAgeBucket;
+import com.pinapp.customerservice.entity.CustomerSignupDay;
+import com.pinapp.customerservice.event.CustomerChangedEvent;
+import com.pinapp.customerservice.event.CustomerInvalidatedEvent;
+import com.pinapp.customerservice.metrics.BusinessMetricsService;
+import com.pinapp.customerservice.repository.AgeHistogramSummary;
+import com.pinapp.customerservice.repository.CustomerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Optional in-process copy of the customers table, stored column-wise (see {@link CustomerColumns}), that
+ * serves listings, metrics and analytics without a database round-trip. It is loaded by streaming the table
+ * at startup and again on a schedule, and kept current in between from committed customer changes.
+ * <p>
+ * Changes committed on other instances arrive through the invalidation bus and are applied by re-reading
+ * the row. Until the first load completes, and whenever the store is disabled, {@link #isReady()} is false and callers read
+ * the database instead.
+ */
+@Component
+@Slf4j
+public class CustomerColumnStore {
+
+    private final CustomerRepository customerRepository;
+    private final BusinessMetricsService metricsService;
+    private final boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    // Guarded by lock
+    private CustomerColumns columns;
+    private List<CustomerChangedEvent> changesDuringRefresh;
+    // Highest version applied per recently changed ID, so a re-read that raced a newer change is dropped
+    private final Cache<Long, Long> appliedVersions = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMinutes(1))
+            .build();
+
+    private volatile boolean ready;
+
+    public CustomerColumnStore(CustomerRepository customerRepository,
+                               BusinessMetricsService metricsService,
+                               @Value("${customer.column-store.enabled:false}") boolean enabled) {
+        this.customerRepository = customerRepository;
+        this.metricsService = metricsService;
+        this.enabled = enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Loads a fresh copy of the table while readers keep using the current one, then swaps it in. Changes
+     * committed while the table is streamed are replayed onto the fresh copy before the swap, so none are
+     * lost whether or not the stream already saw them.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${customer.column-store.refresh-interval-ms:900000}")
+    @Transactional(readOnly = true)
+    public void refresh() {
+        if (!enabled || !refreshLock.tryLock()) {
+            return;
+        }
+        try {
+            long started = System.nanoTime();
+            withWriteLock(() -> changesDuringRefresh = new ArrayList<>());
+
+            CustomerColumns loaded;
+            try (Stream<CustomerDetailDto> customers = customerRepository.streamDetailsOrderById()) {
+                CustomerColumns fresh = newColumns();
+                customers.forEach(customer -> fresh.put(customer.getId(), customer.getFirstName(),
+                        customer.getLastName(), customer.getAge(), customer.getDateOfBirth(), customer.getCreatedAt()));
+                loaded = fresh;
+            } catch (RuntimeException e) {
+                withWriteLock(() -> changesDuringRefresh = null);
+                throw e;
+            }
+
+            withWriteLock(() -> {
+                changesDuringRefresh.forEach(change -> apply(loaded, change));
+                changesDuringRefresh = null;
+                columns = loaded;
+            });
+            ready = true;
+
+            metricsService.recordColumnStoreRefresh(Duration.ofNanos(System.nanoTime() - started),
+                    loaded.rows(), loaded.heapBytes(), loaded.offHeapBytes());
+            log.atInfo()
+                    .addKeyValue("rows", loaded.rows())
+                    .addKeyValue("heapBytes", loaded.heapBytes())
+                    .addKeyValue("offHeapBytes", loaded.offHeapBytes())
+                    .log("Customer column store refreshed");
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Applies a change once it is committed, like the customer cache invalidation.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Long id = event.getCustomerId();
+        Long version = event.getType() == CustomerChangedEvent.ChangeType.DELETED
+                ? CustomerInvalidatedEvent.DELETED_VERSION
+                : event.getCustomer().getVersion();
+        withWriteLock(() -> {
+            if (version != null) {
+                Long applied = appliedVersions.getIfPresent(id);
+                if (applied != null && applied > version) {
+                    return;
+                }
+                appliedVersions.put(id, version);
+            }
+            applyAndRecord(event);
+        });
+    }
+
+    /**
+     * Re-reads a customer changed on another instance and applies it. The read runs in a read-write
+     * transaction so it goes to the primary: a lagging replica could still return the previous version.
+     * A customer not held here yet was created elsewhere and is inserted with its creation date.
+     */
+    @EventListener
+    @Transactional
+    public void onCustomerInvalidated(CustomerInvalidatedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Long id = event.getCustomerId();
+        Optional<CustomerDto> current = event.isDeleted() ? Optional.empty() : customerRepository.findDtoById(id);
+        long version = current.map(CustomerDto::getVersion).orElse(CustomerInvalidatedEvent.DELETED_VERSION);
+        CustomerChangedEvent change = current
+                .map(customer -> holds(id)
+                        ? CustomerChangedEvent.updated(customer)
+                        : CustomerChangedEvent.created(customer, customerRepository.findCreatedAtById(id).orElse(null)))
+                .orElseGet(() -> CustomerChangedEvent.deleted(id));
+
+        withWriteLock(() -> {
+            Long applied = appliedVersions.getIfPresent(id);
+            if (applied != null && applied > version) {
+                return;
+            }
+            appliedVersions.put(id, version);
+            applyAndRecord(change);
+        });
+    }
+
+    public List<CustomerDetailDto> page(long afterId, int limit) {
+        return read(columns -> columns.page(afterId, limit));
+    }
+
+    public AgeHistogramSummary summarizeAges() {
+        long[] summary = read(CustomerColumns::summarizeAges);
+        return new AgeSummary(summary[0], summary[1], summary[2], (int) summary[3], (int) summary[4]);
+    }
+
+    /**
+     * The same rows {@code customer_age_histogram} holds: one per age that has customers, ordered by age.
+     */
+    public List<CustomerAgeBucket> ageHistogram() {
+        long[] counts = read(CustomerColumns::countByAge);
+        List<CustomerAgeBucket> histogram = new ArrayList<>();
+        for (int age = 0; age < counts.length; age++) {
+            if (counts[age] > 0) {
+                histogram.add(new CustomerAgeBucket(age, counts[age]));
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * The same rows {@code customer_signup_daily} holds between the two dates, but counted now rather than
+     * at the last rollup refresh.
+     */
+    public List<CustomerSignupDay> signupsBetween(LocalDate from, LocalDate to) {
+        CustomerColumns.DayCounts days = read(columns -> columns.countCreatedBetween(from, to));
+        List<CustomerSignupDay> signups = new ArrayList<>();
+        for (int i = 0; i < days.counts().length; i++) {
+            if (days.counts()[i] > 0) {
+                signups.add(new CustomerSignupDay(LocalDate.ofEpochDay(days.firstDay() + i), days.counts()[i]));
+            }
+        }
+        return signups;
+    }
+
+    // Before the first load nothing is held, and the replay onto the loaded copy needs the creation date
+    private boolean holds(long id) {
+        lock.readLock().lock();
+        try {
+            return columns != null && columns.contains(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Guarded by lock
+    private void applyAndRecord(CustomerChangedEvent event) {
+        if (columns != null) {
+            apply(columns, event);
+        }
+        if (changesDuringRefresh != null) {
+            changesDuringRefresh.add(event);
+        }
+    }
+
+    // Sized for a few thousand customers; the arrays grow by half as rows are loaded
+    private static CustomerColumns newColumns() {
+        return new CustomerColumns(4096, 64 * 1024);
+    }
+
+    private static void apply(CustomerColumns columns, CustomerChangedEvent event) {
+        CustomerDto customer = event.getCustomer();
+        switch (event.getType()) {
+            case CREATED -> columns.put(customer.getId(), customer.getFirstName(), customer.getLastName(),
+                    customer.getAge(), customer.getDateOfBirth(), event.getCreatedAt());
+            // A customer missing here was created on another instance; its own invalidation inserts it
+            case UPDATED -> columns.update(customer.getId(), customer.getFirstName(), customer.getLastName(),
+                    customer.getAge(), customer.getDateOfBirth());
+            case DELETED -> columns.remove(event.getCustomerId());
+        }
+    }
+
+    private <T> T read(Function<CustomerColumns, T> query) {
+        lock.readLock().lock();
+        try {
+            if (columns == null) {
+                throw new IllegalStateException("Customer column store is not loaded");
+            }
+            return query.apply(columns);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private record AgeSummary(long count, long sum, long squareSum, int min, int max) implements AgeHistogramSummary {
+
+        @Override
+        public Long getCustomerCount() {
+            return count;
+        }
+
+        @Override
+        public Long getAgeSum() {
+            return sum;
+        }
+
+        @Override
+        public Long getAgeSquareSum() {
+            return squareSum;
+        }
+
+        @Override
+        public Integer getMinAge() {
+            return min;
+        }
+
+        @Override
+        public Integer getMaxAge() {
+            return max;
+        }
+    }
+}
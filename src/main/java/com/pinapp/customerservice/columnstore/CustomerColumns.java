@@ -0,0 +1,273 @@
+package com.pinapp.customerservice.columnstore;
+
+import com.pinapp.customerservice.dto.CustomerDetailDto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Customers stored column-wise, sorted by ID: one primitive array per field, dates as epoch days and
+ * names as codes into an {@link OffHeapStringDictionary}. A row costs 28 bytes of heap however long the
+ * names are. Deleted rows become tombstones (age {@link #DELETED}) and are compacted away once they make
+ * up a quarter of the rows.
+ * <p>
+ * Not thread-safe: {@link CustomerColumnStore} guards it with a read-write lock.
+ */
+final class CustomerColumns {
+
+    static final int DELETED = -1;
+    static final int NO_DATE = Integer.MIN_VALUE;
+
+    private static final int MIN_TOMBSTONES_TO_COMPACT = 1024;
+
+    private final OffHeapStringDictionary names;
+
+    private long[] ids;
+    private int[] ages;
+    private int[] birthDays;
+    private int[] createdDays;
+    private int[] firstNames;
+    private int[] lastNames;
+
+    private int size;
+    private int tombstones;
+    private int earliestCreatedDay = Integer.MAX_VALUE;
+    private int latestCreatedDay = Integer.MIN_VALUE;
+
+    CustomerColumns(int initialCapacity, int initialNameBytes) {
+        int capacity = Math.max(initialCapacity, 16);
+        this.names = new OffHeapStringDictionary(initialNameBytes);
+        this.ids = new long[capacity];
+        this.ages = new int[capacity];
+        this.birthDays = new int[capacity];
+        this.createdDays = new int[capacity];
+        this.firstNames = new int[capacity];
+        this.lastNames = new int[capacity];
+    }
+
+    /**
+     * Inserts the customer, or overwrites it if the ID is already present. The creation date only applies to
+     * new rows: an existing row keeps the one it was loaded with.
+     */
+    void put(long id, String firstName, String lastName, int age, LocalDate dateOfBirth, LocalDate createdAt) {
+        int index;
+        // Rows arrive in ID order when loading and nearly so afterwards, so this is the common case
+        if (size == 0 || id > ids[size - 1]) {
+            index = size;
+            openRow(index);
+            setCreated(index, createdAt);
+        } else {
+            index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                index = -index - 1;
+                openRow(index);
+                setCreated(index, createdAt);
+            } else if (ages[index] == DELETED) {
+                tombstones--;
+            }
+        }
+        ids[index] = id;
+        setFields(index, firstName, lastName, age, dateOfBirth);
+    }
+
+    /**
+     * Overwrites an existing customer's fields. Returns false if the ID is not present.
+     */
+    boolean update(long id, String firstName, String lastName, int age, LocalDate dateOfBirth) {
+        int index = indexOf(id);
+        if (index < 0) {
+            return false;
+        }
+        setFields(index, firstName, lastName, age, dateOfBirth);
+        return true;
+    }
+
+    boolean contains(long id) {
+        return indexOf(id) >= 0;
+    }
+
+    boolean remove(long id) {
+        int index = indexOf(id);
+        if (index < 0) {
+            return false;
+        }
+        ages[index] = DELETED;
+        tombstones++;
+        if (tombstones >= MIN_TOMBSTONES_TO_COMPACT && tombstones * 4 > size) {
+            compact();
+        }
+        return true;
+    }
+
+    int rows() {
+        return size - tombstones;
+    }
+
+    long heapBytes() {
+        return (long) ids.length * (Long.BYTES + 5 * Integer.BYTES);
+    }
+
+    long offHeapBytes() {
+        return names.offHeapBytes();
+    }
+
+    /**
+     * Up to {@code limit} customers with an ID greater than {@code afterId}, in ID order. The life
+     * expectancy is left for the caller to derive.
+     */
+    List<CustomerDetailDto> page(long afterId, int limit) {
+        int index = Arrays.binarySearch(ids, 0, size, afterId);
+        index = index < 0 ? -index - 1 : index + 1;
+
+        List<CustomerDetailDto> page = new ArrayList<>(Math.min(limit, size - index));
+        for (; index < size && page.size() < limit; index++) {
+            if (ages[index] != DELETED) {
+                page.add(new CustomerDetailDto(ids[index],
+                        names.get(firstNames[index]),
+                        names.get(lastNames[index]),
+                        ages[index],
+                        LocalDate.ofEpochDay(birthDays[index]),
+                        createdDays[index] != NO_DATE ? LocalDate.ofEpochDay(createdDays[index]) : null));
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Number of customers per age, indexed by age. The array ends at the oldest customer's age.
+     */
+    long[] countByAge() {
+        long[] counts = new long[128];
+        int oldest = -1;
+        for (int i = 0; i < size; i++) {
+            int age = ages[i];
+            if (age == DELETED) {
+                continue;
+            }
+            if (age >= counts.length) {
+                counts = Arrays.copyOf(counts, Math.max(counts.length * 2, age + 1));
+            }
+            counts[age]++;
+            oldest = Math.max(oldest, age);
+        }
+        return Arrays.copyOf(counts, oldest + 1);
+    }
+
+    /**
+     * Count, sum, sum of squares, minimum and maximum of all ages, in that order.
+     */
+    long[] summarizeAges() {
+        long count = 0;
+        long sum = 0;
+        long squareSum = 0;
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            int age = ages[i];
+            if (age == DELETED) {
+                continue;
+            }
+            count++;
+            sum += age;
+            squareSum += (long) age * age;
+            min = Math.min(min, age);
+            max = Math.max(max, age);
+        }
+        return new long[]{count, sum, squareSum, min, max};
+    }
+
+    /**
+     * Customers created on each day from {@code from} to {@code to} (inclusive). The range is first narrowed
+     * to the days that have any customers, so an open-ended range does not allocate a slot per day.
+     */
+    DayCounts countCreatedBetween(LocalDate from, LocalDate to) {
+        long first = Math.max(from.toEpochDay(), earliestCreatedDay);
+        long last = Math.min(to.toEpochDay(), latestCreatedDay);
+        if (first > last) {
+            return new DayCounts(first, new long[0]);
+        }
+
+        long[] counts = new long[(int) (last - first + 1)];
+        for (int i = 0; i < size; i++) {
+            int day = createdDays[i];
+            if (day >= first && day <= last && ages[i] != DELETED) {
+                counts[(int) (day - first)]++;
+            }
+        }
+        return new DayCounts(first, counts);
+    }
+
+    /**
+     * {@code counts[i]} is the number of customers created {@code i} days after {@code firstDay} (an epoch day).
+     */
+    record DayCounts(long firstDay, long[] counts) {
+    }
+
+    private int indexOf(long id) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        return index >= 0 && ages[index] != DELETED ? index : -1;
+    }
+
+    private void setFields(int index, String firstName, String lastName, int age, LocalDate dateOfBirth) {
+        firstNames[index] = names.intern(firstName);
+        lastNames[index] = names.intern(lastName);
+        ages[index] = age;
+        birthDays[index] = (int) dateOfBirth.toEpochDay();
+    }
+
+    private void setCreated(int index, LocalDate createdAt) {
+        if (createdAt == null) {
+            createdDays[index] = NO_DATE;
+            return;
+        }
+        int day = (int) createdAt.toEpochDay();
+        createdDays[index] = day;
+        earliestCreatedDay = Math.min(earliestCreatedDay, day);
+        latestCreatedDay = Math.max(latestCreatedDay, day);
+    }
+
+    // Makes room for a row at index, shifting later rows right by one
+    private void openRow(int index) {
+        if (size == ids.length) {
+            int capacity = ids.length + (ids.length >> 1);
+            ids = Arrays.copyOf(ids, capacity);
+            ages = Arrays.copyOf(ages, capacity);
+            birthDays = Arrays.copyOf(birthDays, capacity);
+            createdDays = Arrays.copyOf(createdDays, capacity);
+            firstNames = Arrays.copyOf(firstNames, capacity);
+            lastNames = Arrays.copyOf(lastNames, capacity);
+        }
+        int moved = size - index;
+        if (moved > 0) {
+            System.arraycopy(ids, index, ids, index + 1, moved);
+            System.arraycopy(ages, index, ages, index + 1, moved);
+            System.arraycopy(birthDays, index, birthDays, index + 1, moved);
+            System.arraycopy(createdDays, index, createdDays, index + 1, moved);
+            System.arraycopy(firstNames, index, firstNames, index + 1, moved);
+            System.arraycopy(lastNames, index, lastNames, index + 1, moved);
+        }
+        size++;
+    }
+
+    private void compact() {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (ages[i] == DELETED) {
+                continue;
+            }
+            if (kept != i) {
+                ids[kept] = ids[i];
+                ages[kept] = ages[i];
+                birthDays[kept] = birthDays[i];
+                createdDays[kept] = createdDays[i];
+                firstNames[kept] = firstNames[i];
+                lastNames[kept] = lastNames[i];
+            }
+            kept++;
+        }
+        size = kept;
+        tombstones = 0;
+    }
+}
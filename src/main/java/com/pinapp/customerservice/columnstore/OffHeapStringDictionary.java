@@ -0,0 +1,125 @@
+package com.pinapp.customerservice.columnstore;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Append-only set of strings kept as UTF-8 in direct memory. The code of a string is the offset of its
+ * entry, so the heap only holds the open-addressing table used to intern new strings (one int per slot,
+ * at most half full). Entries are never removed; a rebuilt {@link CustomerColumns} starts a new dictionary.
+ * <p>
+ * Not thread-safe: {@link CustomerColumnStore} guards it together with the columns.
+ */
+final class OffHeapStringDictionary {
+
+    // Entry layout: hash (int), UTF-8 length (unsigned short), UTF-8 bytes
+    private static final int HEADER_BYTES = Integer.BYTES + Short.BYTES;
+    static final int MAX_UTF8_LENGTH = 0xFFFF;
+
+    // Codes are stored as code + 1 in the table, so the last offset must stay below Integer.MAX_VALUE
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private ByteBuffer data;
+    private int position;
+    private int[] slots;
+    private int size;
+
+    OffHeapStringDictionary(int initialCapacityBytes) {
+        this.data = ByteBuffer.allocateDirect(Math.max(initialCapacityBytes, 64));
+        this.slots = new int[64];
+    }
+
+    /**
+     * Returns the code of {@code value}, adding it if it is not in the dictionary yet.
+     */
+    int intern(String value) {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        if (utf8.length > MAX_UTF8_LENGTH) {
+            throw new IllegalArgumentException("String of " + utf8.length + " UTF-8 bytes exceeds " + MAX_UTF8_LENGTH);
+        }
+        int hash = hash(utf8);
+        int mask = slots.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int entry = slots[slot];
+            if (entry == 0) {
+                int code = append(hash, utf8);
+                slots[slot] = code + 1;
+                if (++size * 2 > slots.length) {
+                    resizeTable();
+                }
+                return code;
+            }
+            if (matches(entry - 1, hash, utf8)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    String get(int code) {
+        byte[] utf8 = new byte[data.getShort(code + Integer.BYTES) & 0xFFFF];
+        data.get(code + HEADER_BYTES, utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    int size() {
+        return size;
+    }
+
+    long offHeapBytes() {
+        return data.capacity();
+    }
+
+    private int append(int hash, byte[] utf8) {
+        int entryBytes = HEADER_BYTES + utf8.length;
+        if (position > MAX_CAPACITY - entryBytes) {
+            throw new IllegalStateException("String dictionary is full at " + position + " bytes");
+        }
+        if (position + entryBytes > data.capacity()) {
+            long grown = Math.max((long) data.capacity() * 2, (long) position + entryBytes);
+            ByteBuffer larger = ByteBuffer.allocateDirect((int) Math.min(grown, MAX_CAPACITY));
+            larger.put(0, data, 0, position);
+            data = larger;
+        }
+        int code = position;
+        data.putInt(code, hash);
+        data.putShort(code + Integer.BYTES, (short) utf8.length);
+        data.put(code + HEADER_BYTES, utf8);
+        position += entryBytes;
+        return code;
+    }
+
+    private boolean matches(int code, int hash, byte[] utf8) {
+        if (data.getInt(code) != hash || (data.getShort(code + Integer.BYTES) & 0xFFFF) != utf8.length) {
+            return false;
+        }
+        for (int i = 0; i < utf8.length; i++) {
+            if (data.get(code + HEADER_BYTES + i) != utf8[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The hash is kept in each entry, so growing the table never decodes a string
+    private void resizeTable() {
+        int[] larger = new int[slots.length * 2];
+        int mask = larger.length - 1;
+        for (int entry : slots) {
+            if (entry != 0) {
+                int slot = data.getInt(entry - 1) & mask;
+                while (larger[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                larger[slot] = entry;
+            }
+        }
+        slots = larger;
+    }
+
+    private static int hash(byte[] utf8) {
+        int hash = Arrays.hashCode(utf8);
+        // Spread the high bits, as HashMap does, since the table index only uses the low ones
+        return hash ^ (hash >>> 16);
+    }
+}
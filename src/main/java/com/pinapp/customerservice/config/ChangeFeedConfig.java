@@ -0,0 +1,38 @@
+package com.pinapp.customerservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ChangeFeedConfig {
+
+    public static final String CUSTOMER_CHANGE_FEED_EXECUTOR = "customerChangeFeedExecutor";
+
+    /**
+     * One sender thread per change feed subscriber, which blocks while its client is slow to read. The
+     * pool has no queue: a subscriber that cannot get a thread is turned away rather than left waiting.
+     */
+    @Bean(CUSTOMER_CHANGE_FEED_EXECUTOR)
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public TaskExecutor customerChangeFeedExecutor(
+            @Value("${customer.change-feed.max-subscribers:100}") int maxSubscribers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxSubscribers);
+        executor.setMaxPoolSize(maxSubscribers);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("customer-changes-");
+        return executor;
+    }
+
+    @Bean(CUSTOMER_CHANGE_FEED_EXECUTOR)
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public TaskExecutor virtualCustomerChangeFeedExecutor() {
+        return new VirtualThreadTaskExecutor("customer-changes-");
+    }
+}
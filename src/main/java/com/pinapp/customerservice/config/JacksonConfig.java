@@ -0,0 +1,78 @@
+package com.pinapp.customerservice.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateDeserializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * RFC 8943 tag for a date written as days since 1970-01-01.
+     */
+    static final int EPOCH_DAYS_TAG = 100;
+
+    /**
+     * Serves {@code application/cbor} to clients that ask for it in Accept. The mapper starts from the same
+     * builder as the JSON one, so naming and inclusion rules match; only dates change, from ISO strings to
+     * tagged epoch days. Spring Boot puts this bean in place of the default CBOR converter.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(cborObjectMapper(builder));
+    }
+
+    // Also backs the CBOR codec of the reactive profile
+    static ObjectMapper cborObjectMapper(Jackson2ObjectMapperBuilder builder) {
+        return builder
+                .factory(new CBORFactory())
+                .postConfigurer(mapper -> mapper.registerModule(epochDaysModule()))
+                .build();
+    }
+
+    private static SimpleModule epochDaysModule() {
+        return new SimpleModule("EpochDays")
+                .addSerializer(LocalDate.class, new EpochDaySerializer())
+                .addDeserializer(LocalDate.class, new EpochDayDeserializer());
+    }
+
+    private static final class EpochDaySerializer extends JsonSerializer<LocalDate> {
+
+        @Override
+        public void serialize(LocalDate value, JsonGenerator generator, SerializerProvider serializers)
+                throws IOException {
+            if (generator instanceof CBORGenerator cbor) {
+                cbor.writeTag(EPOCH_DAYS_TAG);
+            }
+            generator.writeNumber(value.toEpochDay());
+        }
+    }
+
+    // Also accepts ISO strings, so CBOR request bodies from clients that do not write epoch days still parse
+    private static final class EpochDayDeserializer extends JsonDeserializer<LocalDate> {
+
+        @Override
+        public LocalDate deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+                return LocalDate.ofEpochDay(parser.getLongValue());
+            }
+            return LocalDateDeserializer.INSTANCE.deserialize(parser, context);
+        }
+    }
+}
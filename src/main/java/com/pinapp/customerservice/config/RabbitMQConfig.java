@@ -1,12 +1,21 @@
 package com.pinapp.customerservice.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 @Configuration
 public class RabbitMQConfig {
@@ -14,6 +23,10 @@ public class RabbitMQConfig {
     public static final String CUSTOMER_EXCHANGE = "customer.exchange";
     public static final String CUSTOMER_CREATED_QUEUE = "customer.created.queue";
     public static final String CUSTOMER_CREATED_ROUTING_KEY = "customer.created";
+    public static final String CUSTOMER_BATCH_LISTENER_FACTORY = "customerBatchListenerContainerFactory";
+    public static final String CUSTOMER_EVENT_EXECUTOR = "customerEventExecutor";
+    public static final String CUSTOMER_INVALIDATION_EXCHANGE = "customer.invalidation";
+    public static final String CUSTOMER_INVALIDATION_QUEUE_PREFIX = "customer.invalidation.";
 
     @Bean
     public Queue customerCreatedQueue() {
@@ -33,15 +46,91 @@ public class RabbitMQConfig {
                 .with(CUSTOMER_CREATED_ROUTING_KEY);
     }
 
+    /**
+     * Carries cache invalidations between instances. Every instance binds its own queue, so each one
+     * receives every invalidation.
+     */
     @Bean
-    public MessageConverter jsonMessageConverter() {
-        return new Jackson2JsonMessageConverter();
+    public FanoutExchange customerInvalidationExchange() {
+        return new FanoutExchange(CUSTOMER_INVALIDATION_EXCHANGE);
     }
 
+    // Exclusive and auto-delete: it goes away with the instance, and invalidations sent while an instance
+    // is down are not needed, as it starts with empty caches
     @Bean
-    public AmqpTemplate amqpTemplate(ConnectionFactory connectionFactory) {
+    public Queue customerInvalidationQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy(CUSTOMER_INVALIDATION_QUEUE_PREFIX));
+    }
+
+    @Bean
+    public Binding customerInvalidationBinding(Queue customerInvalidationQueue,
+                                               FanoutExchange customerInvalidationExchange) {
+        return BindingBuilder.bind(customerInvalidationQueue).to(customerInvalidationExchange);
+    }
+
+    // The application's mapper, so java.time fields are read back in the format the outbox wrote them
+    @Bean
+    public MessageConverter jsonMessageConverter(ObjectMapper objectMapper) {
+        return new Jackson2JsonMessageConverter(objectMapper);
+    }
+
+    @Bean
+    public AmqpTemplate amqpTemplate(ConnectionFactory connectionFactory, MessageConverter jsonMessageConverter) {
         final RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
-        rabbitTemplate.setMessageConverter(jsonMessageConverter());
+        rabbitTemplate.setMessageConverter(jsonMessageConverter);
         return rabbitTemplate;
     }
-}
\ No newline at end of file
+
+    /**
+     * Listener containers that hand messages to the listener in batches. Consumers scale between
+     * {@code concurrency} and {@code max-concurrency}; each prefetches enough messages to fill a batch
+     * without waiting on the broker.
+     */
+    @Bean(CUSTOMER_BATCH_LISTENER_FACTORY)
+    public SimpleRabbitListenerContainerFactory customerBatchListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            MessageConverter jsonMessageConverter,
+            @Value("${customer.messaging.consumer.concurrency:2}") int concurrency,
+            @Value("${customer.messaging.consumer.max-concurrency:8}") int maxConcurrency,
+            @Value("${customer.messaging.consumer.prefetch:100}") int prefetch,
+            @Value("${customer.messaging.consumer.batch-size:50}") int batchSize,
+            @Value("${customer.messaging.consumer.receive-timeout-ms:200}") long receiveTimeout) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setMessageConverter(jsonMessageConverter);
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(maxConcurrency);
+        factory.setPrefetchCount(Math.max(prefetch, batchSize));
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        // Upper bound on how long a partial batch waits for more messages
+        factory.setReceiveTimeout(receiveTimeout);
+        return factory;
+    }
+
+    /**
+     * Runs consumer side effects (emails, integrations) so that a slow call does not hold a
+     * listener thread, and the messages of one batch are handled in parallel. Also sends the
+     * invalidation broadcasts, so writes never wait on the broker.
+     */
+    @Bean(CUSTOMER_EVENT_EXECUTOR)
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public TaskExecutor customerEventExecutor(
+            @Value("${customer.messaging.consumer.worker-threads:32}") int workerThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workerThreads);
+        executor.setMaxPoolSize(workerThreads);
+        executor.setThreadNamePrefix("customer-event-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    // With spring.threads.virtual.enabled every side effect gets its own virtual thread
+    @Bean(CUSTOMER_EVENT_EXECUTOR)
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public TaskExecutor virtualCustomerEventExecutor() {
+        return new VirtualThreadTaskExecutor("customer-event-");
+    }
+}
@@ -0,0 +1,22 @@
+package com.pinapp.customerservice.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Hands out replica connections inside {@code @Transactional(readOnly = true)} and primary connections
+ * everywhere else. Only correct behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * transaction managers fetch the connection before the read-only flag is bound to the thread, and the
+ * proxy defers the real fetch to the first statement.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Route.REPLICA : Route.PRIMARY;
+    }
+}
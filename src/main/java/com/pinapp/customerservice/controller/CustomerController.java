@@ -1,31 +1,89 @@
 package com.pinapp.customerservice.controller;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.pinapp.customerservice.changefeed.CustomerChangeFeed;
+import com.pinapp.customerservice.changefeed.CustomerChangeSink;
+import com.pinapp.customerservice.changefeed.CustomerChangeSubscription;
+import com.pinapp.customerservice.dto.CustomerAnalyticsDto;
+import com.pinapp.customerservice.dto.CustomerBatchItemResultDto;
+import com.pinapp.customerservice.dto.CustomerBatchResultDto;
+import com.pinapp.customerservice.dto.CustomerChangeDto;
 import com.pinapp.customerservice.dto.CustomerDetailDto;
 import com.pinapp.customerservice.dto.CustomerDto;
 import com.pinapp.customerservice.dto.CustomerMetricsDto;
+import com.pinapp.customerservice.dto.CustomerSearchCriteria;
+import com.pinapp.customerservice.exception.CustomerException;
 import com.pinapp.customerservice.service.CustomerService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataAccessException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.TransactionException;
+import org.springframework.util.DigestUtils;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
+// The reactive profile serves the same API from ReactiveCustomerController
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/customers")
 @RequiredArgsConstructor
+@Validated
 @Slf4j
 @Tag(name = "Customer Management", description = "API for customer operations")
 public class CustomerController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int BATCH_CHUNK_SIZE = 1000;
+    private static final int DEFAULT_AGE_BUCKET_WIDTH = 10;
+    private static final int MAX_AGE_BUCKET_WIDTH = 150;
+    private static final int DEFAULT_SIGNUP_RANGE_DAYS = 30;
+
     private final CustomerService customerService;
+    private final ObjectMapper objectMapper;
+    private final CustomerChangeFeed changeFeed;
 
     @PostMapping
     @Operation(summary = "Create a new customer",
@@ -36,40 +94,259 @@ public class CustomerController {
     })
     public ResponseEntity<CustomerDto> createCustomer(
             @Valid @RequestBody CustomerDto customerDto) {
-        log.info("Received request to create customer: {}", customerDto);
+        log.debug("Received request to create customer");
         CustomerDto createdCustomer = customerService.createCustomer(customerDto);
         return new ResponseEntity<>(createdCustomer, HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Create customers in bulk",
+            description = "Validates and creates every customer in the array, returning a result per item. "
+                    + "Items are committed in chunks; items reported as FAILED were not stored and can be resubmitted.")
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+            array = @ArraySchema(schema = @Schema(implementation = CustomerDto.class))))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "All customers created successfully"),
+            @ApiResponse(responseCode = "207", description = "Some customers were not created; see the item results")
+    })
+    public ResponseEntity<CustomerBatchResultDto> createCustomers(InputStream body) throws IOException {
+        log.debug("Received request to create customers from JSON array");
+        CustomerBatch batch = new CustomerBatch();
+
+        // Read element by element, so only the current chunk of the array is held in memory
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new CustomerException("Expected a JSON array of customers", HttpStatus.BAD_REQUEST);
+            }
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                JsonNode item = parser.readValueAsTree();
+                try {
+                    batch.add(objectMapper.treeToValue(item, CustomerDto.class));
+                } catch (JsonProcessingException e) {
+                    batch.reject("Malformed customer: " + e.getOriginalMessage());
+                }
+            }
+        } catch (JsonProcessingException e) {
+            // Past a syntax error there is no telling where the next element starts, so reading stops there
+            batch.reject("Malformed JSON, this and any later items were not read: " + e.getOriginalMessage());
+        }
+        return toBatchResponse(batch.finish());
+    }
+
+    @PostMapping(value = "/batch", consumes = NDJSON_MEDIA_TYPE)
+    @Operation(summary = "Create customers in bulk from a stream",
+            description = "Validates and creates every customer in a newline-delimited JSON stream, returning a result per item. "
+                    + "Items are committed in chunks; items reported as FAILED were not stored and can be resubmitted.")
+    public ResponseEntity<CustomerBatchResultDto> createCustomersFromStream(InputStream body) throws IOException {
+        log.debug("Received request to create customers from NDJSON stream");
+        CustomerBatch batch = new CustomerBatch();
+        ObjectReader customerReader = objectMapper.readerFor(CustomerDto.class);
+
+        // One customer per line, so a malformed line is reported on its own and the stream carries on
+        BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        while ((line = lines.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                batch.add(customerReader.readValue(line));
+            } catch (JsonProcessingException e) {
+                batch.reject("Malformed customer: " + e.getOriginalMessage());
+            }
+        }
+        return toBatchResponse(batch.finish());
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get customer by ID",
             description = "Returns customer details for the specified ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Customer found"),
+            @ApiResponse(responseCode = "304", description = "Customer unchanged since the given ETag or date"),
             @ApiResponse(responseCode = "404", description = "Customer not found")
     })
     public ResponseEntity<CustomerDto> getCustomerById(
             @Parameter(description = "Customer ID") @PathVariable Long id) {
-        log.info("Received request to get customer with ID: {}", id);
+        log.debug("Received request to get customer with ID: {}", id);
         CustomerDto customer = customerService.getCustomerById(id);
-        return ResponseEntity.ok(customer);
+        // Spring answers If-None-Match / If-Modified-Since from these headers with 304 before writing the body
+        return ResponseEntity.ok()
+                .eTag(customerETag(customer))
+                .lastModified(customer.getLastModified())
+                .cacheControl(CacheControl.noCache())
+                .body(customer);
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Get customers",
+            description = "Returns a page of customers with their details including life expectancy, ordered by ID. "
+                    + "Pass the value of the X-Next-Cursor response header as 'after' to fetch the next page. "
+                    + "Send Accept: application/cbor for a binary page with dates as epoch days.")
+    public ResponseEntity<List<CustomerDetailDto>> getCustomers(
+            @Parameter(description = "Return customers with an ID greater than this cursor")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Maximum number of customers to return")
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) @Min(1) @Max(MAX_PAGE_SIZE) int limit) {
+        log.debug("Received request to get customers after ID: {} (limit {})", after, limit);
+        List<CustomerDetailDto> customers = customerService.getCustomersWithLifeExpectancy(after, limit);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (customers.size() == limit) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(customers.get(customers.size() - 1).getId()));
+        }
+        return response.body(customers);
     }
 
-    @GetMapping
-    @Operation(summary = "Get all customers",
-            description = "Returns all customers with their details including life expectancy")
-    public ResponseEntity<List<CustomerDetailDto>> getAllCustomers() {
-        log.info("Received request to get all customers");
-        List<CustomerDetailDto> customers = customerService.getAllCustomersWithLifeExpectancy();
-        return ResponseEntity.ok(customers);
+    @GetMapping(value = "/search", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Search customers",
+            description = "Returns a page of customers matching all given filters, ordered by ID. "
+                    + "Pass the value of the X-Next-Cursor response header as 'after' to fetch the next page. "
+                    + "Send Accept: application/cbor for a binary page with dates as epoch days.")
+    public ResponseEntity<List<CustomerDto>> searchCustomers(
+            @Parameter(description = "First or last name to match")
+            @RequestParam(required = false) String name,
+            @Parameter(description = "PREFIX matches names starting with 'name'; FUZZY tolerates typos")
+            @RequestParam(defaultValue = "PREFIX") CustomerSearchCriteria.NameMatch match,
+            @RequestParam(required = false) @Min(0) Integer minAge,
+            @RequestParam(required = false) @Min(0) Integer maxAge,
+            @Parameter(description = "Earliest creation date (inclusive, ISO format)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdFrom,
+            @Parameter(description = "Latest creation date (inclusive, ISO format)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdTo,
+            @Parameter(description = "Return customers with an ID greater than this cursor")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Maximum number of customers to return")
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) @Min(1) @Max(MAX_PAGE_SIZE) int limit) {
+        CustomerSearchCriteria criteria = CustomerSearchCriteria.builder()
+                .name(name)
+                .nameMatch(match)
+                .minAge(minAge)
+                .maxAge(maxAge)
+                .createdFrom(createdFrom)
+                .createdTo(createdTo)
+                .build();
+        log.debug("Received request to search customers: {} after ID: {} (limit {})", criteria, after, limit);
+        List<CustomerDto> customers = customerService.searchCustomers(criteria, after, limit);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (customers.size() == limit) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(customers.get(customers.size() - 1).getId()));
+        }
+        return response.body(customers);
+    }
+
+    @GetMapping(value = "/stream", produces = NDJSON_MEDIA_TYPE)
+    @Operation(summary = "Stream all customers",
+            description = "Streams every customer with life expectancy as newline-delimited JSON")
+    public ResponseEntity<StreamingResponseBody> streamCustomers() {
+        log.debug("Received request to stream all customers");
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter writer = objectMapper.writer()
+                    .withRootValueSeparator("\n")
+                    .writeValues(outputStream)) {
+                customerService.streamCustomersWithLifeExpectancy(customer -> {
+                    try {
+                        writer.write(customer);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON_MEDIA_TYPE))
+                .body(body);
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream customer changes",
+            description = "Server-sent events for every customer created, updated or deleted, in sequence order. "
+                    + "Each event's id is its sequence: reconnect with Last-Event-ID (EventSource does) or 'after' "
+                    + "to resume without gaps. A 'reset' event means the changes to resume from were purged; "
+                    + "reload the customers you hold and keep consuming.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Change stream opened"),
+            @ApiResponse(responseCode = "503", description = "Too many subscribers")
+    })
+    public SseEmitter streamChanges(
+            @Parameter(description = "Resume after this sequence; defaults to the latest change")
+            @RequestParam(required = false) @Min(0) Long after,
+            @Parameter(description = "Sent by EventSource on reconnect; takes precedence over 'after'")
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        log.debug("Received request to stream customer changes after sequence: {}", lastEventId != null ? lastEventId : after);
+        // Times out with spring.mvc.async.request-timeout, after which the client reconnects where it left off
+        SseEmitter emitter = new SseEmitter();
+        CustomerChangeSubscription subscription = changeFeed.subscribe(lastEventId != null ? lastEventId : after,
+                new SseChangeSink(emitter));
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+        return emitter;
     }
 
     @GetMapping("/metrics")
     @Operation(summary = "Get customer metrics",
-            description = "Returns metrics about customers including average age and standard deviation")
+            description = "Returns metrics about customers including average age and standard deviation. Responses "
+                    + "carry an ETag; send it back in If-None-Match to get 304 Not Modified while the metrics are unchanged.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Metrics calculated"),
+            @ApiResponse(responseCode = "304", description = "Metrics unchanged since the given ETag")
+    })
     public ResponseEntity<CustomerMetricsDto> getCustomerMetrics() {
-        log.info("Received request to get customer metrics");
+        log.debug("Received request to get customer metrics");
         CustomerMetricsDto metrics = customerService.calculateMetrics();
+        return ResponseEntity.ok()
+                .eTag(metricsETag(metrics))
+                .cacheControl(CacheControl.noCache())
+                .body(metrics);
+    }
+
+    @GetMapping("/analytics")
+    @Operation(summary = "Get customer analytics",
+            description = "Returns the age histogram, age percentiles and signups per day or week. Responses carry an "
+                    + "ETag; send it back in If-None-Match to get 304 Not Modified while the figures are unchanged.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Analytics calculated"),
+            @ApiResponse(responseCode = "304", description = "Analytics unchanged since the given ETag"),
+            @ApiResponse(responseCode = "400", description = "Invalid bucket width or date range")
+    })
+    public ResponseEntity<CustomerAnalyticsDto> getCustomerAnalytics(
+            @Parameter(description = "Width of each age bucket in years")
+            @RequestParam(defaultValue = "" + DEFAULT_AGE_BUCKET_WIDTH) @Min(1) @Max(MAX_AGE_BUCKET_WIDTH) int bucketWidth,
+            @Parameter(description = "First signup date (inclusive, ISO format); defaults to 30 days before 'to'")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last signup date (inclusive, ISO format); defaults to today")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "DAY or WEEK (weeks start on Monday)")
+            @RequestParam(defaultValue = "DAY") CustomerAnalyticsDto.Granularity granularity,
+            WebRequest webRequest) throws JsonProcessingException {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_SIGNUP_RANGE_DAYS - 1);
+        if (start.isAfter(end)) {
+            throw new CustomerException("'from' must not be after 'to'", HttpStatus.BAD_REQUEST);
+        }
+        log.debug("Received request to get customer analytics from {} to {}", start, end);
+        CustomerAnalyticsDto analytics = customerService.getAnalytics(bucketWidth, start, end, granularity);
+
+        // Content-based ETag: the figures only change when customers are written or the rollup refreshes
+        String eTag = "\"" + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(analytics)) + "\"";
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache())
+                .body(analytics);
+    }
+
+    @PostMapping("/metrics/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Rebuild customer metrics",
+            description = "Recomputes the incrementally maintained age statistics from the customers table")
+    public ResponseEntity<CustomerMetricsDto> rebuildCustomerMetrics() {
+        log.debug("Received request to rebuild customer metrics");
+        CustomerMetricsDto metrics = customerService.rebuildMetrics();
         return ResponseEntity.ok(metrics);
     }
 
@@ -79,14 +356,21 @@ public class CustomerController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Customer updated successfully"),
             @ApiResponse(responseCode = "404", description = "Customer not found"),
-            @ApiResponse(responseCode = "400", description = "Invalid input data")
+            @ApiResponse(responseCode = "400", description = "Invalid input data"),
+            @ApiResponse(responseCode = "409", description = "Customer was modified by a concurrent request"),
+            @ApiResponse(responseCode = "412", description = "Customer no longer matches the If-Match ETag")
     })
     public ResponseEntity<CustomerDto> updateCustomer(
             @Parameter(description = "Customer ID") @PathVariable Long id,
+            @Parameter(description = "ETag of the customer version being replaced")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody CustomerDto customerDto) {
-        log.info("Received request to update customer with ID: {}", id);
-        CustomerDto updatedCustomer = customerService.updateCustomer(id, customerDto);
-        return ResponseEntity.ok(updatedCustomer);
+        log.debug("Received request to update customer with ID: {}", id);
+        CustomerDto updatedCustomer = customerService.updateCustomer(id, customerDto, expectedVersion(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(customerETag(updatedCustomer))
+                .lastModified(updatedCustomer.getLastModified())
+                .body(updatedCustomer);
     }
 
     @DeleteMapping("/{id}")
@@ -98,8 +382,129 @@ public class CustomerController {
     })
     public ResponseEntity<Void> deleteCustomer(
             @Parameter(description = "Customer ID") @PathVariable Long id) {
-        log.info("Received request to delete customer with ID: {}", id);
+        log.debug("Received request to delete customer with ID: {}", id);
         customerService.deleteCustomer(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    // The version changes on every update, so it identifies the representation exactly (a strong ETag)
+    static String customerETag(CustomerDto customer) {
+        return "\"" + customer.getVersion() + "\"";
+    }
+
+    // Built from the figures themselves: exact like a content hash, without serializing the body first
+    static String metricsETag(CustomerMetricsDto metrics) {
+        return "\"" + metrics.getTotalCustomers()
+                + "-" + metrics.getYoungestCustomerAge()
+                + "-" + metrics.getOldestCustomerAge()
+                + "-" + Long.toHexString(Double.doubleToLongBits(metrics.getAverageAge()))
+                + "-" + Long.toHexString(Double.doubleToLongBits(metrics.getAgeStandardDeviation())) + "\"";
+    }
+
+    /**
+     * Returns the customer version named by an If-Match header, or null when the update is unconditional
+     * (no header, or {@code *}). If-Match uses strong comparison, so a weak or malformed ETag never matches.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        String eTag = ifMatch.trim();
+        if (eTag.length() > 2 && eTag.startsWith("\"") && eTag.endsWith("\"")) {
+            try {
+                return Long.valueOf(eTag.substring(1, eTag.length() - 1));
+            } catch (NumberFormatException e) {
+                // Falls through to the precondition failure below
+            }
+        }
+        throw new CustomerException("If-Match does not name a current customer version: " + ifMatch,
+                HttpStatus.PRECONDITION_FAILED);
+    }
+
+    private ResponseEntity<CustomerBatchResultDto> toBatchResponse(CustomerBatchResultDto result) {
+        HttpStatus status = result.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return new ResponseEntity<>(result, status);
+    }
+
+    /**
+     * Collects the items of one bulk request into chunks of {@link #BATCH_CHUNK_SIZE}, each created in its own
+     * transaction. A chunk that fails to commit is reported item by item as FAILED and the request carries on,
+     * so the response always says exactly which items were stored and a retry of the rest cannot duplicate them.
+     */
+    private final class CustomerBatch {
+
+        private final CustomerBatchResultDto result = new CustomerBatchResultDto();
+        private List<CustomerDto> chunk = new ArrayList<>(BATCH_CHUNK_SIZE);
+        private int chunkStart;
+
+        void add(CustomerDto customer) {
+            chunk.add(customer);
+            if (chunk.size() == BATCH_CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        // Creates the items read so far first, so results stay in request order with contiguous chunks
+        void reject(String error) {
+            flush();
+            result.add(CustomerBatchItemResultDto.builder()
+                    .index(chunkStart++)
+                    .status(CustomerBatchItemResultDto.Status.INVALID)
+                    .errors(Map.of("customer", error))
+                    .build());
+        }
+
+        CustomerBatchResultDto finish() {
+            flush();
+            return result;
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            try {
+                result.merge(customerService.createCustomers(chunk, chunkStart));
+            } catch (DataAccessException | TransactionException e) {
+                log.warn("Customer batch items {} to {} were rolled back", chunkStart, chunkStart + chunk.size() - 1, e);
+                for (int i = 0; i < chunk.size(); i++) {
+                    result.add(CustomerBatchItemResultDto.builder()
+                            .index(chunkStart + i)
+                            .status(CustomerBatchItemResultDto.Status.FAILED)
+                            .errors(Map.of("customer", "Could not be stored, resubmit this item"))
+                            .build());
+                }
+            }
+            chunkStart += chunk.size();
+            chunk = new ArrayList<>(BATCH_CHUNK_SIZE);
+        }
+    }
+
+    private record SseChangeSink(SseEmitter emitter) implements CustomerChangeSink {
+
+        @Override
+        public void send(CustomerChangeDto change) throws IOException {
+            emitter.send(SseEmitter.event()
+                    .id(String.valueOf(change.getSequence()))
+                    .data(change, MediaType.APPLICATION_JSON));
+        }
+
+        @Override
+        public void heartbeat() throws IOException {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+        }
+
+        @Override
+        public void reset(long sequence) throws IOException {
+            emitter.send(SseEmitter.event()
+                    .id(String.valueOf(sequence))
+                    .name("reset")
+                    .data(sequence));
+        }
+
+        @Override
+        public void complete() {
+            emitter.complete();
+        }
+    }
+}
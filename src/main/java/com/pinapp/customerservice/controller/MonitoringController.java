@@ -1,7 +1,10 @@
 package com.pinapp.customerservice.controller;
 
 import com.pinapp.customerservice.repository.CustomerRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.micrometer.prometheus.PrometheusMeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -12,7 +15,10 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/monitoring")
@@ -38,7 +44,8 @@ public class MonitoringController {
         summary.put("totalCustomers", customerRepository.count());
         summary.put("customerCreationRate", metricsEndpoint.metric("customers.created", null).getMeasurements());
         summary.put("averageProcessingTime", metricsEndpoint.metric("customers.processing.time", null).getMeasurements());
-        
+        summary.put("connectionPools", connectionPoolSummary());
+
         return summary;
     }
     
@@ -46,4 +53,31 @@ public class MonitoringController {
     public String getPrometheusMetrics() {
         return prometheusMeterRegistry.scrape();
     }
+
+    // Per Hikari pool (primary, replica): saturation shows as pending > 0 and a rising acquire time
+    private Map<String, Map<String, Object>> connectionPoolSummary() {
+        Map<String, Map<String, Object>> pools = new TreeMap<>();
+        for (Gauge active : meterRegistry.find("hikaricp.connections.active").gauges()) {
+            String pool = active.getId().getTag("pool");
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("active", active.value());
+            stats.put("idle", poolGauge("hikaricp.connections.idle", pool));
+            stats.put("pending", poolGauge("hikaricp.connections.pending", pool));
+            stats.put("max", poolGauge("hikaricp.connections.max", pool));
+
+            Timer acquire = meterRegistry.find("hikaricp.connections.acquire").tag("pool", pool).timer();
+            stats.put("acquireMeanMs", acquire != null ? acquire.mean(TimeUnit.MILLISECONDS) : 0.0);
+            stats.put("acquireMaxMs", acquire != null ? acquire.max(TimeUnit.MILLISECONDS) : 0.0);
+
+            Counter timeouts = meterRegistry.find("hikaricp.connections.timeout").tag("pool", pool).counter();
+            stats.put("timeouts", timeouts != null ? timeouts.count() : 0.0);
+            pools.put(pool, stats);
+        }
+        return pools;
+    }
+
+    private double poolGauge(String name, String pool) {
+        Gauge gauge = meterRegistry.find(name).tag("pool", pool).gauge();
+        return gauge != null ? gauge.value() : 0.0;
+    }
 }
\ No newline at end of file
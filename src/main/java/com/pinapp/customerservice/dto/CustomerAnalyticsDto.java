@@ -0,0 +1,52 @@
+package com.pinapp.customerservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerAnalyticsDto {
+
+    public enum Granularity {
+        DAY, WEEK
+    }
+
+    private Long totalCustomers;
+    private Integer bucketWidth;
+    private List<AgeBucket> ageBuckets;
+
+    // Nearest-rank percentiles keyed p25, p50, ...
+    private Map<String, Integer> agePercentiles;
+
+    private Granularity granularity;
+    private LocalDate from;
+    private LocalDate to;
+    private List<SignupCount> signups;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AgeBucket {
+        // Inclusive bounds
+        private Integer fromAge;
+        private Integer toAge;
+        private Long customers;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SignupCount {
+        // First day of the period (the Monday for weekly counts)
+        private LocalDate periodStart;
+        private Long customers;
+    }
+}
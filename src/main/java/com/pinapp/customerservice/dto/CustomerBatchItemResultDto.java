@@ -0,0 +1,30 @@
+package com.pinapp.customerservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CustomerBatchItemResultDto {
+
+    public enum Status {
+        CREATED,
+        INVALID,
+        // Valid, but its chunk could not be committed: nothing was stored and the item can be resubmitted
+        FAILED
+    }
+
+    // Position of the item in the submitted array or stream
+    private int index;
+    private Status status;
+    private Long id;
+    private Map<String, String> errors;
+}
@@ -0,0 +1,36 @@
+package com.pinapp.customerservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerBatchResultDto {
+    private int created;
+    private int failed;
+
+    @Builder.Default
+    private List<CustomerBatchItemResultDto> results = new ArrayList<>();
+
+    public void add(CustomerBatchItemResultDto result) {
+        if (result.getStatus() == CustomerBatchItemResultDto.Status.CREATED) {
+            created++;
+        } else {
+            failed++;
+        }
+        results.add(result);
+    }
+
+    public void merge(CustomerBatchResultDto other) {
+        created += other.getCreated();
+        failed += other.getFailed();
+        results.addAll(other.getResults());
+    }
+}
@@ -0,0 +1,35 @@
+package com.pinapp.customerservice.dto;
+
+import com.pinapp.customerservice.event.CustomerChangedEvent;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * One event of the change feed. {@code customer} is the customer as it is now, not as of the change, and
+ * is null once the customer has been deleted; {@code version} says which version the change produced.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerChangeDto {
+    private Long sequence;
+    private CustomerChangedEvent.ChangeType type;
+    private Long customerId;
+    private Long version;
+    private Instant changedAt;
+    private CustomerDto customer;
+
+    // Constructor expression target for the change log joined to the customers table
+    public CustomerChangeDto(Long sequence, CustomerChangedEvent.ChangeType type, Long customerId, Long version,
+                             Instant changedAt, Long currentId, String firstName, String lastName, Integer age,
+                             LocalDate dateOfBirth, Long currentVersion, Instant lastModified) {
+        this(sequence, type, customerId, version, changedAt, currentId == null ? null
+                : new CustomerDto(currentId, firstName, lastName, age, dateOfBirth, currentVersion, lastModified));
+    }
+}
@@ -21,4 +21,10 @@ public class CustomerDetailDto {
 
     // Derived field for life expectancy
     private LocalDate estimatedLifeExpectancy;
+
+    // Constructor expression target for the projection queries; the life expectancy is derived afterwards
+    public CustomerDetailDto(Long id, String firstName, String lastName, Integer age,
+                             LocalDate dateOfBirth, LocalDate createdAt) {
+        this(id, firstName, lastName, age, dateOfBirth, createdAt, null);
+    }
 }
\ No newline at end of file
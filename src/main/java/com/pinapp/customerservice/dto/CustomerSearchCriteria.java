@@ -0,0 +1,35 @@
+package com.pinapp.customerservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Filters of a customer search. Unset fields do not restrict the result; ranges are inclusive.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerSearchCriteria {
+
+    public enum NameMatch {
+        // First or last name starts with the given text
+        PREFIX,
+        // First or last name is similar to the given text (pg_trgm), tolerating typos
+        FUZZY
+    }
+
+    private String name;
+
+    @Builder.Default
+    private NameMatch nameMatch = NameMatch.PREFIX;
+
+    private Integer minAge;
+    private Integer maxAge;
+    private LocalDate createdFrom;
+    private LocalDate createdTo;
+}
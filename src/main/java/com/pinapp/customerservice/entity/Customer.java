@@ -6,6 +6,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
@@ -16,8 +17,10 @@ import java.time.LocalDate;
 @AllArgsConstructor
 public class Customer {
 
+    // Sequence-based IDs let Hibernate batch inserts; IDENTITY forces one round-trip per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customers_seq")
+    @SequenceGenerator(name = "customers_seq", sequenceName = "customers_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -35,8 +38,21 @@ public class Customer {
     @Column(name = "created_at")
     private LocalDate createdAt;
 
+    // Incremented by Hibernate on every update and checked in its WHERE clause; doubles as the ETag
+    @Version
+    private Long version;
+
+    @Column(name = "last_modified", nullable = false)
+    private Instant lastModified;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDate.now();
+        lastModified = Instant.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        lastModified = Instant.now();
     }
 }
\ No newline at end of file
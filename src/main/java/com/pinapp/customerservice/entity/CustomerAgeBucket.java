@@ -0,0 +1,27 @@
+package com.pinapp.customerservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One row of the running age histogram: how many customers currently have a given age.
+ * Count, sum and sum of squares of all ages are derived from these rows, so the whole
+ * aggregate is a handful of rows regardless of how many customers exist.
+ */
+@Entity
+@Table(name = "customer_age_histogram")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerAgeBucket {
+
+    @Id
+    private Integer age;
+
+    @Column(name = "customer_count", nullable = false)
+    private Long customerCount;
+}
@@ -0,0 +1,45 @@
+package com.pinapp.customerservice.entity;
+
+import com.pinapp.customerservice.event.CustomerChangedEvent;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+
+/**
+ * One row of the customer change log. Rows are written by a database trigger on the customers table and
+ * numbered by the change feed's sequencer; the application never inserts or updates them through JPA.
+ */
+@Entity
+@Immutable
+@Table(name = "customer_change_log")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Position in the feed; null until the sequencer has numbered the row
+    private Long seq;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 16)
+    private CustomerChangedEvent.ChangeType changeType;
+
+    // Customer version after the change; null for deletes
+    private Long version;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+}
@@ -0,0 +1,29 @@
+package com.pinapp.customerservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * One row of the signup rollup: how many customers were created on a given day. Refreshed from the
+ * customers table on a schedule, so signup analytics read one row per day instead of the customers.
+ */
+@Entity
+@Table(name = "customer_signup_daily")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerSignupDay {
+
+    @Id
+    @Column(name = "signup_date")
+    private LocalDate signupDate;
+
+    @Column(name = "customer_count", nullable = false)
+    private Long customerCount;
+}
@@ -0,0 +1,29 @@
+package com.pinapp.customerservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Idempotency key of a message that has already been handled by a consumer. Shared by all
+ * replicas, so a redelivery is skipped no matter which instance receives it.
+ */
+@Entity
+@Table(name = "processed_message")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessedMessage {
+
+    @Id
+    @Column(name = "message_key", length = 200)
+    private String messageKey;
+
+    @Column(name = "processed_at", nullable = false)
+    private Instant processedAt;
+}
@@ -0,0 +1,45 @@
+package com.pinapp.customerservice.event;
+
+import com.pinapp.customerservice.dto.CustomerDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDate;
+
+/**
+ * Published by the service layer whenever a customer is created, updated or deleted.
+ * Listeners that must only observe committed state should use {@code @TransactionalEventListener}.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CustomerChangedEvent {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final ChangeType type;
+    private final Long customerId;
+
+    // Null for deletions
+    private final CustomerDto customer;
+
+    // The persisted created_at, which CustomerDto does not carry; only set for creations
+    private final LocalDate createdAt;
+
+    public static CustomerChangedEvent created(CustomerDto customer, LocalDate createdAt) {
+        return new CustomerChangedEvent(ChangeType.CREATED, customer.getId(), customer, createdAt);
+    }
+
+    public static CustomerChangedEvent updated(CustomerDto customer) {
+        return new CustomerChangedEvent(ChangeType.UPDATED, customer.getId(), customer, null);
+    }
+
+    public static CustomerChangedEvent deleted(Long customerId) {
+        return new CustomerChangedEvent(ChangeType.DELETED, customerId, null, null);
+    }
+}
@@ -0,0 +1,26 @@
+package com.pinapp.customerservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published when another instance reports a committed change to a customer, so that in-process copies of
+ * it can be dropped or reloaded. Unlike {@link CustomerChangedEvent} it carries no customer data, only the
+ * version the change produced; anything older than that version must not be served or cached again.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CustomerInvalidatedEvent {
+
+    // Higher than any real version, so nothing loaded for a deleted customer passes the version check
+    public static final long DELETED_VERSION = Long.MAX_VALUE;
+
+    private final Long customerId;
+    private final long version;
+
+    public boolean isDeleted() {
+        return version == DELETED_VERSION;
+    }
+}
@@ -0,0 +1,63 @@
+package com.pinapp.customerservice.messaging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pinapp.customerservice.config.RabbitMQConfig;
+import com.pinapp.customerservice.dto.CustomerDto;
+import com.pinapp.customerservice.entity.OutboxEvent;
+import com.pinapp.customerservice.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Records customer events in the transactional outbox. Must be called inside the transaction that
+ * changes the customer, so the event is stored if and only if the change commits.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerEventOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueCustomerCreated(CustomerDto customerDto) {
+        log.debug("Enqueuing customer creation event for customer ID: {}", customerDto.getId());
+        outboxEventRepository.save(toEvent(RabbitMQConfig.CUSTOMER_CREATED_ROUTING_KEY, customerDto));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueCustomersCreated(List<CustomerDto> customers) {
+        log.debug("Enqueuing {} customer creation events", customers.size());
+        outboxEventRepository.saveAll(customers.stream()
+                .map(customerDto -> toEvent(RabbitMQConfig.CUSTOMER_CREATED_ROUTING_KEY, customerDto))
+                .toList());
+    }
+
+    // Package-private so the reactive outbox stores the same rows
+    OutboxEvent toEvent(String routingKey, CustomerDto customerDto) {
+        Instant now = Instant.now();
+        return OutboxEvent.builder()
+                .routingKey(routingKey)
+                .aggregateId(customerDto.getId())
+                .payload(toJson(customerDto))
+                .createdAt(now)
+                .availableAt(now)
+                .build();
+    }
+
+    private String toJson(CustomerDto customerDto) {
+        try {
+            return objectMapper.writeValueAsString(customerDto);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize customer event", e);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.pinapp.customerservice.messaging;
+
+/**
+ * Wire format of the invalidation bus: which customer changed, the version the change produced
+ * ({@link com.pinapp.customerservice.event.CustomerInvalidatedEvent#DELETED_VERSION} for deletions) and
+ * the instance that made it, so that instance can skip its own message.
+ */
+public record CustomerInvalidation(String origin, long customerId, long version) {
+}
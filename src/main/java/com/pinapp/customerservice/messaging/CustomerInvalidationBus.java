@@ -0,0 +1,130 @@
+package com.pinapp.customerservice.messaging;
+
+import com.pinapp.customerservice.config.RabbitMQConfig;
+import com.pinapp.customerservice.event.CustomerChangedEvent;
+import com.pinapp.customerservice.event.CustomerInvalidatedEvent;
+import com.pinapp.customerservice.metrics.BusinessMetricsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.messaging.Message;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Keeps the in-process copies of customers (the customer cache, the metrics snapshot and the column
+ * store) coherent across instances. Committed creations, updates and deletions are broadcast on the
+ * invalidation fanout exchange as an ID and version; every other instance turns them into a
+ * {@link CustomerInvalidatedEvent} for its own listeners.
+ * <p>
+ * Delivery is best effort: a lost message leaves the other instances as stale as their TTLs and refresh
+ * intervals, which was the bound before the bus. Messages may arrive out of order, so listeners compare
+ * versions rather than trusting the arrival order, and broadcasts are sent from the event executor
+ * rather than the writing request's thread.
+ */
+@Component
+@Slf4j
+public class CustomerInvalidationBus {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BusinessMetricsService metricsService;
+    private final Executor publishExecutor;
+    private final String origin;
+
+    public CustomerInvalidationBus(RabbitTemplate rabbitTemplate,
+                                   ApplicationEventPublisher eventPublisher,
+                                   BusinessMetricsService metricsService,
+                                   @Qualifier("customerInvalidationQueue") Queue customerInvalidationQueue,
+                                   @Qualifier(RabbitMQConfig.CUSTOMER_EVENT_EXECUTOR) Executor publishExecutor) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.eventPublisher = eventPublisher;
+        this.metricsService = metricsService;
+        this.publishExecutor = publishExecutor;
+        // The queue name is unique to this instance, so it doubles as the origin
+        this.origin = customerInvalidationQueue.getName();
+    }
+
+    /**
+     * Broadcasts a change once it is committed, so no instance can reload the pre-commit row. Creations
+     * are broadcast too: the column store and the metrics snapshot on other instances would otherwise miss
+     * the new customer until their next refresh.
+     * <p>
+     * The request that made the change does not wait for the broker: an unreachable broker would otherwise
+     * hold its thread for the connection timeout. Receivers keep the highest version they have seen, so
+     * broadcasts may be sent in any order.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        long version = event.getType() == CustomerChangedEvent.ChangeType.DELETED
+                ? CustomerInvalidatedEvent.DELETED_VERSION
+                : event.getCustomer().getVersion();
+        CustomerInvalidation invalidation = new CustomerInvalidation(origin, event.getCustomerId(), version);
+
+        try {
+            publishExecutor.execute(() -> publish(invalidation));
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the other instances catch up when their copies expire
+            metricsService.recordInvalidationFailed();
+            log.atWarn()
+                    .addKeyValue("customerId", invalidation.customerId())
+                    .addKeyValue("version", invalidation.version())
+                    .log("Failed to schedule customer invalidation: {}", e.getMessage());
+        }
+    }
+
+    void publish(CustomerInvalidation invalidation) {
+        try {
+            rabbitTemplate.convertAndSend(RabbitMQConfig.CUSTOMER_INVALIDATION_EXCHANGE, "", invalidation,
+                    message -> {
+                        message.getMessageProperties().setTimestamp(new Date());
+                        return message;
+                    });
+            metricsService.recordInvalidationPublished();
+        } catch (AmqpException e) {
+            // The change is committed either way; other instances catch up when their copies expire
+            metricsService.recordInvalidationFailed();
+            log.atWarn()
+                    .addKeyValue("customerId", invalidation.customerId())
+                    .addKeyValue("version", invalidation.version())
+                    .log("Failed to broadcast customer invalidation: {}", e.getMessage());
+        }
+    }
+
+    @RabbitListener(queues = "#{customerInvalidationQueue.name}")
+    public void onInvalidation(Message<CustomerInvalidation> message) {
+        CustomerInvalidation invalidation = message.getPayload();
+        if (origin.equals(invalidation.origin())) {
+            return;
+        }
+        String exchange = RabbitMQConfig.CUSTOMER_INVALIDATION_EXCHANGE;
+        if (message.getHeaders().get(AmqpHeaders.TIMESTAMP) instanceof Date timestamp) {
+            metricsService.recordMessageLag(exchange, Duration.between(timestamp.toInstant(), Instant.now()));
+        }
+        log.debug("Received invalidation of customer {} at version {} from {}",
+                invalidation.customerId(), invalidation.version(), invalidation.origin());
+
+        try {
+            eventPublisher.publishEvent(new CustomerInvalidatedEvent(invalidation.customerId(), invalidation.version()));
+            metricsService.recordMessagesConsumed(exchange, 1);
+        } catch (RuntimeException e) {
+            // Not requeued: a redelivery would only repeat the failing reload, and the TTLs still apply
+            metricsService.recordMessagesFailed(exchange, 1);
+            log.atWarn()
+                    .addKeyValue("customerId", invalidation.customerId())
+                    .addKeyValue("version", invalidation.version())
+                    .log("Failed to apply customer invalidation: {}", e.getMessage());
+        }
+    }
+}
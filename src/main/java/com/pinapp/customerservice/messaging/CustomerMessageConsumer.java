@@ -2,18 +2,102 @@ package com.pinapp.customerservice.messaging;
 
 import com.pinapp.customerservice.config.RabbitMQConfig;
 import com.pinapp.customerservice.dto.CustomerDto;
-import lombok.RequiredArgsConstructor;
+import com.pinapp.customerservice.metrics.BusinessMetricsService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.messaging.Message;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class CustomerMessageConsumer {
 
+    private final ProcessedMessageStore processedMessageStore;
+    private final BusinessMetricsService metricsService;
+    private final Executor eventExecutor;
+
+    public CustomerMessageConsumer(ProcessedMessageStore processedMessageStore,
+                                   BusinessMetricsService metricsService,
+                                   @Qualifier(RabbitMQConfig.CUSTOMER_EVENT_EXECUTOR) Executor eventExecutor) {
+        this.processedMessageStore = processedMessageStore;
+        this.metricsService = metricsService;
+        this.eventExecutor = eventExecutor;
+    }
+
     /**
-     * This method processes customer creation messages.
+     * Receives customer creation messages in batches. Messages that were already handled (a
+     * redelivery after a nack, a relay retry or a consumer restart) are skipped; the rest are
+     * handled in parallel off the listener thread. The batch is acknowledged once every message
+     * has been handled, and any failure requeues it, with the successful ones then skipped.
+     */
+    @RabbitListener(queues = RabbitMQConfig.CUSTOMER_CREATED_QUEUE,
+            containerFactory = RabbitMQConfig.CUSTOMER_BATCH_LISTENER_FACTORY)
+    public void processCustomerCreations(List<Message<CustomerDto>> messages) {
+        String queue = RabbitMQConfig.CUSTOMER_CREATED_QUEUE;
+        Instant received = Instant.now();
+        log.debug("Received {} customer creation messages", messages.size());
+
+        Map<String, CustomerDto> pending = new LinkedHashMap<>();
+        for (Message<CustomerDto> message : messages) {
+            recordLag(queue, message, received);
+            pending.putIfAbsent(idempotencyKey(message), message.getPayload());
+        }
+
+        Set<String> processed = processedMessageStore.findProcessed(pending.keySet());
+        pending.keySet().removeAll(processed);
+        int duplicates = messages.size() - pending.size();
+        if (duplicates > 0) {
+            metricsService.recordMessagesDuplicated(queue, duplicates);
+            log.debug("Skipping {} already processed customer creation messages", duplicates);
+        }
+
+        Map<String, CompletableFuture<Void>> tasks = new LinkedHashMap<>();
+        pending.forEach((key, customerDto) ->
+                tasks.put(key, CompletableFuture.runAsync(() -> processCustomerCreation(customerDto), eventExecutor)));
+
+        List<String> succeeded = new ArrayList<>(tasks.size());
+        RuntimeException failure = null;
+        for (Map.Entry<String, CompletableFuture<Void>> task : tasks.entrySet()) {
+            try {
+                task.getValue().join();
+                succeeded.add(task.getKey());
+            } catch (RuntimeException e) {
+                log.error("Error processing customer creation message {}", task.getKey(), e);
+                failure = e;
+            }
+        }
+
+        processedMessageStore.markProcessed(succeeded);
+        metricsService.recordMessagesConsumed(queue, succeeded.size());
+        metricsService.recordMessageBatchProcessing(queue, Duration.between(received, Instant.now()));
+        log.atInfo()
+                .addKeyValue("queue", queue)
+                .addKeyValue("processed", succeeded.size())
+                .addKeyValue("duplicates", duplicates)
+                .log("Processed customer creation batch");
+
+        if (failure != null) {
+            metricsService.recordMessagesFailed(queue, tasks.size() - succeeded.size());
+            throw new IllegalStateException("Failed to process " + (tasks.size() - succeeded.size())
+                    + " customer creation messages", failure);
+        }
+    }
+
+    /**
+     * This method processes a single customer creation message.
      * In a real-world scenario, you might:
      * - Send welcome emails
      * - Update analytics systems
@@ -21,30 +105,34 @@ public class CustomerMessageConsumer {
      * - Generate reports
      * - Update cache systems
      */
-    @RabbitListener(queues = RabbitMQConfig.CUSTOMER_CREATED_QUEUE)
-    public void processCustomerCreation(CustomerDto customerDto) {
-        log.info("Received customer creation message for processing: {}", customerDto);
-
-        // Simulate processing time
-        try {
-            log.info("Processing customer data asynchronously...");
-            Thread.sleep(1000); // Simulating some async work
-
-            // Example of what we might do here:
-            // 1. Send welcome email
-            log.info("Sending welcome email to customer: {} {}",
-                    customerDto.getFirstName(), customerDto.getLastName());
-
-            // 2. Update analytics
-            log.info("Updating analytics with new customer information");
-
-            // 3. Trigger any integrations
-            log.info("Notifying other systems about new customer");
-
-            log.info("Customer created message processed successfully");
-        } catch (InterruptedException e) {
-            log.error("Error processing customer creation message", e);
-            Thread.currentThread().interrupt();
+    void processCustomerCreation(CustomerDto customerDto) {
+        log.debug("Processing customer creation message: {}", customerDto);
+
+        // Example of what we might do here:
+        // 1. Send welcome email
+        log.debug("Sending welcome email to customer {}", customerDto.getId());
+
+        // 2. Update analytics
+        log.debug("Updating analytics with new customer information");
+
+        // 3. Trigger any integrations
+        log.debug("Notifying other systems about new customer");
+
+        log.debug("Customer created message processed successfully");
+    }
+
+    // The outbox sets a message ID that is stable across relay retries; older producers did not
+    private String idempotencyKey(Message<CustomerDto> message) {
+        Object messageId = message.getHeaders().get(AmqpHeaders.MESSAGE_ID);
+        if (messageId != null) {
+            return messageId.toString();
+        }
+        return RabbitMQConfig.CUSTOMER_CREATED_ROUTING_KEY + ":" + message.getPayload().getId();
+    }
+
+    private void recordLag(String queue, Message<CustomerDto> message, Instant received) {
+        if (message.getHeaders().get(AmqpHeaders.TIMESTAMP) instanceof Date timestamp) {
+            metricsService.recordMessageLag(queue, Duration.between(timestamp.toInstant(), received));
         }
     }
-}
\ No newline at end of file
+}
@@ -2,11 +2,29 @@ package com.pinapp.customerservice.messaging;
 
 import com.pinapp.customerservice.config.RabbitMQConfig;
 import com.pinapp.customerservice.dto.CustomerDto;
+import com.pinapp.customerservice.entity.OutboxEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -14,15 +32,59 @@ public class CustomerMessageProducer {
 
     private final RabbitTemplate rabbitTemplate;
 
-    public void sendCustomerCreationMessage(CustomerDto customerDto) {
-        log.info("Sending customer creation message for customer ID: {}", customerDto.getId());
+    /**
+     * Publishes outbox events to the customer exchange and waits for the broker's publisher confirms.
+     * All messages are sent before waiting, so a batch costs roughly one confirm round-trip.
+     *
+     * @return the IDs of events that were not confirmed, mapped to the failure reason
+     */
+    public Map<Long, String> publishConfirmed(List<OutboxEvent> events, Duration confirmTimeout) {
+        log.debug("Publishing {} outbox events", events.size());
+        Map<Long, String> failures = new HashMap<>();
+        List<CorrelationData> correlations = new ArrayList<>(events.size());
+
+        for (OutboxEvent event : events) {
+            CorrelationData correlation = new CorrelationData(String.valueOf(event.getId()));
+            try {
+                rabbitTemplate.send(RabbitMQConfig.CUSTOMER_EXCHANGE, event.getRoutingKey(), toMessage(event), correlation);
+                correlations.add(correlation);
+            } catch (RuntimeException e) {
+                failures.put(event.getId(), e.getMessage());
+            }
+        }
 
-        rabbitTemplate.convertAndSend(
-                RabbitMQConfig.CUSTOMER_EXCHANGE,
-                RabbitMQConfig.CUSTOMER_CREATED_ROUTING_KEY,
-                customerDto
-        );
+        long deadline = System.nanoTime() + confirmTimeout.toNanos();
+        for (CorrelationData correlation : correlations) {
+            Long eventId = Long.valueOf(correlation.getId());
+            try {
+                CorrelationData.Confirm confirm = correlation.getFuture()
+                        .get(Math.max(deadline - System.nanoTime(), 0L), TimeUnit.NANOSECONDS);
+                if (!confirm.isAck()) {
+                    failures.put(eventId, "Nacked by broker: " + confirm.getReason());
+                }
+            } catch (TimeoutException e) {
+                failures.put(eventId, "Publisher confirm timed out");
+            } catch (ExecutionException e) {
+                failures.put(eventId, e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failures.put(eventId, "Interrupted while waiting for publisher confirm");
+            }
+        }
+
+        log.debug("Published {} outbox events, {} failed", events.size() - failures.size(), failures.size());
+        return failures;
+    }
 
-        log.info("Customer creation message sent successfully");
+    private Message toMessage(OutboxEvent event) {
+        return MessageBuilder.withBody(event.getPayload().getBytes(StandardCharsets.UTF_8))
+                .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                .setContentEncoding(StandardCharsets.UTF_8.name())
+                .setDeliveryMode(MessageDeliveryMode.PERSISTENT)
+                // Stable across relay retries, so consumers can de-duplicate redeliveries
+                .setMessageId(String.valueOf(event.getId()))
+                .setTimestamp(Date.from(event.getCreatedAt()))
+                .setHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, CustomerDto.class.getName())
+                .build();
     }
-}
\ No newline at end of file
+}
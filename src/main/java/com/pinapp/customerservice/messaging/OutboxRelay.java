@@ -0,0 +1,115 @@
+package com.pinapp.customerservice.messaging;
+
+import com.pinapp.customerservice.entity.OutboxEvent;
+import com.pinapp.customerservice.metrics.BusinessMetricsService;
+import com.pinapp.customerservice.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drains the transactional outbox to RabbitMQ in the background. Events are claimed with
+ * {@code FOR UPDATE SKIP LOCKED}, published with publisher confirms and deleted only once
+ * acknowledged; failures are retried with exponential backoff.
+ */
+@Component
+@ConditionalOnProperty(name = "customer.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class OutboxRelay {
+
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(5);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final CustomerMessageProducer messageProducer;
+    private final BusinessMetricsService metricsService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration confirmTimeout;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       CustomerMessageProducer messageProducer,
+                       BusinessMetricsService metricsService,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${customer.outbox.relay.batch-size:200}") int batchSize,
+                       @Value("${customer.outbox.relay.confirm-timeout:PT5S}") Duration confirmTimeout) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.messageProducer = messageProducer;
+        this.metricsService = metricsService;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.confirmTimeout = confirmTimeout;
+    }
+
+    @Scheduled(fixedDelayString = "${customer.outbox.relay.interval-ms:500}")
+    public void relay() {
+        try {
+            Integer claimed;
+            do {
+                claimed = transactionTemplate.execute(status -> relayBatch());
+            } while (claimed != null && claimed == batchSize);
+        } catch (RuntimeException e) {
+            log.error("Outbox relay run failed", e);
+        } finally {
+            recordBacklog();
+        }
+    }
+
+    /**
+     * Publishes one batch inside the caller's transaction and returns the number of events claimed.
+     */
+    int relayBatch() {
+        List<OutboxEvent> events = outboxEventRepository.lockNextBatch(Instant.now(), batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, String> failures = messageProducer.publishConfirmed(events, confirmTimeout);
+
+        List<OutboxEvent> published = new ArrayList<>(events.size());
+        Instant now = Instant.now();
+        for (OutboxEvent event : events) {
+            String error = failures.get(event.getId());
+            if (error == null) {
+                published.add(event);
+            } else {
+                event.setAttempts(event.getAttempts() + 1);
+                event.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+                event.setAvailableAt(now.plus(backoff(event.getAttempts())));
+            }
+        }
+        outboxEventRepository.deleteAllInBatch(published);
+
+        metricsService.recordOutboxPublished(published.size());
+        if (!failures.isEmpty()) {
+            metricsService.recordOutboxFailed(failures.size());
+            log.warn("{} of {} outbox events were not confirmed and will be retried", failures.size(), events.size());
+        }
+        return events.size();
+    }
+
+    static Duration backoff(int attempts) {
+        long seconds = 1L << Math.min(attempts - 1, 16);
+        Duration backoff = Duration.ofSeconds(seconds);
+        return backoff.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff;
+    }
+
+    private void recordBacklog() {
+        try {
+            long backlog = outboxEventRepository.count();
+            Instant oldest = outboxEventRepository.findOldestCreatedAt();
+            Duration lag = oldest != null ? Duration.between(oldest, Instant.now()) : Duration.ZERO;
+            metricsService.updateOutboxBacklog(backlog, lag);
+        } catch (RuntimeException e) {
+            log.warn("Unable to read outbox backlog: {}", e.getMessage());
+        }
+    }
+}
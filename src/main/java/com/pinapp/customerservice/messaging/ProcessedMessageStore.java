@@ -0,0 +1,60 @@
+package com.pinapp.customerservice.messaging;
+
+import com.pinapp.customerservice.repository.ProcessedMessageRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Idempotency keys of consumed messages. Keys are recorded only after a message has been handled,
+ * so delivery stays at-least-once while a redelivery costs a single lookup per batch.
+ */
+@Component
+@Slf4j
+public class ProcessedMessageStore {
+
+    private final ProcessedMessageRepository processedMessageRepository;
+    private final Duration retention;
+
+    public ProcessedMessageStore(ProcessedMessageRepository processedMessageRepository,
+                                 @Value("${customer.messaging.idempotency.retention:P7D}") Duration retention) {
+        this.processedMessageRepository = processedMessageRepository;
+        this.retention = retention;
+    }
+
+    // Read-write so the lookup runs on the primary: a key another replica recorded a moment ago may not
+    // have reached the read replica yet, and the redelivery would be handled twice
+    @Transactional
+    public Set<String> findProcessed(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(processedMessageRepository.findProcessedKeys(keys));
+    }
+
+    @Transactional
+    public void markProcessed(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        // One statement per batch; sorted so replicas recording overlapping batches lock keys in the same order
+        processedMessageRepository.insertAllIfAbsent(keys.stream().sorted().toArray(String[]::new), Instant.now());
+    }
+
+    @Scheduled(fixedDelayString = "${customer.messaging.idempotency.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int purged = processedMessageRepository.deleteProcessedBefore(Instant.now().minus(retention));
+        if (purged > 0) {
+            log.debug("Purged {} expired idempotency keys", purged);
+        }
+    }
+}
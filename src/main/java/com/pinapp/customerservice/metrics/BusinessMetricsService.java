@@ -5,7 +5,9 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
+import java.time.Duration;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 @RequiredArgsConstructor
@@ -19,6 +21,21 @@ public class BusinessMetricsService {
     private DistributionSummary customerAgeDistribution;
     private Timer customerProcessingTimer;
     private AtomicInteger activeCustomersGauge;
+    private Counter customerCacheHitCounter;
+    private Counter customerCacheMissCounter;
+    private Counter outboxPublishedCounter;
+    private Counter outboxFailedCounter;
+    private AtomicLong outboxBacklogGauge;
+    private AtomicLong outboxLagMillisGauge;
+    private Counter invalidationPublishedCounter;
+    private Counter invalidationFailedCounter;
+    private Timer columnStoreRefreshTimer;
+    private AtomicLong columnStoreRowsGauge;
+    private AtomicLong columnStoreHeapBytesGauge;
+    private AtomicLong columnStoreOffHeapBytesGauge;
+    private AtomicInteger changeFeedSubscribersGauge;
+    private Counter changeFeedEventsCounter;
+    private Counter changeFeedOverflowCounter;
 
     @PostConstruct
     public void init() {
@@ -48,6 +65,75 @@ public class BusinessMetricsService {
         Gauge.builder("customers.active", activeCustomersGauge::get)
                 .description("Number of active customers")
                 .register(meterRegistry);
+
+        customerCacheHitCounter = Counter.builder("customers.cache.hits")
+                .description("Customer lookups served from the in-process cache")
+                .register(meterRegistry);
+
+        customerCacheMissCounter = Counter.builder("customers.cache.misses")
+                .description("Customer lookups that had to be loaded from the database")
+                .register(meterRegistry);
+
+        outboxPublishedCounter = Counter.builder("customers.outbox.published")
+                .description("Outbox events confirmed by the broker")
+                .register(meterRegistry);
+
+        outboxFailedCounter = Counter.builder("customers.outbox.failed")
+                .description("Outbox publish attempts that were not confirmed and will be retried")
+                .register(meterRegistry);
+
+        outboxBacklogGauge = new AtomicLong(0);
+        Gauge.builder("customers.outbox.backlog", outboxBacklogGauge::get)
+                .description("Outbox events waiting to be published")
+                .register(meterRegistry);
+
+        outboxLagMillisGauge = new AtomicLong(0);
+        Gauge.builder("customers.outbox.lag", outboxLagMillisGauge::get)
+                .description("Age of the oldest unpublished outbox event")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+
+        invalidationPublishedCounter = Counter.builder("customers.invalidations.published")
+                .description("Customer invalidations broadcast to the other instances")
+                .register(meterRegistry);
+
+        invalidationFailedCounter = Counter.builder("customers.invalidations.failed")
+                .description("Customer invalidations that could not be broadcast")
+                .register(meterRegistry);
+
+        columnStoreRefreshTimer = Timer.builder("customers.columnstore.refresh")
+                .description("Time spent reloading the in-process customer column store")
+                .register(meterRegistry);
+
+        columnStoreRowsGauge = new AtomicLong(0);
+        Gauge.builder("customers.columnstore.rows", columnStoreRowsGauge::get)
+                .description("Customers in the column store as of its last refresh")
+                .register(meterRegistry);
+
+        columnStoreHeapBytesGauge = new AtomicLong(0);
+        Gauge.builder("customers.columnstore.heap", columnStoreHeapBytesGauge::get)
+                .description("Heap allocated to the column store's arrays")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+
+        columnStoreOffHeapBytesGauge = new AtomicLong(0);
+        Gauge.builder("customers.columnstore.offheap", columnStoreOffHeapBytesGauge::get)
+                .description("Direct memory allocated to the column store's name dictionary")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+
+        changeFeedSubscribersGauge = new AtomicInteger(0);
+        Gauge.builder("customers.changefeed.subscribers", changeFeedSubscribersGauge::get)
+                .description("Clients connected to the customer change feed")
+                .register(meterRegistry);
+
+        changeFeedEventsCounter = Counter.builder("customers.changefeed.events")
+                .description("Change events written to change feed subscribers")
+                .register(meterRegistry);
+
+        changeFeedOverflowCounter = Counter.builder("customers.changefeed.overflows")
+                .description("Times a slow subscriber's buffer filled and it fell back to reading the change log")
+                .register(meterRegistry);
     }
 
     public void incrementCustomerCreated() {
@@ -55,6 +141,11 @@ public class BusinessMetricsService {
         activeCustomersGauge.incrementAndGet();
     }
 
+    public void incrementCustomerCreated(int count) {
+        customerCreatedCounter.increment(count);
+        activeCustomersGauge.addAndGet(count);
+    }
+
     public void incrementCustomerUpdated() {
         customerUpdatedCounter.increment();
     }
@@ -79,4 +170,117 @@ public class BusinessMetricsService {
     public void setActiveCustomersCount(int count) {
         activeCustomersGauge.set(count);
     }
+
+    public void recordCustomerCacheHits(int count) {
+        customerCacheHitCounter.increment(count);
+    }
+
+    public void recordCustomerCacheMisses(int count) {
+        customerCacheMissCounter.increment(count);
+    }
+
+    public void recordCustomerCacheEviction(String cause) {
+        Counter.builder("customers.cache.evictions")
+                .description("Customer cache entries evicted by size or expiry")
+                .tag("cause", cause)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void recordCoalescedRequest(String operation) {
+        Counter.builder("customers.requests.coalesced")
+                .description("Reads that shared an identical in-flight call instead of querying the database")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void recordCoalescingTimeout(String operation) {
+        Counter.builder("customers.requests.coalesced.timeouts")
+                .description("Reads that stopped waiting for an in-flight call and queried the database themselves")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void recordOutboxPublished(int count) {
+        outboxPublishedCounter.increment(count);
+    }
+
+    public void recordOutboxFailed(int count) {
+        outboxFailedCounter.increment(count);
+    }
+
+    public void updateOutboxBacklog(long backlog, Duration lag) {
+        outboxBacklogGauge.set(backlog);
+        outboxLagMillisGauge.set(lag.toMillis());
+    }
+
+    public void recordInvalidationPublished() {
+        invalidationPublishedCounter.increment();
+    }
+
+    public void recordInvalidationFailed() {
+        invalidationFailedCounter.increment();
+    }
+
+    public void recordColumnStoreRefresh(Duration duration, long rows, long heapBytes, long offHeapBytes) {
+        columnStoreRefreshTimer.record(duration);
+        columnStoreRowsGauge.set(rows);
+        columnStoreHeapBytesGauge.set(heapBytes);
+        columnStoreOffHeapBytesGauge.set(offHeapBytes);
+    }
+
+    public void updateChangeFeedSubscribers(int subscribers) {
+        changeFeedSubscribersGauge.set(subscribers);
+    }
+
+    public void recordChangeFeedEventsSent(int count) {
+        changeFeedEventsCounter.increment(count);
+    }
+
+    public void recordChangeFeedOverflow() {
+        changeFeedOverflowCounter.increment();
+    }
+
+    public void recordMessagesConsumed(String queue, int count) {
+        Counter.builder("customers.messages.consumed")
+                .description("Messages handled by a consumer")
+                .tag("queue", queue)
+                .register(meterRegistry)
+                .increment(count);
+    }
+
+    public void recordMessagesDuplicated(String queue, int count) {
+        Counter.builder("customers.messages.duplicates")
+                .description("Redelivered messages skipped because they were already handled")
+                .tag("queue", queue)
+                .register(meterRegistry)
+                .increment(count);
+    }
+
+    public void recordMessagesFailed(String queue, int count) {
+        Counter.builder("customers.messages.failed")
+                .description("Messages whose handling failed and will be redelivered")
+                .tag("queue", queue)
+                .register(meterRegistry)
+                .increment(count);
+    }
+
+    public void recordMessageLag(String queue, Duration lag) {
+        Timer.builder("customers.messages.lag")
+                .description("Time between a message being published and its consumer receiving it")
+                .tag("queue", queue)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+                .record(lag);
+    }
+
+    public void recordMessageBatchProcessing(String queue, Duration duration) {
+        Timer.builder("customers.messages.batch.processing")
+                .description("Time spent handling one batch of messages")
+                .tag("queue", queue)
+                .register(meterRegistry)
+                .record(duration);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.pinapp.customerservice.repository;
+
+/**
+ * Aggregate view over {@code customer_age_histogram}.
+ */
+public interface AgeHistogramSummary {
+
+    Long getCustomerCount();
+
+    Long getAgeSum();
+
+    Long getAgeSquareSum();
+
+    Integer getMinAge();
+
+    Integer getMaxAge();
+}
@@ -0,0 +1,42 @@
+package com.pinapp.customerservice.repository;
+
+import com.pinapp.customerservice.entity.CustomerAgeBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CustomerAgeHistogramRepository extends JpaRepository<CustomerAgeBucket, Integer> {
+
+    @Modifying
+    @Query(value = "INSERT INTO customer_age_histogram (age, customer_count) VALUES (:age, :delta) "
+            + "ON CONFLICT (age) DO UPDATE SET customer_count = customer_age_histogram.customer_count + EXCLUDED.customer_count",
+            nativeQuery = true)
+    int adjustCount(@Param("age") int age, @Param("delta") long delta);
+
+    @Query("SELECT COALESCE(SUM(b.customerCount), 0) AS customerCount, "
+            + "COALESCE(SUM(b.age * b.customerCount), 0) AS ageSum, "
+            + "COALESCE(SUM(b.age * b.age * b.customerCount), 0) AS ageSquareSum, "
+            + "MIN(b.age) AS minAge, MAX(b.age) AS maxAge "
+            + "FROM CustomerAgeBucket b WHERE b.customerCount > 0")
+    AgeHistogramSummary summarize();
+
+    /**
+     * Blocks concurrent histogram updates until the calling transaction commits.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE customer_age_histogram IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    @Modifying
+    @Query("DELETE FROM CustomerAgeBucket b")
+    int deleteAllBuckets();
+
+    @Modifying
+    @Query(value = "INSERT INTO customer_age_histogram (age, customer_count) "
+            + "SELECT age, COUNT(*) FROM customers GROUP BY age",
+            nativeQuery = true)
+    int rebuildFromCustomers();
+}
@@ -0,0 +1,69 @@
+package com.pinapp.customerservice.repository;
+
+import com.pinapp.customerservice.dto.CustomerChangeDto;
+import com.pinapp.customerservice.entity.CustomerChange;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface CustomerChangeRepository extends JpaRepository<CustomerChange, Long> {
+
+    /**
+     * Takes the sequencer lock until the end of the transaction, or returns false when another instance
+     * holds it. Run it as its own statement: the numbering statement after it then gets a snapshot that
+     * includes everything the previous holder committed.
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryLockSequencer(@Param("key") long key);
+
+    /**
+     * Numbers the oldest committed changes that have no sequence yet, continuing from the highest one
+     * assigned. Only safe under the sequencer lock.
+     */
+    @Modifying
+    @Query(value = "UPDATE customer_change_log l SET seq = p.seq "
+            + "FROM (SELECT id, (SELECT COALESCE(MAX(seq), 0) FROM customer_change_log) "
+            + "+ ROW_NUMBER() OVER (ORDER BY id) AS seq "
+            + "FROM customer_change_log WHERE seq IS NULL ORDER BY id LIMIT :limit) p "
+            + "WHERE l.id = p.id",
+            nativeQuery = true)
+    int sequencePending(@Param("limit") int limit);
+
+    /**
+     * The numbered changes after a sequence, with each customer's current state. The customer is
+     * null once it has been deleted.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    @Query("SELECT new com.pinapp.customerservice.dto.CustomerChangeDto("
+            + "ch.seq, ch.changeType, ch.customerId, ch.version, ch.changedAt, "
+            + "c.id, c.firstName, c.lastName, c.age, c.dateOfBirth, c.version, c.lastModified) "
+            + "FROM CustomerChange ch LEFT JOIN Customer c ON c.id = ch.customerId "
+            + "WHERE ch.seq > :after ORDER BY ch.seq")
+    List<CustomerChangeDto> findChangesAfter(@Param("after") long after, Limit limit);
+
+    @Query("SELECT MAX(ch.seq) FROM CustomerChange ch")
+    Long findLatestSequence();
+
+    @Query("SELECT MIN(ch.seq) FROM CustomerChange ch")
+    Long findEarliestSequence();
+
+    // Deletes in batches so retention never holds locks on a large slice of the log
+    @Modifying
+    @Query(value = "DELETE FROM customer_change_log WHERE id IN (SELECT id FROM customer_change_log "
+            + "WHERE seq IS NOT NULL AND changed_at < :cutoff ORDER BY id LIMIT :limit)",
+            nativeQuery = true)
+    int deleteSequencedBefore(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+}
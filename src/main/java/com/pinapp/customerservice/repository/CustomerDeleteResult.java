@@ -0,0 +1,15 @@
+package com.pinapp.customerservice.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Row returned by {@link CustomerRepository#deleteByIdReturningStatistics}.
+ */
+public interface CustomerDeleteResult {
+
+    // For taking the customer out of its histogram bucket
+    Integer getAge();
+
+    // For taking the customer out of its signup day; null for rows created before the column existed
+    LocalDate getCreatedAt();
+}
@@ -1,23 +1,105 @@
 package com.pinapp.customerservice.repository;
 
+import com.pinapp.customerservice.dto.CustomerDetailDto;
+import com.pinapp.customerservice.dto.CustomerDto;
 import com.pinapp.customerservice.entity.Customer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface CustomerRepository extends JpaRepository<Customer, Long> {
-    @Query("SELECT AVG(c.age) FROM Customer c")
-    Double findAverageAge();
+public interface CustomerRepository extends JpaRepository<Customer, Long>, JpaSpecificationExecutor<Customer>,
+        CustomerSearchRepository {
 
-    @Query("SELECT STDDEV(c.age) FROM Customer c")
-    Double findAgeStandardDeviation();
+    // Constructor expressions for the read paths: rows go straight into DTOs, so Hibernate keeps no
+    // managed entities or dirty-checking snapshots for them
+    String CUSTOMER_DTO = "new com.pinapp.customerservice.dto.CustomerDto("
+            + "c.id, c.firstName, c.lastName, c.age, c.dateOfBirth, c.version, c.lastModified)";
+    String CUSTOMER_DETAIL_DTO = "new com.pinapp.customerservice.dto.CustomerDetailDto("
+            + "c.id, c.firstName, c.lastName, c.age, c.dateOfBirth, c.createdAt)";
+
+    // Versions start at 0, so this never matches a row's version
+    long ANY_VERSION = -1L;
 
     List<Customer> findByLastName(String lastName);
 
     List<Customer> findByAgeGreaterThanEqual(Integer age);
 
     List<Customer> findByAgeLessThanEqual(Integer age);
-}
\ No newline at end of file
+
+    /**
+     * Keyset pagination: returns the next page of customers whose ID is strictly greater than the given cursor.
+     */
+    List<Customer> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    @Query("SELECT " + CUSTOMER_DTO + " FROM Customer c WHERE c.id = :id")
+    Optional<CustomerDto> findDtoById(@Param("id") Long id);
+
+    @Query("SELECT c.createdAt FROM Customer c WHERE c.id = :id")
+    Optional<LocalDate> findCreatedAtById(@Param("id") Long id);
+
+    /**
+     * Keyset pagination projected to detail DTOs; the caller fills in the life expectancy.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    @Query("SELECT " + CUSTOMER_DETAIL_DTO + " FROM Customer c WHERE c.id > :id ORDER BY c.id")
+    List<CustomerDetailDto> findDetailsByIdGreaterThan(@Param("id") Long id, Limit limit);
+
+    /**
+     * Streams every customer as a detail DTO ordered by ID. Must be consumed inside a read-only transaction
+     * so the PostgreSQL driver can use a server-side cursor instead of buffering the whole result set.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    @Query("SELECT " + CUSTOMER_DETAIL_DTO + " FROM Customer c ORDER BY c.id")
+    Stream<CustomerDetailDto> streamDetailsOrderById();
+
+    /**
+     * Replaces a customer's fields and bumps its version in a single statement, provided the current version
+     * is {@code expectedVersion} (or {@link #ANY_VERSION}). The locking subquery supplies the pre-update age,
+     * which PostgreSQL's RETURNING cannot otherwise see. Returns empty when no row matched.
+     */
+    @Query(value = "UPDATE customers c SET first_name = :firstName, last_name = :lastName, age = :age, "
+            + "date_of_birth = :dateOfBirth, version = c.version + 1, last_modified = :lastModified "
+            + "FROM (SELECT id, age, version FROM customers WHERE id = :id FOR UPDATE) previous "
+            + "WHERE c.id = previous.id AND (:expectedVersion = " + ANY_VERSION + " OR previous.version = :expectedVersion) "
+            + "RETURNING previous.age AS \"previousAge\", c.version AS \"version\"",
+            nativeQuery = true)
+    Optional<CustomerUpdateResult> updateReturningPreviousAge(@Param("id") Long id,
+                                                              @Param("firstName") String firstName,
+                                                              @Param("lastName") String lastName,
+                                                              @Param("age") Integer age,
+                                                              @Param("dateOfBirth") LocalDate dateOfBirth,
+                                                              @Param("lastModified") Instant lastModified,
+                                                              @Param("expectedVersion") long expectedVersion);
+
+    /**
+     * Deletes a customer in a single statement, returning its age and signup day for the statistics; empty when
+     * no row matched.
+     */
+    @Query(value = "DELETE FROM customers WHERE id = :id RETURNING age AS \"age\", created_at AS \"createdAt\"",
+            nativeQuery = true)
+    Optional<CustomerDeleteResult> deleteByIdReturningStatistics(@Param("id") Long id);
+}
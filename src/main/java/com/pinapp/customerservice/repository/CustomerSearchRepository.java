@@ -0,0 +1,19 @@
+package com.pinapp.customerservice.repository;
+
+import com.pinapp.customerservice.dto.CustomerDto;
+import com.pinapp.customerservice.entity.Customer;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Repository fragment for specification queries projected straight to DTOs, which the fluent
+ * {@code findBy} API cannot do without loading the entities first.
+ */
+public interface CustomerSearchRepository {
+
+    /**
+     * Returns up to {@code limit} customers matching the specification, ordered by ID.
+     */
+    List<CustomerDto> searchDtos(Specification<Customer> specification, int limit);
+}
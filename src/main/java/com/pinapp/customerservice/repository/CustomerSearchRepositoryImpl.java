@@ -0,0 +1,48 @@
+package com.pinapp.customerservice.repository;
+
+import com.pinapp.customerservice.dto.CustomerDto;
+import com.pinapp.customerservice.entity.Customer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.FlushMode;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+class CustomerSearchRepositoryImpl implements CustomerSearchRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<CustomerDto> searchDtos(Specification<Customer> specification, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CustomerDto> query = cb.createQuery(CustomerDto.class);
+        Root<Customer> customer = query.from(Customer.class);
+
+        Predicate predicate = specification.toPredicate(customer, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(cb.construct(CustomerDto.class,
+                        customer.get("id"),
+                        customer.get("firstName"),
+                        customer.get("lastName"),
+                        customer.get("age"),
+                        customer.get("dateOfBirth"),
+                        customer.get("version"),
+                        customer.get("lastModified")))
+                .orderBy(cb.asc(customer.get("id")));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_FLUSH_MODE, FlushMode.MANUAL)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
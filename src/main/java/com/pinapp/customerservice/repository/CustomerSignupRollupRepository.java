@@ -0,0 +1,68 @@
+package com.pinapp.customerservice.repository;
+
+import com.pinapp.customerservice.entity.CustomerSignupDay;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface CustomerSignupRollupRepository extends JpaRepository<CustomerSignupDay, LocalDate> {
+
+    List<CustomerSignupDay> findBySignupDateBetweenOrderBySignupDate(LocalDate from, LocalDate to);
+
+    /**
+     * Takes the refresh lock until the end of the transaction, or returns false when another instance holds it.
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryLockRefresh(@Param("key") long key);
+
+    /**
+     * Takes one deleted customer out of its day. A day the refresh has not counted yet has no row, and its
+     * recount will not include the customer either. Days left at zero are dropped by the next rebuild.
+     */
+    @Modifying
+    @Query(value = "UPDATE customer_signup_daily SET customer_count = customer_count - 1 WHERE signup_date = :signupDate",
+            nativeQuery = true)
+    int decrementDay(@Param("signupDate") LocalDate signupDate);
+
+    /**
+     * Recounts every day from {@code from} onwards; an index range scan on created_at.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO customer_signup_daily (signup_date, customer_count) "
+            + "SELECT created_at, COUNT(*) FROM customers WHERE created_at >= :from GROUP BY created_at "
+            + "ON CONFLICT (signup_date) DO UPDATE SET customer_count = EXCLUDED.customer_count",
+            nativeQuery = true)
+    int refreshFrom(@Param("from") LocalDate from);
+
+    /**
+     * Drops days from {@code from} onwards whose customers have all been deleted.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM customer_signup_daily d WHERE d.signup_date >= :from "
+            + "AND NOT EXISTS (SELECT 1 FROM customers c WHERE c.created_at = d.signup_date)",
+            nativeQuery = true)
+    int deleteEmptyDaysFrom(@Param("from") LocalDate from);
+
+    /**
+     * Blocks concurrent refreshes until the calling transaction commits.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE customer_signup_daily IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    @Modifying
+    @Query("DELETE FROM CustomerSignupDay d")
+    int deleteAllDays();
+
+    @Modifying
+    @Query(value = "INSERT INTO customer_signup_daily (signup_date, customer_count) "
+            + "SELECT created_at, COUNT(*) FROM customers WHERE created_at IS NOT NULL GROUP BY created_at",
+            nativeQuery = true)
+    int rebuildFromCustomers();
+}
@@ -0,0 +1,94 @@
+package com.pinapp.customerservice.repository;
+
+import com.pinapp.customerservice.dto.CustomerSearchCriteria;
+import com.pinapp.customerservice.entity.Customer;
+import jakarta.persistence.criteria.Expression;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Composable filters for customer searches. Each one is backed by an index: trigram GIN indexes on
+ * the lower-cased names, B-tree indexes on age and created_at, and the primary key for the cursor.
+ */
+public final class CustomerSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private CustomerSpecifications() {
+    }
+
+    public static Specification<Customer> matching(CustomerSearchCriteria criteria) {
+        Specification<Customer> specification = Specification.where(null);
+        if (StringUtils.hasText(criteria.getName())) {
+            specification = specification.and(criteria.getNameMatch() == CustomerSearchCriteria.NameMatch.FUZZY
+                    ? nameSimilarTo(criteria.getName())
+                    : nameStartsWith(criteria.getName()));
+        }
+        return specification
+                .and(ageBetween(criteria.getMinAge(), criteria.getMaxAge()))
+                .and(createdBetween(criteria.getCreatedFrom(), criteria.getCreatedTo()));
+    }
+
+    public static Specification<Customer> nameStartsWith(String name) {
+        String pattern = escapeLike(normalize(name)) + "%";
+        return (root, query, cb) -> cb.or(
+                cb.like(cb.lower(root.get("firstName")), pattern, LIKE_ESCAPE),
+                cb.like(cb.lower(root.get("lastName")), pattern, LIKE_ESCAPE));
+    }
+
+    /**
+     * Uses the pg_trgm {@code %} operator, which matches when the trigram similarity exceeds
+     * {@code pg_trgm.similarity_threshold} (0.3 by default) and can be answered from the GIN indexes.
+     */
+    public static Specification<Customer> nameSimilarTo(String name) {
+        String term = normalize(name);
+        return (root, query, cb) -> {
+            Expression<String> value = cb.literal(term);
+            return cb.or(
+                    cb.isTrue(cb.function(TrigramFunctionContributor.TRIGRAM_SIMILAR, Boolean.class,
+                            cb.lower(root.get("firstName")), value)),
+                    cb.isTrue(cb.function(TrigramFunctionContributor.TRIGRAM_SIMILAR, Boolean.class,
+                            cb.lower(root.get("lastName")), value)));
+        };
+    }
+
+    public static Specification<Customer> ageBetween(Integer minAge, Integer maxAge) {
+        return (root, query, cb) -> {
+            if (minAge != null && maxAge != null) {
+                return cb.between(root.get("age"), minAge, maxAge);
+            }
+            if (minAge != null) {
+                return cb.greaterThanOrEqualTo(root.get("age"), minAge);
+            }
+            return maxAge != null ? cb.lessThanOrEqualTo(root.get("age"), maxAge) : null;
+        };
+    }
+
+    public static Specification<Customer> createdBetween(LocalDate from, LocalDate to) {
+        return (root, query, cb) -> {
+            if (from != null && to != null) {
+                return cb.between(root.get("createdAt"), from, to);
+            }
+            if (from != null) {
+                return cb.greaterThanOrEqualTo(root.get("createdAt"), from);
+            }
+            return to != null ? cb.lessThanOrEqualTo(root.get("createdAt"), to) : null;
+        };
+    }
+
+    public static Specification<Customer> idGreaterThan(Long afterId) {
+        return (root, query, cb) -> afterId != null ? cb.greaterThan(root.get("id"), afterId) : null;
+    }
+
+    // Package-private so the reactive search builds the same patterns
+    static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,13 @@
+package com.pinapp.customerservice.repository;
+
+/**
+ * Row returned by {@link CustomerRepository#updateReturningPreviousAge}.
+ */
+public interface CustomerUpdateResult {
+
+    // Age before the update, for moving the customer between histogram buckets
+    Integer getPreviousAge();
+
+    // Version after the update
+    Long getVersion();
+}
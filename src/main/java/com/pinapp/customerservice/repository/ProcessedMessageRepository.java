@@ -0,0 +1,31 @@
+package com.pinapp.customerservice.repository;
+
+import com.pinapp.customerservice.entity.ProcessedMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProcessedMessageRepository extends JpaRepository<ProcessedMessage, String> {
+
+    @Query("SELECT p.messageKey FROM ProcessedMessage p WHERE p.messageKey IN :keys")
+    List<String> findProcessedKeys(@Param("keys") Collection<String> keys);
+
+    // Another replica may have handled the same redelivery concurrently; the first insert wins
+    @Modifying
+    @Query(value = "INSERT INTO processed_message (message_key, processed_at) "
+            + "SELECT message_key, :processedAt FROM unnest(CAST(:keys AS varchar[])) AS message_key "
+            + "ON CONFLICT (message_key) DO NOTHING",
+            nativeQuery = true)
+    int insertAllIfAbsent(@Param("keys") String[] keys, @Param("processedAt") Instant processedAt);
+
+    @Modifying
+    @Query("DELETE FROM ProcessedMessage p WHERE p.processedAt < :cutoff")
+    int deleteProcessedBefore(@Param("cutoff") Instant cutoff);
+}
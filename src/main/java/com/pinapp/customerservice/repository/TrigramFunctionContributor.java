@@ -0,0 +1,23 @@
+package com.pinapp.customerservice.repository;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Exposes the pg_trgm similarity operator to JPQL and Criteria queries as {@code trgm_similar(a, b)}.
+ * Registered through META-INF/services.
+ */
+public class TrigramFunctionContributor implements FunctionContributor {
+
+    public static final String TRIGRAM_SIMILAR = "trgm_similar";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry().registerPattern(
+                TRIGRAM_SIMILAR,
+                "(?1 % ?2)",
+                functionContributions.getTypeConfiguration().getBasicTypeRegistry()
+                        .resolve(StandardBasicTypes.BOOLEAN));
+    }
+}
@@ -37,6 +37,7 @@ public class CustomUserDetailsService implements UserDetailsService {
         if (user == null) {
             throw new UsernameNotFoundException("User not found: " + username);
         }
-        return user;
+        // A copy: the authentication manager erases the password of the instance it authenticates
+        return User.withUserDetails(user).build();
     }
 }
\ No newline at end of file
@@ -11,6 +11,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Slf4j
 public class JwtAuthorizationFilter extends OncePerRequestFilter {
@@ -27,8 +28,12 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
 
         String token = getJwtFromRequest(request);
 
-        if (StringUtils.hasText(token) && jwtTokenProvider.validateToken(token)) {
-            Authentication auth = jwtTokenProvider.getAuthentication(token);
+        Optional<Authentication> authentication = StringUtils.hasText(token)
+                ? jwtTokenProvider.resolveAuthentication(token)
+                : Optional.empty();
+
+        if (authentication.isPresent()) {
+            Authentication auth = authentication.get();
             SecurityContextHolder.getContext().setAuthentication(auth);
             log.debug("Set Authentication to security context for '{}'", auth.getName());
         } else {
@@ -1,22 +1,55 @@
 package com.pinapp.customerservice.service;
 
+import com.pinapp.customerservice.dto.CustomerAnalyticsDto;
+import com.pinapp.customerservice.dto.CustomerBatchResultDto;
 import com.pinapp.customerservice.dto.CustomerDetailDto;
 import com.pinapp.customerservice.dto.CustomerDto;
 import com.pinapp.customerservice.dto.CustomerMetricsDto;
+import com.pinapp.customerservice.dto.CustomerSearchCriteria;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface CustomerService {
 
     CustomerDto createCustomer(CustomerDto customerDto);
 
+    /**
+     * Validates and inserts a chunk of customers in a single transaction.
+     *
+     * @param firstIndex position of the first element within the overall request, used in the item results
+     */
+    CustomerBatchResultDto createCustomers(List<CustomerDto> customerDtos, int firstIndex);
+
     CustomerDto getCustomerById(Long id);
 
-    List<CustomerDetailDto> getAllCustomersWithLifeExpectancy();
+    List<CustomerDetailDto> getCustomersWithLifeExpectancy(Long afterId, int limit);
+
+    void streamCustomersWithLifeExpectancy(Consumer<CustomerDetailDto> consumer);
+
+    /**
+     * Returns up to {@code limit} customers matching the criteria, ordered by ID, with an ID greater
+     * than {@code afterId} when given.
+     */
+    List<CustomerDto> searchCustomers(CustomerSearchCriteria criteria, Long afterId, int limit);
 
     CustomerMetricsDto calculateMetrics();
 
-    CustomerDto updateCustomer(Long id, CustomerDto customerDto);
+    CustomerMetricsDto rebuildMetrics();
+
+    /**
+     * Age distribution and signups between {@code from} and {@code to} (inclusive), read from the
+     * pre-aggregated histogram and signup rollup.
+     */
+    CustomerAnalyticsDto getAnalytics(int bucketWidth, LocalDate from, LocalDate to,
+                                      CustomerAnalyticsDto.Granularity granularity);
+
+    /**
+     * Replaces the customer's fields. When {@code expectedVersion} is given the update only applies to
+     * that version of the customer and fails with 412 Precondition Failed otherwise.
+     */
+    CustomerDto updateCustomer(Long id, CustomerDto customerDto, Long expectedVersion);
 
     void deleteCustomer(Long id);
 }
\ No newline at end of file
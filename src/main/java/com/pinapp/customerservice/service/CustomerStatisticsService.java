@@ -0,0 +1,27 @@
+package com.pinapp.customerservice.service;
+
+import com.pinapp.customerservice.dto.CustomerAnalyticsDto;
+import com.pinapp.customerservice.dto.CustomerMetricsDto;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+public interface CustomerStatisticsService {
+
+    void recordCustomerAdded(int age);
+
+    void recordCustomersAdded(Collection<Integer> ages);
+
+    void recordCustomerRemoved(int age, LocalDate createdAt);
+
+    void recordAgeChanged(int previousAge, int newAge);
+
+    CustomerMetricsDto getMetrics();
+
+    CustomerMetricsDto rebuild();
+
+    CustomerAnalyticsDto getAnalytics(int bucketWidth, LocalDate from, LocalDate to,
+                                      CustomerAnalyticsDto.Granularity granularity);
+
+    void refreshSignups();
+}
@@ -0,0 +1,294 @@
+package com.pinapp.customerservice.service.impl;
+
+import com.pinapp.customerservice.columnstore.CustomerColumnStore;
+import com.pinapp.customerservice.dto.CustomerAnalyticsDto;
+import com.pinapp.customerservice.dto.CustomerMetricsDto;
+import com.pinapp.customerservice.entity.CustomerAgeBucket;
+import com.pinapp.customerservice.entity.CustomerSignupDay;
+import com.pinapp.customerservice.event.CustomerChangedEvent;
+import com.pinapp.customerservice.event.CustomerInvalidatedEvent;
+import com.pinapp.customerservice.repository.AgeHistogramSummary;
+import com.pinapp.customerservice.repository.CustomerAgeHistogramRepository;
+import com.pinapp.customerservice.repository.CustomerRepository;
+import com.pinapp.customerservice.repository.CustomerSignupRollupRepository;
+import com.pinapp.customerservice.service.CustomerStatisticsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the age statistics aggregate incrementally. Every customer mutation adjusts a single
+ * histogram row in the caller's transaction, so reading the metrics never scans the customers table.
+ * Signups per day are rolled up on a schedule instead, recounting only the most recent days; a deletion
+ * takes the customer out of its day directly, as its day may be long past the refresh window.
+ * When the {@link CustomerColumnStore} is loaded, reads scan its columns instead of these tables.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerStatisticsServiceImpl implements CustomerStatisticsService {
+
+    // Customers get created_at from the application clock at insert, so only today and yesterday
+    // (transactions spanning midnight) can still change between refreshes
+    private static final int SIGNUP_REFRESH_LOOKBACK_DAYS = 1;
+
+    // Arbitrary, but the same on every instance
+    private static final long SIGNUP_REFRESH_LOCK_KEY = 0x637573745f73676eL;
+
+    private static final int[] AGE_PERCENTILES = {25, 50, 75, 90, 95, 99};
+
+    // Writes invalidate the snapshot on commit, on other instances through the invalidation bus; this bounds
+    // how long a write goes unseen when its invalidation is lost
+    private static final long METRICS_SNAPSHOT_TTL_NANOS = Duration.ofSeconds(5).toNanos();
+
+    private final CustomerAgeHistogramRepository histogramRepository;
+    private final CustomerRepository customerRepository;
+    private final CustomerSignupRollupRepository signupRollupRepository;
+    private final CustomerColumnStore columnStore;
+
+    private volatile MetricsSnapshot metricsSnapshot;
+
+    @Override
+    @Transactional
+    public void recordCustomerAdded(int age) {
+        histogramRepository.adjustCount(age, 1);
+    }
+
+    @Override
+    @Transactional
+    public void recordCustomersAdded(Collection<Integer> ages) {
+        // One upsert per distinct age, applied in a stable order to avoid deadlocks between concurrent batches
+        Map<Integer, Long> countsByAge = ages.stream()
+                .collect(Collectors.groupingBy(Function.identity(), TreeMap::new, Collectors.counting()));
+        countsByAge.forEach(histogramRepository::adjustCount);
+    }
+
+    @Override
+    @Transactional
+    public void recordCustomerRemoved(int age, LocalDate createdAt) {
+        histogramRepository.adjustCount(age, -1);
+        if (createdAt != null) {
+            signupRollupRepository.decrementDay(createdAt);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void recordAgeChanged(int previousAge, int newAge) {
+        if (previousAge == newAge) {
+            return;
+        }
+        histogramRepository.adjustCount(previousAge, -1);
+        histogramRepository.adjustCount(newAge, 1);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CustomerMetricsDto getMetrics() {
+        MetricsSnapshot snapshot = metricsSnapshot;
+        if (snapshot != null && System.nanoTime() - snapshot.expiresAtNanos() < 0) {
+            return snapshot.metrics();
+        }
+        CustomerMetricsDto metrics = toMetrics(columnStore.isReady()
+                ? columnStore.summarizeAges()
+                : histogramRepository.summarize());
+        metricsSnapshot = new MetricsSnapshot(metrics, System.nanoTime() + METRICS_SNAPSHOT_TTL_NANOS);
+        return metrics;
+    }
+
+    /**
+     * Drops the metrics snapshot once a customer change is committed. A summary read concurrently with
+     * the commit may still be stored afterwards, which the snapshot TTL bounds.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        metricsSnapshot = null;
+    }
+
+    @EventListener
+    public void onCustomerInvalidated(CustomerInvalidatedEvent event) {
+        metricsSnapshot = null;
+    }
+
+    @Override
+    @Transactional
+    public CustomerMetricsDto rebuild() {
+        log.info("Rebuilding customer age histogram from the customers table");
+        histogramRepository.lockForRebuild();
+        histogramRepository.deleteAllBuckets();
+        int buckets = histogramRepository.rebuildFromCustomers();
+        log.info("Customer age histogram rebuilt with {} buckets", buckets);
+
+        // Also drops the days deletions have left at zero
+        signupRollupRepository.lockForRebuild();
+        signupRollupRepository.deleteAllDays();
+        int days = signupRollupRepository.rebuildFromCustomers();
+        log.info("Customer signup rollup rebuilt with {} days", days);
+
+        metricsSnapshot = null;
+
+        return toMetrics(histogramRepository.summarize());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${customer.analytics.signups.refresh-interval-ms:60000}")
+    @Transactional
+    public void refreshSignups() {
+        // Every instance schedules the refresh; concurrent recounts would only repeat the same work
+        if (!signupRollupRepository.tryLockRefresh(SIGNUP_REFRESH_LOCK_KEY)) {
+            log.debug("Customer signup rollup refresh skipped, another instance holds the lock");
+            return;
+        }
+        LocalDate from = LocalDate.now().minusDays(SIGNUP_REFRESH_LOOKBACK_DAYS);
+        int days = signupRollupRepository.refreshFrom(from);
+        signupRollupRepository.deleteEmptyDaysFrom(from);
+        log.debug("Refreshed {} days of the customer signup rollup from {}", days, from);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CustomerAnalyticsDto getAnalytics(int bucketWidth, LocalDate from, LocalDate to,
+                                             CustomerAnalyticsDto.Granularity granularity) {
+        List<CustomerAgeBucket> histogram;
+        List<CustomerSignupDay> signupDays;
+        if (columnStore.isReady()) {
+            histogram = columnStore.ageHistogram();
+            signupDays = columnStore.signupsBetween(from, to);
+        } else {
+            histogram = histogramRepository.findAll(Sort.by("age"));
+            signupDays = signupRollupRepository.findBySignupDateBetweenOrderBySignupDate(from, to);
+        }
+
+        return CustomerAnalyticsDto.builder()
+                .totalCustomers(histogram.stream().mapToLong(CustomerAgeBucket::getCustomerCount).sum())
+                .bucketWidth(bucketWidth)
+                .ageBuckets(toAgeBuckets(histogram, bucketWidth))
+                .agePercentiles(toAgePercentiles(histogram))
+                .granularity(granularity)
+                .from(from)
+                .to(to)
+                .signups(toSignupCounts(signupDays, granularity))
+                .build();
+    }
+
+    /**
+     * Backfills the histogram the first time the service starts against an existing customers table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initializeIfEmpty() {
+        if (histogramRepository.count() == 0
+                && !customerRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(1)).isEmpty()) {
+            rebuild();
+        }
+    }
+
+    static List<CustomerAnalyticsDto.AgeBucket> toAgeBuckets(List<CustomerAgeBucket> histogram, int bucketWidth) {
+        Map<Integer, Long> countsByBucket = new TreeMap<>();
+        for (CustomerAgeBucket bucket : histogram) {
+            if (bucket.getCustomerCount() > 0) {
+                countsByBucket.merge(Math.floorDiv(bucket.getAge(), bucketWidth), bucket.getCustomerCount(), Long::sum);
+            }
+        }
+
+        List<CustomerAnalyticsDto.AgeBucket> buckets = new ArrayList<>(countsByBucket.size());
+        countsByBucket.forEach((index, count) -> buckets.add(new CustomerAnalyticsDto.AgeBucket(
+                index * bucketWidth, index * bucketWidth + bucketWidth - 1, count)));
+        return buckets;
+    }
+
+    // Nearest-rank over the exact per-age counts; the histogram is sorted by age
+    static Map<String, Integer> toAgePercentiles(List<CustomerAgeBucket> histogram) {
+        long total = histogram.stream().mapToLong(CustomerAgeBucket::getCustomerCount).sum();
+        Map<String, Integer> percentiles = new LinkedHashMap<>();
+        if (total == 0) {
+            return percentiles;
+        }
+
+        int next = 0;
+        long cumulative = 0;
+        for (CustomerAgeBucket bucket : histogram) {
+            cumulative += bucket.getCustomerCount();
+            while (next < AGE_PERCENTILES.length
+                    && cumulative >= (long) Math.ceil(AGE_PERCENTILES[next] / 100.0 * total)) {
+                percentiles.put("p" + AGE_PERCENTILES[next], bucket.getAge());
+                next++;
+            }
+        }
+        return percentiles;
+    }
+
+    static List<CustomerAnalyticsDto.SignupCount> toSignupCounts(List<CustomerSignupDay> days,
+                                                                 CustomerAnalyticsDto.Granularity granularity) {
+        Map<LocalDate, Long> countsByPeriod = new TreeMap<>();
+        for (CustomerSignupDay day : days) {
+            if (day.getCustomerCount() <= 0) {
+                continue;
+            }
+            LocalDate periodStart = granularity == CustomerAnalyticsDto.Granularity.WEEK
+                    ? day.getSignupDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                    : day.getSignupDate();
+            countsByPeriod.merge(periodStart, day.getCustomerCount(), Long::sum);
+        }
+
+        List<CustomerAnalyticsDto.SignupCount> signups = new ArrayList<>(countsByPeriod.size());
+        countsByPeriod.forEach((periodStart, count) -> signups.add(new CustomerAnalyticsDto.SignupCount(periodStart, count)));
+        return signups;
+    }
+
+    static CustomerMetricsDto toMetrics(AgeHistogramSummary summary) {
+        long count = summary != null && summary.getCustomerCount() != null ? summary.getCustomerCount() : 0L;
+
+        if (count == 0) {
+            return CustomerMetricsDto.builder()
+                    .averageAge(0.0)
+                    .ageStandardDeviation(0.0)
+                    .totalCustomers(0L)
+                    .youngestCustomerAge(0)
+                    .oldestCustomerAge(0)
+                    .build();
+        }
+
+        double sum = summary.getAgeSum();
+        double squareSum = summary.getAgeSquareSum();
+        double average = sum / count;
+
+        // Sample standard deviation, matching PostgreSQL's STDDEV
+        double standardDeviation = 0.0;
+        if (count > 1) {
+            double variance = (squareSum - sum * sum / count) / (count - 1);
+            standardDeviation = Math.sqrt(Math.max(variance, 0.0));
+        }
+
+        return CustomerMetricsDto.builder()
+                .averageAge(average)
+                .ageStandardDeviation(standardDeviation)
+                .totalCustomers(count)
+                .youngestCustomerAge(summary.getMinAge())
+                .oldestCustomerAge(summary.getMaxAge())
+                .build();
+    }
+
+    private record MetricsSnapshot(CustomerMetricsDto metrics, long expiresAtNanos) {
+    }
+}
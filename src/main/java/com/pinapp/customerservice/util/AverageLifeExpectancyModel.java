@@ -0,0 +1,18 @@
+package com.pinapp.customerservice.util;
+
+/**
+ * Simplified model: everyone is expected to reach the same average age, with at least one year left.
+ */
+public class AverageLifeExpectancyModel implements LifeExpectancyModel {
+
+    // Average life expectancy (simplified model)
+    private static final int AVERAGE_LIFE_EXPECTANCY = 80;
+
+    @Override
+    public int estimatedRemainingYears(int age) {
+        int estimatedRemainingYears = AVERAGE_LIFE_EXPECTANCY - age;
+
+        // Ensure we don't return a date in the past for very old customers
+        return Math.max(estimatedRemainingYears, 1);
+    }
+}
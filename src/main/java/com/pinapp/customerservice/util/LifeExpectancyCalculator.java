@@ -1,20 +1,38 @@
 package com.pinapp.customerservice.util;
 
 import com.pinapp.customerservice.entity.Customer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.time.Clock;
 import java.time.LocalDate;
 
 @Component
 public class LifeExpectancyCalculator {
 
-    // Average life expectancy (simplified model)
-    private static final int AVERAGE_LIFE_EXPECTANCY = 80;
+    private final LifeExpectancyModel model;
+    private final Clock clock;
 
-    // Regional and lifestyle factors could be added for more complex calculations
+    // Rebuilt on the first call of each day; a race only builds the same table twice
+    private volatile LifeExpectancyTable table;
+
+    public LifeExpectancyCalculator() {
+        this(new AverageLifeExpectancyModel(), Clock.systemDefaultZone());
+    }
+
+    @Autowired
+    public LifeExpectancyCalculator(ObjectProvider<LifeExpectancyModel> model) {
+        this(model.getIfAvailable(AverageLifeExpectancyModel::new), Clock.systemDefaultZone());
+    }
+
+    LifeExpectancyCalculator(LifeExpectancyModel model, Clock clock) {
+        this.model = model;
+        this.clock = clock;
+    }
 
     /**
-     * Calculates the estimated date of end of life based on a simple algorithm.
+     * Calculates the estimated date of end of life based on the configured {@link LifeExpectancyModel}.
      * In a real-world scenario, this would include more factors like:
      * - Gender
      * - Country/region
@@ -23,14 +41,33 @@ public class LifeExpectancyCalculator {
      * - Family medical history
      */
     public LocalDate calculateLifeExpectancy(Customer customer) {
-        int currentAge = customer.getAge();
-        int estimatedRemainingYears = AVERAGE_LIFE_EXPECTANCY - currentAge;
+        return calculateLifeExpectancy(customer.getAge());
+    }
 
-        // Ensure we don't return a date in the past for very old customers
-        if (estimatedRemainingYears <= 0) {
-            estimatedRemainingYears = 1;
-        }
+    public LocalDate calculateLifeExpectancy(int currentAge) {
+        return currentTable().lifeExpectancy(currentAge);
+    }
+
+    /**
+     * Batch variant for listings: reads the clock once and returns the life expectancy of each age as
+     * epoch days, index for index.
+     */
+    public long[] calculateLifeExpectancyEpochDays(int[] ages) {
+        long[] result = new long[ages.length];
+        currentTable().lifeExpectancyEpochDays(ages, result);
+        return result;
+    }
 
-        return LocalDate.now().plusYears(estimatedRemainingYears);
+    /**
+     * Today's table. Callers emitting many rows (streams) take it once and look ages up directly.
+     */
+    public LifeExpectancyTable currentTable() {
+        LocalDate today = LocalDate.now(clock);
+        LifeExpectancyTable current = table;
+        if (current == null || !current.getDay().equals(today)) {
+            current = new LifeExpectancyTable(today, model);
+            table = current;
+        }
+        return current;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,15 @@
+package com.pinapp.customerservice.util;
+
+/**
+ * Estimates how many more years a customer is expected to live. The calculator evaluates the model
+ * once per age per day and serves rows from that table, so a richer model (gender, country/region,
+ * actuarial tables) costs more only when the table is rebuilt, not per customer. Inputs beyond age
+ * would add a dimension to the table rather than a per-row computation.
+ *
+ * <p>Declare a bean of this type to replace the default {@link AverageLifeExpectancyModel}.
+ */
+@FunctionalInterface
+public interface LifeExpectancyModel {
+
+    int estimatedRemainingYears(int age);
+}
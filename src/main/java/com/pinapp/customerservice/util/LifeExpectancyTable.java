@@ -0,0 +1,55 @@
+package com.pinapp.customerservice.util;
+
+import java.time.LocalDate;
+
+/**
+ * Life expectancy for every age from 0 to {@link #MAX_AGE}, evaluated once for a given day. Lookups are
+ * array reads with no clock access or allocation; ages outside the table fall back to the model.
+ */
+public final class LifeExpectancyTable {
+
+    public static final int MAX_AGE = 150;
+
+    private final LocalDate day;
+    private final LifeExpectancyModel model;
+    private final long[] epochDays = new long[MAX_AGE + 1];
+    private final LocalDate[] dates = new LocalDate[MAX_AGE + 1];
+
+    LifeExpectancyTable(LocalDate day, LifeExpectancyModel model) {
+        this.day = day;
+        this.model = model;
+        for (int age = 0; age <= MAX_AGE; age++) {
+            dates[age] = day.plusYears(model.estimatedRemainingYears(age));
+            epochDays[age] = dates[age].toEpochDay();
+        }
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public LocalDate lifeExpectancy(int age) {
+        if (age < 0 || age > MAX_AGE) {
+            return day.plusYears(model.estimatedRemainingYears(age));
+        }
+        return dates[age];
+    }
+
+    public long lifeExpectancyEpochDay(int age) {
+        if (age < 0 || age > MAX_AGE) {
+            return lifeExpectancy(age).toEpochDay();
+        }
+        return epochDays[age];
+    }
+
+    /**
+     * Writes the life expectancy, as epoch days, of {@code ages[i]} into {@code result[i]}.
+     */
+    public void lifeExpectancyEpochDays(int[] ages, long[] result) {
+        long[] table = epochDays;
+        for (int i = 0; i < ages.length; i++) {
+            int age = ages[i];
+            result[i] = age >= 0 && age <= MAX_AGE ? table[age] : lifeExpectancy(age).toEpochDay();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+-- Schema as previously generated by Hibernate (ddl-auto: update). Every statement is idempotent, so
+-- this also runs cleanly against databases that were created before migrations were introduced.
+
+CREATE TABLE IF NOT EXISTS customers (
+    id            BIGINT       NOT NULL PRIMARY KEY,
+    first_name    VARCHAR(255) NOT NULL,
+    last_name     VARCHAR(255) NOT NULL,
+    age           INTEGER      NOT NULL,
+    date_of_birth DATE         NOT NULL,
+    created_at    DATE
+);
+
+CREATE SEQUENCE IF NOT EXISTS customers_seq START WITH 1 INCREMENT BY 50;
+
+-- Older databases assigned IDs from an identity column. Hibernate's pooled optimizer hands out
+-- (value - 49 .. value), so the sequence must sit at least 50 past the highest existing ID.
+SELECT setval('customers_seq',
+              GREATEST((SELECT COALESCE(MAX(id), 0) FROM customers) + 50,
+                       (SELECT last_value FROM customers_seq)));
+
+CREATE TABLE IF NOT EXISTS customer_age_histogram (
+    age            INTEGER NOT NULL PRIMARY KEY,
+    customer_count BIGINT  NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS customer_outbox (
+    id           BIGINT                      NOT NULL PRIMARY KEY,
+    routing_key  VARCHAR(255)                NOT NULL,
+    aggregate_id BIGINT,
+    payload      TEXT                        NOT NULL,
+    created_at   TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    available_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    attempts     INTEGER                     NOT NULL,
+    last_error   VARCHAR(1000)
+);
+
+CREATE SEQUENCE IF NOT EXISTS customer_outbox_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS processed_message (
+    message_key  VARCHAR(200)                NOT NULL PRIMARY KEY,
+    processed_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
@@ -0,0 +1,17 @@
+-- Indexes for the CustomerRepository finders. CustomerRepositoryIndexIT checks that each finder's
+-- plan uses one of them. Built CONCURRENTLY so the tables keep taking writes while an existing
+-- deployment migrates, which is why the script runs outside a transaction (see the .conf file).
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customers_last_name ON customers (last_name);
+
+-- Also covers the metrics rebuild (SELECT age, COUNT(*) ... GROUP BY age) as an index-only scan
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customers_age ON customers (age);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customers_created_at ON customers (created_at);
+
+-- Covers the outbox relay's claim (WHERE available_at <= ? ORDER BY id) and its lag query
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customer_outbox_available_at ON customer_outbox (available_at, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customer_outbox_created_at ON customer_outbox (created_at);
+
+-- Lets the idempotency-key purge delete by age without scanning the table
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_processed_message_processed_at ON processed_message (processed_at);
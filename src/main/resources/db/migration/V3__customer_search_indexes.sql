@@ -0,0 +1,8 @@
+-- Trigram indexes for GET /api/customers/search. gin_trgm_ops answers both prefix LIKE patterns and
+-- the similarity operator (%), on the same lower-cased expressions the search queries use. Built
+-- CONCURRENTLY, outside a transaction, as GIN builds are slow on a populated table.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customers_first_name_trgm ON customers USING gin (lower(first_name) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customers_last_name_trgm ON customers USING gin (lower(last_name) gin_trgm_ops);
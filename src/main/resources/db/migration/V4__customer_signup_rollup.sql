@@ -0,0 +1,11 @@
+-- Signups per day, refreshed from customers on a schedule (see CustomerStatisticsServiceImpl) and read
+-- by the analytics endpoint. Backfilled here once; afterwards only recent days are recounted.
+
+CREATE TABLE IF NOT EXISTS customer_signup_daily (
+    signup_date    DATE   NOT NULL PRIMARY KEY,
+    customer_count BIGINT NOT NULL
+);
+
+INSERT INTO customer_signup_daily (signup_date, customer_count)
+SELECT created_at, COUNT(*) FROM customers WHERE created_at IS NOT NULL GROUP BY created_at
+ON CONFLICT (signup_date) DO UPDATE SET customer_count = EXCLUDED.customer_count;
@@ -0,0 +1,5 @@
+-- Optimistic locking version and modification time, exposed as the ETag and Last-Modified of a customer.
+-- Existing rows start at version 0 and count as modified at migration time.
+
+ALTER TABLE customers ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE customers ADD COLUMN IF NOT EXISTS last_modified TIMESTAMP(6) WITH TIME ZONE NOT NULL DEFAULT now();
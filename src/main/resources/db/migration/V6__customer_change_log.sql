@@ -0,0 +1,40 @@
+-- Change log behind GET /api/customers/changes (see CustomerChangeFeed). A trigger records every insert,
+-- update and delete of a customer in the writing transaction, so the log cannot miss a change and the
+-- single-statement update and delete stay single statements.
+--
+-- Rows arrive with seq NULL. Writers commit out of id order, so the feed's sequencer numbers committed
+-- rows afterwards, one sequencer at a time (advisory lock): a reader that has seen seq N has seen every
+-- change numbered up to N, and seq is what clients resume from.
+
+CREATE TABLE IF NOT EXISTS customer_change_log (
+    id          BIGSERIAL                   PRIMARY KEY,
+    seq         BIGINT,
+    customer_id BIGINT                      NOT NULL,
+    change_type VARCHAR(16)                 NOT NULL,
+    -- Customer version after the change; NULL for deletes
+    version     BIGINT,
+    changed_at  TIMESTAMP(6) WITH TIME ZONE NOT NULL DEFAULT now()
+);
+
+-- Covers the feed's reads (WHERE seq > ? ORDER BY seq) and the sequencer's MAX(seq)
+CREATE UNIQUE INDEX IF NOT EXISTS idx_customer_change_log_seq ON customer_change_log (seq);
+
+-- Keeps finding the rows still to be numbered cheap however long the retained history is
+CREATE INDEX IF NOT EXISTS idx_customer_change_log_pending ON customer_change_log (id) WHERE seq IS NULL;
+
+CREATE OR REPLACE FUNCTION record_customer_change() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        INSERT INTO customer_change_log (customer_id, change_type, version) VALUES (OLD.id, 'DELETED', NULL);
+    ELSE
+        INSERT INTO customer_change_log (customer_id, change_type, version)
+        VALUES (NEW.id, CASE TG_OP WHEN 'INSERT' THEN 'CREATED' ELSE 'UPDATED' END, NEW.version);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS customer_change_log_trigger ON customers;
+CREATE TRIGGER customer_change_log_trigger
+    AFTER INSERT OR UPDATE OR DELETE ON customers
+    FOR EACH ROW EXECUTE FUNCTION record_customer_change();
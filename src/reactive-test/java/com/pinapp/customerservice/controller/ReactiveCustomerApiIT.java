@@ -0,0 +1,275 @@
+package com.pinapp.customerservice.controller;
+
+import com.pinapp.customerservice.CustomerServiceApplication;
+import com.pinapp.customerservice.dto.CustomerBatchResultDto;
+import com.pinapp.customerservice.dto.CustomerDetailDto;
+import com.pinapp.customerservice.dto.CustomerDto;
+import com.pinapp.customerservice.dto.CustomerMetricsDto;
+import com.pinapp.customerservice.dto.LoginResponse;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.reactive.context.ReactiveWebApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Boots the reactive profile against PostgreSQL and RabbitMQ and drives the customer API over HTTP, checking
+ * the status codes, headers and bodies the servlet stack answers with.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class ReactiveCustomerApiIT {
+
+    private static final Duration GIVE_UP_AFTER = Duration.ofSeconds(10);
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Container
+    static RabbitMQContainer rabbitmq = new RabbitMQContainer("rabbitmq:3-management-alpine");
+
+    private static ConfigurableApplicationContext context;
+    private static WebTestClient client;
+
+    @BeforeAll
+    static void startInstance() {
+        context = new SpringApplicationBuilder(CustomerServiceApplication.class)
+                .profiles("reactive")
+                // Command-line arguments, as default properties would lose to application.yml
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "--spring.datasource.username=" + postgres.getUsername(),
+                        "--spring.datasource.password=" + postgres.getPassword(),
+                        "--spring.r2dbc.url=r2dbc:postgresql://" + postgres.getHost() + ":"
+                                + postgres.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT) + "/"
+                                + postgres.getDatabaseName(),
+                        "--spring.rabbitmq.host=" + rabbitmq.getHost(),
+                        "--spring.rabbitmq.port=" + rabbitmq.getAmqpPort(),
+                        "--spring.rabbitmq.username=" + rabbitmq.getAdminUsername(),
+                        "--spring.rabbitmq.password=" + rabbitmq.getAdminPassword(),
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.com.pinapp.customerservice=INFO",
+                        "--management.tracing.sampling.probability=0.0",
+                        "--security.jwt.secret=" + "reactive-api-it-".repeat(4));
+        assertInstanceOf(ReactiveWebApplicationContext.class, context);
+
+        String port = context.getEnvironment().getProperty("local.server.port");
+        String token = WebTestClient.bindToServer().baseUrl("http://localhost:" + port).build()
+                .post().uri("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("username", "admin", "password", "admin"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(LoginResponse.class)
+                .returnResult().getResponseBody().getToken();
+        client = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + port)
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .build();
+    }
+
+    @AfterAll
+    static void stopInstance() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    void createAndGetCustomer_ShouldAnswerWithVersionETagAndNotModified() {
+        // Arrange
+        CustomerDto created = create(customer("Ada", 36));
+
+        // Act
+        String eTag = client.get().uri("/api/customers/{id}", created.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.LAST_MODIFIED)
+                .returnResult(CustomerDto.class).getResponseHeaders().getETag();
+
+        // Assert
+        assertEquals("\"0\"", eTag);
+        client.get().uri("/api/customers/{id}", created.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+        client.get().uri("/api/customers/{id}", Long.MAX_VALUE)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void createCustomer_WithInvalidBody_ShouldReportFieldErrors() {
+        client.post().uri("/api/customers")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("firstName", "", "lastName", "Doe", "age", -1))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Validation failed")
+                .jsonPath("$.errors.firstName").exists()
+                .jsonPath("$.errors.age").exists();
+    }
+
+    @Test
+    void updateCustomer_WithStaleIfMatch_ShouldFailPrecondition() {
+        // Arrange
+        CustomerDto created = create(customer("Grace", 40));
+        CustomerDto changed = customer("Grace", 41);
+
+        // Act
+        CustomerDto updated = client.put().uri("/api/customers/{id}", created.getId())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(changed)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"")
+                .expectBody(CustomerDto.class)
+                .returnResult().getResponseBody();
+
+        // Assert
+        assertEquals(41, updated.getAge());
+        client.put().uri("/api/customers/{id}", created.getId())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(changed)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @Test
+    void createCustomersFromStream_ShouldReportEachLine() {
+        // Arrange
+        String body = "{\"firstName\":\"N\",\"lastName\":\"D\",\"age\":30,\"dateOfBirth\":\"1990-01-01\"}\n"
+                + "{not json\n"
+                + "{\"firstName\":\"M\",\"lastName\":\"D\",\"age\":31,\"dateOfBirth\":\"1990-01-01\"}\n";
+
+        // Act
+        CustomerBatchResultDto result = client.post().uri("/api/customers/batch")
+                .contentType(MediaType.parseMediaType(CustomerController.NDJSON_MEDIA_TYPE))
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.MULTI_STATUS)
+                .expectBody(CustomerBatchResultDto.class)
+                .returnResult().getResponseBody();
+
+        // Assert
+        assertEquals(2, result.getCreated());
+        assertEquals(1, result.getFailed());
+        assertEquals(List.of(0, 1, 2), result.getResults().stream().map(item -> item.getIndex()).toList());
+    }
+
+    @Test
+    void createCustomers_WithObjectInsteadOfArray_ShouldBeRejected() {
+        client.post().uri("/api/customers/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"firstName\":\"Ada\"}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Expected a JSON array of customers");
+    }
+
+    @Test
+    void getCustomers_ShouldPageWithCursorAndLifeExpectancy() {
+        // Arrange
+        create(customer("Page", 20));
+        create(customer("Page", 21));
+
+        // Act
+        List<CustomerDetailDto> page = client.get().uri("/api/customers?limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(CustomerController.NEXT_CURSOR_HEADER)
+                .expectBodyList(CustomerDetailDto.class)
+                .returnResult().getResponseBody();
+
+        // Assert
+        assertEquals(1, page.size());
+        assertNotNull(page.get(0).getEstimatedLifeExpectancy());
+    }
+
+    @Test
+    void deleteCustomer_ShouldKeepIncrementalMetricsEqualToRebuild() {
+        // Arrange
+        CustomerDto created = create(customer("Gone", 50));
+
+        // Act
+        client.delete().uri("/api/customers/{id}", created.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+        client.delete().uri("/api/customers/{id}", created.getId())
+                .exchange()
+                .expectStatus().isNotFound();
+
+        // Assert
+        CustomerMetricsDto incremental = metrics("/api/customers/metrics", client.get());
+        CustomerMetricsDto rebuilt = metrics("/api/customers/metrics/rebuild", client.post());
+        assertEquals(rebuilt.getTotalCustomers(), incremental.getTotalCustomers());
+        assertEquals(rebuilt.getAverageAge(), incremental.getAverageAge(), 1e-9);
+    }
+
+    @Test
+    void createCustomer_ShouldPublishThroughOutbox() {
+        // Arrange
+        // The composite registry counts through its first child, which may be a step registry
+        PrometheusMeterRegistry registry = context.getBean(PrometheusMeterRegistry.class);
+        double before = registry.counter("customers.outbox.published").count();
+
+        // Act
+        create(customer("Relayed", 33));
+
+        // Assert
+        long deadline = System.nanoTime() + GIVE_UP_AFTER.toNanos();
+        while (registry.counter("customers.outbox.published").count() <= before) {
+            assertTrue(System.nanoTime() < deadline, "Outbox event was never published");
+            LockSupport.parkNanos(Duration.ofMillis(10).toNanos());
+        }
+    }
+
+    private static CustomerDto create(CustomerDto customer) {
+        return client.post().uri("/api/customers")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(customer)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(CustomerDto.class)
+                .returnResult().getResponseBody();
+    }
+
+    private static CustomerMetricsDto metrics(String path, WebTestClient.RequestHeadersUriSpec<?> request) {
+        return request.uri(path)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(CustomerMetricsDto.class)
+                .returnResult().getResponseBody();
+    }
+
+    private static CustomerDto customer(String firstName, int age) {
+        return CustomerDto.builder()
+                .firstName(firstName)
+                .lastName("Reactive")
+                .age(age)
+                .dateOfBirth(LocalDate.now().minusYears(age))
+                .build();
+    }
+}
@@ -0,0 +1,300 @@
+package com.pinapp.customerservice.service;
+
+import com.pinapp.customerservice.cache.CustomerCache;
+import com.pinapp.customerservice.columnstore.CustomerColumnStore;
+import com.pinapp.customerservice.dto.CustomerDetailDto;
+import com.pinapp.customerservice.dto.CustomerDto;
+import com.pinapp.customerservice.entity.CustomerRow;
+import com.pinapp.customerservice.event.CustomerChangedEvent;
+import com.pinapp.customerservice.exception.CustomerException;
+import com.pinapp.customerservice.exception.ResourceNotFoundException;
+import com.pinapp.customerservice.messaging.ReactiveCustomerEventOutbox;
+import com.pinapp.customerservice.metrics.BusinessMetricsService;
+import com.pinapp.customerservice.repository.CustomerDeleteResult;
+import com.pinapp.customerservice.repository.CustomerRepository;
+import com.pinapp.customerservice.repository.CustomerUpdateRow;
+import com.pinapp.customerservice.repository.ReactiveCustomerRepository;
+import com.pinapp.customerservice.service.impl.ReactiveCustomerServiceImpl;
+import com.pinapp.customerservice.util.LifeExpectancyCalculator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveCustomerServiceImplTest {
+
+    @Mock
+    private ReactiveCustomerRepository customerRepository;
+
+    @Mock
+    private ReactiveCustomerEventOutbox eventOutbox;
+
+    @Mock
+    private ReactiveCustomerStatisticsService statisticsService;
+
+    @Mock
+    private CustomerService customerService;
+
+    @Spy
+    private LifeExpectancyCalculator lifeExpectancyCalculator = new LifeExpectancyCalculator();
+
+    @Mock
+    private BusinessMetricsService metricsService;
+
+    @Mock
+    private CustomerCache customerCache;
+
+    @Mock
+    private CustomerColumnStore columnStore;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @InjectMocks
+    private ReactiveCustomerServiceImpl reactiveCustomerService;
+
+    private CustomerDto customerDto;
+
+    @BeforeEach
+    void setUp() {
+        customerDto = CustomerDto.builder()
+                .firstName("John")
+                .lastName("Doe")
+                .age(30)
+                .dateOfBirth(LocalDate.of(1993, 1, 1))
+                .build();
+
+        // Runs the writes as they are; commit and rollback are the transaction manager's concern
+        lenient().when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        lenient().when(statisticsService.recordCustomerAdded(anyInt())).thenReturn(Mono.empty());
+        lenient().when(statisticsService.recordAgeChanged(anyInt(), anyInt())).thenReturn(Mono.empty());
+        lenient().when(statisticsService.recordCustomerRemoved(anyInt(), any())).thenReturn(Mono.empty());
+        lenient().when(eventOutbox.enqueueCustomerCreated(any())).thenReturn(Mono.empty());
+    }
+
+    @Test
+    void createCustomer_ShouldWriteInOneTransactionAndPublishAfterCommit() {
+        // Arrange
+        CustomerRow saved = row(1L);
+        when(customerRepository.insert(eq("John"), eq("Doe"), eq(30), eq(LocalDate.of(1993, 1, 1)),
+                eq(LocalDate.now()), any(Instant.class))).thenReturn(Mono.just(saved));
+
+        // Act & Assert
+        StepVerifier.create(reactiveCustomerService.createCustomer(customerDto))
+                .assertNext(created -> {
+                    assertEquals(1L, created.getId());
+                    assertEquals(0L, created.getVersion());
+                })
+                .verifyComplete();
+
+        verify(transactionalOperator, times(1)).transactional(any(Mono.class));
+        verify(statisticsService, times(1)).recordCustomerAdded(30);
+        verify(eventOutbox, times(1)).enqueueCustomerCreated(argThat(sent -> sent.getId() == 1L));
+        verify(metricsService, times(1)).incrementCustomerCreated();
+        verify(eventPublisher, times(1)).publishEvent(argThat((CustomerChangedEvent event) ->
+                event.getType() == CustomerChangedEvent.ChangeType.CREATED && event.getCustomerId() == 1L
+                        && saved.getCreatedAt().equals(event.getCreatedAt())));
+    }
+
+    @Test
+    void createCustomer_WhenTransactionFails_ShouldNotPublishEvent() {
+        // Arrange
+        when(customerRepository.insert(any(), any(), any(), any(), any(), any())).thenReturn(Mono.just(row(1L)));
+        when(eventOutbox.enqueueCustomerCreated(any()))
+                .thenReturn(Mono.error(new DataIntegrityViolationException("outbox")));
+
+        // Act & Assert
+        StepVerifier.create(reactiveCustomerService.createCustomer(customerDto))
+                .expectError(DataIntegrityViolationException.class)
+                .verify();
+
+        verify(eventPublisher, never()).publishEvent(any());
+        verify(metricsService, never()).incrementCustomerCreated();
+    }
+
+    @Test
+    void getCustomerById_WhenCustomerExists_ShouldLoadThroughCache() {
+        // Arrange
+        loadThroughCache(1L);
+        when(customerRepository.findDtoById(1L)).thenReturn(Mono.just(
+                new CustomerDto(1L, "John", "Doe", 30, LocalDate.of(1993, 1, 1), 0L, Instant.EPOCH)));
+
+        // Act & Assert
+        StepVerifier.create(reactiveCustomerService.getCustomerById(1L))
+                .assertNext(customer -> assertEquals("John", customer.getFirstName()))
+                .verifyComplete();
+    }
+
+    @Test
+    void getCustomerById_WhenCustomerDoesNotExist_ShouldFailNotFound() {
+        // Arrange
+        loadThroughCache(1L);
+        when(customerRepository.findDtoById(1L)).thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(reactiveCustomerService.getCustomerById(1L))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void getCustomersWithLifeExpectancy_WhenColumnStoreIsReady_ShouldNotQueryDatabase() {
+        // Arrange
+        when(columnStore.isReady()).thenReturn(true);
+        when(columnStore.page(0L, 10)).thenReturn(List.of(CustomerDetailDto.builder().id(1L).age(30).build()));
+
+        // Act & Assert
+        StepVerifier.create(reactiveCustomerService.getCustomersWithLifeExpectancy(null, 10))
+                .assertNext(customers -> assertNotNull(customers.get(0).getEstimatedLifeExpectancy()))
+                .verifyComplete();
+
+        verify(customerRepository, never()).findDetailsByIdGreaterThan(anyLong(), anyInt());
+    }
+
+    @Test
+    void updateCustomer_WhenCustomerExists_ShouldMoveHistogramBucketAndPublish() {
+        // Arrange
+        CustomerDto updateDto = CustomerDto.builder()
+                .firstName("John")
+                .lastName("Updated")
+                .age(31)
+                .dateOfBirth(LocalDate.of(1992, 1, 1))
+                .build();
+        when(customerRepository.updateReturningPreviousAge(eq(1L), eq("John"), eq("Updated"), eq(31),
+                eq(LocalDate.of(1992, 1, 1)), any(Instant.class), eq(3L)))
+                .thenReturn(Mono.just(new CustomerUpdateRow(30, 4L)));
+
+        // Act & Assert
+        StepVerifier.create(reactiveCustomerService.updateCustomer(1L, updateDto, 3L))
+                .assertNext(updated -> {
+                    assertEquals(4L, updated.getVersion());
+                    assertEquals("Updated", updated.getLastName());
+                    assertNotNull(updated.getLastModified());
+                })
+                .verifyComplete();
+
+        verify(statisticsService, times(1)).recordAgeChanged(30, 31);
+        verify(eventPublisher, times(1)).publishEvent(argThat((CustomerChangedEvent event) ->
+                event.getType() == CustomerChangedEvent.ChangeType.UPDATED && event.getCustomerId() == 1L));
+    }
+
+    @Test
+    void updateCustomer_WithoutExpectedVersion_ShouldUpdateAnyVersion() {
+        // Arrange
+        when(customerRepository.updateReturningPreviousAge(eq(1L), any(), any(), any(), any(), any(),
+                eq(CustomerRepository.ANY_VERSION))).thenReturn(Mono.just(new CustomerUpdateRow(30, 4L)));
+
+        // Act & Assert
+        StepVerifier.create(reactiveCustomerService.updateCustomer(1L, customerDto, null))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    @Test
+    void updateCustomer_WhenVersionIsStale_ShouldFailPreconditionWithoutPublishing() {
+        // Arrange
+        when(customerRepository.updateReturningPreviousAge(eq(1L), any(), any(), any(), any(), any(), eq(3L)))
+                .thenReturn(Mono.empty());
+        when(customerRepository.existsById(1L)).thenReturn(Mono.just(true));
+
+        // Act & Assert
+        StepVerifier.create(reactiveCustomerService.updateCustomer(1L, customerDto, 3L))
+                .expectErrorSatisfies(error -> {
+                    assertInstanceOf(CustomerException.class, error);
+                    assertEquals(HttpStatus.PRECONDITION_FAILED, ((CustomerException) error).getStatus());
+                })
+                .verify();
+
+        verify(statisticsService, never()).recordAgeChanged(anyInt(), anyInt());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void updateCustomer_WhenCustomerDoesNotExist_ShouldFailNotFound() {
+        // Arrange
+        when(customerRepository.updateReturningPreviousAge(eq(1L), any(), any(), any(), any(), any(), eq(3L)))
+                .thenReturn(Mono.empty());
+        when(customerRepository.existsById(1L)).thenReturn(Mono.just(false));
+
+        // Act & Assert
+        StepVerifier.create(reactiveCustomerService.updateCustomer(1L, customerDto, 3L))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void deleteCustomer_WhenCustomerExists_ShouldReleaseStatisticsAndPublish() {
+        // Arrange
+        CustomerDeleteResult deleted = mock(CustomerDeleteResult.class);
+        when(deleted.getAge()).thenReturn(30);
+        when(deleted.getCreatedAt()).thenReturn(LocalDate.of(2024, 1, 1));
+        when(customerRepository.deleteByIdReturningStatistics(1L)).thenReturn(Mono.just(deleted));
+
+        // Act & Assert
+        StepVerifier.create(reactiveCustomerService.deleteCustomer(1L))
+                .verifyComplete();
+
+        verify(statisticsService, times(1)).recordCustomerRemoved(30, LocalDate.of(2024, 1, 1));
+        verify(metricsService, times(1)).incrementCustomerDeleted();
+        verify(eventPublisher, times(1)).publishEvent(argThat((CustomerChangedEvent event) ->
+                event.getType() == CustomerChangedEvent.ChangeType.DELETED && event.getCustomerId() == 1L));
+    }
+
+    @Test
+    void deleteCustomer_WhenCustomerDoesNotExist_ShouldFailNotFound() {
+        // Arrange
+        when(customerRepository.deleteByIdReturningStatistics(1L)).thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(reactiveCustomerService.deleteCustomer(1L))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void loadThroughCache(Long id) {
+        when(customerCache.getAsync(eq(id), any())).thenAnswer(invocation ->
+                invocation.getArgument(1, Function.class).apply(id));
+    }
+
+    private CustomerRow row(Long id) {
+        return CustomerRow.builder()
+                .id(id)
+                .firstName("John")
+                .lastName("Doe")
+                .age(30)
+                .dateOfBirth(LocalDate.of(1993, 1, 1))
+                .createdAt(LocalDate.now())
+                .version(0L)
+                .lastModified(Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,551 @@
+package com.pinapp.customerservice.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.pinapp.customerservice.changefeed.CustomerChangeFeed;
+import com.pinapp.customerservice.changefeed.CustomerChangeSink;
+import com.pinapp.customerservice.changefeed.CustomerChangeSubscription;
+import com.pinapp.customerservice.dto.CustomerAnalyticsDto;
+import com.pinapp.customerservice.dto.CustomerBatchItemResultDto;
+import com.pinapp.customerservice.dto.CustomerBatchResultDto;
+import com.pinapp.customerservice.dto.CustomerChangeDto;
+import com.pinapp.customerservice.dto.CustomerDetailDto;
+import com.pinapp.customerservice.dto.CustomerDto;
+import com.pinapp.customerservice.dto.CustomerMetricsDto;
+import com.pinapp.customerservice.dto.CustomerSearchCriteria;
+import com.pinapp.customerservice.exception.CustomerException;
+import com.pinapp.customerservice.service.ReactiveCustomerService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.TransactionException;
+import org.springframework.util.DigestUtils;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * {@link CustomerController} on WebFlux, for the reactive profile: same paths, parameters, status codes and
+ * headers, with request threads never waiting on the database.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/customers")
+@Validated
+@Slf4j
+@Tag(name = "Customer Management", description = "API for customer operations")
+public class ReactiveCustomerController {
+
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int BATCH_CHUNK_SIZE = 1000;
+    private static final int DEFAULT_AGE_BUCKET_WIDTH = 10;
+    private static final int MAX_AGE_BUCKET_WIDTH = 150;
+    private static final int DEFAULT_SIGNUP_RANGE_DAYS = 30;
+
+    private static final ResolvableType JSON_NODE_TYPE = ResolvableType.forClass(JsonNode.class);
+    private static final ResolvableType STRING_TYPE = ResolvableType.forClass(String.class);
+
+    private final ReactiveCustomerService customerService;
+    private final ObjectMapper objectMapper;
+    private final CustomerChangeFeed changeFeed;
+    private final Jackson2JsonDecoder jsonDecoder;
+    private final StringDecoder lineDecoder = StringDecoder.allMimeTypes();
+
+    public ReactiveCustomerController(ReactiveCustomerService customerService, ObjectMapper objectMapper,
+                                      CustomerChangeFeed changeFeed) {
+        this.customerService = customerService;
+        this.objectMapper = objectMapper;
+        this.changeFeed = changeFeed;
+        this.jsonDecoder = new Jackson2JsonDecoder(objectMapper);
+    }
+
+    @PostMapping
+    @Operation(summary = "Create a new customer",
+            description = "Creates a new customer with the provided information")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Customer created successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid input data")
+    })
+    public Mono<ResponseEntity<CustomerDto>> createCustomer(
+            @Valid @RequestBody CustomerDto customerDto) {
+        log.debug("Received request to create customer");
+        return customerService.createCustomer(customerDto)
+                .map(createdCustomer -> new ResponseEntity<>(createdCustomer, HttpStatus.CREATED));
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Create customers in bulk",
+            description = "Validates and creates every customer in the array, returning a result per item. "
+                    + "Items are committed in chunks; items reported as FAILED were not stored and can be resubmitted.")
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+            array = @ArraySchema(schema = @Schema(implementation = CustomerDto.class))))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "All customers created successfully"),
+            @ApiResponse(responseCode = "207", description = "Some customers were not created; see the item results")
+    })
+    public Mono<ResponseEntity<CustomerBatchResultDto>> createCustomers(ServerHttpRequest request) {
+        log.debug("Received request to create customers from JSON array");
+        CustomerBatch batch = new CustomerBatch();
+
+        // Decoded element by element as the body arrives, so only the current chunk of the array is held in memory
+        return jsonDecoder.decode(requireJsonArray(request.getBody()), JSON_NODE_TYPE, null, null)
+                .cast(JsonNode.class)
+                // Errors wait for the chunk being stored, so its results are reported before reading stops
+                .concatMapDelayError(item -> {
+                    try {
+                        return batch.add(objectMapper.treeToValue(item, CustomerDto.class));
+                    } catch (JsonProcessingException e) {
+                        return batch.reject("Malformed customer: " + e.getOriginalMessage());
+                    }
+                })
+                // Past a syntax error there is no telling where the next element starts, so reading stops there
+                .onErrorResume(DecodingException.class, e -> batch.reject(
+                        "Malformed JSON, this and any later items were not read: " + originalMessage(e)))
+                .then(batch.finish())
+                .map(this::toBatchResponse);
+    }
+
+    @PostMapping(value = "/batch", consumes = CustomerController.NDJSON_MEDIA_TYPE)
+    @Operation(summary = "Create customers in bulk from a stream",
+            description = "Validates and creates every customer in a newline-delimited JSON stream, returning a result per item. "
+                    + "Items are committed in chunks; items reported as FAILED were not stored and can be resubmitted.")
+    public Mono<ResponseEntity<CustomerBatchResultDto>> createCustomersFromStream(ServerHttpRequest request) {
+        log.debug("Received request to create customers from NDJSON stream");
+        CustomerBatch batch = new CustomerBatch();
+        ObjectReader customerReader = objectMapper.readerFor(CustomerDto.class);
+
+        // One customer per line, so a malformed line is reported on its own and the stream carries on
+        return lineDecoder.decode(request.getBody(), STRING_TYPE, null, null)
+                .filter(line -> !line.isBlank())
+                .concatMap(line -> {
+                    try {
+                        return batch.add(customerReader.readValue(line));
+                    } catch (JsonProcessingException e) {
+                        return batch.reject("Malformed customer: " + e.getOriginalMessage());
+                    }
+                })
+                .then(batch.finish())
+                .map(this::toBatchResponse);
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get customer by ID",
+            description = "Returns customer details for the specified ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Customer found"),
+            @ApiResponse(responseCode = "304", description = "Customer unchanged since the given ETag or date"),
+            @ApiResponse(responseCode = "404", description = "Customer not found")
+    })
+    public Mono<ResponseEntity<CustomerDto>> getCustomerById(
+            @Parameter(description = "Customer ID") @PathVariable Long id) {
+        log.debug("Received request to get customer with ID: {}", id);
+        // Spring answers If-None-Match / If-Modified-Since from these headers with 304 before writing the body
+        return customerService.getCustomerById(id)
+                .map(customer -> ResponseEntity.ok()
+                        .eTag(CustomerController.customerETag(customer))
+                        .lastModified(customer.getLastModified())
+                        .cacheControl(CacheControl.noCache())
+                        .body(customer));
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Get customers",
+            description = "Returns a page of customers with their details including life expectancy, ordered by ID. "
+                    + "Pass the value of the X-Next-Cursor response header as 'after' to fetch the next page. "
+                    + "Send Accept: application/cbor for a binary page with dates as epoch days.")
+    public Mono<ResponseEntity<List<CustomerDetailDto>>> getCustomers(
+            @Parameter(description = "Return customers with an ID greater than this cursor")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Maximum number of customers to return")
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) @Min(1) @Max(MAX_PAGE_SIZE) int limit) {
+        log.debug("Received request to get customers after ID: {} (limit {})", after, limit);
+        return customerService.getCustomersWithLifeExpectancy(after, limit)
+                .map(customers -> page(customers, limit, CustomerDetailDto::getId));
+    }
+
+    @GetMapping(value = "/search", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Search customers",
+            description = "Returns a page of customers matching all given filters, ordered by ID. "
+                    + "Pass the value of the X-Next-Cursor response header as 'after' to fetch the next page. "
+                    + "Send Accept: application/cbor for a binary page with dates as epoch days.")
+    public Mono<ResponseEntity<List<CustomerDto>>> searchCustomers(
+            @Parameter(description = "First or last name to match")
+            @RequestParam(required = false) String name,
+            @Parameter(description = "PREFIX matches names starting with 'name'; FUZZY tolerates typos")
+            @RequestParam(defaultValue = "PREFIX") CustomerSearchCriteria.NameMatch match,
+            @RequestParam(required = false) @Min(0) Integer minAge,
+            @RequestParam(required = false) @Min(0) Integer maxAge,
+            @Parameter(description = "Earliest creation date (inclusive, ISO format)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdFrom,
+            @Parameter(description = "Latest creation date (inclusive, ISO format)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdTo,
+            @Parameter(description = "Return customers with an ID greater than this cursor")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Maximum number of customers to return")
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) @Min(1) @Max(MAX_PAGE_SIZE) int limit) {
+        CustomerSearchCriteria criteria = CustomerSearchCriteria.builder()
+                .name(name)
+                .nameMatch(match)
+                .minAge(minAge)
+                .maxAge(maxAge)
+                .createdFrom(createdFrom)
+                .createdTo(createdTo)
+                .build();
+        log.debug("Received request to search customers: {} after ID: {} (limit {})", criteria, after, limit);
+        return customerService.searchCustomers(criteria, after, limit)
+                .map(customers -> page(customers, limit, CustomerDto::getId));
+    }
+
+    // Rows are written as the client reads them, so a slow client holds back the query rather than filling memory
+    @GetMapping(value = "/stream", produces = CustomerController.NDJSON_MEDIA_TYPE)
+    @Operation(summary = "Stream all customers",
+            description = "Streams every customer with life expectancy as newline-delimited JSON")
+    public Flux<CustomerDetailDto> streamCustomers() {
+        log.debug("Received request to stream all customers");
+        return customerService.streamCustomersWithLifeExpectancy();
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream customer changes",
+            description = "Server-sent events for every customer created, updated or deleted, in sequence order. "
+                    + "Each event's id is its sequence: reconnect with Last-Event-ID (EventSource does) or 'after' "
+                    + "to resume without gaps. A 'reset' event means the changes to resume from were purged; "
+                    + "reload the customers you hold and keep consuming.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Change stream opened"),
+            @ApiResponse(responseCode = "503", description = "Too many subscribers")
+    })
+    public Flux<ServerSentEvent<Object>> streamChanges(
+            @Parameter(description = "Resume after this sequence; defaults to the latest change")
+            @RequestParam(required = false) @Min(0) Long after,
+            @Parameter(description = "Sent by EventSource on reconnect; takes precedence over 'after'")
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        Long resumeAfter = lastEventId != null ? lastEventId : after;
+        log.debug("Received request to stream customer changes after sequence: {}", resumeAfter);
+        // Subscribing reads the latest sequence over JDBC, so it happens off the event loop
+        return Flux.<ServerSentEvent<Object>>create(sink -> {
+                    CustomerChangeSubscription subscription = changeFeed.subscribe(resumeAfter, new FluxChangeSink(sink));
+                    sink.onDispose(subscription::close);
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @GetMapping("/metrics")
+    @Operation(summary = "Get customer metrics",
+            description = "Returns metrics about customers including average age and standard deviation. Responses "
+                    + "carry an ETag; send it back in If-None-Match to get 304 Not Modified while the metrics are unchanged.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Metrics calculated"),
+            @ApiResponse(responseCode = "304", description = "Metrics unchanged since the given ETag")
+    })
+    public Mono<ResponseEntity<CustomerMetricsDto>> getCustomerMetrics() {
+        log.debug("Received request to get customer metrics");
+        return customerService.calculateMetrics()
+                .map(metrics -> ResponseEntity.ok()
+                        .eTag(CustomerController.metricsETag(metrics))
+                        .cacheControl(CacheControl.noCache())
+                        .body(metrics));
+    }
+
+    @GetMapping("/analytics")
+    @Operation(summary = "Get customer analytics",
+            description = "Returns the age histogram, age percentiles and signups per day or week. Responses carry an "
+                    + "ETag; send it back in If-None-Match to get 304 Not Modified while the figures are unchanged.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Analytics calculated"),
+            @ApiResponse(responseCode = "304", description = "Analytics unchanged since the given ETag"),
+            @ApiResponse(responseCode = "400", description = "Invalid bucket width or date range")
+    })
+    public Mono<ResponseEntity<CustomerAnalyticsDto>> getCustomerAnalytics(
+            @Parameter(description = "Width of each age bucket in years")
+            @RequestParam(defaultValue = "" + DEFAULT_AGE_BUCKET_WIDTH) @Min(1) @Max(MAX_AGE_BUCKET_WIDTH) int bucketWidth,
+            @Parameter(description = "First signup date (inclusive, ISO format); defaults to 30 days before 'to'")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last signup date (inclusive, ISO format); defaults to today")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "DAY or WEEK (weeks start on Monday)")
+            @RequestParam(defaultValue = "DAY") CustomerAnalyticsDto.Granularity granularity) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_SIGNUP_RANGE_DAYS - 1);
+        if (start.isAfter(end)) {
+            throw new CustomerException("'from' must not be after 'to'", HttpStatus.BAD_REQUEST);
+        }
+        log.debug("Received request to get customer analytics from {} to {}", start, end);
+        // Content-based ETag: the figures only change when customers are written or the rollup refreshes.
+        // Spring answers If-None-Match from it with 304 before writing the body
+        return customerService.getAnalytics(bucketWidth, start, end, granularity)
+                .map(analytics -> ResponseEntity.ok()
+                        .eTag(analyticsETag(analytics))
+                        .cacheControl(CacheControl.noCache())
+                        .body(analytics));
+    }
+
+    @PostMapping("/metrics/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Rebuild customer metrics",
+            description = "Recomputes the incrementally maintained age statistics from the customers table")
+    public Mono<ResponseEntity<CustomerMetricsDto>> rebuildCustomerMetrics() {
+        log.debug("Received request to rebuild customer metrics");
+        return customerService.rebuildMetrics().map(ResponseEntity::ok);
+    }
+
+    @PutMapping("/{id}")
+    @Operation(summary = "Update customer",
+            description = "Updates an existing customer with the provided information")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Customer updated successfully"),
+            @ApiResponse(responseCode = "404", description = "Customer not found"),
+            @ApiResponse(responseCode = "400", description = "Invalid input data"),
+            @ApiResponse(responseCode = "409", description = "Customer was modified by a concurrent request"),
+            @ApiResponse(responseCode = "412", description = "Customer no longer matches the If-Match ETag")
+    })
+    public Mono<ResponseEntity<CustomerDto>> updateCustomer(
+            @Parameter(description = "Customer ID") @PathVariable Long id,
+            @Parameter(description = "ETag of the customer version being replaced")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody CustomerDto customerDto) {
+        log.debug("Received request to update customer with ID: {}", id);
+        return customerService.updateCustomer(id, customerDto, CustomerController.expectedVersion(ifMatch))
+                .map(updatedCustomer -> ResponseEntity.ok()
+                        .eTag(CustomerController.customerETag(updatedCustomer))
+                        .lastModified(updatedCustomer.getLastModified())
+                        .body(updatedCustomer));
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Delete customer",
+            description = "Deletes the customer with the specified ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Customer deleted successfully"),
+            @ApiResponse(responseCode = "404", description = "Customer not found")
+    })
+    public Mono<ResponseEntity<Void>> deleteCustomer(
+            @Parameter(description = "Customer ID") @PathVariable Long id) {
+        log.debug("Received request to delete customer with ID: {}", id);
+        return customerService.deleteCustomer(id)
+                .then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    private <T> ResponseEntity<List<T>> page(List<T> customers, int limit, Function<T, Long> id) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (customers.size() == limit) {
+            response.header(CustomerController.NEXT_CURSOR_HEADER, String.valueOf(id.apply(customers.get(customers.size() - 1))));
+        }
+        return response.body(customers);
+    }
+
+    private String analyticsETag(CustomerAnalyticsDto analytics) {
+        try {
+            return "\"" + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(analytics)) + "\"";
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize customer analytics", e);
+        }
+    }
+
+    /**
+     * Fails the body unless its first non-blank byte opens an array: the decoder would otherwise take a single
+     * object as a one-item batch.
+     */
+    private static Flux<DataBuffer> requireJsonArray(Flux<DataBuffer> body) {
+        boolean[] checked = new boolean[1];
+        return body
+                .<DataBuffer>handle((buffer, sink) -> {
+                    for (int i = buffer.readPosition(); !checked[0] && i < buffer.writePosition(); i++) {
+                        byte next = buffer.getByte(i);
+                        if (Character.isWhitespace(next)) {
+                            continue;
+                        }
+                        if (next != '[') {
+                            DataBufferUtils.release(buffer);
+                            sink.error(new CustomerException("Expected a JSON array of customers", HttpStatus.BAD_REQUEST));
+                            return;
+                        }
+                        checked[0] = true;
+                    }
+                    sink.next(buffer);
+                })
+                .concatWith(Mono.defer(() -> checked[0] ? Mono.empty()
+                        : Mono.error(new CustomerException("Expected a JSON array of customers", HttpStatus.BAD_REQUEST))));
+    }
+
+    private static String originalMessage(DecodingException e) {
+        return e.getCause() instanceof JsonProcessingException jsonError ? jsonError.getOriginalMessage() : e.getMessage();
+    }
+
+    private ResponseEntity<CustomerBatchResultDto> toBatchResponse(CustomerBatchResultDto result) {
+        HttpStatus status = result.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return new ResponseEntity<>(result, status);
+    }
+
+    /**
+     * The chunking of {@link CustomerController}'s batch, with each step returned as a publisher so the body
+     * is only read on once the previous chunk is stored. Steps must be subscribed one after another.
+     */
+    private final class CustomerBatch {
+
+        private final CustomerBatchResultDto result = new CustomerBatchResultDto();
+        private List<CustomerDto> chunk = new ArrayList<>(BATCH_CHUNK_SIZE);
+        private int chunkStart;
+
+        Mono<Void> add(CustomerDto customer) {
+            chunk.add(customer);
+            return chunk.size() == BATCH_CHUNK_SIZE ? flush() : Mono.empty();
+        }
+
+        // Creates the items read so far first, so results stay in request order with contiguous chunks
+        Mono<Void> reject(String error) {
+            return flush().then(Mono.fromRunnable(() -> result.add(CustomerBatchItemResultDto.builder()
+                    .index(chunkStart++)
+                    .status(CustomerBatchItemResultDto.Status.INVALID)
+                    .errors(Map.of("customer", error))
+                    .build())));
+        }
+
+        Mono<CustomerBatchResultDto> finish() {
+            return flush().then(Mono.fromSupplier(() -> result));
+        }
+
+        private Mono<Void> flush() {
+            return Mono.defer(() -> {
+                if (chunk.isEmpty()) {
+                    return Mono.empty();
+                }
+                List<CustomerDto> items = chunk;
+                int start = chunkStart;
+                chunk = new ArrayList<>(BATCH_CHUNK_SIZE);
+                chunkStart += items.size();
+                return customerService.createCustomers(items, start)
+                        .doOnNext(result::merge)
+                        .onErrorResume(e -> e instanceof DataAccessException || e instanceof TransactionException, e -> {
+                            log.warn("Customer batch items {} to {} were rolled back", start, start + items.size() - 1, e);
+                            for (int i = 0; i < items.size(); i++) {
+                                result.add(CustomerBatchItemResultDto.builder()
+                                        .index(start + i)
+                                        .status(CustomerBatchItemResultDto.Status.FAILED)
+                                        .errors(Map.of("customer", "Could not be stored, resubmit this item"))
+                                        .build());
+                            }
+                            return Mono.empty();
+                        })
+                        .then();
+            });
+        }
+    }
+
+    /**
+     * Hands the feed's events to the response as the client asks for them. The feed sends from a thread of
+     * its own and expects sends to block while the client is slow to read, so this waits for demand there.
+     */
+    private static final class FluxChangeSink implements CustomerChangeSink {
+
+        private final FluxSink<ServerSentEvent<Object>> sink;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition demand = lock.newCondition();
+        private volatile boolean cancelled;
+
+        FluxChangeSink(FluxSink<ServerSentEvent<Object>> sink) {
+            this.sink = sink;
+            sink.onRequest(requested -> signal());
+            sink.onCancel(() -> {
+                cancelled = true;
+                signal();
+            });
+        }
+
+        @Override
+        public void send(CustomerChangeDto change) throws IOException {
+            emit(ServerSentEvent.builder()
+                    .id(String.valueOf(change.getSequence()))
+                    .data(change)
+                    .build());
+        }
+
+        @Override
+        public void heartbeat() throws IOException {
+            emit(ServerSentEvent.builder().comment("heartbeat").build());
+        }
+
+        @Override
+        public void reset(long sequence) throws IOException {
+            emit(ServerSentEvent.builder()
+                    .id(String.valueOf(sequence))
+                    .event("reset")
+                    .data(sequence)
+                    .build());
+        }
+
+        @Override
+        public void complete() {
+            sink.complete();
+        }
+
+        private void emit(ServerSentEvent<Object> event) throws IOException {
+            lock.lock();
+            try {
+                while (!cancelled && sink.requestedFromDownstream() == 0) {
+                    demand.await();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the client to read");
+            } finally {
+                lock.unlock();
+            }
+            if (cancelled) {
+                throw new IOException("Client closed the change stream");
+            }
+            sink.next(event);
+        }
+
+        private void signal() {
+            lock.lock();
+            try {
+                demand.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
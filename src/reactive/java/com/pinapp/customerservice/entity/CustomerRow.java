@@ -0,0 +1,40 @@
+package com.pinapp.customerservice.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * The {@code customers} row as mapped by Spring Data R2DBC. Not a JPA entity, so the two repository modules
+ * never both claim a repository; the columns are those of {@link Customer}.
+ */
+@Table("customers")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerRow {
+
+    @Id
+    private Long id;
+
+    private String firstName;
+
+    private String lastName;
+
+    private Integer age;
+
+    private LocalDate dateOfBirth;
+
+    private LocalDate createdAt;
+
+    private Long version;
+
+    private Instant lastModified;
+}
@@ -0,0 +1,46 @@
+package com.pinapp.customerservice.messaging;
+
+import com.pinapp.customerservice.config.RabbitMQConfig;
+import com.pinapp.customerservice.dto.CustomerDto;
+import com.pinapp.customerservice.entity.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Records customer events in the transactional outbox through R2DBC. Must be subscribed inside the R2DBC
+ * transaction that changes the customer; the rows are those {@link CustomerEventOutbox} writes, and the
+ * {@link OutboxRelay} publishes them with broker confirms, so no request waits on RabbitMQ.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveCustomerEventOutbox {
+
+    private final CustomerEventOutbox eventOutbox;
+    private final DatabaseClient databaseClient;
+
+    public Mono<Void> enqueueCustomerCreated(CustomerDto customerDto) {
+        return Mono.defer(() -> {
+            log.debug("Enqueuing customer creation event for customer ID: {}", customerDto.getId());
+            OutboxEvent event = eventOutbox.toEvent(RabbitMQConfig.CUSTOMER_CREATED_ROUTING_KEY, customerDto);
+            // The ID is drawn like a customer's in ReactiveCustomerRepository#insert
+            return databaseClient.sql("INSERT INTO customer_outbox "
+                            + "(id, routing_key, aggregate_id, payload, created_at, available_at, attempts) "
+                            + "VALUES (nextval('customer_outbox_seq'), :routingKey, :aggregateId, :payload, "
+                            + ":createdAt, :availableAt, 0)")
+                    .bind("routingKey", event.getRoutingKey())
+                    .bind("aggregateId", event.getAggregateId())
+                    .bind("payload", event.getPayload())
+                    .bind("createdAt", event.getCreatedAt())
+                    .bind("availableAt", event.getAvailableAt())
+                    .fetch()
+                    .rowsUpdated()
+                    .then();
+        });
+    }
+}
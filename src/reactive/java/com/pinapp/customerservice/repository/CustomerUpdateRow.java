@@ -0,0 +1,15 @@
+package com.pinapp.customerservice.repository;
+
+import lombok.Value;
+
+/**
+ * {@link CustomerUpdateResult} as a class: Spring Data R2DBC only backs interface projections with entity
+ * properties, and the previous age is not one.
+ */
+@Value
+public class CustomerUpdateRow implements CustomerUpdateResult {
+
+    Integer previousAge;
+
+    Long version;
+}
@@ -0,0 +1,79 @@
+package com.pinapp.customerservice.repository;
+
+import com.pinapp.customerservice.dto.CustomerDetailDto;
+import com.pinapp.customerservice.dto.CustomerDto;
+import com.pinapp.customerservice.entity.CustomerRow;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * R2DBC counterpart of {@link CustomerRepository} for the reactive profile. The statements are the same;
+ * rows are mapped straight to the DTOs and result views the JPA repository returns.
+ */
+@Repository
+public interface ReactiveCustomerRepository extends R2dbcRepository<CustomerRow, Long>, ReactiveCustomerSearchRepository {
+
+    String CUSTOMER_DTO_COLUMNS = "id, first_name, last_name, age, date_of_birth, version, last_modified";
+    String CUSTOMER_DETAIL_COLUMNS = "id, first_name, last_name, age, date_of_birth, created_at";
+
+    /**
+     * Inserts a customer at version 0 and returns the stored row. The sequence increments by the allocation
+     * size Hibernate pools IDs in, and Hibernate only hands out the values up to each one it draws, so the
+     * value drawn here is never also used by the JPA path.
+     */
+    @Query("INSERT INTO customers (id, first_name, last_name, age, date_of_birth, created_at, version, last_modified) "
+            + "VALUES (nextval('customers_seq'), :firstName, :lastName, :age, :dateOfBirth, :createdAt, 0, :lastModified) "
+            + "RETURNING id, first_name, last_name, age, date_of_birth, created_at, version, last_modified")
+    Mono<CustomerRow> insert(@Param("firstName") String firstName,
+                             @Param("lastName") String lastName,
+                             @Param("age") Integer age,
+                             @Param("dateOfBirth") LocalDate dateOfBirth,
+                             @Param("createdAt") LocalDate createdAt,
+                             @Param("lastModified") Instant lastModified);
+
+    @Query("SELECT " + CUSTOMER_DTO_COLUMNS + " FROM customers WHERE id = :id")
+    Mono<CustomerDto> findDtoById(@Param("id") Long id);
+
+    /**
+     * Keyset pagination projected to detail DTOs; the caller fills in the life expectancy.
+     */
+    @Query("SELECT " + CUSTOMER_DETAIL_COLUMNS + " FROM customers WHERE id > :id ORDER BY id LIMIT :limit")
+    Flux<CustomerDetailDto> findDetailsByIdGreaterThan(@Param("id") Long id, @Param("limit") int limit);
+
+    /**
+     * Streams every customer as a detail DTO ordered by ID. The driver only reads rows off the connection as
+     * the subscriber requests them, so a slow client holds the query back instead of the table being buffered.
+     */
+    @Query("SELECT " + CUSTOMER_DETAIL_COLUMNS + " FROM customers ORDER BY id")
+    Flux<CustomerDetailDto> streamDetailsOrderById();
+
+    /**
+     * See {@link CustomerRepository#updateReturningPreviousAge}; completes empty when no row matched.
+     */
+    @Query("UPDATE customers c SET first_name = :firstName, last_name = :lastName, age = :age, "
+            + "date_of_birth = :dateOfBirth, version = c.version + 1, last_modified = :lastModified "
+            + "FROM (SELECT id, age, version FROM customers WHERE id = :id FOR UPDATE) previous "
+            + "WHERE c.id = previous.id AND (:expectedVersion = " + CustomerRepository.ANY_VERSION
+            + " OR previous.version = :expectedVersion) "
+            + "RETURNING previous.age AS previous_age, c.version AS version")
+    Mono<CustomerUpdateRow> updateReturningPreviousAge(@Param("id") Long id,
+                                                       @Param("firstName") String firstName,
+                                                       @Param("lastName") String lastName,
+                                                       @Param("age") Integer age,
+                                                       @Param("dateOfBirth") LocalDate dateOfBirth,
+                                                       @Param("lastModified") Instant lastModified,
+                                                       @Param("expectedVersion") long expectedVersion);
+
+    /**
+     * See {@link CustomerRepository#deleteByIdReturningStatistics}; completes empty when no row matched.
+     */
+    @Query("DELETE FROM customers WHERE id = :id RETURNING age, created_at")
+    Mono<CustomerDeleteResult> deleteByIdReturningStatistics(@Param("id") Long id);
+}
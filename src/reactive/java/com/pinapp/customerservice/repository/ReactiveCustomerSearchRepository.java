@@ -0,0 +1,18 @@
+package com.pinapp.customerservice.repository;
+
+import com.pinapp.customerservice.dto.CustomerDto;
+import com.pinapp.customerservice.dto.CustomerSearchCriteria;
+import reactor.core.publisher.Flux;
+
+/**
+ * Repository fragment for customer searches through R2DBC, which has no specification API: the filters of
+ * {@link CustomerSpecifications} are written out as SQL over the same indexed expressions.
+ */
+public interface ReactiveCustomerSearchRepository {
+
+    /**
+     * Returns up to {@code limit} customers matching the criteria with an ID greater than {@code afterId}
+     * (when given), ordered by ID.
+     */
+    Flux<CustomerDto> searchDtos(CustomerSearchCriteria criteria, Long afterId, int limit);
+}
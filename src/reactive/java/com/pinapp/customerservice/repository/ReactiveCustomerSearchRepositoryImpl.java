@@ -0,0 +1,75 @@
+package com.pinapp.customerservice.repository;
+
+import com.pinapp.customerservice.dto.CustomerDto;
+import com.pinapp.customerservice.dto.CustomerSearchCriteria;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+class ReactiveCustomerSearchRepositoryImpl implements ReactiveCustomerSearchRepository {
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Flux<CustomerDto> searchDtos(CustomerSearchCriteria criteria, Long afterId, int limit) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> parameters = new LinkedHashMap<>();
+
+        if (StringUtils.hasText(criteria.getName())) {
+            String name = CustomerSpecifications.normalize(criteria.getName());
+            if (criteria.getNameMatch() == CustomerSearchCriteria.NameMatch.FUZZY) {
+                // pg_trgm similarity, answered from the GIN indexes like CustomerSpecifications.nameSimilarTo
+                conditions.add("(lower(first_name) % :name OR lower(last_name) % :name)");
+                parameters.put("name", name);
+            } else {
+                conditions.add("(lower(first_name) LIKE :name ESCAPE '\\' OR lower(last_name) LIKE :name ESCAPE '\\')");
+                parameters.put("name", CustomerSpecifications.escapeLike(name) + "%");
+            }
+        }
+        addCondition(conditions, parameters, "age >= :minAge", "minAge", criteria.getMinAge());
+        addCondition(conditions, parameters, "age <= :maxAge", "maxAge", criteria.getMaxAge());
+        addCondition(conditions, parameters, "created_at >= :createdFrom", "createdFrom", criteria.getCreatedFrom());
+        addCondition(conditions, parameters, "created_at <= :createdTo", "createdTo", criteria.getCreatedTo());
+        addCondition(conditions, parameters, "id > :afterId", "afterId", afterId);
+
+        String sql = "SELECT " + ReactiveCustomerRepository.CUSTOMER_DTO_COLUMNS + " FROM customers"
+                + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+                + " ORDER BY id LIMIT :limit";
+        DatabaseClient.GenericExecuteSpec statement = databaseClient.sql(sql).bind("limit", limit);
+        for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+            statement = statement.bind(parameter.getKey(), parameter.getValue());
+        }
+        return statement.map(ReactiveCustomerSearchRepositoryImpl::toDto).all();
+    }
+
+    // Absent filters are left out of the statement rather than bound as nulls, which R2DBC cannot type
+    private static void addCondition(List<String> conditions, Map<String, Object> parameters,
+                                     String condition, String name, Object value) {
+        if (value != null) {
+            conditions.add(condition);
+            parameters.put(name, value);
+        }
+    }
+
+    private static CustomerDto toDto(Readable row) {
+        return CustomerDto.builder()
+                .id(row.get("id", Long.class))
+                .firstName(row.get("first_name", String.class))
+                .lastName(row.get("last_name", String.class))
+                .age(row.get("age", Integer.class))
+                .dateOfBirth(row.get("date_of_birth", LocalDate.class))
+                .version(row.get("version", Long.class))
+                .lastModified(row.get("last_modified", Instant.class))
+                .build();
+    }
+}
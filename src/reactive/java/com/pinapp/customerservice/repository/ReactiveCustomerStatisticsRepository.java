@@ -0,0 +1,103 @@
+package com.pinapp.customerservice.repository;
+
+import com.pinapp.customerservice.entity.CustomerAgeBucket;
+import com.pinapp.customerservice.entity.CustomerSignupDay;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * The statements of {@link CustomerAgeHistogramRepository} and {@link CustomerSignupRollupRepository} that
+ * the reactive customer writes and reads need, through R2DBC. The rebuilds and the scheduled refresh stay on
+ * the JPA repositories.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveCustomerStatisticsRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Long> adjustCount(int age, long delta) {
+        return databaseClient.sql("INSERT INTO customer_age_histogram (age, customer_count) VALUES (:age, :delta) "
+                        + "ON CONFLICT (age) DO UPDATE SET customer_count = customer_age_histogram.customer_count + EXCLUDED.customer_count")
+                .bind("age", age)
+                .bind("delta", delta)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> decrementDay(LocalDate signupDate) {
+        return databaseClient.sql("UPDATE customer_signup_daily SET customer_count = customer_count - 1 "
+                        + "WHERE signup_date = :signupDate")
+                .bind("signupDate", signupDate)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    // PostgreSQL sums bigints as numeric; the casts keep the columns readable as longs
+    public Mono<AgeHistogramSummary> summarize() {
+        return databaseClient.sql("SELECT COALESCE(SUM(customer_count), 0)::bigint AS customer_count, "
+                        + "COALESCE(SUM(age * customer_count), 0)::bigint AS age_sum, "
+                        + "COALESCE(SUM(age * age * customer_count), 0)::bigint AS age_square_sum, "
+                        + "MIN(age) AS min_age, MAX(age) AS max_age "
+                        + "FROM customer_age_histogram WHERE customer_count > 0")
+                .map(row -> (AgeHistogramSummary) new HistogramSummary(
+                        row.get("customer_count", Long.class),
+                        row.get("age_sum", Long.class),
+                        row.get("age_square_sum", Long.class),
+                        row.get("min_age", Integer.class),
+                        row.get("max_age", Integer.class)))
+                .one();
+    }
+
+    public Flux<CustomerAgeBucket> findHistogramOrderByAge() {
+        return databaseClient.sql("SELECT age, customer_count FROM customer_age_histogram ORDER BY age")
+                .map(row -> new CustomerAgeBucket(row.get("age", Integer.class), row.get("customer_count", Long.class)))
+                .all();
+    }
+
+    public Flux<CustomerSignupDay> findSignupDaysBetween(LocalDate from, LocalDate to) {
+        return databaseClient.sql("SELECT signup_date, customer_count FROM customer_signup_daily "
+                        + "WHERE signup_date BETWEEN :from AND :to ORDER BY signup_date")
+                .bind("from", from)
+                .bind("to", to)
+                .map(row -> new CustomerSignupDay(row.get("signup_date", LocalDate.class),
+                        row.get("customer_count", Long.class)))
+                .all();
+    }
+
+    private record HistogramSummary(Long customerCount, Long ageSum, Long ageSquareSum, Integer minAge, Integer maxAge)
+            implements AgeHistogramSummary {
+
+        @Override
+        public Long getCustomerCount() {
+            return customerCount;
+        }
+
+        @Override
+        public Long getAgeSum() {
+            return ageSum;
+        }
+
+        @Override
+        public Long getAgeSquareSum() {
+            return ageSquareSum;
+        }
+
+        @Override
+        public Integer getMinAge() {
+            return minAge;
+        }
+
+        @Override
+        public Integer getMaxAge() {
+            return maxAge;
+        }
+    }
+}
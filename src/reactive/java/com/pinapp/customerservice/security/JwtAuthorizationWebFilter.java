@@ -0,0 +1,54 @@
+package com.pinapp.customerservice.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+/**
+ * WebFlux counterpart of {@link JwtAuthorizationFilter}: authenticates the request from its bearer token,
+ * through the same verified-token cache.
+ */
+@Slf4j
+public class JwtAuthorizationWebFilter implements WebFilter {
+
+    private final JwtTokenProvider jwtTokenProvider;
+
+    public JwtAuthorizationWebFilter(JwtTokenProvider jwtTokenProvider) {
+        this.jwtTokenProvider = jwtTokenProvider;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String token = getJwtFromRequest(exchange.getRequest());
+
+        Optional<Authentication> authentication = StringUtils.hasText(token)
+                ? jwtTokenProvider.resolveAuthentication(token)
+                : Optional.empty();
+
+        if (authentication.isEmpty()) {
+            log.debug("No valid JWT token found");
+            return chain.filter(exchange);
+        }
+        Authentication auth = authentication.get();
+        log.debug("Set Authentication to security context for '{}'", auth.getName());
+        return chain.filter(exchange)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(auth));
+    }
+
+    private String getJwtFromRequest(ServerHttpRequest request) {
+        String bearerToken = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
+            return bearerToken.substring(7);
+        }
+        return null;
+    }
+}
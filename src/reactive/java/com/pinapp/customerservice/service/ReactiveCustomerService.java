@@ -0,0 +1,42 @@
+package com.pinapp.customerservice.service;
+
+import com.pinapp.customerservice.dto.CustomerAnalyticsDto;
+import com.pinapp.customerservice.dto.CustomerBatchResultDto;
+import com.pinapp.customerservice.dto.CustomerDetailDto;
+import com.pinapp.customerservice.dto.CustomerDto;
+import com.pinapp.customerservice.dto.CustomerMetricsDto;
+import com.pinapp.customerservice.dto.CustomerSearchCriteria;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * The operations of {@link CustomerService} as publishers, for the reactive profile.
+ */
+public interface ReactiveCustomerService {
+
+    Mono<CustomerDto> createCustomer(CustomerDto customerDto);
+
+    Mono<CustomerBatchResultDto> createCustomers(List<CustomerDto> customerDtos, int firstIndex);
+
+    Mono<CustomerDto> getCustomerById(Long id);
+
+    Mono<List<CustomerDetailDto>> getCustomersWithLifeExpectancy(Long afterId, int limit);
+
+    Flux<CustomerDetailDto> streamCustomersWithLifeExpectancy();
+
+    Mono<List<CustomerDto>> searchCustomers(CustomerSearchCriteria criteria, Long afterId, int limit);
+
+    Mono<CustomerMetricsDto> calculateMetrics();
+
+    Mono<CustomerMetricsDto> rebuildMetrics();
+
+    Mono<CustomerAnalyticsDto> getAnalytics(int bucketWidth, LocalDate from, LocalDate to,
+                                            CustomerAnalyticsDto.Granularity granularity);
+
+    Mono<CustomerDto> updateCustomer(Long id, CustomerDto customerDto, Long expectedVersion);
+
+    Mono<Void> deleteCustomer(Long id);
+}
@@ -0,0 +1,27 @@
+package com.pinapp.customerservice.service;
+
+import com.pinapp.customerservice.dto.CustomerAnalyticsDto;
+import com.pinapp.customerservice.dto.CustomerMetricsDto;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * The per-request part of {@link CustomerStatisticsService} as publishers, for the reactive profile. The
+ * recording methods must be subscribed inside the R2DBC transaction that changes the customer.
+ */
+public interface ReactiveCustomerStatisticsService {
+
+    Mono<Void> recordCustomerAdded(int age);
+
+    Mono<Void> recordCustomerRemoved(int age, LocalDate createdAt);
+
+    Mono<Void> recordAgeChanged(int previousAge, int newAge);
+
+    Mono<CustomerMetricsDto> getMetrics();
+
+    Mono<CustomerMetricsDto> rebuild();
+
+    Mono<CustomerAnalyticsDto> getAnalytics(int bucketWidth, LocalDate from, LocalDate to,
+                                            CustomerAnalyticsDto.Granularity granularity);
+}
@@ -0,0 +1,299 @@
+package com.pinapp.customerservice.service.impl;
+
+import com.pinapp.customerservice.cache.CustomerCache;
+import com.pinapp.customerservice.columnstore.CustomerColumnStore;
+import com.pinapp.customerservice.dto.CustomerAnalyticsDto;
+import com.pinapp.customerservice.dto.CustomerBatchResultDto;
+import com.pinapp.customerservice.dto.CustomerDetailDto;
+import com.pinapp.customerservice.dto.CustomerDto;
+import com.pinapp.customerservice.dto.CustomerMetricsDto;
+import com.pinapp.customerservice.dto.CustomerSearchCriteria;
+import com.pinapp.customerservice.entity.CustomerRow;
+import com.pinapp.customerservice.event.CustomerChangedEvent;
+import com.pinapp.customerservice.exception.CustomerException;
+import com.pinapp.customerservice.exception.ResourceNotFoundException;
+import com.pinapp.customerservice.messaging.ReactiveCustomerEventOutbox;
+import com.pinapp.customerservice.metrics.BusinessMetricsService;
+import com.pinapp.customerservice.repository.CustomerRepository;
+import com.pinapp.customerservice.repository.CustomerUpdateRow;
+import com.pinapp.customerservice.repository.ReactiveCustomerRepository;
+import com.pinapp.customerservice.service.CustomerService;
+import com.pinapp.customerservice.service.ReactiveCustomerService;
+import com.pinapp.customerservice.service.ReactiveCustomerStatisticsService;
+import com.pinapp.customerservice.util.LifeExpectancyCalculator;
+import com.pinapp.customerservice.util.LifeExpectancyTable;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * {@link CustomerServiceImpl} for the reactive profile. Each write runs the same statements in one R2DBC
+ * transaction: the customer row, its histogram and signup adjustments, and for creations the outbox event.
+ * {@link CustomerChangedEvent}s are published once that transaction has committed, so the cache, the column
+ * store, the invalidation bus and the metrics snapshots are kept current exactly as on the JPA path.
+ * <p>
+ * Bulk creation stays on {@link CustomerService}: its JDBC batching has no R2DBC equivalent, and a chunk
+ * only holds a worker thread for as long as it takes to insert.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveCustomerServiceImpl implements ReactiveCustomerService {
+
+    private static final int COLUMN_STORE_STREAM_PAGE_SIZE = 1000;
+
+    private final ReactiveCustomerRepository customerRepository;
+    private final ReactiveCustomerEventOutbox eventOutbox;
+    private final ReactiveCustomerStatisticsService statisticsService;
+    private final CustomerService customerService;
+    private final LifeExpectancyCalculator lifeExpectancyCalculator;
+    private final BusinessMetricsService metricsService;
+    private final CustomerCache customerCache;
+    private final CustomerColumnStore columnStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionalOperator transactionalOperator;
+
+    @Override
+    public Mono<CustomerDto> createCustomer(CustomerDto customerDto) {
+        return timed(Mono.defer(() -> {
+            log.debug("Creating new customer");
+            return customerRepository.insert(customerDto.getFirstName(),
+                            customerDto.getLastName(),
+                            customerDto.getAge(),
+                            customerDto.getDateOfBirth(),
+                            LocalDate.now(),
+                            Instant.now().truncatedTo(ChronoUnit.MICROS))
+                    .flatMap(saved -> {
+                        CustomerDto created = mapToDto(saved);
+                        return statisticsService.recordCustomerAdded(saved.getAge())
+                                .then(eventOutbox.enqueueCustomerCreated(created))
+                                .thenReturn(CustomerChangedEvent.created(created, saved.getCreatedAt()));
+                    })
+                    .as(transactionalOperator::transactional)
+                    .map(created -> {
+                        eventPublisher.publishEvent(created);
+
+                        metricsService.incrementCustomerCreated();
+                        metricsService.recordCustomerAge(created.getCustomer().getAge());
+
+                        log.atInfo().addKeyValue("customerId", created.getCustomerId()).log("Customer created");
+                        return created.getCustomer();
+                    });
+        }));
+    }
+
+    @Override
+    public Mono<CustomerBatchResultDto> createCustomers(List<CustomerDto> customerDtos, int firstIndex) {
+        return Mono.fromCallable(() -> customerService.createCustomers(customerDtos, firstIndex))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Shares the customer cache with the JPA path through its non-blocking lookup: concurrent requests for an
+     * uncached customer wait on a single query without holding a thread.
+     */
+    @Override
+    public Mono<CustomerDto> getCustomerById(Long id) {
+        // Cancelling one request must not cancel the load other requests are waiting on
+        return timed(Mono.fromFuture(() -> customerCache.getAsync(id, this::loadCustomer), true)
+                .flatMap(Mono::justOrEmpty)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Customer not found with ID: " + id))));
+    }
+
+    @Override
+    public Mono<List<CustomerDetailDto>> getCustomersWithLifeExpectancy(Long afterId, int limit) {
+        return timed(Mono.defer(() -> {
+            log.debug("Fetching up to {} customers with life expectancy after ID: {}", limit, afterId);
+            long cursor = afterId != null ? afterId : 0L;
+            Mono<List<CustomerDetailDto>> customers = columnStore.isReady()
+                    ? Mono.fromSupplier(() -> columnStore.page(cursor, limit))
+                    : customerRepository.findDetailsByIdGreaterThan(cursor, limit).collectList();
+            return customers.doOnNext(this::fillLifeExpectancy);
+        }));
+    }
+
+    @Override
+    public Flux<CustomerDetailDto> streamCustomersWithLifeExpectancy() {
+        return Flux.defer(() -> {
+            log.debug("Streaming all customers with life expectancy calculation");
+            Timer.Sample sample = metricsService.startCustomerProcessingTimer();
+
+            // One table for the whole stream, so rows are plain array lookups rather than clock reads
+            LifeExpectancyTable lifeExpectancy = lifeExpectancyCalculator.currentTable();
+            Flux<CustomerDetailDto> customers = columnStore.isReady()
+                    ? streamFromColumnStore()
+                    : customerRepository.streamDetailsOrderById();
+            return customers
+                    .doOnNext(customer -> customer.setEstimatedLifeExpectancy(
+                            lifeExpectancy.lifeExpectancy(customer.getAge())))
+                    .doFinally(signal -> metricsService.stopCustomerProcessingTimer(sample));
+        });
+    }
+
+    // Page by page, so writers are only held back for one page while the client reads the rest
+    private Flux<CustomerDetailDto> streamFromColumnStore() {
+        return Mono.fromSupplier(() -> columnStore.page(0L, COLUMN_STORE_STREAM_PAGE_SIZE))
+                .expand(page -> page.size() == COLUMN_STORE_STREAM_PAGE_SIZE
+                        ? Mono.fromSupplier(() -> columnStore.page(page.get(page.size() - 1).getId(),
+                                COLUMN_STORE_STREAM_PAGE_SIZE))
+                        : Mono.empty())
+                .flatMapIterable(Function.identity());
+    }
+
+    @Override
+    public Mono<List<CustomerDto>> searchCustomers(CustomerSearchCriteria criteria, Long afterId, int limit) {
+        return timed(Mono.defer(() -> {
+            log.debug("Searching up to {} customers after ID {} matching {}", limit, afterId, criteria);
+            return customerRepository.searchDtos(criteria, afterId, limit).collectList();
+        }));
+    }
+
+    @Override
+    public Mono<CustomerMetricsDto> calculateMetrics() {
+        return timed(Mono.defer(() -> {
+            log.debug("Calculating customer metrics");
+            return statisticsService.getMetrics()
+                    .doOnNext(metrics -> metricsService.setActiveCustomersCount(metrics.getTotalCustomers().intValue()));
+        }));
+    }
+
+    @Override
+    public Mono<CustomerMetricsDto> rebuildMetrics() {
+        log.info("Rebuilding customer metrics aggregate");
+        return statisticsService.rebuild()
+                .doOnNext(metrics -> metricsService.setActiveCustomersCount(metrics.getTotalCustomers().intValue()));
+    }
+
+    @Override
+    public Mono<CustomerAnalyticsDto> getAnalytics(int bucketWidth, LocalDate from, LocalDate to,
+                                                   CustomerAnalyticsDto.Granularity granularity) {
+        return timed(Mono.defer(() -> {
+            log.debug("Calculating customer analytics with bucket width {} and {} signups from {} to {}",
+                    bucketWidth, granularity, from, to);
+            return statisticsService.getAnalytics(bucketWidth, from, to, granularity);
+        }));
+    }
+
+    @Override
+    public Mono<CustomerDto> updateCustomer(Long id, CustomerDto customerDto, Long expectedVersion) {
+        return timed(Mono.defer(() -> {
+            log.debug("Updating customer with ID: {} at version {}", id, expectedVersion);
+            // One statement locks the row, checks the version, rewrites it and reports the previous age
+            Instant lastModified = Instant.now().truncatedTo(ChronoUnit.MICROS);
+            return customerRepository.updateReturningPreviousAge(id,
+                            customerDto.getFirstName(),
+                            customerDto.getLastName(),
+                            customerDto.getAge(),
+                            customerDto.getDateOfBirth(),
+                            lastModified,
+                            expectedVersion != null ? expectedVersion : CustomerRepository.ANY_VERSION)
+                    .switchIfEmpty(Mono.defer(() -> updateRejected(id, expectedVersion)))
+                    .flatMap(updated -> statisticsService.recordAgeChanged(updated.getPreviousAge(), customerDto.getAge())
+                            .thenReturn(updated))
+                    .as(transactionalOperator::transactional)
+                    .map(updated -> {
+                        metricsService.incrementCustomerUpdated();
+                        metricsService.recordCustomerAge(customerDto.getAge());
+
+                        CustomerDto result = CustomerDto.builder()
+                                .id(id)
+                                .firstName(customerDto.getFirstName())
+                                .lastName(customerDto.getLastName())
+                                .age(customerDto.getAge())
+                                .dateOfBirth(customerDto.getDateOfBirth())
+                                .version(updated.getVersion())
+                                .lastModified(lastModified)
+                                .build();
+                        log.atInfo().addKeyValue("customerId", id).addKeyValue("version", result.getVersion())
+                                .log("Customer updated");
+
+                        eventPublisher.publishEvent(CustomerChangedEvent.updated(result));
+                        return result;
+                    });
+        }));
+    }
+
+    @Override
+    public Mono<Void> deleteCustomer(Long id) {
+        return timed(Mono.defer(() -> {
+            log.debug("Deleting customer with ID: {}", id);
+            return customerRepository.deleteByIdReturningStatistics(id)
+                    .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Customer not found with ID: " + id)))
+                    .flatMap(deleted -> statisticsService.recordCustomerRemoved(deleted.getAge(), deleted.getCreatedAt()))
+                    .as(transactionalOperator::transactional)
+                    .then(Mono.fromRunnable(() -> {
+                        eventPublisher.publishEvent(CustomerChangedEvent.deleted(id));
+
+                        metricsService.incrementCustomerDeleted();
+
+                        log.atInfo().addKeyValue("customerId", id).log("Customer deleted");
+                    }));
+        }));
+    }
+
+    // Helper methods
+
+    // The sample spans subscription to completion, as the try/finally around each JPA call does
+    private <T> Mono<T> timed(Mono<T> operation) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = metricsService.startCustomerProcessingTimer();
+            return operation.doFinally(signal -> metricsService.stopCustomerProcessingTimer(sample));
+        });
+    }
+
+    private CompletableFuture<Optional<CustomerDto>> loadCustomer(Long id) {
+        return customerRepository.findDtoById(id)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .toFuture();
+    }
+
+    // Only reached when the update matched no row, so the extra lookup stays off the common path
+    private Mono<CustomerUpdateRow> updateRejected(Long id, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return Mono.error(new ResourceNotFoundException("Customer not found with ID: " + id));
+        }
+        return customerRepository.existsById(id)
+                .flatMap(exists -> Mono.error(exists
+                        ? new CustomerException("Customer " + id + " is no longer at version " + expectedVersion,
+                                HttpStatus.PRECONDITION_FAILED)
+                        : new ResourceNotFoundException("Customer not found with ID: " + id)));
+    }
+
+    private CustomerDto mapToDto(CustomerRow row) {
+        return CustomerDto.builder()
+                .id(row.getId())
+                .firstName(row.getFirstName())
+                .lastName(row.getLastName())
+                .age(row.getAge())
+                .dateOfBirth(row.getDateOfBirth())
+                .version(row.getVersion())
+                .lastModified(row.getLastModified())
+                .build();
+    }
+
+    // One clock read per page; the table already holds the date for each age, so rows share its instances
+    private void fillLifeExpectancy(List<CustomerDetailDto> customers) {
+        LifeExpectancyTable lifeExpectancy = lifeExpectancyCalculator.currentTable();
+        for (CustomerDetailDto customer : customers) {
+            customer.setEstimatedLifeExpectancy(lifeExpectancy.lifeExpectancy(customer.getAge()));
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.pinapp.customerservice.service.impl;
+
+import com.pinapp.customerservice.columnstore.CustomerColumnStore;
+import com.pinapp.customerservice.dto.CustomerAnalyticsDto;
+import com.pinapp.customerservice.dto.CustomerMetricsDto;
+import com.pinapp.customerservice.entity.CustomerAgeBucket;
+import com.pinapp.customerservice.entity.CustomerSignupDay;
+import com.pinapp.customerservice.event.CustomerChangedEvent;
+import com.pinapp.customerservice.event.CustomerInvalidatedEvent;
+import com.pinapp.customerservice.repository.AgeHistogramSummary;
+import com.pinapp.customerservice.repository.ReactiveCustomerStatisticsRepository;
+import com.pinapp.customerservice.service.CustomerStatisticsService;
+import com.pinapp.customerservice.service.ReactiveCustomerStatisticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Maintains the same histogram and signup rows as {@link CustomerStatisticsServiceImpl}, and reads them the
+ * same way, through R2DBC. The rebuild and the scheduled signup refresh stay with the JPA service.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveCustomerStatisticsServiceImpl implements ReactiveCustomerStatisticsService {
+
+    private static final long METRICS_SNAPSHOT_TTL_NANOS = Duration.ofSeconds(5).toNanos();
+
+    private final ReactiveCustomerStatisticsRepository statisticsRepository;
+    private final CustomerStatisticsService statisticsService;
+    private final CustomerColumnStore columnStore;
+
+    private volatile MetricsSnapshot metricsSnapshot;
+
+    @Override
+    public Mono<Void> recordCustomerAdded(int age) {
+        return statisticsRepository.adjustCount(age, 1).then();
+    }
+
+    @Override
+    public Mono<Void> recordCustomerRemoved(int age, LocalDate createdAt) {
+        Mono<Long> removed = statisticsRepository.adjustCount(age, -1);
+        if (createdAt != null) {
+            removed = removed.then(statisticsRepository.decrementDay(createdAt));
+        }
+        return removed.then();
+    }
+
+    @Override
+    public Mono<Void> recordAgeChanged(int previousAge, int newAge) {
+        if (previousAge == newAge) {
+            return Mono.empty();
+        }
+        return statisticsRepository.adjustCount(previousAge, -1)
+                .then(statisticsRepository.adjustCount(newAge, 1))
+                .then();
+    }
+
+    @Override
+    public Mono<CustomerMetricsDto> getMetrics() {
+        MetricsSnapshot snapshot = metricsSnapshot;
+        if (snapshot != null && System.nanoTime() - snapshot.expiresAtNanos() < 0) {
+            return Mono.just(snapshot.metrics());
+        }
+        Mono<AgeHistogramSummary> summary = columnStore.isReady()
+                ? Mono.fromSupplier(columnStore::summarizeAges)
+                : statisticsRepository.summarize();
+        return summary.map(CustomerStatisticsServiceImpl::toMetrics)
+                .doOnNext(metrics -> metricsSnapshot = new MetricsSnapshot(metrics,
+                        System.nanoTime() + METRICS_SNAPSHOT_TTL_NANOS));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        metricsSnapshot = null;
+    }
+
+    @EventListener
+    public void onCustomerInvalidated(CustomerInvalidatedEvent event) {
+        metricsSnapshot = null;
+    }
+
+    // Locks and rewrites both tables in one JDBC transaction; rare enough to take a worker thread
+    @Override
+    public Mono<CustomerMetricsDto> rebuild() {
+        return Mono.fromCallable(statisticsService::rebuild)
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnNext(metrics -> metricsSnapshot = null);
+    }
+
+    @Override
+    public Mono<CustomerAnalyticsDto> getAnalytics(int bucketWidth, LocalDate from, LocalDate to,
+                                                   CustomerAnalyticsDto.Granularity granularity) {
+        Mono<List<CustomerAgeBucket>> histogram;
+        Mono<List<CustomerSignupDay>> signupDays;
+        if (columnStore.isReady()) {
+            histogram = Mono.fromSupplier(columnStore::ageHistogram);
+            signupDays = Mono.fromSupplier(() -> columnStore.signupsBetween(from, to));
+        } else {
+            histogram = statisticsRepository.findHistogramOrderByAge().collectList();
+            signupDays = statisticsRepository.findSignupDaysBetween(from, to).collectList();
+        }
+
+        return Mono.zip(histogram, signupDays, (buckets, days) -> CustomerAnalyticsDto.builder()
+                .totalCustomers(buckets.stream().mapToLong(CustomerAgeBucket::getCustomerCount).sum())
+                .bucketWidth(bucketWidth)
+                .ageBuckets(CustomerStatisticsServiceImpl.toAgeBuckets(buckets, bucketWidth))
+                .agePercentiles(CustomerStatisticsServiceImpl.toAgePercentiles(buckets))
+                .granularity(granularity)
+                .from(from)
+                .to(to)
+                .signups(CustomerStatisticsServiceImpl.toSignupCounts(days, granularity))
+                .build());
+    }
+
+    private record MetricsSnapshot(CustomerMetricsDto metrics, long expiresAtNanos) {
+    }
+}
@@ -0,0 +1,269 @@
+package com.pinapp.customerservice.cache;
+
+import com.pinapp.customerservice.dto.CustomerDto;
+import com.pinapp.customerservice.event.CustomerChangedEvent;
+import com.pinapp.customerservice.event.CustomerInvalidatedEvent;
+import com.pinapp.customerservice.metrics.BusinessMetricsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class CustomerCacheTest {
+
+    @Mock
+    private BusinessMetricsService metricsService;
+
+    private CustomerCache customerCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        customerCache = new CustomerCache(metricsService,
+                new RequestCoalescer(metricsService, Duration.ofSeconds(5)), 2, Duration.ofMinutes(5), Duration.ofSeconds(30));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void get_ShouldLoadOnceAndServeSubsequentHitsFromCache() {
+        // Act
+        Optional<CustomerDto> first = customerCache.get(1L, loader());
+        Optional<CustomerDto> second = customerCache.get(1L, loader());
+
+        // Assert
+        assertTrue(first.isPresent());
+        assertSame(first.get(), second.get());
+        assertEquals(1, loads.get());
+        verify(metricsService).recordCustomerCacheMisses(1);
+        verify(metricsService).recordCustomerCacheHits(1);
+    }
+
+    @Test
+    void get_ShouldCacheNegativeLookups() {
+        // Act
+        customerCache.get(99L, loader());
+        Optional<CustomerDto> result = customerCache.get(99L, loader());
+
+        // Assert
+        assertTrue(result.isEmpty());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void onCustomerChanged_ShouldInvalidateEntry() {
+        // Arrange
+        customerCache.get(1L, loader());
+
+        // Act
+        customerCache.onCustomerChanged(CustomerChangedEvent.deleted(1L));
+        customerCache.get(1L, loader());
+
+        // Assert
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_WhenInvalidatedDuringLoad_ShouldNotCacheLoadedValue() {
+        // Act
+        customerCache.get(1L, id -> {
+            customerCache.onCustomerChanged(CustomerChangedEvent.deleted(id));
+            return loader().apply(id);
+        });
+        customerCache.get(1L, loader());
+
+        // Assert
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_WhenLoadReturnsVersionOlderThanUpdate_ShouldNotCacheIt() {
+        // Arrange: a lagging replica still returns version 1 after version 2 was committed
+        customerCache.onCustomerChanged(CustomerChangedEvent.updated(CustomerDto.builder().id(1L).version(2L).build()));
+
+        // Act
+        customerCache.get(1L, versionedLoader(1L));
+        customerCache.get(1L, versionedLoader(2L));
+        Optional<CustomerDto> cached = customerCache.get(1L, versionedLoader(3L));
+
+        // Assert
+        assertEquals(2L, cached.orElseThrow().getVersion());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void onCustomerInvalidated_ArrivingOutOfOrder_ShouldKeepHighestVersionFloor() {
+        // Act
+        customerCache.onCustomerInvalidated(new CustomerInvalidatedEvent(1L, 5L));
+        customerCache.onCustomerInvalidated(new CustomerInvalidatedEvent(1L, 3L));
+        customerCache.get(1L, versionedLoader(4L));
+        customerCache.get(1L, versionedLoader(4L));
+
+        // Assert
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void onCustomerInvalidated_WhenDeleted_ShouldOnlyCacheAbsence() {
+        // Arrange
+        customerCache.get(1L, versionedLoader(1L));
+
+        // Act
+        customerCache.onCustomerInvalidated(new CustomerInvalidatedEvent(1L, CustomerInvalidatedEvent.DELETED_VERSION));
+        Optional<CustomerDto> lagging = customerCache.get(1L, versionedLoader(1L));
+        customerCache.get(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        Optional<CustomerDto> cached = customerCache.get(1L, versionedLoader(1L));
+
+        // Assert
+        assertTrue(lagging.isPresent());
+        assertTrue(cached.isEmpty());
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void get_WithConcurrentMissesForSameId_ShouldLoadOnce() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Optional<CustomerDto>>> results = new ArrayList<>();
+
+        // Act
+        try {
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> customerCache.get(1L, id -> {
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return loader().apply(id);
+                })));
+            }
+            verify(metricsService, timeout(5000).times(7)).recordCoalescedRequest("customer");
+            release.countDown();
+            for (Future<Optional<CustomerDto>> result : results) {
+                assertTrue(result.get(5, TimeUnit.SECONDS).isPresent());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void getAsync_WhileLoadInFlight_ShouldShareIt() {
+        // Arrange
+        CompletableFuture<Optional<CustomerDto>> load = new CompletableFuture<>();
+
+        // Act
+        CompletableFuture<Optional<CustomerDto>> first = customerCache.getAsync(1L, id -> {
+            loads.incrementAndGet();
+            return load;
+        });
+        CompletableFuture<Optional<CustomerDto>> second = customerCache.getAsync(1L, asyncLoader());
+        load.complete(Optional.of(CustomerDto.builder().id(1L).build()));
+
+        // Assert
+        assertSame(first.join().orElseThrow(), second.join().orElseThrow());
+        assertSame(first.join(), customerCache.get(1L, loader()));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void getAsync_WhenLoadReturnsVersionOlderThanUpdate_ShouldNotCacheIt() {
+        // Arrange
+        customerCache.onCustomerChanged(CustomerChangedEvent.updated(CustomerDto.builder().id(1L).version(2L).build()));
+
+        // Act
+        Optional<CustomerDto> stale = customerCache.getAsync(1L, id -> CompletableFuture.completedFuture(
+                versionedLoader(1L).apply(id))).join();
+        Optional<CustomerDto> current = customerCache.get(1L, versionedLoader(2L));
+
+        // Assert
+        assertEquals(1L, stale.orElseThrow().getVersion());
+        assertEquals(2L, current.orElseThrow().getVersion());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void getAsync_WhenLoadFails_ShouldNotCacheFailure() {
+        // Act
+        CompletableFuture<Optional<CustomerDto>> failed = customerCache.getAsync(1L,
+                id -> CompletableFuture.failedFuture(new IllegalStateException("database unavailable")));
+        Optional<CustomerDto> retried = customerCache.getAsync(1L, asyncLoader()).join();
+
+        // Assert
+        assertTrue(failed.isCompletedExceptionally());
+        assertTrue(retried.isPresent());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_WhenLoaderThrowsError_ShouldReleaseInFlightLoad() {
+        // Act
+        assertThrows(StackOverflowError.class, () -> customerCache.get(1L, id -> {
+            throw new StackOverflowError();
+        }));
+        CompletableFuture<Optional<CustomerDto>> retried = customerCache.getAsync(1L, asyncLoader());
+
+        // Assert: a placeholder left in flight would be handed out here instead of a new load
+        assertTrue(retried.isDone());
+        assertTrue(retried.join().isPresent());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_WhenMaximumSizeExceeded_ShouldEvictAndRecordEviction() {
+        // Act
+        for (long id = 1; id <= 10; id++) {
+            customerCache.get(id, loader());
+        }
+
+        // Assert
+        assertTrue(customerCache.size() <= 2);
+        verify(metricsService, atLeastOnce()).recordCustomerCacheEviction(anyString());
+    }
+
+    private Function<Long, Optional<CustomerDto>> versionedLoader(long version) {
+        return id -> {
+            loads.incrementAndGet();
+            return Optional.of(CustomerDto.builder().id(id).version(version).build());
+        };
+    }
+
+    private Function<Long, CompletableFuture<Optional<CustomerDto>>> asyncLoader() {
+        return id -> CompletableFuture.completedFuture(loader().apply(id));
+    }
+
+    private Function<Long, Optional<CustomerDto>> loader() {
+        return id -> {
+            loads.incrementAndGet();
+            return id == 99L ? Optional.empty() : Optional.of(CustomerDto.builder().id(id).build());
+        };
+    }
+}
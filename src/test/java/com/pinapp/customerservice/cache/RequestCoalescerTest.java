@@ -0,0 +1,201 @@
+package com.pinapp.customerservice.cache;
+
+import com.pinapp.customerservice.event.CustomerChangedEvent;
+import com.pinapp.customerservice.metrics.BusinessMetricsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RequestCoalescerTest {
+
+    private static final int CALLERS = 16;
+
+    @Mock
+    private BusinessMetricsService metricsService;
+
+    private RequestCoalescer requestCoalescer;
+    private ExecutorService executor;
+    private AtomicInteger calls;
+
+    @BeforeEach
+    void setUp() {
+        requestCoalescer = new RequestCoalescer(metricsService, Duration.ofSeconds(5));
+        executor = Executors.newFixedThreadPool(CALLERS);
+        calls = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void execute_WithConcurrentIdenticalCalls_ShouldRunOnceAndShareResult() throws Exception {
+        // Arrange: the first call blocks until every other caller has joined it
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> requestCoalescer.execute("metrics", () -> {
+                calls.incrementAndGet();
+                await(release);
+                return "summary";
+            })));
+        }
+        verify(metricsService, timeout(5000).times(CALLERS - 1)).recordCoalescedRequest("metrics");
+        release.countDown();
+
+        // Assert
+        for (Future<String> result : results) {
+            assertEquals("summary", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_WithDifferentKeys_ShouldNotShareCalls() {
+        // Act
+        String outer = requestCoalescer.execute("listing", List.of(0L, 100), () -> {
+            calls.incrementAndGet();
+            return requestCoalescer.execute("listing", List.of(100L, 100), () -> {
+                calls.incrementAndGet();
+                return "second page";
+            });
+        });
+
+        // Assert
+        assertEquals("second page", outer);
+        assertEquals(2, calls.get());
+        verifyNoInteractions(metricsService);
+    }
+
+    @Test
+    void execute_AfterFlightLands_ShouldRunAgain() {
+        // Act
+        requestCoalescer.execute("metrics", calls::incrementAndGet);
+        requestCoalescer.execute("metrics", calls::incrementAndGet);
+
+        // Assert
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void execute_WhenLeaderFails_ShouldRethrowToFollowers() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Object> leader = executor.submit(() -> requestCoalescer.execute("metrics", () -> {
+            started.countDown();
+            await(release);
+            throw new IllegalStateException("Connection reset");
+        }));
+        await(started);
+        Future<Object> follower = executor.submit(() -> requestCoalescer.execute("metrics", () -> "unused"));
+        verify(metricsService, timeout(5000)).recordCoalescedRequest("metrics");
+
+        // Act
+        release.countDown();
+
+        // Assert
+        Exception leaderFailure = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        Exception followerFailure = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, leaderFailure.getCause());
+        assertEquals("Connection reset", followerFailure.getCause().getMessage());
+    }
+
+    @Test
+    void execute_WhenLeaderExceedsMaxWait_ShouldRunFollowerSeparately() throws Exception {
+        // Arrange
+        requestCoalescer = new RequestCoalescer(metricsService, Duration.ofMillis(50));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = executor.submit(() -> requestCoalescer.execute("metrics", () -> {
+            started.countDown();
+            await(release);
+            return "slow";
+        }));
+        await(started);
+
+        // Act
+        String follower = requestCoalescer.execute("metrics", () -> "own");
+        release.countDown();
+
+        // Assert
+        assertEquals("own", follower);
+        assertEquals("slow", leader.get(5, TimeUnit.SECONDS));
+        verify(metricsService).recordCoalescingTimeout("metrics");
+    }
+
+    @Test
+    void onCustomerChanged_ShouldStartNewFlightForLaterCallers() {
+        // Act: a write commits while the first read is in flight
+        String later = requestCoalescer.execute("metrics", () -> {
+            calls.incrementAndGet();
+            requestCoalescer.onCustomerChanged(CustomerChangedEvent.deleted(1L));
+            return requestCoalescer.execute("metrics", () -> {
+                calls.incrementAndGet();
+                return "after commit";
+            });
+        });
+
+        // Assert
+        assertEquals("after commit", later);
+        assertEquals(2, calls.get());
+        verifyNoInteractions(metricsService);
+    }
+
+    @Test
+    void onCustomerChanged_ShouldKeepFlightsForOtherCustomers() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = executor.submit(() -> requestCoalescer.execute("customer", 2L, () -> {
+            calls.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "customer 2";
+        }));
+        await(started);
+
+        // Act: a write to another customer commits while the read is in flight
+        requestCoalescer.onCustomerChanged(CustomerChangedEvent.deleted(1L));
+        Future<String> follower = executor.submit(() -> requestCoalescer.execute("customer", 2L, () -> {
+            calls.incrementAndGet();
+            return "own";
+        }));
+        verify(metricsService, timeout(5000)).recordCoalescedRequest("customer");
+        release.countDown();
+
+        // Assert
+        assertEquals("customer 2", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("customer 2", follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.pinapp.customerservice.changefeed;
+
+import com.pinapp.customerservice.dto.CustomerChangeDto;
+import com.pinapp.customerservice.event.CustomerChangedEvent;
+import com.pinapp.customerservice.exception.CustomerException;
+import com.pinapp.customerservice.metrics.BusinessMetricsService;
+import com.pinapp.customerservice.repository.CustomerChangeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CustomerChangeFeedTest {
+
+    private static final Duration HEARTBEAT = Duration.ofMillis(20);
+
+    @Mock
+    private CustomerChangeRepository changeRepository;
+
+    @Mock
+    private BusinessMetricsService metricsService;
+
+    // Stands in for the change log table, ordered by sequence
+    private final List<CustomerChangeDto> changeLog = new CopyOnWriteArrayList<>();
+    private final RecordingSink sink = new RecordingSink();
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+        lenient().when(changeRepository.findChangesAfter(anyLong(), any(Limit.class))).thenAnswer(invocation -> {
+            long after = invocation.getArgument(0);
+            Limit limit = invocation.getArgument(1);
+            return changeLog.stream().filter(change -> change.getSequence() > after).limit(limit.max()).toList();
+        });
+        lenient().when(changeRepository.findLatestSequence()).thenAnswer(invocation ->
+                changeLog.isEmpty() ? null : changeLog.get(changeLog.size() - 1).getSequence());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void subscribe_ShouldSendLoggedChangesAfterCursorInOrder() throws Exception {
+        // Arrange
+        appendChanges(1, 3);
+        CustomerChangeFeed feed = feed(1000, 10, Runnable::run);
+        sink.failHeartbeats = true;
+
+        // Act: the sender runs on this thread and ends at the first (failing) heartbeat
+        feed.subscribe(1L, sink);
+
+        // Assert
+        assertEquals(List.of(2L, 3L), sink.sequences());
+        assertTrue(sink.completed);
+        assertEquals(0, feed.subscriberCount());
+        verify(metricsService, times(1)).recordChangeFeedEventsSent(2);
+    }
+
+    @Test
+    void subscribe_WithoutCursor_ShouldStartAfterLatestChange() {
+        // Arrange
+        appendChanges(1, 3);
+        CustomerChangeFeed feed = feed(1000, 10, Runnable::run);
+        sink.failHeartbeats = true;
+
+        // Act
+        feed.subscribe(null, sink);
+
+        // Assert
+        assertEquals(List.of(), sink.sequences());
+    }
+
+    @Test
+    void subscribe_WithPurgedCursor_ShouldResetToLatestChange() {
+        // Arrange
+        appendChanges(100, 150);
+        when(changeRepository.findEarliestSequence()).thenReturn(100L);
+        CustomerChangeFeed feed = feed(1000, 10, Runnable::run);
+        sink.failHeartbeats = true;
+
+        // Act
+        feed.subscribe(5L, sink);
+
+        // Assert
+        assertEquals(150L, sink.resetTo);
+        assertEquals(List.of(), sink.sequences());
+    }
+
+    @Test
+    void subscribe_WhenSubscriberLimitReached_ShouldRejectWithServiceUnavailable() {
+        // Arrange: the first subscriber's sender never starts, so it keeps its slot
+        CustomerChangeFeed feed = feed(1000, 1, task -> { });
+        feed.subscribe(0L, sink);
+
+        // Act
+        CustomerException rejected = assertThrows(CustomerException.class, () -> feed.subscribe(0L, new RecordingSink()));
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatus());
+        assertEquals(1, feed.subscriberCount());
+    }
+
+    @Test
+    void poll_ShouldDeliverNewChangesToLiveSubscriberExactlyOnce() throws Exception {
+        // Arrange
+        appendChanges(1, 1);
+        CustomerChangeFeed feed = feed(1000, 10, executor);
+        CustomerChangeSubscription subscription = feed.subscribe(0L, sink);
+        awaitCondition(subscription::isLive);
+
+        // Act
+        appendChanges(2, 5);
+        feed.poll();
+
+        // Assert
+        awaitCondition(() -> sink.sequences().size() == 5);
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), sink.sequences());
+        subscription.close();
+    }
+
+    @Test
+    void poll_WhenSubscriberBufferOverflows_ShouldResumeFromLogWithoutGaps() throws Exception {
+        // Arrange: the client stops reading at sequence 2, so the poller fills its two-slot buffer
+        appendChanges(1, 1);
+        CustomerChangeFeed feed = feed(2, 10, executor);
+        sink.blockAt = 2L;
+        CustomerChangeSubscription subscription = feed.subscribe(0L, sink);
+        awaitCondition(subscription::isLive);
+
+        // Act
+        appendChanges(2, 8);
+        feed.poll();
+        assertFalse(subscription.isLive());
+        sink.unblock.countDown();
+
+        // Assert
+        awaitCondition(() -> sink.sequences().size() == 8);
+        assertEquals(LongStream.rangeClosed(1, 8).boxed().toList(), sink.sequences());
+        verify(metricsService, times(1)).recordChangeFeedOverflow();
+        subscription.close();
+    }
+
+    @Test
+    void poll_WithoutLiveSubscribers_ShouldOnlyTrackLatestChange() {
+        // Arrange
+        appendChanges(1, 3);
+        CustomerChangeFeed feed = feed(1000, 10, Runnable::run);
+
+        // Act
+        feed.poll();
+
+        // Assert
+        verify(changeRepository, never()).findChangesAfter(anyLong(), any(Limit.class));
+    }
+
+    private CustomerChangeFeed feed(int bufferSize, int maxSubscribers, Executor senders) {
+        return new CustomerChangeFeed(changeRepository, metricsService, senders, bufferSize, maxSubscribers, HEARTBEAT);
+    }
+
+    private void appendChanges(long from, long to) {
+        for (long sequence = from; sequence <= to; sequence++) {
+            changeLog.add(CustomerChangeDto.builder()
+                    .sequence(sequence)
+                    .type(CustomerChangedEvent.ChangeType.UPDATED)
+                    .customerId(sequence)
+                    .version(1L)
+                    .changedAt(Instant.now())
+                    .build());
+        }
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not reached");
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    private static class RecordingSink implements CustomerChangeSink {
+
+        private final List<Long> sent = new CopyOnWriteArrayList<>();
+        private final CountDownLatch unblock = new CountDownLatch(1);
+        private volatile Long blockAt;
+        private volatile boolean failHeartbeats;
+        private volatile Long resetTo;
+        private volatile boolean completed;
+
+        @Override
+        public void send(CustomerChangeDto change) throws IOException {
+            if (change.getSequence().equals(blockAt)) {
+                try {
+                    unblock.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            sent.add(change.getSequence());
+        }
+
+        @Override
+        public void heartbeat() throws IOException {
+            if (failHeartbeats) {
+                throw new IOException("Broken pipe");
+            }
+        }
+
+        @Override
+        public void reset(long sequence) {
+            resetTo = sequence;
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        List<Long> sequences() {
+            return new ArrayList<>(sent);
+        }
+    }
+}
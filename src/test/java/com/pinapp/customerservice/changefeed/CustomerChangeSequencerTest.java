@@ -0,0 +1,62 @@
+package com.pinapp.customerservice.changefeed;
+
+import com.pinapp.customerservice.repository.CustomerChangeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CustomerChangeSequencerTest {
+
+    @Mock
+    private CustomerChangeRepository changeRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private CustomerChangeSequencer sequencer;
+
+    @BeforeEach
+    void setUp() {
+        sequencer = new CustomerChangeSequencer(changeRepository, transactionTemplate, 100, Duration.ofDays(7));
+    }
+
+    @Test
+    void sequenceBatch_WhenLockHeldElsewhere_ShouldNotNumberRows() {
+        // Arrange
+        when(changeRepository.tryLockSequencer(CustomerChangeSequencer.SEQUENCER_LOCK_KEY)).thenReturn(false);
+
+        // Act
+        int numbered = sequencer.sequenceBatch();
+
+        // Assert
+        assertEquals(0, numbered);
+        verify(changeRepository, never()).sequencePending(anyInt());
+    }
+
+    @Test
+    void sequence_ShouldNumberBatchesUntilOneIsPartial() {
+        // Arrange
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<Integer>>getArgument(0).doInTransaction(null));
+        when(changeRepository.tryLockSequencer(CustomerChangeSequencer.SEQUENCER_LOCK_KEY)).thenReturn(true);
+        when(changeRepository.sequencePending(100)).thenReturn(100, 100, 40);
+
+        // Act
+        sequencer.sequence();
+
+        // Assert
+        verify(changeRepository, times(3)).sequencePending(100);
+    }
+}
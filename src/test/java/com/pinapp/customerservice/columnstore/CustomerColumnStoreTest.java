@@ -0,0 +1,250 @@
+package com.pinapp.customerservice.columnstore;
+
+import com.pinapp.customerservice.dto.CustomerDetailDto;
+import com.pinapp.customerservice.dto.CustomerDto;
+import com.pinapp.customerservice.entity.CustomerAgeBucket;
+import com.pinapp.customerservice.entity.CustomerSignupDay;
+import com.pinapp.customerservice.event.CustomerChangedEvent;
+import com.pinapp.customerservice.event.CustomerInvalidatedEvent;
+import com.pinapp.customerservice.metrics.BusinessMetricsService;
+import com.pinapp.customerservice.repository.AgeHistogramSummary;
+import com.pinapp.customerservice.repository.CustomerRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CustomerColumnStoreTest {
+
+    private static final LocalDate BIRTH = LocalDate.of(1990, 5, 1);
+    private static final LocalDate CREATED = LocalDate.of(2024, 1, 1);
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private BusinessMetricsService metricsService;
+
+    @Test
+    void refresh_ShouldLoadTableAndServeReads() {
+        // Arrange
+        CustomerColumnStore store = new CustomerColumnStore(customerRepository, metricsService, true);
+        when(customerRepository.streamDetailsOrderById()).thenReturn(Stream.of(
+                detail(1L, "John", 30), detail(2L, "Jane", 40), detail(3L, "Ann", 30)));
+
+        // Act
+        store.refresh();
+
+        // Assert
+        assertTrue(store.isReady());
+        assertEquals(List.of(2L, 3L), store.page(1L, 10).stream().map(CustomerDetailDto::getId).toList());
+        AgeHistogramSummary summary = store.summarizeAges();
+        assertEquals(3L, summary.getCustomerCount());
+        assertEquals(100L, summary.getAgeSum());
+        assertEquals(30, summary.getMinAge());
+        assertEquals(40, summary.getMaxAge());
+        assertEquals(List.of(new CustomerAgeBucket(30, 2L), new CustomerAgeBucket(40, 1L)), store.ageHistogram());
+        assertEquals(List.of(new CustomerSignupDay(CREATED, 3L)), store.signupsBetween(CREATED, CREATED.plusDays(6)));
+        verify(metricsService, times(1)).recordColumnStoreRefresh(any(Duration.class), eq(3L), anyLong(), anyLong());
+    }
+
+    @Test
+    void onCustomerChanged_ShouldApplyCommittedChangesAfterLoad() {
+        // Arrange
+        CustomerColumnStore store = new CustomerColumnStore(customerRepository, metricsService, true);
+        when(customerRepository.streamDetailsOrderById()).thenReturn(Stream.of(detail(1L, "John", 30)));
+        store.refresh();
+
+        // Act
+        store.onCustomerChanged(CustomerChangedEvent.created(customer(2L, "Jane", 40), CREATED));
+        store.onCustomerChanged(CustomerChangedEvent.updated(customer(1L, "Johnny", 31)));
+        store.onCustomerChanged(CustomerChangedEvent.updated(customer(7L, "Elsewhere", 50)));
+        store.onCustomerChanged(CustomerChangedEvent.deleted(2L));
+
+        // Assert
+        List<CustomerDetailDto> customers = store.page(0L, 10);
+        assertEquals(1, customers.size());
+        assertEquals("Johnny", customers.get(0).getFirstName());
+        assertEquals(31, customers.get(0).getAge());
+        assertEquals(CREATED, customers.get(0).getCreatedAt());
+    }
+
+    @Test
+    void onCustomerInvalidated_ShouldApplyCurrentRowFromDatabase() {
+        // Arrange
+        CustomerColumnStore store = new CustomerColumnStore(customerRepository, metricsService, true);
+        when(customerRepository.streamDetailsOrderById()).thenReturn(Stream.of(detail(1L, "John", 30), detail(2L, "Jane", 40)));
+        store.refresh();
+        CustomerDto current = customer(1L, "Johnny", 31);
+        current.setVersion(3L);
+        when(customerRepository.findDtoById(1L)).thenReturn(Optional.of(current));
+
+        // Act
+        store.onCustomerInvalidated(new CustomerInvalidatedEvent(1L, 3L));
+        store.onCustomerInvalidated(new CustomerInvalidatedEvent(2L, CustomerInvalidatedEvent.DELETED_VERSION));
+
+        // Assert
+        List<CustomerDetailDto> customers = store.page(0L, 10);
+        assertEquals(1, customers.size());
+        assertEquals("Johnny", customers.get(0).getFirstName());
+        verify(customerRepository, never()).findDtoById(2L);
+        verify(customerRepository, never()).findCreatedAtById(any());
+    }
+
+    @Test
+    void onCustomerInvalidated_WhenCreatedElsewhere_ShouldInsertRowWithItsCreationDate() {
+        // Arrange
+        CustomerColumnStore store = new CustomerColumnStore(customerRepository, metricsService, true);
+        when(customerRepository.streamDetailsOrderById()).thenReturn(Stream.of(detail(1L, "John", 30)));
+        store.refresh();
+        CustomerDto created = customer(2L, "Jane", 40);
+        created.setVersion(0L);
+        when(customerRepository.findDtoById(2L)).thenReturn(Optional.of(created));
+        when(customerRepository.findCreatedAtById(2L)).thenReturn(Optional.of(CREATED.plusDays(1)));
+
+        // Act
+        store.onCustomerInvalidated(new CustomerInvalidatedEvent(2L, 0L));
+
+        // Assert
+        assertEquals(List.of(1L, 2L), store.page(0L, 10).stream().map(CustomerDetailDto::getId).toList());
+        assertEquals(List.of(new CustomerSignupDay(CREATED, 1L), new CustomerSignupDay(CREATED.plusDays(1), 1L)),
+                store.signupsBetween(CREATED, CREATED.plusDays(1)));
+    }
+
+    @Test
+    void onCustomerInvalidated_WhenNewerChangeAlreadyApplied_ShouldKeepIt() {
+        // Arrange: the row was read before a local update to version 5 committed and was applied
+        CustomerColumnStore store = new CustomerColumnStore(customerRepository, metricsService, true);
+        when(customerRepository.streamDetailsOrderById()).thenReturn(Stream.of(detail(1L, "John", 30)));
+        store.refresh();
+        CustomerDto stale = customer(1L, "Johnny", 31);
+        stale.setVersion(4L);
+        when(customerRepository.findDtoById(1L)).thenAnswer(invocation -> {
+            CustomerDto newer = customer(1L, "Jonathan", 32);
+            newer.setVersion(5L);
+            store.onCustomerChanged(CustomerChangedEvent.updated(newer));
+            return Optional.of(stale);
+        });
+
+        // Act
+        store.onCustomerInvalidated(new CustomerInvalidatedEvent(1L, 4L));
+
+        // Assert
+        assertEquals("Jonathan", store.page(0L, 10).get(0).getFirstName());
+    }
+
+    @Test
+    void onCustomerChanged_WhenNewerVersionAlreadyApplied_ShouldKeepIt() {
+        // Arrange: a re-read from another instance applied version 5 before the local version 4 event ran
+        CustomerColumnStore store = new CustomerColumnStore(customerRepository, metricsService, true);
+        when(customerRepository.streamDetailsOrderById()).thenReturn(Stream.of(detail(1L, "John", 30)));
+        store.refresh();
+        CustomerDto newer = customer(1L, "Jonathan", 32);
+        newer.setVersion(5L);
+        when(customerRepository.findDtoById(1L)).thenReturn(Optional.of(newer));
+        store.onCustomerInvalidated(new CustomerInvalidatedEvent(1L, 5L));
+        CustomerDto older = customer(1L, "Johnny", 31);
+        older.setVersion(4L);
+
+        // Act
+        store.onCustomerChanged(CustomerChangedEvent.updated(older));
+
+        // Assert
+        assertEquals("Jonathan", store.page(0L, 10).get(0).getFirstName());
+    }
+
+    @Test
+    void onCustomerChanged_WhenCreated_ShouldCountPersistedSignupDay() {
+        // Arrange: committed just before midnight, applied just after
+        CustomerColumnStore store = new CustomerColumnStore(customerRepository, metricsService, true);
+        when(customerRepository.streamDetailsOrderById()).thenReturn(Stream.empty());
+        store.refresh();
+        LocalDate createdAt = LocalDate.now().minusDays(1);
+
+        // Act
+        store.onCustomerChanged(CustomerChangedEvent.created(customer(2L, "Jane", 40), createdAt));
+
+        // Assert
+        assertEquals(List.of(new CustomerSignupDay(createdAt, 1L)),
+                store.signupsBetween(createdAt.minusDays(1), createdAt.plusDays(1)));
+    }
+
+    @Test
+    void refresh_ShouldReplayChangesCommittedWhileStreaming() {
+        // Arrange: a delete and a create commit while the table is being read
+        CustomerColumnStore store = new CustomerColumnStore(customerRepository, metricsService, true);
+        when(customerRepository.streamDetailsOrderById()).thenReturn(Stream.of(detail(1L, "John", 30), detail(2L, "Jane", 40))
+                .peek(customer -> {
+                    if (customer.getId() == 1L) {
+                        store.onCustomerChanged(CustomerChangedEvent.deleted(2L));
+                        store.onCustomerChanged(CustomerChangedEvent.created(customer(3L, "Ann", 50), CREATED));
+                    }
+                }));
+
+        // Act
+        store.refresh();
+
+        // Assert
+        assertEquals(List.of(1L, 3L), store.page(0L, 10).stream().map(CustomerDetailDto::getId).toList());
+    }
+
+    @Test
+    void refresh_WhenDisabled_ShouldNotLoad() {
+        // Arrange
+        CustomerColumnStore store = new CustomerColumnStore(customerRepository, metricsService, false);
+
+        // Act
+        store.refresh();
+        store.onCustomerChanged(CustomerChangedEvent.deleted(1L));
+
+        // Assert
+        assertFalse(store.isReady());
+        assertThrows(IllegalStateException.class, () -> store.page(0L, 10));
+        verifyNoInteractions(customerRepository, metricsService);
+    }
+
+    @Test
+    void refresh_WhenStreamFails_ShouldKeepServingPreviousLoad() {
+        // Arrange
+        CustomerColumnStore store = new CustomerColumnStore(customerRepository, metricsService, true);
+        when(customerRepository.streamDetailsOrderById())
+                .thenReturn(Stream.of(detail(1L, "John", 30)))
+                .thenThrow(new IllegalStateException("Connection reset"));
+        store.refresh();
+
+        // Act
+        assertThrows(IllegalStateException.class, store::refresh);
+        store.onCustomerChanged(CustomerChangedEvent.created(customer(2L, "Jane", 40), CREATED));
+
+        // Assert
+        assertTrue(store.isReady());
+        assertEquals(2, store.page(0L, 10).size());
+    }
+
+    private CustomerDetailDto detail(Long id, String firstName, int age) {
+        return new CustomerDetailDto(id, firstName, "Doe", age, BIRTH, CREATED);
+    }
+
+    private CustomerDto customer(Long id, String firstName, int age) {
+        return CustomerDto.builder()
+                .id(id)
+                .firstName(firstName)
+                .lastName("Doe")
+                .age(age)
+                .dateOfBirth(BIRTH)
+                .version(1L)
+                .build();
+    }
+}
@@ -0,0 +1,157 @@
+package com.pinapp.customerservice.columnstore;
+
+import com.pinapp.customerservice.dto.CustomerDetailDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CustomerColumnsTest {
+
+    private static final LocalDate BIRTH = LocalDate.of(1990, 5, 1);
+    private static final LocalDate DAY_1 = LocalDate.of(2024, 1, 1);
+    private static final LocalDate DAY_3 = LocalDate.of(2024, 1, 3);
+
+    private CustomerColumns columns;
+
+    @BeforeEach
+    void setUp() {
+        columns = new CustomerColumns(2, 64);
+    }
+
+    @Test
+    void put_ShouldKeepRowsOrderedByIdWhenInsertedOutOfOrder() {
+        // Arrange
+        columns.put(1L, "John", "Doe", 30, BIRTH, DAY_1);
+        columns.put(3L, "Jane", "Roe", 40, BIRTH, DAY_1);
+
+        // Act: a transaction that took ID 2 commits after the one that took 3
+        columns.put(2L, "Ann", "Poe", 50, BIRTH, DAY_3);
+
+        // Assert
+        List<CustomerDetailDto> page = columns.page(0L, 10);
+        assertEquals(List.of(1L, 2L, 3L), page.stream().map(CustomerDetailDto::getId).toList());
+        assertEquals("Ann", page.get(1).getFirstName());
+        assertEquals(DAY_3, page.get(1).getCreatedAt());
+        assertEquals(3, columns.rows());
+    }
+
+    @Test
+    void put_WithExistingId_ShouldOverwriteFieldsButKeepCreationDate() {
+        // Arrange
+        columns.put(1L, "John", "Doe", 30, BIRTH, DAY_1);
+
+        // Act
+        columns.put(1L, "Johnny", "Doe", 31, BIRTH, DAY_3);
+
+        // Assert
+        CustomerDetailDto customer = columns.page(0L, 1).get(0);
+        assertEquals("Johnny", customer.getFirstName());
+        assertEquals(31, customer.getAge());
+        assertEquals(DAY_1, customer.getCreatedAt());
+        assertEquals(1, columns.rows());
+    }
+
+    @Test
+    void update_WithUnknownId_ShouldReturnFalse() {
+        assertFalse(columns.update(9L, "John", "Doe", 30, BIRTH));
+        assertEquals(0, columns.rows());
+    }
+
+    @Test
+    void remove_ShouldHideRowFromPagesAndAggregates() {
+        // Arrange
+        columns.put(1L, "John", "Doe", 30, BIRTH, DAY_1);
+        columns.put(2L, "Jane", "Roe", 40, BIRTH, DAY_1);
+
+        // Act
+        boolean removed = columns.remove(1L);
+
+        // Assert
+        assertTrue(removed);
+        assertFalse(columns.remove(1L));
+        assertFalse(columns.update(1L, "John", "Doe", 31, BIRTH));
+        assertEquals(List.of(2L), columns.page(0L, 10).stream().map(CustomerDetailDto::getId).toList());
+        assertArrayEquals(new long[]{1, 40, 1600, 40, 40}, columns.summarizeAges());
+        assertEquals(1, columns.rows());
+    }
+
+    @Test
+    void remove_ShouldCompactOnceTombstonesDominate() {
+        // Arrange
+        for (long id = 1; id <= 4000; id++) {
+            columns.put(id, "First", "Last", 30, BIRTH, DAY_1);
+        }
+
+        // Act
+        for (long id = 1; id <= 1100; id++) {
+            columns.remove(id);
+        }
+
+        // Assert: 1024 tombstones triggered a compaction; the rest are still tombstones
+        assertEquals(2900, columns.rows());
+        assertEquals(1101L, columns.page(0L, 1).get(0).getId());
+        assertEquals(4000L, columns.page(3999L, 10).get(0).getId());
+    }
+
+    @Test
+    void page_ShouldStartAfterCursorAndStopAtLimit() {
+        // Arrange
+        for (long id = 10; id <= 50; id += 10) {
+            columns.put(id, "First" + id, "Last", 30, BIRTH, DAY_1);
+        }
+
+        // Act
+        List<CustomerDetailDto> fromMissingCursor = columns.page(15L, 2);
+        List<CustomerDetailDto> fromExistingCursor = columns.page(40L, 5);
+
+        // Assert
+        assertEquals(List.of(20L, 30L), fromMissingCursor.stream().map(CustomerDetailDto::getId).toList());
+        assertEquals(List.of(50L), fromExistingCursor.stream().map(CustomerDetailDto::getId).toList());
+        assertEquals("First20", fromMissingCursor.get(0).getFirstName());
+        assertEquals(BIRTH, fromMissingCursor.get(0).getDateOfBirth());
+    }
+
+    @Test
+    void countByAge_ShouldCountLiveRowsPerAge() {
+        // Arrange
+        columns.put(1L, "A", "A", 30, BIRTH, DAY_1);
+        columns.put(2L, "B", "B", 30, BIRTH, DAY_1);
+        columns.put(3L, "C", "C", 200, BIRTH, DAY_1);
+        columns.put(4L, "D", "D", 5, BIRTH, DAY_1);
+        columns.remove(4L);
+
+        // Act
+        long[] counts = columns.countByAge();
+
+        // Assert
+        assertEquals(201, counts.length);
+        assertEquals(2, counts[30]);
+        assertEquals(1, counts[200]);
+        assertEquals(0, counts[5]);
+    }
+
+    @Test
+    void countCreatedBetween_ShouldNarrowRangeToDaysWithCustomers() {
+        // Arrange
+        columns.put(1L, "A", "A", 30, BIRTH, DAY_1);
+        columns.put(2L, "B", "B", 30, BIRTH, DAY_3);
+        columns.put(3L, "C", "C", 30, BIRTH, DAY_3);
+        columns.put(4L, "D", "D", 30, BIRTH, null);
+
+        // Act
+        CustomerColumns.DayCounts all = columns.countCreatedBetween(LocalDate.MIN, LocalDate.MAX);
+        CustomerColumns.DayCounts later = columns.countCreatedBetween(DAY_1.plusDays(1), DAY_3);
+        CustomerColumns.DayCounts none = columns.countCreatedBetween(DAY_3.plusDays(1), DAY_3.plusDays(10));
+
+        // Assert
+        assertEquals(DAY_1.toEpochDay(), all.firstDay());
+        assertArrayEquals(new long[]{1, 0, 2}, all.counts());
+        assertEquals(DAY_1.plusDays(1).toEpochDay(), later.firstDay());
+        assertArrayEquals(new long[]{0, 2}, later.counts());
+        assertEquals(0, none.counts().length);
+    }
+}
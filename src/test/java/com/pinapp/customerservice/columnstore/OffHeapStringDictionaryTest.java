@@ -0,0 +1,70 @@
+package com.pinapp.customerservice.columnstore;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffHeapStringDictionaryTest {
+
+    @Test
+    void intern_ShouldReturnSameCodeForEqualStrings() {
+        // Arrange
+        OffHeapStringDictionary dictionary = new OffHeapStringDictionary(64);
+
+        // Act
+        int first = dictionary.intern("John");
+        int other = dictionary.intern("Jane");
+        int again = dictionary.intern(new String("John"));
+
+        // Assert
+        assertEquals(first, again);
+        assertNotEquals(first, other);
+        assertEquals(2, dictionary.size());
+        assertEquals("John", dictionary.get(first));
+        assertEquals("Jane", dictionary.get(other));
+    }
+
+    @Test
+    void intern_ShouldKeepCodesValidWhileDataAndTableGrow() {
+        // Arrange
+        OffHeapStringDictionary dictionary = new OffHeapStringDictionary(64);
+        List<Integer> codes = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 10_000; i++) {
+            codes.add(dictionary.intern("Name" + i));
+        }
+
+        // Assert
+        assertEquals(10_000, dictionary.size());
+        assertTrue(dictionary.offHeapBytes() > 64);
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals("Name" + i, dictionary.get(codes.get(i)));
+            assertEquals(codes.get(i), dictionary.intern("Name" + i));
+        }
+    }
+
+    @Test
+    void intern_ShouldRoundTripNonAsciiNames() {
+        // Arrange
+        OffHeapStringDictionary dictionary = new OffHeapStringDictionary(64);
+
+        // Act
+        int code = dictionary.intern("Muñoz-Ødegård");
+
+        // Assert
+        assertEquals("Muñoz-Ødegård", dictionary.get(code));
+        assertEquals(code, dictionary.intern("Muñoz-Ødegård"));
+    }
+
+    @Test
+    void intern_WithStringLongerThanEntryLimit_ShouldThrow() {
+        OffHeapStringDictionary dictionary = new OffHeapStringDictionary(64);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> dictionary.intern("x".repeat(OffHeapStringDictionary.MAX_UTF8_LENGTH + 1)));
+    }
+}
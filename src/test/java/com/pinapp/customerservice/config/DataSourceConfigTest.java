@@ -0,0 +1,65 @@
+package com.pinapp.customerservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class DataSourceConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(DataSourceAutoConfiguration.class))
+            .withUserConfiguration(DataSourceConfig.class)
+            .withPropertyValues(
+                    "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+                    "spring.datasource.username=sa",
+                    "spring.datasource.hikari.maximum-pool-size=4");
+
+    @Test
+    void dataSource_WithReplica_ShouldRouteReadOnlyTransactionsToReplica() {
+        contextRunner
+                .withPropertyValues(
+                        "customer.datasource.replica.jdbc-url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+                        "customer.datasource.replica.username=sa",
+                        "customer.datasource.replica.maximum-pool-size=2")
+                .run(context -> {
+                    DataSource dataSource = context.getBean("dataSource", DataSource.class);
+
+                    assertEquals("PRIMARY", databaseName(dataSource, false));
+                    assertEquals("REPLICA", databaseName(dataSource, true));
+                    assertEquals("PRIMARY", new JdbcTemplate(dataSource).queryForObject("SELECT DATABASE()", String.class));
+
+                    HikariDataSource replica = context.getBean(DataSourceConfig.REPLICA_DATA_SOURCE, HikariDataSource.class);
+                    assertEquals("replica", replica.getPoolName());
+                    assertEquals(2, replica.getMaximumPoolSize());
+                    assertEquals(4, context.getBean("primaryDataSource", HikariDataSource.class).getMaximumPoolSize());
+                });
+    }
+
+    @Test
+    void dataSource_WithoutReplica_ShouldRouteEverythingToPrimary() {
+        contextRunner.run(context -> {
+            DataSource dataSource = context.getBean("dataSource", DataSource.class);
+
+            assertFalse(context.containsBean(DataSourceConfig.REPLICA_DATA_SOURCE));
+            assertEquals("PRIMARY", databaseName(dataSource, false));
+            assertEquals("PRIMARY", databaseName(dataSource, true));
+        });
+    }
+
+    private String databaseName(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("SELECT DATABASE()", String.class));
+    }
+}
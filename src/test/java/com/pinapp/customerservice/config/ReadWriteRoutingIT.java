@@ -0,0 +1,117 @@
+package com.pinapp.customerservice.config;
+
+import com.pinapp.customerservice.entity.Customer;
+import com.pinapp.customerservice.repository.CustomerRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two independent PostgreSQL containers stand in for a primary and its replica. Rows that exist on only
+ * one of them show which pool served each transaction.
+ */
+@DataJpaTest
+@Import(DataSourceConfig.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+public class ReadWriteRoutingIT {
+
+    private static final long REPLICA_ONLY_ID = 1_000_000L;
+
+    @Container
+    static PostgreSQLContainer<?> primary = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Container
+    static PostgreSQLContainer<?> replica = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void dataSources(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", primary::getJdbcUrl);
+        registry.add("spring.datasource.username", primary::getUsername);
+        registry.add("spring.datasource.password", primary::getPassword);
+        registry.add("customer.datasource.replica.jdbc-url", replica::getJdbcUrl);
+        registry.add("customer.datasource.replica.username", replica::getUsername);
+        registry.add("customer.datasource.replica.password", replica::getPassword);
+    }
+
+    @BeforeAll
+    static void migrateReplica() {
+        // Replication would normally copy the schema; here the replica is migrated on its own
+        Flyway.configure()
+                .dataSource(replica.getJdbcUrl(), replica.getUsername(), replica.getPassword())
+                // As in application.yml: the concurrent index builds would wait on a transactional lock
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .load()
+                .migrate();
+        new JdbcTemplate(replicaDataSource()).update(
+                "INSERT INTO customers (id, first_name, last_name, age, date_of_birth, created_at) "
+                        + "VALUES (?, 'Replica', 'Only', 40, DATE '1984-01-01', CURRENT_DATE)", REPLICA_ONLY_ID);
+    }
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Test
+    void writeTransaction_ShouldUsePrimary() {
+        Customer saved = transaction(false).execute(status -> customerRepository.save(Customer.builder()
+                .firstName("John")
+                .lastName("Doe")
+                .age(30)
+                .dateOfBirth(LocalDate.of(1993, 1, 1))
+                .build()));
+
+        assertEquals(1, countById(new JdbcTemplate(primaryDataSource), saved.getId()));
+        assertEquals(0, countById(new JdbcTemplate(replicaDataSource()), saved.getId()));
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldUseReplica() {
+        assertTrue(transaction(true).execute(status -> customerRepository.findDtoById(REPLICA_ONLY_ID)).isPresent());
+        assertTrue(transaction(false).execute(status -> customerRepository.findDtoById(REPLICA_ONLY_ID)).isEmpty());
+    }
+
+    private TransactionTemplate transaction(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template;
+    }
+
+    private int countById(JdbcTemplate jdbcTemplate, Long id) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customers WHERE id = ?", Integer.class, id);
+    }
+
+    private static DataSource replicaDataSource() {
+        return new DriverManagerDataSource(
+                replica.getJdbcUrl(), replica.getUsername(), replica.getPassword());
+    }
+}
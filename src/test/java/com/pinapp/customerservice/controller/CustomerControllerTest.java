@@ -1,9 +1,23 @@
 package com.pinapp.customerservice.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.pinapp.customerservice.changefeed.CustomerChangeFeed;
+import com.pinapp.customerservice.changefeed.CustomerChangeSink;
+import com.pinapp.customerservice.changefeed.CustomerChangeSubscription;
+import com.pinapp.customerservice.config.JacksonConfig;
+import com.pinapp.customerservice.dto.CustomerAnalyticsDto;
+import com.pinapp.customerservice.dto.CustomerBatchItemResultDto;
+import com.pinapp.customerservice.dto.CustomerBatchResultDto;
+import com.pinapp.customerservice.dto.CustomerChangeDto;
 import com.pinapp.customerservice.dto.CustomerDetailDto;
 import com.pinapp.customerservice.dto.CustomerDto;
 import com.pinapp.customerservice.dto.CustomerMetricsDto;
+import com.pinapp.customerservice.dto.CustomerSearchCriteria;
+import com.pinapp.customerservice.entity.Customer;
+import com.pinapp.customerservice.event.CustomerChangedEvent;
+import com.pinapp.customerservice.exception.CustomerException;
 import com.pinapp.customerservice.exception.ResourceNotFoundException;
 import com.pinapp.customerservice.service.CustomerService;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,22 +25,37 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(CustomerController.class)
+@Import(JacksonConfig.class)
 @WithMockUser
 public class CustomerControllerTest {
 
@@ -36,9 +65,14 @@ public class CustomerControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    private static final Instant LAST_MODIFIED = Instant.parse("2024-01-15T10:00:00Z");
+
     @MockBean
     private CustomerService customerService;
 
+    @MockBean
+    private CustomerChangeFeed changeFeed;
+
     private CustomerDto customerDto;
     private CustomerDetailDto customerDetailDto;
     private CustomerMetricsDto customerMetricsDto;
@@ -52,6 +86,8 @@ public class CustomerControllerTest {
                 .lastName("Doe")
                 .age(30)
                 .dateOfBirth(LocalDate.of(1993, 1, 1))
+                .version(3L)
+                .lastModified(LAST_MODIFIED)
                 .build();
 
         customerDetailDto = CustomerDetailDto.builder()
@@ -97,6 +133,113 @@ public class CustomerControllerTest {
         verify(customerService, times(1)).createCustomer(any(CustomerDto.class));
     }
 
+    @Test
+    void createCustomers_WithJsonArray_ShouldReturnCreatedWithItemResults() throws Exception {
+        CustomerBatchResultDto batchResult = CustomerBatchResultDto.builder()
+                .created(1)
+                .failed(0)
+                .results(List.of(CustomerBatchItemResultDto.builder()
+                        .index(0)
+                        .status(CustomerBatchItemResultDto.Status.CREATED)
+                        .id(1L)
+                        .build()))
+                .build();
+        when(customerService.createCustomers(anyList(), eq(0))).thenReturn(batchResult);
+
+        mockMvc.perform(post("/api/customers/batch")
+                        .with(SecurityMockMvcRequestPostProcessors.csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(customerDto))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.created", is(1)))
+                .andExpect(jsonPath("$.results[0].status", is("CREATED")))
+                .andExpect(jsonPath("$.results[0].id", is(1)));
+    }
+
+    @Test
+    void createCustomers_WithNdjsonAndRejectedItems_ShouldReturnMultiStatus() throws Exception {
+        CustomerBatchResultDto batchResult = CustomerBatchResultDto.builder()
+                .created(1)
+                .failed(1)
+                .results(List.of(
+                        CustomerBatchItemResultDto.builder().index(0).status(CustomerBatchItemResultDto.Status.CREATED).id(1L).build(),
+                        CustomerBatchItemResultDto.builder().index(1).status(CustomerBatchItemResultDto.Status.INVALID).build()))
+                .build();
+        when(customerService.createCustomers(anyList(), eq(0))).thenReturn(batchResult);
+
+        String body = objectMapper.writeValueAsString(customerDto) + "\n"
+                + objectMapper.writeValueAsString(CustomerDto.builder().build()) + "\n";
+
+        mockMvc.perform(post("/api/customers/batch")
+                        .with(SecurityMockMvcRequestPostProcessors.csrf())
+                        .contentType(CustomerController.NDJSON_MEDIA_TYPE)
+                        .content(body))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.created", is(1)))
+                .andExpect(jsonPath("$.failed", is(1)))
+                .andExpect(jsonPath("$.results", hasSize(2)));
+
+        verify(customerService, times(1)).createCustomers(argThat(chunk -> chunk.size() == 2), eq(0));
+    }
+
+    @Test
+    void createCustomers_WithMalformedLineAndFailedChunk_ShouldReportEveryItemAndCarryOn() throws Exception {
+        when(customerService.createCustomers(anyList(), eq(2))).thenReturn(CustomerBatchResultDto.builder()
+                .created(1)
+                .results(List.of(CustomerBatchItemResultDto.builder()
+                        .index(2).status(CustomerBatchItemResultDto.Status.CREATED).id(7L).build()))
+                .build());
+        when(customerService.createCustomers(anyList(), eq(0)))
+                .thenThrow(new DataIntegrityViolationException("connection reset"));
+
+        String body = objectMapper.writeValueAsString(customerDto) + "\n"
+                + "{broken\n"
+                + objectMapper.writeValueAsString(customerDto) + "\n";
+
+        mockMvc.perform(post("/api/customers/batch")
+                        .with(SecurityMockMvcRequestPostProcessors.csrf())
+                        .contentType(CustomerController.NDJSON_MEDIA_TYPE)
+                        .content(body))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.created", is(1)))
+                .andExpect(jsonPath("$.failed", is(2)))
+                .andExpect(jsonPath("$.results[0].status", is("FAILED")))
+                .andExpect(jsonPath("$.results[1].index", is(1)))
+                .andExpect(jsonPath("$.results[1].status", is("INVALID")))
+                .andExpect(jsonPath("$.results[2].id", is(7)));
+    }
+
+    @Test
+    void createCustomers_WithTruncatedJsonArray_ShouldCreateItemsReadBeforeTheError() throws Exception {
+        when(customerService.createCustomers(anyList(), eq(0))).thenReturn(CustomerBatchResultDto.builder()
+                .created(1)
+                .results(List.of(CustomerBatchItemResultDto.builder()
+                        .index(0).status(CustomerBatchItemResultDto.Status.CREATED).id(1L).build()))
+                .build());
+
+        mockMvc.perform(post("/api/customers/batch")
+                        .with(SecurityMockMvcRequestPostProcessors.csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + objectMapper.writeValueAsString(customerDto) + ", {\"firstName\": "))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.created", is(1)))
+                .andExpect(jsonPath("$.results[1].index", is(1)))
+                .andExpect(jsonPath("$.results[1].status", is("INVALID")));
+
+        verify(customerService, times(1)).createCustomers(argThat(chunk -> chunk.size() == 1), eq(0));
+    }
+
+    @Test
+    void createCustomers_WithBodyThatIsNotAnArray_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/customers/batch")
+                        .with(SecurityMockMvcRequestPostProcessors.csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(customerDto)))
+                .andExpect(status().isBadRequest());
+
+        verify(customerService, never()).createCustomers(anyList(), anyInt());
+    }
+
     @Test
     void getCustomerById_WhenCustomerExists_ShouldReturnCustomer() throws Exception {
         when(customerService.getCustomerById(1L)).thenReturn(customerDto);
@@ -105,11 +248,39 @@ public class CustomerControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(1)))
                 .andExpect(jsonPath("$.firstName", is("John")))
-                .andExpect(jsonPath("$.lastName", is("Doe")));
+                .andExpect(jsonPath("$.lastName", is("Doe")))
+                .andExpect(jsonPath("$.version", is(3)))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, LAST_MODIFIED.toEpochMilli()));
 
         verify(customerService, times(1)).getCustomerById(1L);
     }
 
+    @Test
+    void getCustomerById_WithMatchingETag_ShouldReturnNotModified() throws Exception {
+        when(customerService.getCustomerById(1L)).thenReturn(customerDto);
+
+        mockMvc.perform(get("/api/customers/1").header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/api/customers/1").header(HttpHeaders.IF_NONE_MATCH, "\"2\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getCustomerById_WhenNotModifiedSince_ShouldReturnNotModified() throws Exception {
+        when(customerService.getCustomerById(1L)).thenReturn(customerDto);
+
+        mockMvc.perform(get("/api/customers/1")
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, LAST_MODIFIED.toEpochMilli()))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(get("/api/customers/1")
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, LAST_MODIFIED.minusSeconds(60).toEpochMilli()))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void getCustomerById_WhenCustomerDoesNotExist_ShouldReturnNotFound() throws Exception {
         when(customerService.getCustomerById(99L)).thenThrow(new ResourceNotFoundException("Customer not found with ID: 99"));
@@ -121,18 +292,180 @@ public class CustomerControllerTest {
     }
 
     @Test
-    void getAllCustomers_ShouldReturnAllCustomers() throws Exception {
+    void getCustomers_ShouldReturnPageWithNextCursor() throws Exception {
         List<CustomerDetailDto> customers = List.of(customerDetailDto);
-        when(customerService.getAllCustomersWithLifeExpectancy()).thenReturn(customers);
+        when(customerService.getCustomersWithLifeExpectancy(null, 1)).thenReturn(customers);
 
-        mockMvc.perform(get("/api/customers"))
+        mockMvc.perform(get("/api/customers").param("limit", "1"))
                 .andExpect(status().isOk())
+                .andExpect(header().string(CustomerController.NEXT_CURSOR_HEADER, "1"))
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].id", is(1)))
                 .andExpect(jsonPath("$[0].firstName", is("John")))
                 .andExpect(jsonPath("$[0].estimatedLifeExpectancy", notNullValue()));
 
-        verify(customerService, times(1)).getAllCustomersWithLifeExpectancy();
+        verify(customerService, times(1)).getCustomersWithLifeExpectancy(null, 1);
+    }
+
+    @Test
+    void getCustomers_WithCborAccept_ShouldReturnDatesAsEpochDays() throws Exception {
+        when(customerService.getCustomersWithLifeExpectancy(null, 100)).thenReturn(List.of(customerDetailDto));
+
+        byte[] body = mockMvc.perform(get("/api/customers").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode customer = new ObjectMapper(new CBORFactory()).readTree(body).get(0);
+        assertEquals(1L, customer.get("id").asLong());
+        assertEquals("John", customer.get("firstName").asText());
+        assertEquals(LocalDate.of(1993, 1, 1).toEpochDay(), customer.get("dateOfBirth").asLong());
+        assertEquals(customerDetailDto.getEstimatedLifeExpectancy().toEpochDay(),
+                customer.get("estimatedLifeExpectancy").asLong());
+    }
+
+    @Test
+    void getCustomers_WithoutAccept_ShouldReturnJsonDates() throws Exception {
+        when(customerService.getCustomersWithLifeExpectancy(null, 100)).thenReturn(List.of(customerDetailDto));
+
+        mockMvc.perform(get("/api/customers"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].dateOfBirth", is("1993-01-01")));
+    }
+
+    @Test
+    void getCustomers_OnLastPage_ShouldNotReturnNextCursor() throws Exception {
+        when(customerService.getCustomersWithLifeExpectancy(1L, 100)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/customers").param("after", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(CustomerController.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void getCustomers_WithLimitAboveMaximum_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/customers").param("limit", "100000"))
+                .andExpect(status().isBadRequest());
+
+        verify(customerService, never()).getCustomersWithLifeExpectancy(any(), anyInt());
+    }
+
+    @Test
+    void searchCustomers_ShouldPassFiltersAndReturnNextCursor() throws Exception {
+        when(customerService.searchCustomers(any(CustomerSearchCriteria.class), eq(5L), eq(1)))
+                .thenReturn(List.of(customerDto));
+
+        mockMvc.perform(get("/api/customers/search")
+                        .param("name", "Do")
+                        .param("match", "FUZZY")
+                        .param("minAge", "18")
+                        .param("maxAge", "40")
+                        .param("createdFrom", "2024-01-01")
+                        .param("after", "5")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(CustomerController.NEXT_CURSOR_HEADER, "1"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].lastName", is("Doe")));
+
+        verify(customerService, times(1)).searchCustomers(argThat(criteria ->
+                "Do".equals(criteria.getName())
+                        && criteria.getNameMatch() == CustomerSearchCriteria.NameMatch.FUZZY
+                        && criteria.getMinAge() == 18
+                        && criteria.getMaxAge() == 40
+                        && LocalDate.of(2024, 1, 1).equals(criteria.getCreatedFrom())
+                        && criteria.getCreatedTo() == null), eq(5L), eq(1));
+    }
+
+    @Test
+    void searchCustomers_WithUnknownMatchMode_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/customers/search").param("name", "Do").param("match", "REGEX"))
+                .andExpect(status().isBadRequest());
+
+        verify(customerService, never()).searchCustomers(any(), any(), anyInt());
+    }
+
+    @Test
+    void streamCustomers_ShouldWriteNdjson() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<CustomerDetailDto> consumer = invocation.getArgument(0);
+            consumer.accept(customerDetailDto);
+            consumer.accept(customerDetailDto);
+            return null;
+        }).when(customerService).streamCustomersWithLifeExpectancy(any());
+
+        MvcResult result = mockMvc.perform(get("/api/customers/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(CustomerController.NDJSON_MEDIA_TYPE))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(1L, objectMapper.readValue(lines[1], CustomerDetailDto.class).getId());
+    }
+
+    @Test
+    void streamChanges_ShouldWriteChangesAsServerSentEvents() throws Exception {
+        doAnswer(invocation -> {
+            CustomerChangeSink sink = invocation.getArgument(1);
+            sink.send(CustomerChangeDto.builder()
+                    .sequence(7L)
+                    .type(CustomerChangedEvent.ChangeType.UPDATED)
+                    .customerId(1L)
+                    .version(3L)
+                    .customer(customerDto)
+                    .build());
+            sink.complete();
+            return mock(CustomerChangeSubscription.class);
+        }).when(changeFeed).subscribe(eq(6L), any());
+
+        MvcResult result = mockMvc.perform(get("/api/customers/changes").param("after", "6"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string(containsString("id:7\ndata:{\"sequence\":7,\"type\":\"UPDATED\"")));
+    }
+
+    @Test
+    void streamChanges_ShouldResumeFromLastEventIdOverAfter() throws Exception {
+        when(changeFeed.subscribe(any(), any())).thenReturn(mock(CustomerChangeSubscription.class));
+
+        mockMvc.perform(get("/api/customers/changes")
+                        .param("after", "6")
+                        .header("Last-Event-ID", "42"))
+                .andExpect(request().asyncStarted());
+
+        verify(changeFeed, times(1)).subscribe(eq(42L), any());
+    }
+
+    @Test
+    void streamChanges_WithoutCursor_ShouldStartAtLatestChange() throws Exception {
+        when(changeFeed.subscribe(any(), any())).thenReturn(mock(CustomerChangeSubscription.class));
+
+        mockMvc.perform(get("/api/customers/changes"))
+                .andExpect(request().asyncStarted());
+
+        verify(changeFeed, times(1)).subscribe(isNull(), any());
+    }
+
+    @Test
+    void streamChanges_WhenSubscriberLimitReached_ShouldReturnServiceUnavailable() throws Exception {
+        when(changeFeed.subscribe(any(), any()))
+                .thenThrow(new CustomerException("Too many change feed subscribers, retry later", HttpStatus.SERVICE_UNAVAILABLE));
+
+        mockMvc.perform(get("/api/customers/changes"))
+                .andExpect(status().isServiceUnavailable());
     }
 
     @Test
@@ -145,11 +478,80 @@ public class CustomerControllerTest {
                 .andExpect(jsonPath("$.ageStandardDeviation", is(5.0)))
                 .andExpect(jsonPath("$.totalCustomers", is(1)))
                 .andExpect(jsonPath("$.youngestCustomerAge", is(30)))
-                .andExpect(jsonPath("$.oldestCustomerAge", is(30)));
+                .andExpect(jsonPath("$.oldestCustomerAge", is(30)))
+                .andExpect(header().string(HttpHeaders.ETAG, CustomerController.metricsETag(customerMetricsDto)));
 
         verify(customerService, times(1)).calculateMetrics();
     }
 
+    @Test
+    void getCustomerMetrics_WithMatchingETag_ShouldReturnNotModified() throws Exception {
+        when(customerService.calculateMetrics()).thenReturn(customerMetricsDto);
+        String eTag = mockMvc.perform(get("/api/customers/metrics"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/customers/metrics").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        customerMetricsDto.setAverageAge(30.5);
+        mockMvc.perform(get("/api/customers/metrics").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getCustomerAnalytics_ShouldReturnAnalyticsWithETag() throws Exception {
+        CustomerAnalyticsDto analytics = analytics();
+        when(customerService.getAnalytics(5, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31),
+                CustomerAnalyticsDto.Granularity.WEEK)).thenReturn(analytics);
+
+        mockMvc.perform(get("/api/customers/analytics")
+                        .param("bucketWidth", "5")
+                        .param("from", "2024-01-01")
+                        .param("to", "2024-01-31")
+                        .param("granularity", "WEEK"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andExpect(jsonPath("$.totalCustomers", is(1)))
+                .andExpect(jsonPath("$.ageBuckets[0].fromAge", is(30)))
+                .andExpect(jsonPath("$.agePercentiles.p50", is(30)))
+                .andExpect(jsonPath("$.signups[0].periodStart", is("2024-01-01")));
+    }
+
+    @Test
+    void getCustomerAnalytics_WithDefaults_ShouldCoverLast30Days() throws Exception {
+        LocalDate today = LocalDate.now();
+        when(customerService.getAnalytics(10, today.minusDays(29), today, CustomerAnalyticsDto.Granularity.DAY))
+                .thenReturn(analytics());
+
+        mockMvc.perform(get("/api/customers/analytics"))
+                .andExpect(status().isOk());
+
+        verify(customerService, times(1))
+                .getAnalytics(10, today.minusDays(29), today, CustomerAnalyticsDto.Granularity.DAY);
+    }
+
+    @Test
+    void getCustomerAnalytics_WithMatchingETag_ShouldReturnNotModified() throws Exception {
+        when(customerService.getAnalytics(anyInt(), any(), any(), any())).thenReturn(analytics());
+        String eTag = mockMvc.perform(get("/api/customers/analytics"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/customers/analytics").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getCustomerAnalytics_WithInvertedRange_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/customers/analytics")
+                        .param("from", "2024-02-01")
+                        .param("to", "2024-01-01"))
+                .andExpect(status().isBadRequest());
+
+        verify(customerService, never()).getAnalytics(anyInt(), any(), any(), any());
+    }
+
     @Test
     void updateCustomer_WhenCustomerExists_ShouldReturnUpdatedCustomer() throws Exception {
         CustomerDto updateDto = CustomerDto.builder()
@@ -165,9 +567,11 @@ public class CustomerControllerTest {
                 .lastName("Updated")
                 .age(31)
                 .dateOfBirth(LocalDate.of(1992, 1, 1))
+                .version(4L)
+                .lastModified(LAST_MODIFIED)
                 .build();
 
-        when(customerService.updateCustomer(eq(1L), any(CustomerDto.class))).thenReturn(updatedCustomerDto);
+        when(customerService.updateCustomer(eq(1L), any(CustomerDto.class), isNull())).thenReturn(updatedCustomerDto);
 
         mockMvc.perform(put("/api/customers/1")
                         .with(SecurityMockMvcRequestPostProcessors.csrf())
@@ -176,9 +580,61 @@ public class CustomerControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(1)))
                 .andExpect(jsonPath("$.lastName", is("Updated")))
-                .andExpect(jsonPath("$.age", is(31)));
+                .andExpect(jsonPath("$.age", is(31)))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+
+        verify(customerService, times(1)).updateCustomer(eq(1L), any(CustomerDto.class), isNull());
+    }
+
+    @Test
+    void updateCustomer_WithIfMatch_ShouldPassExpectedVersion() throws Exception {
+        when(customerService.updateCustomer(eq(1L), any(CustomerDto.class), eq(3L))).thenReturn(customerDto);
 
-        verify(customerService, times(1)).updateCustomer(eq(1L), any(CustomerDto.class));
+        mockMvc.perform(put("/api/customers/1")
+                        .with(SecurityMockMvcRequestPostProcessors.csrf())
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(customerDto)))
+                .andExpect(status().isOk());
+
+        verify(customerService, times(1)).updateCustomer(eq(1L), any(CustomerDto.class), eq(3L));
+    }
+
+    @Test
+    void updateCustomer_WithStaleIfMatch_ShouldReturnPreconditionFailed() throws Exception {
+        when(customerService.updateCustomer(eq(1L), any(CustomerDto.class), eq(2L)))
+                .thenThrow(new CustomerException("Customer 1 was modified concurrently", HttpStatus.PRECONDITION_FAILED));
+
+        mockMvc.perform(put("/api/customers/1")
+                        .with(SecurityMockMvcRequestPostProcessors.csrf())
+                        .header(HttpHeaders.IF_MATCH, "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(customerDto)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void updateCustomer_WithWeakIfMatch_ShouldReturnPreconditionFailed() throws Exception {
+        mockMvc.perform(put("/api/customers/1")
+                        .with(SecurityMockMvcRequestPostProcessors.csrf())
+                        .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(customerDto)))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(customerService, never()).updateCustomer(any(), any(), any());
+    }
+
+    @Test
+    void updateCustomer_WhenConcurrentlyModified_ShouldReturnConflict() throws Exception {
+        when(customerService.updateCustomer(eq(1L), any(CustomerDto.class), isNull()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Customer.class, 1L));
+
+        mockMvc.perform(put("/api/customers/1")
+                        .with(SecurityMockMvcRequestPostProcessors.csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(customerDto)))
+                .andExpect(status().isConflict());
     }
 
     @Test
@@ -206,4 +662,17 @@ public class CustomerControllerTest {
 
         verify(customerService, never()).createCustomer(any(CustomerDto.class));
     }
-}
\ No newline at end of file
+
+    private CustomerAnalyticsDto analytics() {
+        return CustomerAnalyticsDto.builder()
+                .totalCustomers(1L)
+                .bucketWidth(5)
+                .ageBuckets(List.of(new CustomerAnalyticsDto.AgeBucket(30, 34, 1L)))
+                .agePercentiles(Map.of("p50", 30))
+                .granularity(CustomerAnalyticsDto.Granularity.WEEK)
+                .from(LocalDate.of(2024, 1, 1))
+                .to(LocalDate.of(2024, 1, 31))
+                .signups(List.of(new CustomerAnalyticsDto.SignupCount(LocalDate.of(2024, 1, 1), 1L)))
+                .build();
+    }
+}
@@ -0,0 +1,156 @@
+package com.pinapp.customerservice.messaging;
+
+import com.pinapp.customerservice.config.RabbitMQConfig;
+import com.pinapp.customerservice.dto.CustomerDto;
+import com.pinapp.customerservice.event.CustomerChangedEvent;
+import com.pinapp.customerservice.event.CustomerInvalidatedEvent;
+import com.pinapp.customerservice.metrics.BusinessMetricsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.net.ConnectException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CustomerInvalidationBusTest {
+
+    private static final String ORIGIN = "customer.invalidation.this-instance";
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private BusinessMetricsService metricsService;
+
+    private CustomerInvalidationBus invalidationBus;
+
+    @BeforeEach
+    void setUp() {
+        invalidationBus = new CustomerInvalidationBus(rabbitTemplate, eventPublisher, metricsService,
+                new Queue(ORIGIN, false, true, true), Runnable::run);
+    }
+
+    @Test
+    void onCustomerChanged_WhenUpdated_ShouldBroadcastIdAndNewVersion() {
+        // Act
+        invalidationBus.onCustomerChanged(CustomerChangedEvent.updated(CustomerDto.builder().id(1L).version(4L).build()));
+
+        // Assert
+        verify(rabbitTemplate, times(1)).convertAndSend(eq(RabbitMQConfig.CUSTOMER_INVALIDATION_EXCHANGE), eq(""),
+                eq(new CustomerInvalidation(ORIGIN, 1L, 4L)), any(MessagePostProcessor.class));
+        verify(metricsService, times(1)).recordInvalidationPublished();
+    }
+
+    @Test
+    void onCustomerChanged_WhenDeleted_ShouldBroadcastDeletedVersion() {
+        // Act
+        invalidationBus.onCustomerChanged(CustomerChangedEvent.deleted(1L));
+
+        // Assert
+        verify(rabbitTemplate, times(1)).convertAndSend(eq(RabbitMQConfig.CUSTOMER_INVALIDATION_EXCHANGE), eq(""),
+                eq(new CustomerInvalidation(ORIGIN, 1L, CustomerInvalidatedEvent.DELETED_VERSION)),
+                any(MessagePostProcessor.class));
+    }
+
+    @Test
+    void onCustomerChanged_ShouldBroadcastFromEventExecutor() {
+        // Arrange
+        List<Runnable> scheduled = new ArrayList<>();
+        invalidationBus = new CustomerInvalidationBus(rabbitTemplate, eventPublisher, metricsService,
+                new Queue(ORIGIN, false, true, true), scheduled::add);
+
+        // Act
+        invalidationBus.onCustomerChanged(CustomerChangedEvent.deleted(1L));
+
+        // Assert: nothing is sent on the writing thread
+        verifyNoInteractions(rabbitTemplate);
+        scheduled.forEach(Runnable::run);
+        verify(rabbitTemplate, times(1)).convertAndSend(eq(RabbitMQConfig.CUSTOMER_INVALIDATION_EXCHANGE), eq(""),
+                eq(new CustomerInvalidation(ORIGIN, 1L, CustomerInvalidatedEvent.DELETED_VERSION)),
+                any(MessagePostProcessor.class));
+    }
+
+    @Test
+    void onCustomerChanged_WhenCreated_ShouldBroadcastIdAndVersion() {
+        // Act
+        invalidationBus.onCustomerChanged(CustomerChangedEvent.created(CustomerDto.builder().id(1L).version(0L).build(), LocalDate.now()));
+
+        // Assert
+        verify(rabbitTemplate, times(1)).convertAndSend(eq(RabbitMQConfig.CUSTOMER_INVALIDATION_EXCHANGE), eq(""),
+                eq(new CustomerInvalidation(ORIGIN, 1L, 0L)), any(MessagePostProcessor.class));
+        verify(metricsService, times(1)).recordInvalidationPublished();
+    }
+
+    @Test
+    void onCustomerChanged_WhenBrokerUnavailable_ShouldRecordFailureWithoutThrowing() {
+        // Arrange
+        doThrow(new AmqpConnectException(new ConnectException("Connection refused")))
+                .when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class), any(MessagePostProcessor.class));
+
+        // Act
+        assertDoesNotThrow(() -> invalidationBus.onCustomerChanged(CustomerChangedEvent.deleted(1L)));
+
+        // Assert
+        verify(metricsService, times(1)).recordInvalidationFailed();
+        verify(metricsService, never()).recordInvalidationPublished();
+    }
+
+    @Test
+    void onInvalidation_FromAnotherInstance_ShouldPublishLocalEvent() {
+        // Act
+        invalidationBus.onInvalidation(MessageBuilder
+                .withPayload(new CustomerInvalidation("customer.invalidation.other-instance", 1L, 4L))
+                .build());
+
+        // Assert
+        ArgumentCaptor<CustomerInvalidatedEvent> event = ArgumentCaptor.forClass(CustomerInvalidatedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertEquals(1L, event.getValue().getCustomerId());
+        assertEquals(4L, event.getValue().getVersion());
+        verify(metricsService, times(1)).recordMessagesConsumed(RabbitMQConfig.CUSTOMER_INVALIDATION_EXCHANGE, 1);
+    }
+
+    @Test
+    void onInvalidation_FromThisInstance_ShouldBeIgnored() {
+        // Act
+        invalidationBus.onInvalidation(MessageBuilder.withPayload(new CustomerInvalidation(ORIGIN, 1L, 4L)).build());
+
+        // Assert
+        verifyNoInteractions(eventPublisher, metricsService);
+    }
+
+    @Test
+    void onInvalidation_WhenListenerFails_ShouldRecordFailureWithoutRequeue() {
+        // Arrange
+        doThrow(new IllegalStateException("Connection reset")).when(eventPublisher).publishEvent(any(Object.class));
+
+        // Act
+        assertDoesNotThrow(() -> invalidationBus.onInvalidation(MessageBuilder
+                .withPayload(new CustomerInvalidation("customer.invalidation.other-instance", 1L, 4L))
+                .build()));
+
+        // Assert
+        verify(metricsService, times(1)).recordMessagesFailed(RabbitMQConfig.CUSTOMER_INVALIDATION_EXCHANGE, 1);
+    }
+}
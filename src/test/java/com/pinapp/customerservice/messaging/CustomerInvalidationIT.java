@@ -0,0 +1,183 @@
+package com.pinapp.customerservice.messaging;
+
+import com.pinapp.customerservice.CustomerServiceApplication;
+import com.pinapp.customerservice.dto.CustomerDto;
+import com.pinapp.customerservice.exception.ResourceNotFoundException;
+import com.pinapp.customerservice.service.CustomerService;
+import com.pinapp.customerservice.service.CustomerStatisticsService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs two instances of the service against the same PostgreSQL and RabbitMQ, writes through one and
+ * measures how long the other keeps serving its cached copy. Without the invalidation bus that window is
+ * the cache TTL (five minutes by default).
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@Slf4j
+public class CustomerInvalidationIT {
+
+    private static final int ROUNDS = 50;
+    private static final Duration MAX_STALENESS = Duration.ofSeconds(2);
+    private static final Duration GIVE_UP_AFTER = Duration.ofSeconds(10);
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Container
+    static RabbitMQContainer rabbitmq = new RabbitMQContainer("rabbitmq:3-management-alpine");
+
+    private static ConfigurableApplicationContext writer;
+    private static ConfigurableApplicationContext reader;
+
+    @BeforeAll
+    static void startInstances() {
+        writer = startInstance();
+        reader = startInstance();
+    }
+
+    @AfterAll
+    static void stopInstances() {
+        if (reader != null) {
+            reader.close();
+        }
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    @Test
+    void updateCustomer_ShouldReachOtherInstanceWithinStalenessBound() {
+        // Arrange
+        CustomerService writerService = writer.getBean(CustomerService.class);
+        CustomerService readerService = reader.getBean(CustomerService.class);
+        Long id = writerService.createCustomer(customer(30)).getId();
+        readerService.getCustomerById(id);
+        List<Duration> windows = new ArrayList<>(ROUNDS);
+
+        // Act: each round the reader holds the previous version in its cache
+        for (int round = 1; round <= ROUNDS; round++) {
+            long version = writerService.updateCustomer(id, customer(30 + round), null).getVersion();
+            long committed = System.nanoTime();
+            awaitOnReader(() -> readerService.getCustomerById(id).getVersion() >= version);
+            windows.add(Duration.ofNanos(System.nanoTime() - committed));
+        }
+
+        // Assert
+        Duration max = report("update", windows);
+        assertTrue(max.compareTo(MAX_STALENESS) < 0, () -> "Reader stayed stale for " + max);
+    }
+
+    @Test
+    void deleteCustomer_ShouldReachOtherInstanceWithinStalenessBound() {
+        // Arrange
+        CustomerService writerService = writer.getBean(CustomerService.class);
+        CustomerService readerService = reader.getBean(CustomerService.class);
+        List<Duration> windows = new ArrayList<>(ROUNDS);
+
+        // Act
+        for (int round = 1; round <= ROUNDS; round++) {
+            Long id = writerService.createCustomer(customer(40)).getId();
+            readerService.getCustomerById(id);
+            writerService.deleteCustomer(id);
+            long committed = System.nanoTime();
+            awaitOnReader(() -> isDeleted(readerService, id));
+            windows.add(Duration.ofNanos(System.nanoTime() - committed));
+        }
+
+        // Assert
+        Duration max = report("delete", windows);
+        assertTrue(max.compareTo(MAX_STALENESS) < 0, () -> "Reader stayed stale for " + max);
+    }
+
+    @Test
+    void createCustomer_ShouldReachOtherInstanceMetricsWithinStalenessBound() {
+        // Arrange
+        CustomerService writerService = writer.getBean(CustomerService.class);
+        CustomerStatisticsService readerStatistics = reader.getBean(CustomerStatisticsService.class);
+        List<Duration> windows = new ArrayList<>(ROUNDS);
+
+        // Act: each round the reader holds a metrics snapshot taken before the create
+        for (int round = 1; round <= ROUNDS; round++) {
+            long expected = readerStatistics.getMetrics().getTotalCustomers() + 1;
+            writerService.createCustomer(customer(50));
+            long committed = System.nanoTime();
+            awaitOnReader(() -> readerStatistics.getMetrics().getTotalCustomers() >= expected);
+            windows.add(Duration.ofNanos(System.nanoTime() - committed));
+        }
+
+        // Assert
+        Duration max = report("create", windows);
+        assertTrue(max.compareTo(MAX_STALENESS) < 0, () -> "Reader stayed stale for " + max);
+    }
+
+    private static ConfigurableApplicationContext startInstance() {
+        return new SpringApplicationBuilder(CustomerServiceApplication.class)
+                // Command-line arguments, as default properties would lose to application.yml
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "--spring.datasource.username=" + postgres.getUsername(),
+                        "--spring.datasource.password=" + postgres.getPassword(),
+                        "--spring.rabbitmq.host=" + rabbitmq.getHost(),
+                        "--spring.rabbitmq.port=" + rabbitmq.getAmqpPort(),
+                        "--spring.rabbitmq.username=" + rabbitmq.getAdminUsername(),
+                        "--spring.rabbitmq.password=" + rabbitmq.getAdminPassword(),
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.com.pinapp.customerservice=INFO",
+                        "--management.tracing.sampling.probability=0.0",
+                        "--security.jwt.secret=" + "invalidation-it-".repeat(4));
+    }
+
+    private static void awaitOnReader(BooleanSupplier current) {
+        long deadline = System.nanoTime() + GIVE_UP_AFTER.toNanos();
+        while (!current.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Reader never caught up");
+            LockSupport.parkNanos(Duration.ofMillis(1).toNanos());
+        }
+    }
+
+    private static boolean isDeleted(CustomerService service, Long id) {
+        try {
+            service.getCustomerById(id);
+            return false;
+        } catch (ResourceNotFoundException e) {
+            return true;
+        }
+    }
+
+    private static Duration report(String change, List<Duration> windows) {
+        List<Duration> sorted = windows.stream().sorted().toList();
+        Duration max = sorted.get(sorted.size() - 1);
+        log.info("Cross-instance staleness after {} over {} rounds: p50={} ms, p99={} ms, max={} ms",
+                change, sorted.size(), sorted.get(sorted.size() / 2).toMillis(),
+                sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1).toMillis(), max.toMillis());
+        return max;
+    }
+
+    private static CustomerDto customer(int age) {
+        return CustomerDto.builder()
+                .firstName("Stale")
+                .lastName("Check")
+                .age(age)
+                .dateOfBirth(LocalDate.now().minusYears(age))
+                .build();
+    }
+}
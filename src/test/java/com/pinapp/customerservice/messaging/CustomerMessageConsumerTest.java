@@ -0,0 +1,92 @@
+package com.pinapp.customerservice.messaging;
+
+import com.pinapp.customerservice.config.RabbitMQConfig;
+import com.pinapp.customerservice.dto.CustomerDto;
+import com.pinapp.customerservice.metrics.BusinessMetricsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CustomerMessageConsumerTest {
+
+    private static final String QUEUE = RabbitMQConfig.CUSTOMER_CREATED_QUEUE;
+
+    @Mock
+    private ProcessedMessageStore processedMessageStore;
+
+    @Mock
+    private BusinessMetricsService metricsService;
+
+    private CustomerMessageConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = spy(new CustomerMessageConsumer(processedMessageStore, metricsService, Runnable::run));
+    }
+
+    @Test
+    void processCustomerCreations_ShouldSkipAlreadyProcessedMessages() {
+        // Arrange
+        when(processedMessageStore.findProcessed(anyCollection())).thenReturn(Set.of("1"));
+
+        // Act
+        consumer.processCustomerCreations(List.of(message("1", 1L), message("2", 2L), message("2", 2L)));
+
+        // Assert
+        verify(consumer, times(1)).processCustomerCreation(any(CustomerDto.class));
+        verify(processedMessageStore, times(1)).markProcessed(List.of("2"));
+        verify(metricsService, times(1)).recordMessagesDuplicated(QUEUE, 2);
+        verify(metricsService, times(1)).recordMessagesConsumed(QUEUE, 1);
+        verify(metricsService, times(3)).recordMessageLag(eq(QUEUE), any(Duration.class));
+    }
+
+    @Test
+    void processCustomerCreations_WhenOneMessageFails_ShouldMarkOthersAndRequeueBatch() {
+        // Arrange
+        when(processedMessageStore.findProcessed(anyCollection())).thenReturn(Set.of());
+        doAnswer(invocation -> {
+            if (invocation.getArgument(0, CustomerDto.class).getId() == 2L) {
+                throw new IllegalStateException("mail server down");
+            }
+            return null;
+        }).when(consumer).processCustomerCreation(any(CustomerDto.class));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class,
+                () -> consumer.processCustomerCreations(List.of(message("1", 1L), message("2", 2L))));
+        verify(processedMessageStore, times(1)).markProcessed(List.of("1"));
+        verify(metricsService, times(1)).recordMessagesFailed(QUEUE, 1);
+    }
+
+    private Message<CustomerDto> message(String messageId, Long customerId) {
+        CustomerDto customerDto = CustomerDto.builder()
+                .id(customerId)
+                .firstName("John")
+                .lastName("Doe")
+                .age(30)
+                .dateOfBirth(LocalDate.of(1993, 1, 1))
+                .build();
+        return MessageBuilder.withPayload(customerDto)
+                .setHeader(AmqpHeaders.MESSAGE_ID, messageId)
+                .setHeader(AmqpHeaders.TIMESTAMP, new Date())
+                .build();
+    }
+}
@@ -1,18 +1,27 @@
 package com.pinapp.customerservice.messaging;
 
 import com.pinapp.customerservice.config.RabbitMQConfig;
-import com.pinapp.customerservice.dto.CustomerDto;
+import com.pinapp.customerservice.entity.OutboxEvent;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 
-import java.time.LocalDate;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 
-import static org.mockito.Mockito.times;
-import static org.mockito.Mockito.verify;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class CustomerMessageProducerTest {
@@ -24,24 +33,57 @@ public class CustomerMessageProducerTest {
     private CustomerMessageProducer messageProducer;
 
     @Test
-    void sendCustomerCreationMessage_ShouldSendMessageToRabbitMQ() {
+    void publishConfirmed_ShouldSendEventsToCustomerExchangeWithStableMessageId() {
         // Arrange
-        CustomerDto customerDto = CustomerDto.builder()
-                .id(1L)
-                .firstName("John")
-                .lastName("Doe")
-                .age(30)
-                .dateOfBirth(LocalDate.of(1993, 1, 1))
-                .build();
+        OutboxEvent event = event(1L);
+        doAnswer(invocation -> {
+            invocation.getArgument(3, CorrelationData.class).getFuture()
+                    .complete(new CorrelationData.Confirm(true, null));
+            return null;
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+
+        // Act
+        Map<Long, String> failures = messageProducer.publishConfirmed(List.of(event), Duration.ofSeconds(1));
+
+        // Assert
+        assertTrue(failures.isEmpty());
+        ArgumentCaptor<Message> message = ArgumentCaptor.forClass(Message.class);
+        verify(rabbitTemplate, times(1)).send(eq(RabbitMQConfig.CUSTOMER_EXCHANGE),
+                eq(RabbitMQConfig.CUSTOMER_CREATED_ROUTING_KEY), message.capture(), any(CorrelationData.class));
+        assertEquals("1", message.getValue().getMessageProperties().getMessageId());
+        assertEquals(event.getPayload(), new String(message.getValue().getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void publishConfirmed_ShouldReportNackedAndUnconfirmedEvents() {
+        // Arrange
+        doAnswer(invocation -> {
+            CorrelationData correlation = invocation.getArgument(3);
+            if ("1".equals(correlation.getId())) {
+                correlation.getFuture().complete(new CorrelationData.Confirm(false, "queue full"));
+            }
+            return null;
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
 
         // Act
-        messageProducer.sendCustomerCreationMessage(customerDto);
+        Map<Long, String> failures = messageProducer.publishConfirmed(
+                List.of(event(1L), event(2L)), Duration.ofMillis(50));
 
         // Assert
-        verify(rabbitTemplate, times(1)).convertAndSend(
-                RabbitMQConfig.CUSTOMER_EXCHANGE,
-                RabbitMQConfig.CUSTOMER_CREATED_ROUTING_KEY,
-                customerDto
-        );
+        assertEquals(2, failures.size());
+        assertTrue(failures.get(1L).contains("queue full"));
+        assertEquals("Publisher confirm timed out", failures.get(2L));
+    }
+
+    private OutboxEvent event(Long id) {
+        Instant now = Instant.now();
+        return OutboxEvent.builder()
+                .id(id)
+                .routingKey(RabbitMQConfig.CUSTOMER_CREATED_ROUTING_KEY)
+                .aggregateId(id)
+                .payload("{\"id\":" + id + ",\"firstName\":\"John\"}")
+                .createdAt(now)
+                .availableAt(now)
+                .build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,100 @@
+package com.pinapp.customerservice.messaging;
+
+import com.pinapp.customerservice.config.RabbitMQConfig;
+import com.pinapp.customerservice.entity.OutboxEvent;
+import com.pinapp.customerservice.metrics.BusinessMetricsService;
+import com.pinapp.customerservice.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private CustomerMessageProducer messageProducer;
+
+    @Mock
+    private BusinessMetricsService metricsService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new OutboxRelay(outboxEventRepository, messageProducer, metricsService,
+                transactionTemplate, 2, Duration.ofSeconds(1));
+    }
+
+    @Test
+    void relayBatch_ShouldDeleteConfirmedEventsAndRescheduleFailedOnes() {
+        // Arrange
+        OutboxEvent confirmed = event(1L);
+        OutboxEvent failed = event(2L);
+        when(outboxEventRepository.lockNextBatch(any(Instant.class), eq(2))).thenReturn(List.of(confirmed, failed));
+        when(messageProducer.publishConfirmed(List.of(confirmed, failed), Duration.ofSeconds(1)))
+                .thenReturn(Map.of(2L, "Publisher confirm timed out"));
+
+        // Act
+        int claimed = relay.relayBatch();
+
+        // Assert
+        assertEquals(2, claimed);
+        verify(outboxEventRepository, times(1)).deleteAllInBatch(List.of(confirmed));
+        assertEquals(1, failed.getAttempts());
+        assertEquals("Publisher confirm timed out", failed.getLastError());
+        assertTrue(failed.getAvailableAt().isAfter(failed.getCreatedAt()));
+        verify(metricsService, times(1)).recordOutboxPublished(1);
+        verify(metricsService, times(1)).recordOutboxFailed(1);
+    }
+
+    @Test
+    void relayBatch_WhenOutboxIsEmpty_ShouldNotPublish() {
+        // Arrange
+        when(outboxEventRepository.lockNextBatch(any(Instant.class), eq(2))).thenReturn(List.of());
+
+        // Act
+        int claimed = relay.relayBatch();
+
+        // Assert
+        assertEquals(0, claimed);
+        verifyNoInteractions(messageProducer);
+    }
+
+    @Test
+    void backoff_ShouldDoublePerAttemptUpToCap() {
+        assertEquals(Duration.ofSeconds(1), OutboxRelay.backoff(1));
+        assertEquals(Duration.ofSeconds(8), OutboxRelay.backoff(4));
+        assertEquals(Duration.ofMinutes(5), OutboxRelay.backoff(30));
+    }
+
+    private OutboxEvent event(Long id) {
+        Instant createdAt = Instant.now().minusSeconds(1);
+        return OutboxEvent.builder()
+                .id(id)
+                .routingKey(RabbitMQConfig.CUSTOMER_CREATED_ROUTING_KEY)
+                .aggregateId(id)
+                .payload("{}")
+                .createdAt(createdAt)
+                .availableAt(createdAt)
+                .build();
+    }
+}
@@ -0,0 +1,138 @@
+package com.pinapp.customerservice.repository;
+
+import com.pinapp.customerservice.dto.CustomerChangeDto;
+import com.pinapp.customerservice.entity.Customer;
+import com.pinapp.customerservice.event.CustomerChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the Flyway migrations against PostgreSQL and checks that the change-log trigger records every
+ * customer write, and that the sequencer numbers committed changes in order. Each step commits, as the
+ * feed only ever reads committed, numbered rows.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+public class CustomerChangeRepositoryIT {
+
+    private static final long LOCK_KEY = 42L;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CustomerChangeRepository changeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            customerRepository.deleteAllInBatch();
+            changeRepository.deleteAllInBatch();
+        });
+    }
+
+    @Test
+    void customerWrites_ShouldBeLoggedAndSequencedInCommitOrder() {
+        // Arrange
+        Customer kept = customerRepository.save(customer("Kept"));
+        Customer removed = customerRepository.save(customer("Removed"));
+        kept.setAge(31);
+        kept.setLastModified(Instant.now());
+        customerRepository.save(kept);
+        customerRepository.deleteById(removed.getId());
+
+        // Act
+        int numbered = sequence();
+        List<CustomerChangeDto> changes = changeRepository.findChangesAfter(0L, Limit.of(10));
+
+        // Assert
+        assertEquals(4, numbered);
+        assertEquals(List.of(1L, 2L, 3L, 4L), changes.stream().map(CustomerChangeDto::getSequence).toList());
+        assertEquals(List.of(CustomerChangedEvent.ChangeType.CREATED, CustomerChangedEvent.ChangeType.CREATED,
+                        CustomerChangedEvent.ChangeType.UPDATED, CustomerChangedEvent.ChangeType.DELETED),
+                changes.stream().map(CustomerChangeDto::getType).toList());
+        assertEquals(1L, changes.get(2).getVersion());
+        assertEquals(31, changes.get(2).getCustomer().getAge());
+        assertNull(changes.get(3).getVersion());
+        assertNull(changes.get(3).getCustomer());
+    }
+
+    @Test
+    void sequencePending_ShouldContinueFromHighestSequence() {
+        // Arrange
+        customerRepository.save(customer("First"));
+        sequence();
+        customerRepository.save(customer("Second"));
+
+        // Act
+        sequence();
+
+        // Assert
+        assertEquals(2L, changeRepository.findLatestSequence());
+        assertEquals(List.of(2L), changeRepository.findChangesAfter(1L, Limit.of(10)).stream()
+                .map(CustomerChangeDto::getSequence).toList());
+    }
+
+    @Test
+    void tryLockSequencer_WhenHeldByAnotherTransaction_ShouldReturnFalse() {
+        // Arrange
+        TransactionTemplate other = new TransactionTemplate(transactionManager);
+        other.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
+
+        // Act
+        Boolean acquiredElsewhere = transactionTemplate.execute(status -> {
+            assertTrue(changeRepository.tryLockSequencer(LOCK_KEY));
+            return other.execute(inner -> changeRepository.tryLockSequencer(LOCK_KEY));
+        });
+
+        // Assert
+        assertEquals(Boolean.FALSE, acquiredElsewhere);
+    }
+
+    private int sequence() {
+        Integer numbered = transactionTemplate.execute(status ->
+                changeRepository.tryLockSequencer(LOCK_KEY) ? changeRepository.sequencePending(100) : 0);
+        return numbered != null ? numbered : 0;
+    }
+
+    private static Customer customer(String firstName) {
+        return Customer.builder()
+                .firstName(firstName)
+                .lastName("Change")
+                .age(30)
+                .dateOfBirth(LocalDate.of(1994, 1, 1))
+                .createdAt(LocalDate.now())
+                .lastModified(Instant.now())
+                .build();
+    }
+}
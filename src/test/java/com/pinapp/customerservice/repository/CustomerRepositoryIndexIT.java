@@ -0,0 +1,153 @@
+package com.pinapp.customerservice.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the Flyway migrations against PostgreSQL and checks that the SQL Hibernate generates for each
+ * CustomerRepository finder is planned with an index, and that the metrics rebuilds are index-only scans.
+ * Sequential and bitmap scans are disabled for the EXPLAIN, so the assertion holds on an empty table: it
+ * fails only when no usable index exists.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.pinapp.customerservice.repository.CustomerRepositoryIndexIT$CapturingStatementInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+public class CustomerRepositoryIndexIT {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CustomerAgeHistogramRepository histogramRepository;
+
+    @Autowired
+    private CustomerSignupRollupRepository signupRollupRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        CapturingStatementInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void findByLastName_ShouldUseLastNameIndex() throws SQLException {
+        customerRepository.findByLastName("Doe");
+
+        assertPlanUsesIndex("idx_customers_last_name", "Doe");
+    }
+
+    @Test
+    void findByAgeGreaterThanEqual_ShouldUseAgeIndex() throws SQLException {
+        customerRepository.findByAgeGreaterThanEqual(30);
+
+        assertPlanUsesIndex("idx_customers_age", 30);
+    }
+
+    @Test
+    void findByAgeLessThanEqual_ShouldUseAgeIndex() throws SQLException {
+        customerRepository.findByAgeLessThanEqual(30);
+
+        assertPlanUsesIndex("idx_customers_age", 30);
+    }
+
+    @Test
+    void findByIdGreaterThanOrderByIdAsc_ShouldUsePrimaryKey() throws SQLException {
+        customerRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(50));
+
+        // Hibernate renders the limit as "offset ? rows fetch first ? rows only"
+        assertPlanUsesIndex("customers_pkey", 0L, 0, 50);
+    }
+
+    // The metrics rebuilds read nothing but the indexed column, so the single-column indexes cover them
+    @Test
+    void rebuildFromCustomers_ShouldScanOnlyTheAgeIndex() throws SQLException {
+        histogramRepository.rebuildFromCustomers();
+
+        assertPlanUsesIndex("Index Only Scan using idx_customers_age");
+    }
+
+    @Test
+    void refreshFrom_ShouldScanOnlyTheCreatedAtIndex() throws SQLException {
+        LocalDate from = LocalDate.now().minusDays(1);
+        signupRollupRepository.refreshFrom(from);
+
+        assertPlanUsesIndex("Index Only Scan using idx_customers_created_at", from);
+    }
+
+    private void assertPlanUsesIndex(String index, Object... parameters) throws SQLException {
+        String sql = lastCustomerQuery();
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET LOCAL enable_seqscan = off");
+            // On an empty table no page is all-visible yet, which would otherwise favour a bitmap heap scan
+            statement.execute("SET LOCAL enable_bitmapscan = off");
+        }
+
+        StringBuilder plan = new StringBuilder();
+        try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                explain.setObject(i + 1, parameters[i]);
+            }
+            try (ResultSet rows = explain.executeQuery()) {
+                while (rows.next()) {
+                    plan.append(rows.getString(1)).append('\n');
+                }
+            }
+        }
+
+        assertTrue(plan.toString().contains(index), () -> "Expected " + index + " in plan for\n" + sql + "\n" + plan);
+    }
+
+    private String lastCustomerQuery() {
+        List<String> statements = CapturingStatementInspector.STATEMENTS;
+        for (int i = statements.size() - 1; i >= 0; i--) {
+            String sql = statements.get(i);
+            if (sql.toLowerCase().contains("from customers")) {
+                return sql;
+            }
+        }
+        throw new AssertionError("No query against customers was executed: " + statements);
+    }
+
+    public static class CapturingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
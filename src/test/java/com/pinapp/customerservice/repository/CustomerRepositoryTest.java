@@ -0,0 +1,94 @@
+package com.pinapp.customerservice.repository;
+
+import com.pinapp.customerservice.dto.CustomerDetailDto;
+import com.pinapp.customerservice.dto.CustomerDto;
+import com.pinapp.customerservice.entity.Customer;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+public class CustomerRepositoryTest {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private List<Customer> customers;
+
+    @BeforeEach
+    void setUp() {
+        customers = customerRepository.saveAll(List.of(
+                customer("John", "Doe", 30),
+                customer("Jane", "Smith", 25),
+                customer("Mark", "Brown", 60)));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findDtoById_ShouldProjectWithoutManagingEntity() {
+        Long id = customers.get(0).getId();
+
+        CustomerDto result = customerRepository.findDtoById(id).orElseThrow();
+
+        assertEquals(id, result.getId());
+        assertEquals("Doe", result.getLastName());
+        assertEquals(30, result.getAge());
+        assertPersistenceContextEmpty();
+    }
+
+    @Test
+    void findDtoById_WhenMissing_ShouldReturnEmpty() {
+        assertTrue(customerRepository.findDtoById(-1L).isEmpty());
+    }
+
+    @Test
+    void findDetailsByIdGreaterThan_ShouldReturnLimitedPageAfterCursor() {
+        List<CustomerDetailDto> result = customerRepository.findDetailsByIdGreaterThan(
+                customers.get(0).getId(), Limit.of(1));
+
+        assertEquals(1, result.size());
+        assertEquals("Smith", result.get(0).getLastName());
+        assertEquals(LocalDate.now(), result.get(0).getCreatedAt());
+        assertNull(result.get(0).getEstimatedLifeExpectancy());
+        assertPersistenceContextEmpty();
+    }
+
+    @Test
+    void streamDetailsOrderById_ShouldEmitEveryCustomerInIdOrder() {
+        try (Stream<CustomerDetailDto> details = customerRepository.streamDetailsOrderById()) {
+            assertEquals(List.of("Doe", "Smith", "Brown"), details.map(CustomerDetailDto::getLastName).toList());
+        }
+        assertPersistenceContextEmpty();
+    }
+
+    private void assertPersistenceContextEmpty() {
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    private Customer customer(String firstName, String lastName, int age) {
+        return Customer.builder()
+                .firstName(firstName)
+                .lastName(lastName)
+                .age(age)
+                .dateOfBirth(LocalDate.now().minusYears(age))
+                .build();
+    }
+}
@@ -0,0 +1,99 @@
+package com.pinapp.customerservice.repository;
+
+import com.pinapp.customerservice.dto.CustomerDto;
+import com.pinapp.customerservice.dto.CustomerSearchCriteria;
+import com.pinapp.customerservice.entity.Customer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+public class CustomerSpecificationsTest {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @BeforeEach
+    void setUp() {
+        customerRepository.saveAllAndFlush(List.of(
+                customer("John", "Doe", 30),
+                customer("Jane", "Dowling", 45),
+                customer("Dolores", "Smith", 22),
+                customer("Mark", "Do_e", 60)));
+    }
+
+    @Test
+    void nameStartsWith_ShouldMatchFirstOrLastNameIgnoringCase() {
+        List<Customer> result = search(CustomerSearchCriteria.builder().name(" do").build());
+
+        assertEquals(List.of("Doe", "Dowling", "Smith", "Do_e"), lastNames(result));
+    }
+
+    @Test
+    void nameStartsWith_ShouldTreatLikeWildcardsLiterally() {
+        List<Customer> result = search(CustomerSearchCriteria.builder().name("do_").build());
+
+        assertEquals(List.of("Do_e"), lastNames(result));
+    }
+
+    @Test
+    void matching_ShouldCombineNameAndAgeRange() {
+        List<Customer> result = search(CustomerSearchCriteria.builder()
+                .name("do")
+                .minAge(25)
+                .maxAge(50)
+                .build());
+
+        assertEquals(List.of("Doe", "Dowling"), lastNames(result));
+    }
+
+    @Test
+    void matching_ShouldFilterByCreationDate() {
+        LocalDate today = LocalDate.now();
+
+        assertEquals(4, search(CustomerSearchCriteria.builder().createdFrom(today).createdTo(today).build()).size());
+        assertEquals(0, search(CustomerSearchCriteria.builder().createdFrom(today.plusDays(1)).build()).size());
+    }
+
+    @Test
+    void searchDtos_ShouldProjectMatchesAfterCursorInIdOrder() {
+        Specification<Customer> byName = CustomerSpecifications.matching(CustomerSearchCriteria.builder().name("do").build());
+        List<CustomerDto> firstPage = customerRepository.searchDtos(byName, 2);
+
+        List<CustomerDto> nextPage = customerRepository.searchDtos(
+                byName.and(CustomerSpecifications.idGreaterThan(firstPage.get(1).getId())), 2);
+
+        assertEquals(List.of("Doe", "Dowling"), firstPage.stream().map(CustomerDto::getLastName).toList());
+        assertEquals(List.of("Smith", "Do_e"), nextPage.stream().map(CustomerDto::getLastName).toList());
+        assertEquals(22, nextPage.get(0).getAge());
+    }
+
+    private List<Customer> search(CustomerSearchCriteria criteria) {
+        return customerRepository.findAll(CustomerSpecifications.matching(criteria), Sort.by("id"));
+    }
+
+    private List<String> lastNames(List<Customer> customers) {
+        return customers.stream().map(Customer::getLastName).toList();
+    }
+
+    private Customer customer(String firstName, String lastName, int age) {
+        return Customer.builder()
+                .firstName(firstName)
+                .lastName(lastName)
+                .age(age)
+                .dateOfBirth(LocalDate.now().minusYears(age))
+                .build();
+    }
+}
@@ -0,0 +1,53 @@
+package com.pinapp.customerservice.repository;
+
+import com.pinapp.customerservice.entity.ProcessedMessage;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the Flyway migrations against PostgreSQL and checks that a batch of idempotency keys is recorded
+ * in one statement, skipping keys another replica has already recorded.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+public class ProcessedMessageRepositoryIT {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Autowired
+    private ProcessedMessageRepository processedMessageRepository;
+
+    @Test
+    void insertAllIfAbsent_ShouldInsertOnlyKeysNotYetRecorded() {
+        // Arrange
+        Instant earlier = Instant.now().minus(1, ChronoUnit.HOURS).truncatedTo(ChronoUnit.MICROS);
+        processedMessageRepository.saveAndFlush(new ProcessedMessage("customer.created:1", earlier));
+
+        // Act
+        int inserted = processedMessageRepository.insertAllIfAbsent(
+                new String[] {"customer.created:1", "customer.created:2", "customer.created:3"}, Instant.now());
+
+        // Assert
+        assertEquals(2, inserted);
+        assertEquals(List.of("customer.created:1", "customer.created:2", "customer.created:3"),
+                processedMessageRepository.findProcessedKeys(
+                        List.of("customer.created:1", "customer.created:2", "customer.created:3", "customer.created:4"))
+                        .stream().sorted().toList());
+        assertEquals(earlier, processedMessageRepository.findById("customer.created:1").orElseThrow().getProcessedAt());
+    }
+}
@@ -0,0 +1,28 @@
+package com.pinapp.customerservice.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CustomUserDetailsServiceTest {
+
+    @Test
+    void authenticate_ShouldSucceedRepeatedlyForSameUser() {
+        // Arrange: the provider manager erases credentials after each successful authentication
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(new CustomUserDetailsService());
+        provider.setPasswordEncoder(new BCryptPasswordEncoder());
+        ProviderManager authenticationManager = new ProviderManager(provider);
+
+        // Act
+        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken("admin", "admin"));
+
+        // Assert
+        assertTrue(authenticationManager.authenticate(new UsernamePasswordAuthenticationToken("admin", "admin"))
+                .isAuthenticated());
+    }
+}
@@ -0,0 +1,87 @@
+package com.pinapp.customerservice.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtTokenProviderTest {
+
+    private JwtTokenProvider tokenProvider;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = provider("test-secret-".repeat(6), 60_000L);
+        token = tokenProvider.generateToken(authentication());
+    }
+
+    @Test
+    void resolveAuthentication_ShouldReturnPrincipalAndRoles() {
+        // Act
+        Optional<Authentication> result = tokenProvider.resolveAuthentication(token);
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals("admin", result.get().getName());
+        assertEquals(2, result.get().getAuthorities().size());
+    }
+
+    @Test
+    void resolveAuthentication_ShouldReuseVerifiedAuthenticationForRepeatCallers() {
+        // Act
+        Authentication first = tokenProvider.resolveAuthentication(token).orElseThrow();
+        Authentication second = tokenProvider.resolveAuthentication(token).orElseThrow();
+
+        // Assert
+        assertSame(first, second);
+    }
+
+    @Test
+    void resolveAuthentication_WhenSignedWithAnotherKey_ShouldReturnEmpty() {
+        // Arrange
+        String forged = provider("other-secret-".repeat(6), 60_000L).generateToken(authentication());
+
+        // Act & Assert
+        assertTrue(tokenProvider.resolveAuthentication(forged).isEmpty());
+        assertFalse(tokenProvider.validateToken(forged));
+    }
+
+    @Test
+    void resolveAuthentication_WhenExpired_ShouldReturnEmpty() {
+        // Arrange
+        JwtTokenProvider expiringProvider = provider("test-secret-".repeat(6), -1_000L);
+        String expired = expiringProvider.generateToken(authentication());
+
+        // Act & Assert
+        assertTrue(expiringProvider.resolveAuthentication(expired).isEmpty());
+    }
+
+    @Test
+    void resolveAuthentication_WhenMalformed_ShouldReturnEmpty() {
+        assertTrue(tokenProvider.resolveAuthentication("not-a-jwt").isEmpty());
+    }
+
+    private JwtTokenProvider provider(String secret, long expirationMs) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", secret);
+        ReflectionTestUtils.setField(provider, "jwtExpirationMs", expirationMs);
+        ReflectionTestUtils.setField(provider, "verifiedTokenCacheSize", 100L);
+        provider.init();
+        return provider;
+    }
+
+    private Authentication authentication() {
+        List<SimpleGrantedAuthority> authorities =
+                List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN"));
+        return new UsernamePasswordAuthenticationToken(new User("admin", "", authorities), null, authorities);
+    }
+}
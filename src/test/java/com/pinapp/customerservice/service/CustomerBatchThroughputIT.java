@@ -0,0 +1,128 @@
+package com.pinapp.customerservice.service;
+
+import com.pinapp.customerservice.cache.CustomerCache;
+import com.pinapp.customerservice.cache.RequestCoalescer;
+import com.pinapp.customerservice.columnstore.CustomerColumnStore;
+import com.pinapp.customerservice.dto.CustomerBatchResultDto;
+import com.pinapp.customerservice.dto.CustomerDto;
+import com.pinapp.customerservice.messaging.CustomerEventOutbox;
+import com.pinapp.customerservice.metrics.BusinessMetricsService;
+import com.pinapp.customerservice.service.impl.CustomerServiceImpl;
+import com.pinapp.customerservice.service.impl.CustomerStatisticsServiceImpl;
+import com.pinapp.customerservice.util.LifeExpectancyCalculator;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the rows per second of the bulk create path with one createCustomer call per row, each in its
+ * own transaction as a POST /api/customers would be. Both paths write the customer, its outbox event and
+ * the statistics in PostgreSQL. The single path skips the HTTP, JSON and security work a real request pays
+ * per row, so the measured ratio understates the gain seen by clients.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.com.pinapp.customerservice=INFO",
+        // The container URL lacks the driver option the application URL sets for batched inserts
+        "spring.datasource.hikari.data-source-properties.reWriteBatchedInserts=true"
+})
+@Import({CustomerServiceImpl.class, CustomerStatisticsServiceImpl.class, LifeExpectancyCalculator.class,
+        RequestCoalescer.class, CustomerEventOutbox.class})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+@Slf4j
+public class CustomerBatchThroughputIT {
+
+    private static final int SINGLE_ROWS = 500;
+    private static final int BATCH_ROWS = 10_000;
+    private static final int CHUNK_SIZE = 1000;
+    private static final double MIN_SPEEDUP = 10.0;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @MockBean
+    private BusinessMetricsService metricsService;
+
+    @MockBean
+    private CustomerCache customerCache;
+
+    @MockBean
+    private CustomerColumnStore columnStore;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Test
+    void createCustomers_ShouldInsertAtLeastTenTimesTheRowsPerSecondOfSingleCreates() {
+        // Arrange: warm up both paths so neither pays for class loading or pool start-up
+        createOneByOne(SINGLE_ROWS / 5);
+        createInChunks(CHUNK_SIZE);
+
+        // Act
+        long singleNanos = createOneByOne(SINGLE_ROWS);
+        long batchNanos = createInChunks(BATCH_ROWS);
+
+        // Assert
+        double singleRate = SINGLE_ROWS / (singleNanos / 1e9);
+        double batchRate = BATCH_ROWS / (batchNanos / 1e9);
+        String summary = String.format("single %.0f rows/s, batch %.0f rows/s (%.1fx)",
+                singleRate, batchRate, batchRate / singleRate);
+        log.info("Customer creation: {}", summary);
+        assertTrue(batchRate >= MIN_SPEEDUP * singleRate,
+                () -> String.format("Batch path reached less than %.0fx the single path: %s", MIN_SPEEDUP, summary));
+    }
+
+    private long createOneByOne(int rows) {
+        long start = System.nanoTime();
+        for (int i = 0; i < rows; i++) {
+            customerService.createCustomer(customer(i));
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long createInChunks(int rows) {
+        long start = System.nanoTime();
+        for (int first = 0; first < rows; first += CHUNK_SIZE) {
+            List<CustomerDto> chunk = new ArrayList<>(CHUNK_SIZE);
+            for (int i = first; i < Math.min(first + CHUNK_SIZE, rows); i++) {
+                chunk.add(customer(i));
+            }
+            CustomerBatchResultDto result = customerService.createCustomers(chunk, first);
+            assertEquals(chunk.size(), result.getCreated());
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static CustomerDto customer(int i) {
+        int age = 18 + i % 70;
+        return CustomerDto.builder()
+                .firstName("Bulk" + i)
+                .lastName("Load")
+                .age(age)
+                .dateOfBirth(LocalDate.now().minusYears(age))
+                .build();
+    }
+}
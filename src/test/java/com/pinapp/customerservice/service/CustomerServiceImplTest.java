@@ -1,29 +1,57 @@
 package com.pinapp.customerservice.service;
 
 
+import com.pinapp.customerservice.cache.CustomerCache;
+import com.pinapp.customerservice.cache.RequestCoalescer;
+import com.pinapp.customerservice.columnstore.CustomerColumnStore;
+import com.pinapp.customerservice.dto.CustomerBatchItemResultDto;
+import com.pinapp.customerservice.dto.CustomerBatchResultDto;
 import com.pinapp.customerservice.dto.CustomerDetailDto;
 import com.pinapp.customerservice.dto.CustomerDto;
 import com.pinapp.customerservice.dto.CustomerMetricsDto;
+import com.pinapp.customerservice.dto.CustomerSearchCriteria;
 import com.pinapp.customerservice.entity.Customer;
+import com.pinapp.customerservice.event.CustomerChangedEvent;
+import com.pinapp.customerservice.exception.CustomerException;
 import com.pinapp.customerservice.exception.ResourceNotFoundException;
-import com.pinapp.customerservice.messaging.CustomerMessageProducer;
+import com.pinapp.customerservice.messaging.CustomerEventOutbox;
+import com.pinapp.customerservice.metrics.BusinessMetricsService;
+import com.pinapp.customerservice.repository.CustomerDeleteResult;
 import com.pinapp.customerservice.repository.CustomerRepository;
+import com.pinapp.customerservice.repository.CustomerUpdateResult;
 import com.pinapp.customerservice.service.impl.CustomerServiceImpl;
 import com.pinapp.customerservice.util.LifeExpectancyCalculator;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,10 +61,34 @@ public class CustomerServiceImplTest {
     private CustomerRepository customerRepository;
 
     @Mock
-    private CustomerMessageProducer messageProducer;
+    private CustomerEventOutbox eventOutbox;
+
+    @Spy
+    private LifeExpectancyCalculator lifeExpectancyCalculator = new LifeExpectancyCalculator();
+
+    @Mock
+    private BusinessMetricsService metricsService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private CustomerStatisticsService statisticsService;
 
     @Mock
-    private LifeExpectancyCalculator lifeExpectancyCalculator;
+    private CustomerCache customerCache;
+
+    @Spy
+    private RequestCoalescer requestCoalescer = new RequestCoalescer(mock(BusinessMetricsService.class), Duration.ofSeconds(5));
+
+    @Mock
+    private CustomerColumnStore columnStore;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
 
     @InjectMocks
     private CustomerServiceImpl customerService;
@@ -93,13 +145,66 @@ public class CustomerServiceImplTest {
         assertEquals(customer.getDateOfBirth(), result.getDateOfBirth());
 
         verify(customerRepository, times(1)).save(any(Customer.class));
-        verify(messageProducer, times(1)).sendCustomerCreationMessage(any(CustomerDto.class));
+        verify(statisticsService, times(1)).recordCustomerAdded(30);
+        verify(eventOutbox, times(1)).enqueueCustomerCreated(any(CustomerDto.class));
+        verify(eventPublisher, times(1)).publishEvent(argThat((CustomerChangedEvent event) ->
+                event.getType() == CustomerChangedEvent.ChangeType.CREATED && event.getCustomerId() == 1L
+                        && customer.getCreatedAt().equals(event.getCreatedAt())));
+    }
+
+    @Test
+    void createCustomers_ShouldInsertValidItemsInOneBatchAndReportInvalidOnes() {
+        // Arrange
+        CustomerDto invalidDto = CustomerDto.builder().firstName("Missing").build();
+        CustomerDto secondDto = CustomerDto.builder()
+                .firstName("Jane")
+                .lastName("Smith")
+                .age(25)
+                .dateOfBirth(LocalDate.of(1998, 1, 1))
+                .build();
+        when(customerRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Customer> customers = invocation.getArgument(0);
+            long id = 10L;
+            for (Customer saved : customers) {
+                saved.setId(id++);
+            }
+            return customers;
+        });
+
+        // Act
+        CustomerBatchResultDto result = customerService.createCustomers(
+                Arrays.asList(customerDto, invalidDto, secondDto, null), 100);
+
+        // Assert
+        assertEquals(2, result.getCreated());
+        assertEquals(2, result.getFailed());
+        assertEquals(4, result.getResults().size());
+
+        CustomerBatchItemResultDto first = result.getResults().get(0);
+        assertEquals(100, first.getIndex());
+        assertEquals(CustomerBatchItemResultDto.Status.CREATED, first.getStatus());
+        assertEquals(10L, first.getId());
+
+        CustomerBatchItemResultDto invalid = result.getResults().get(1);
+        assertEquals(CustomerBatchItemResultDto.Status.INVALID, invalid.getStatus());
+        assertTrue(invalid.getErrors().containsKey("lastName"));
+        assertEquals(11L, result.getResults().get(2).getId());
+        assertEquals(CustomerBatchItemResultDto.Status.INVALID, result.getResults().get(3).getStatus());
+
+        verify(customerRepository, times(1)).saveAll(argThat((List<Customer> customers) -> customers.size() == 2));
+        verify(customerRepository, times(1)).flush();
+        verify(statisticsService, times(1)).recordCustomersAdded(List.of(30, 25));
+        verify(eventOutbox, times(1)).enqueueCustomersCreated(argThat(sent -> sent.size() == 2));
+        verify(eventOutbox, never()).enqueueCustomerCreated(any(CustomerDto.class));
+        verify(metricsService, times(1)).incrementCustomerCreated(2);
     }
 
     @Test
     void getCustomerById_WhenCustomerExists_ShouldReturnCustomer() {
         // Arrange
-        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        readThroughCache(1L);
+        when(customerRepository.findDtoById(1L)).thenReturn(Optional.of(
+                new CustomerDto(1L, "John", "Doe", 30, LocalDate.of(1993, 1, 1), 0L, Instant.EPOCH)));
 
         // Act
         CustomerDto result = customerService.getCustomerById(1L);
@@ -108,75 +213,155 @@ public class CustomerServiceImplTest {
         assertNotNull(result);
         assertEquals(customer.getId(), result.getId());
         assertEquals(customer.getFirstName(), result.getFirstName());
-        verify(customerRepository, times(1)).findById(1L);
+        verify(customerRepository, times(1)).findDtoById(1L);
+        verify(customerRepository, never()).findById(any());
     }
 
     @Test
     void getCustomerById_WhenCustomerDoesNotExist_ShouldThrowException() {
         // Arrange
-        when(customerRepository.findById(99L)).thenReturn(Optional.empty());
+        readThroughCache(99L);
+        when(customerRepository.findDtoById(99L)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> customerService.getCustomerById(99L));
-        verify(customerRepository, times(1)).findById(99L);
+        verify(customerRepository, times(1)).findDtoById(99L);
     }
 
     @Test
-    void getAllCustomersWithLifeExpectancy_ShouldReturnAllCustomers() {
+    void getCustomerById_WhenCached_ShouldNotQueryRepository() {
         // Arrange
-        LocalDate futureDate = LocalDate.now().plusYears(50);
-        when(customerRepository.findAll()).thenReturn(customerList);
-        when(lifeExpectancyCalculator.calculateLifeExpectancy(any(Customer.class))).thenReturn(futureDate);
+        CustomerDto cached = CustomerDto.builder().id(1L).firstName("John").build();
+        when(customerCache.get(eq(1L), any())).thenReturn(Optional.of(cached));
 
         // Act
-        List<CustomerDetailDto> result = customerService.getAllCustomersWithLifeExpectancy();
+        CustomerDto result = customerService.getCustomerById(1L);
+
+        // Assert
+        assertSame(cached, result);
+        verifyNoInteractions(customerRepository);
+    }
+
+    @Test
+    void getCustomersWithLifeExpectancy_ShouldReturnPageAfterCursor() {
+        // Arrange
+        when(customerRepository.findDetailsByIdGreaterThan(0L, Limit.of(2))).thenReturn(detailList());
+
+        // Act
+        List<CustomerDetailDto> result = customerService.getCustomersWithLifeExpectancy(null, 2);
 
         // Assert
         assertNotNull(result);
         assertEquals(2, result.size());
         assertEquals(customer.getId(), result.get(0).getId());
-        assertEquals(futureDate, result.get(0).getEstimatedLifeExpectancy());
-        verify(customerRepository, times(1)).findAll();
-        verify(lifeExpectancyCalculator, times(2)).calculateLifeExpectancy(any(Customer.class));
+        assertEquals(LocalDate.now().plusYears(50), result.get(0).getEstimatedLifeExpectancy());
+        assertEquals(LocalDate.now().plusYears(55), result.get(1).getEstimatedLifeExpectancy());
+        verify(customerRepository, times(1)).findDetailsByIdGreaterThan(0L, Limit.of(2));
+        verify(customerRepository, never()).findAll();
+        verify(lifeExpectancyCalculator, times(1)).currentTable();
+        verify(lifeExpectancyCalculator, never()).calculateLifeExpectancy(anyInt());
     }
 
     @Test
-    void calculateMetrics_WithCustomers_ShouldReturnMetrics() {
+    void getCustomersWithLifeExpectancy_WhenColumnStoreIsReady_ShouldNotQueryDatabase() {
         // Arrange
-        when(customerRepository.findAll()).thenReturn(customerList);
-        when(customerRepository.findAverageAge()).thenReturn(27.5);
-        when(customerRepository.findAgeStandardDeviation()).thenReturn(3.5);
+        when(columnStore.isReady()).thenReturn(true);
+        when(columnStore.page(1L, 2)).thenReturn(detailList());
 
         // Act
-        CustomerMetricsDto result = customerService.calculateMetrics();
+        List<CustomerDetailDto> result = customerService.getCustomersWithLifeExpectancy(1L, 2);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(27.5, result.getAverageAge());
-        assertEquals(3.5, result.getAgeStandardDeviation());
-        assertEquals(2L, result.getTotalCustomers());
-        assertEquals(25, result.getYoungestCustomerAge());
-        assertEquals(30, result.getOldestCustomerAge());
+        assertEquals(2, result.size());
+        assertEquals(LocalDate.now().plusYears(50), result.get(0).getEstimatedLifeExpectancy());
+        verifyNoInteractions(customerRepository);
+    }
+
+    @Test
+    void streamCustomersWithLifeExpectancy_WhenColumnStoreIsReady_ShouldPageThroughStore() {
+        // Arrange: one full page, then a final partial one
+        List<CustomerDetailDto> firstPage = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            firstPage.add(new CustomerDetailDto(id, "First", "Last", 30, LocalDate.of(1993, 1, 1), LocalDate.now()));
+        }
+        List<CustomerDetailDto> lastPage = List.of(
+                new CustomerDetailDto(1001L, "First", "Last", 25, LocalDate.of(1998, 1, 1), LocalDate.now()));
+        when(columnStore.isReady()).thenReturn(true);
+        when(columnStore.page(0L, 1000)).thenReturn(firstPage);
+        when(columnStore.page(1000L, 1000)).thenReturn(lastPage);
+        List<CustomerDetailDto> emitted = new ArrayList<>();
+
+        // Act
+        customerService.streamCustomersWithLifeExpectancy(emitted::add);
+
+        // Assert
+        assertEquals(1001, emitted.size());
+        assertEquals(LocalDate.now().plusYears(55), emitted.get(1000).getEstimatedLifeExpectancy());
+        verifyNoInteractions(customerRepository);
+    }
+
+    @Test
+    void streamCustomersWithLifeExpectancy_ShouldEmitEveryCustomerWithoutLoadingEntities() {
+        // Arrange
+        when(customerRepository.streamDetailsOrderById()).thenReturn(detailList().stream());
+        List<CustomerDetailDto> emitted = new ArrayList<>();
+
+        // Act
+        customerService.streamCustomersWithLifeExpectancy(emitted::add);
+
+        // Assert
+        assertEquals(2, emitted.size());
+        assertEquals(2L, emitted.get(1).getId());
+        assertEquals(LocalDate.now().plusYears(55), emitted.get(1).getEstimatedLifeExpectancy());
+        verify(lifeExpectancyCalculator, times(1)).currentTable();
+        verifyNoInteractions(entityManager);
+        verify(customerRepository, never()).findAll();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void searchCustomers_ShouldQueryDtoProjectionBySpecification() {
+        // Arrange
+        when(customerRepository.searchDtos(any(Specification.class), eq(2))).thenReturn(List.of(
+                new CustomerDto(1L, "John", "Doe", 30, LocalDate.of(1993, 1, 1), 0L, Instant.EPOCH),
+                new CustomerDto(2L, "Jane", "Smith", 25, LocalDate.of(1998, 1, 1), 0L, Instant.EPOCH)));
+
+        // Act
+        List<CustomerDto> result = customerService.searchCustomers(
+                CustomerSearchCriteria.builder().name("J").minAge(20).build(), null, 2);
 
-        verify(customerRepository, times(1)).findAverageAge();
-        verify(customerRepository, times(1)).findAgeStandardDeviation();
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals("Smith", result.get(1).getLastName());
+        verify(customerRepository, never()).findAll();
+        verifyNoInteractions(lifeExpectancyCalculator);
     }
 
     @Test
-    void calculateMetrics_WithNoCustomers_ShouldReturnEmptyMetrics() {
+    void calculateMetrics_ShouldReadAggregateWithoutScanningCustomers() {
         // Arrange
-        when(customerRepository.findAll()).thenReturn(List.of());
+        CustomerMetricsDto aggregate = CustomerMetricsDto.builder()
+                .averageAge(27.5)
+                .ageStandardDeviation(3.5)
+                .totalCustomers(2L)
+                .youngestCustomerAge(25)
+                .oldestCustomerAge(30)
+                .build();
+        when(statisticsService.getMetrics()).thenReturn(aggregate);
 
         // Act
         CustomerMetricsDto result = customerService.calculateMetrics();
 
         // Assert
         assertNotNull(result);
-        assertEquals(0.0, result.getAverageAge());
-        assertEquals(0.0, result.getAgeStandardDeviation());
-        assertEquals(0L, result.getTotalCustomers());
-        assertEquals(0, result.getYoungestCustomerAge());
-        assertEquals(0, result.getOldestCustomerAge());
+        assertEquals(27.5, result.getAverageAge());
+        assertEquals(3.5, result.getAgeStandardDeviation());
+        assertEquals(2L, result.getTotalCustomers());
+        assertEquals(25, result.getYoungestCustomerAge());
+        assertEquals(30, result.getOldestCustomerAge());
+
+        verify(statisticsService, times(1)).getMetrics();
+        verifyNoInteractions(customerRepository);
     }
 
     @Test
@@ -188,64 +373,115 @@ public class CustomerServiceImplTest {
                 .age(31)
                 .dateOfBirth(LocalDate.of(1992, 1, 1))
                 .build();
+        CustomerUpdateResult updated = updateResult(30, 4L);
 
-        Customer updatedCustomer = Customer.builder()
-                .id(1L)
-                .firstName("John")
-                .lastName("Updated")
-                .age(31)
-                .dateOfBirth(LocalDate.of(1992, 1, 1))
-                .createdAt(LocalDate.now())
-                .build();
-
-        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
-        when(customerRepository.save(any(Customer.class))).thenReturn(updatedCustomer);
+        when(customerRepository.updateReturningPreviousAge(eq(1L), eq("John"), eq("Updated"), eq(31),
+                eq(LocalDate.of(1992, 1, 1)), any(Instant.class), eq(3L))).thenReturn(Optional.of(updated));
 
         // Act
-        CustomerDto result = customerService.updateCustomer(1L, updateDto);
+        CustomerDto result = customerService.updateCustomer(1L, updateDto, 3L);
 
         // Assert
         assertNotNull(result);
-        assertEquals(updatedCustomer.getId(), result.getId());
-        assertEquals(updatedCustomer.getLastName(), result.getLastName());
-        assertEquals(updatedCustomer.getAge(), result.getAge());
-        verify(customerRepository, times(1)).findById(1L);
-        verify(customerRepository, times(1)).save(any(Customer.class));
+        assertEquals(1L, result.getId());
+        assertEquals("Updated", result.getLastName());
+        assertEquals(31, result.getAge());
+        assertEquals(4L, result.getVersion());
+        assertNotNull(result.getLastModified());
+        verify(customerRepository, never()).findById(any());
+        verify(statisticsService, times(1)).recordAgeChanged(30, 31);
+        verify(eventPublisher, times(1)).publishEvent(argThat((CustomerChangedEvent event) ->
+                event.getType() == CustomerChangedEvent.ChangeType.UPDATED && event.getCustomerId() == 1L));
+    }
+
+    @Test
+    void updateCustomer_WithoutExpectedVersion_ShouldUpdateAnyVersion() {
+        // Arrange
+        CustomerUpdateResult updated = updateResult(30, 4L);
+        when(customerRepository.updateReturningPreviousAge(eq(1L), any(), any(), any(), any(), any(Instant.class),
+                eq(CustomerRepository.ANY_VERSION))).thenReturn(Optional.of(updated));
+
+        // Act
+        CustomerDto result = customerService.updateCustomer(1L, customerDto, null);
+
+        // Assert
+        assertEquals(4L, result.getVersion());
+        verify(statisticsService, times(1)).recordAgeChanged(30, 30);
     }
 
     @Test
     void updateCustomer_WhenCustomerDoesNotExist_ShouldThrowException() {
         // Arrange
-        when(customerRepository.findById(99L)).thenReturn(Optional.empty());
+        when(customerRepository.updateReturningPreviousAge(eq(99L), any(), any(), any(), any(), any(Instant.class),
+                anyLong())).thenReturn(Optional.empty());
 
         // Act & Assert
-        assertThrows(ResourceNotFoundException.class, () -> customerService.updateCustomer(99L, customerDto));
-        verify(customerRepository, times(1)).findById(99L);
-        verify(customerRepository, never()).save(any(Customer.class));
+        assertThrows(ResourceNotFoundException.class, () -> customerService.updateCustomer(99L, customerDto, null));
+        verify(customerRepository, never()).existsById(any());
+        verifyNoInteractions(statisticsService, eventPublisher);
     }
 
     @Test
-    void deleteCustomer_WhenCustomerExists_ShouldDeleteCustomer() {
+    void updateCustomer_WhenVersionDoesNotMatch_ShouldRejectWithoutWriting() {
         // Arrange
+        when(customerRepository.updateReturningPreviousAge(eq(1L), any(), any(), any(), any(), any(Instant.class),
+                eq(2L))).thenReturn(Optional.empty());
         when(customerRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(customerRepository).deleteById(1L);
+
+        // Act
+        CustomerException exception = assertThrows(CustomerException.class,
+                () -> customerService.updateCustomer(1L, customerDto, 2L));
+
+        // Assert
+        assertEquals(HttpStatus.PRECONDITION_FAILED, exception.getStatus());
+        verifyNoInteractions(statisticsService, eventPublisher);
+    }
+
+    @Test
+    void deleteCustomer_WhenCustomerExists_ShouldDeleteCustomer() {
+        // Arrange
+        CustomerDeleteResult deleted = mock(CustomerDeleteResult.class);
+        when(deleted.getAge()).thenReturn(30);
+        when(deleted.getCreatedAt()).thenReturn(LocalDate.of(2020, 5, 1));
+        when(customerRepository.deleteByIdReturningStatistics(1L)).thenReturn(Optional.of(deleted));
 
         // Act
         customerService.deleteCustomer(1L);
 
         // Assert
-        verify(customerRepository, times(1)).existsById(1L);
-        verify(customerRepository, times(1)).deleteById(1L);
+        verify(customerRepository, never()).findById(any());
+        verify(statisticsService, times(1)).recordCustomerRemoved(30, LocalDate.of(2020, 5, 1));
+        verify(eventPublisher, times(1)).publishEvent(argThat((CustomerChangedEvent event) ->
+                event.getType() == CustomerChangedEvent.ChangeType.DELETED && event.getCustomerId() == 1L));
     }
 
     @Test
     void deleteCustomer_WhenCustomerDoesNotExist_ShouldThrowException() {
         // Arrange
-        when(customerRepository.existsById(99L)).thenReturn(false);
+        when(customerRepository.deleteByIdReturningStatistics(99L)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> customerService.deleteCustomer(99L));
-        verify(customerRepository, times(1)).existsById(99L);
-        verify(customerRepository, never()).deleteById(anyLong());
+        verifyNoInteractions(statisticsService, eventPublisher);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<CustomerDetailDto> detailList() {
+        return customerList.stream()
+                .map(c -> new CustomerDetailDto(c.getId(), c.getFirstName(), c.getLastName(), c.getAge(),
+                        c.getDateOfBirth(), c.getCreatedAt()))
+                .toList();
+    }
+
+    private void readThroughCache(Long id) {
+        when(customerCache.get(eq(id), any())).thenAnswer(invocation ->
+                invocation.getArgument(1, Function.class).apply(id));
+    }
+
+    private CustomerUpdateResult updateResult(int previousAge, long version) {
+        CustomerUpdateResult result = mock(CustomerUpdateResult.class);
+        when(result.getPreviousAge()).thenReturn(previousAge);
+        when(result.getVersion()).thenReturn(version);
+        return result;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,306 @@
+package com.pinapp.customerservice.service;
+
+import com.pinapp.customerservice.columnstore.CustomerColumnStore;
+import com.pinapp.customerservice.dto.CustomerAnalyticsDto;
+import com.pinapp.customerservice.dto.CustomerMetricsDto;
+import com.pinapp.customerservice.entity.CustomerAgeBucket;
+import com.pinapp.customerservice.entity.CustomerSignupDay;
+import com.pinapp.customerservice.event.CustomerChangedEvent;
+import com.pinapp.customerservice.event.CustomerInvalidatedEvent;
+import com.pinapp.customerservice.repository.AgeHistogramSummary;
+import com.pinapp.customerservice.repository.CustomerAgeHistogramRepository;
+import com.pinapp.customerservice.repository.CustomerRepository;
+import com.pinapp.customerservice.repository.CustomerSignupRollupRepository;
+import com.pinapp.customerservice.service.impl.CustomerStatisticsServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CustomerStatisticsServiceImplTest {
+
+    @Mock
+    private CustomerAgeHistogramRepository histogramRepository;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private CustomerSignupRollupRepository signupRollupRepository;
+
+    @Mock
+    private CustomerColumnStore columnStore;
+
+    @InjectMocks
+    private CustomerStatisticsServiceImpl statisticsService;
+
+    @Test
+    void getMetrics_ShouldDeriveStatisticsFromHistogram() {
+        // Arrange: ages 25 and 30
+        AgeHistogramSummary summary = summary(2L, 55L, 1525L, 25, 30);
+        when(histogramRepository.summarize()).thenReturn(summary);
+
+        // Act
+        CustomerMetricsDto result = statisticsService.getMetrics();
+
+        // Assert
+        assertEquals(27.5, result.getAverageAge());
+        assertEquals(Math.sqrt(12.5), result.getAgeStandardDeviation(), 1e-9);
+        assertEquals(2L, result.getTotalCustomers());
+        assertEquals(25, result.getYoungestCustomerAge());
+        assertEquals(30, result.getOldestCustomerAge());
+        verifyNoInteractions(customerRepository);
+    }
+
+    @Test
+    void getMetrics_WhenColumnStoreIsReady_ShouldNotQueryHistogram() {
+        // Arrange
+        AgeHistogramSummary summary = summary(2L, 55L, 1525L, 25, 30);
+        when(columnStore.isReady()).thenReturn(true);
+        when(columnStore.summarizeAges()).thenReturn(summary);
+
+        // Act
+        CustomerMetricsDto result = statisticsService.getMetrics();
+
+        // Assert
+        assertEquals(27.5, result.getAverageAge());
+        assertEquals(2L, result.getTotalCustomers());
+        verifyNoInteractions(histogramRepository);
+    }
+
+    @Test
+    void getMetrics_ShouldServeSnapshotUntilCustomerChanges() {
+        // Arrange
+        AgeHistogramSummary summary = summary(2L, 55L, 1525L, 25, 30);
+        when(histogramRepository.summarize()).thenReturn(summary);
+
+        // Act
+        CustomerMetricsDto first = statisticsService.getMetrics();
+        CustomerMetricsDto cached = statisticsService.getMetrics();
+        statisticsService.onCustomerChanged(CustomerChangedEvent.deleted(1L));
+        statisticsService.getMetrics();
+
+        // Assert
+        assertSame(first, cached);
+        verify(histogramRepository, times(2)).summarize();
+    }
+
+    @Test
+    void onCustomerInvalidated_ShouldDropMetricsSnapshot() {
+        // Arrange
+        AgeHistogramSummary summary = summary(2L, 60L, 1800L, 30, 30);
+        when(histogramRepository.summarize()).thenReturn(summary);
+        statisticsService.getMetrics();
+
+        // Act
+        statisticsService.onCustomerInvalidated(new CustomerInvalidatedEvent(1L, 3L));
+        statisticsService.getMetrics();
+
+        // Assert
+        verify(histogramRepository, times(2)).summarize();
+    }
+
+    @Test
+    void getMetrics_WithNoCustomers_ShouldReturnEmptyMetrics() {
+        // Arrange
+        AgeHistogramSummary summary = summary(0L, 0L, 0L, null, null);
+        when(histogramRepository.summarize()).thenReturn(summary);
+
+        // Act
+        CustomerMetricsDto result = statisticsService.getMetrics();
+
+        // Assert
+        assertEquals(0.0, result.getAverageAge());
+        assertEquals(0.0, result.getAgeStandardDeviation());
+        assertEquals(0L, result.getTotalCustomers());
+        assertEquals(0, result.getYoungestCustomerAge());
+        assertEquals(0, result.getOldestCustomerAge());
+    }
+
+    @Test
+    void recordAgeChanged_ShouldMoveCustomerBetweenBuckets() {
+        // Act
+        statisticsService.recordAgeChanged(30, 31);
+
+        // Assert
+        verify(histogramRepository).adjustCount(30, -1);
+        verify(histogramRepository).adjustCount(31, 1);
+    }
+
+    @Test
+    void recordAgeChanged_WithSameAge_ShouldNotTouchHistogram() {
+        // Act
+        statisticsService.recordAgeChanged(30, 30);
+
+        // Assert
+        verify(histogramRepository, never()).adjustCount(anyInt(), anyLong());
+    }
+
+    @Test
+    void rebuild_ShouldLockAndRepopulateHistogram() {
+        // Arrange
+        AgeHistogramSummary summary = summary(1L, 40L, 1600L, 40, 40);
+        when(histogramRepository.summarize()).thenReturn(summary);
+
+        // Act
+        CustomerMetricsDto result = statisticsService.rebuild();
+
+        // Assert
+        verify(histogramRepository).lockForRebuild();
+        verify(histogramRepository).deleteAllBuckets();
+        verify(histogramRepository).rebuildFromCustomers();
+        verify(signupRollupRepository).lockForRebuild();
+        verify(signupRollupRepository).deleteAllDays();
+        verify(signupRollupRepository).rebuildFromCustomers();
+        assertEquals(1L, result.getTotalCustomers());
+        assertEquals(0.0, result.getAgeStandardDeviation());
+    }
+
+    @Test
+    void recordCustomerRemoved_ShouldTakeCustomerOutOfAgeAndSignupDay() {
+        // Act
+        statisticsService.recordCustomerRemoved(30, LocalDate.of(2020, 5, 1));
+
+        // Assert
+        verify(histogramRepository).adjustCount(30, -1);
+        verify(signupRollupRepository).decrementDay(LocalDate.of(2020, 5, 1));
+    }
+
+    @Test
+    void recordCustomerRemoved_WithoutSignupDay_ShouldOnlyAdjustHistogram() {
+        // Act
+        statisticsService.recordCustomerRemoved(30, null);
+
+        // Assert
+        verify(histogramRepository).adjustCount(30, -1);
+        verifyNoInteractions(signupRollupRepository);
+    }
+
+    @Test
+    void refreshSignups_ShouldRecountOnlyRecentDays() {
+        // Arrange
+        when(signupRollupRepository.tryLockRefresh(anyLong())).thenReturn(true);
+
+        // Act
+        statisticsService.refreshSignups();
+
+        // Assert
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        verify(signupRollupRepository).tryLockRefresh(anyLong());
+        verify(signupRollupRepository).refreshFrom(yesterday);
+        verify(signupRollupRepository).deleteEmptyDaysFrom(yesterday);
+        verifyNoMoreInteractions(signupRollupRepository);
+        verifyNoInteractions(customerRepository);
+    }
+
+    @Test
+    void refreshSignups_WhenLockHeldElsewhere_ShouldNotRecount() {
+        // Arrange
+        when(signupRollupRepository.tryLockRefresh(anyLong())).thenReturn(false);
+
+        // Act
+        statisticsService.refreshSignups();
+
+        // Assert
+        verify(signupRollupRepository, never()).refreshFrom(any());
+        verify(signupRollupRepository, never()).deleteEmptyDaysFrom(any());
+    }
+
+    @Test
+    void getAnalytics_ShouldBucketAgesAndComputePercentilesFromHistogram() {
+        // Arrange: ages 22 x2, 29, 35 x6, 41
+        when(histogramRepository.findAll(any(Sort.class))).thenReturn(List.of(
+                bucket(22, 2), bucket(29, 1), bucket(30, 0), bucket(35, 6), bucket(41, 1)));
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 1, 31);
+        when(signupRollupRepository.findBySignupDateBetweenOrderBySignupDate(from, to)).thenReturn(List.of());
+
+        // Act
+        CustomerAnalyticsDto result = statisticsService.getAnalytics(10, from, to, CustomerAnalyticsDto.Granularity.DAY);
+
+        // Assert
+        assertEquals(10L, result.getTotalCustomers());
+        assertEquals(List.of(
+                new CustomerAnalyticsDto.AgeBucket(20, 29, 3L),
+                new CustomerAnalyticsDto.AgeBucket(30, 39, 6L),
+                new CustomerAnalyticsDto.AgeBucket(40, 49, 1L)), result.getAgeBuckets());
+        assertEquals(Map.of("p25", 29, "p50", 35, "p75", 35, "p90", 35, "p95", 41, "p99", 41), result.getAgePercentiles());
+        assertEquals(List.of("p25", "p50", "p75", "p90", "p95", "p99"), List.copyOf(result.getAgePercentiles().keySet()));
+        assertEquals(List.of(), result.getSignups());
+        verifyNoInteractions(customerRepository);
+    }
+
+    @Test
+    void getAnalytics_WhenColumnStoreIsReady_ShouldNotQueryRollups() {
+        // Arrange
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 1, 31);
+        when(columnStore.isReady()).thenReturn(true);
+        when(columnStore.ageHistogram()).thenReturn(List.of(bucket(22, 2), bucket(35, 1)));
+        when(columnStore.signupsBetween(from, to)).thenReturn(List.of(signupDay(LocalDate.of(2024, 1, 2), 3)));
+
+        // Act
+        CustomerAnalyticsDto result = statisticsService.getAnalytics(10, from, to, CustomerAnalyticsDto.Granularity.DAY);
+
+        // Assert
+        assertEquals(3L, result.getTotalCustomers());
+        assertEquals(List.of(new CustomerAnalyticsDto.SignupCount(LocalDate.of(2024, 1, 2), 3L)), result.getSignups());
+        verifyNoInteractions(histogramRepository, signupRollupRepository);
+    }
+
+    @Test
+    void getAnalytics_WithWeeklyGranularity_ShouldSumDaysIntoWeeksStartingMonday() {
+        // Arrange: 2024-01-01 is a Monday
+        when(histogramRepository.findAll(any(Sort.class))).thenReturn(List.of());
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 1, 14);
+        when(signupRollupRepository.findBySignupDateBetweenOrderBySignupDate(from, to)).thenReturn(List.of(
+                signupDay(LocalDate.of(2024, 1, 1), 3),
+                signupDay(LocalDate.of(2024, 1, 7), 2),
+                signupDay(LocalDate.of(2024, 1, 8), 5),
+                signupDay(LocalDate.of(2024, 1, 9), 0)));
+
+        // Act
+        CustomerAnalyticsDto result = statisticsService.getAnalytics(5, from, to, CustomerAnalyticsDto.Granularity.WEEK);
+
+        // Assert
+        assertEquals(List.of(
+                new CustomerAnalyticsDto.SignupCount(LocalDate.of(2024, 1, 1), 5L),
+                new CustomerAnalyticsDto.SignupCount(LocalDate.of(2024, 1, 8), 5L)), result.getSignups());
+        assertEquals(0L, result.getTotalCustomers());
+        assertEquals(List.of(), result.getAgeBuckets());
+        assertEquals(Map.of(), result.getAgePercentiles());
+    }
+
+    private CustomerAgeBucket bucket(int age, long count) {
+        return CustomerAgeBucket.builder().age(age).customerCount(count).build();
+    }
+
+    private CustomerSignupDay signupDay(LocalDate date, long count) {
+        return CustomerSignupDay.builder().signupDate(date).customerCount(count).build();
+    }
+
+    private AgeHistogramSummary summary(Long count, Long sum, Long squareSum, Integer min, Integer max) {
+        AgeHistogramSummary summary = mock(AgeHistogramSummary.class);
+        lenient().when(summary.getCustomerCount()).thenReturn(count);
+        lenient().when(summary.getAgeSum()).thenReturn(sum);
+        lenient().when(summary.getAgeSquareSum()).thenReturn(squareSum);
+        lenient().when(summary.getMinAge()).thenReturn(min);
+        lenient().when(summary.getMaxAge()).thenReturn(max);
+        return summary;
+    }
+}
@@ -0,0 +1,169 @@
+package com.pinapp.customerservice.service;
+
+import com.pinapp.customerservice.cache.CustomerCache;
+import com.pinapp.customerservice.cache.RequestCoalescer;
+import com.pinapp.customerservice.columnstore.CustomerColumnStore;
+import com.pinapp.customerservice.dto.CustomerDto;
+import com.pinapp.customerservice.entity.Customer;
+import com.pinapp.customerservice.exception.CustomerException;
+import com.pinapp.customerservice.exception.ResourceNotFoundException;
+import com.pinapp.customerservice.messaging.CustomerEventOutbox;
+import com.pinapp.customerservice.metrics.BusinessMetricsService;
+import com.pinapp.customerservice.repository.CustomerRepository;
+import com.pinapp.customerservice.service.impl.CustomerServiceImpl;
+import com.pinapp.customerservice.service.impl.CustomerStatisticsServiceImpl;
+import com.pinapp.customerservice.util.LifeExpectancyCalculator;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the statements each customer write sends to PostgreSQL, through a datasource-proxy wrapped around
+ * the pool. A read before the write (or Spring Data's find-then-delete) shows up here as an extra statement.
+ */
+@DataJpaTest
+@Import({CustomerServiceImpl.class, CustomerStatisticsServiceImpl.class, LifeExpectancyCalculator.class,
+        RequestCoalescer.class, CustomerWriteStatementCountIT.CountingDataSourceConfig.class})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+public class CustomerWriteStatementCountIT {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @MockBean
+    private CustomerEventOutbox eventOutbox;
+
+    @MockBean
+    private BusinessMetricsService metricsService;
+
+    @MockBean
+    private CustomerCache customerCache;
+
+    @MockBean
+    private CustomerColumnStore columnStore;
+
+    @MockBean
+    private Validator validator;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        customer = customerRepository.saveAndFlush(Customer.builder()
+                .firstName("John")
+                .lastName("Doe")
+                .age(30)
+                .dateOfBirth(LocalDate.of(1994, 1, 1))
+                .build());
+        entityManager.clear();
+        QueryCountHolder.clear();
+    }
+
+    @Test
+    void updateCustomer_WithSameAge_ShouldIssueOneStatement() {
+        CustomerDto result = customerService.updateCustomer(customer.getId(), customerDto(30), customer.getVersion());
+
+        assertEquals(customer.getVersion() + 1, result.getVersion());
+        assertStatements(1);
+    }
+
+    @Test
+    void updateCustomer_WithNewAge_ShouldOnlyAddHistogramStatements() {
+        customerService.updateCustomer(customer.getId(), customerDto(31), null);
+
+        assertStatements(3);
+        entityManager.clear();
+        assertEquals(31, customerRepository.findById(customer.getId()).orElseThrow().getAge());
+    }
+
+    @Test
+    void updateCustomer_WithStaleVersion_ShouldRejectAfterOneLookup() {
+        CustomerException exception = assertThrows(CustomerException.class,
+                () -> customerService.updateCustomer(customer.getId(), customerDto(30), customer.getVersion() + 1));
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, exception.getStatus());
+        assertStatements(2);
+    }
+
+    @Test
+    void deleteCustomer_ShouldIssueDeleteHistogramAndSignupStatements() {
+        customerService.deleteCustomer(customer.getId());
+
+        assertStatements(3);
+        assertFalse(customerRepository.existsById(customer.getId()));
+    }
+
+    @Test
+    void deleteCustomer_WhenMissing_ShouldIssueOneStatement() {
+        assertThrows(ResourceNotFoundException.class, () -> customerService.deleteCustomer(-1L));
+
+        assertStatements(1);
+    }
+
+    private void assertStatements(long expected) {
+        QueryCount count = QueryCountHolder.getGrandTotal();
+        assertEquals(expected, count.getTotal(), () -> "Unexpected statement count: select=" + count.getSelect()
+                + ", insert=" + count.getInsert() + ", update=" + count.getUpdate()
+                + ", delete=" + count.getDelete() + ", other=" + count.getOther());
+    }
+
+    private CustomerDto customerDto(int age) {
+        return CustomerDto.builder()
+                .firstName("John")
+                .lastName("Updated")
+                .age(age)
+                .dateOfBirth(LocalDate.of(2024 - age, 1, 1))
+                .build();
+    }
+
+    @TestConfiguration
+    static class CountingDataSourceConfig {
+
+        @Bean
+        static BeanPostProcessor countingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                        return ProxyDataSourceBuilder.create(dataSource).name(beanName).countQuery().build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
@@ -3,8 +3,13 @@ package com.pinapp.customerservice.util;
 import com.pinapp.customerservice.entity.Customer;
 import org.junit.jupiter.api.Test;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -51,4 +56,65 @@ public class LifeExpectancyCalculatorTest {
         long yearsLeft = ChronoUnit.YEARS.between(LocalDate.now(), result);
         assertEquals(1, yearsLeft, "Expected at least one year remaining");
     }
-}
\ No newline at end of file
+
+    @Test
+    void calculateLifeExpectancyEpochDays_ShouldMatchSingleCalculationForEveryAge() {
+        // Arrange
+        int[] ages = {0, 30, 79, 80, 150, 151, -1};
+
+        // Act
+        long[] result = calculator.calculateLifeExpectancyEpochDays(ages);
+
+        // Assert
+        assertEquals(ages.length, result.length);
+        for (int i = 0; i < ages.length; i++) {
+            assertEquals(calculator.calculateLifeExpectancy(ages[i]).toEpochDay(), result[i], "age " + ages[i]);
+        }
+    }
+
+    @Test
+    void currentTable_ShouldBeReusedWithinADayAndRebuiltOnTheNext() {
+        // Arrange
+        AtomicInteger evaluations = new AtomicInteger();
+        MutableClock clock = new MutableClock(LocalDate.of(2024, 3, 1));
+        LifeExpectancyCalculator customCalculator = new LifeExpectancyCalculator(age -> {
+            evaluations.incrementAndGet();
+            return 10;
+        }, clock);
+
+        // Act
+        LifeExpectancyTable first = customCalculator.currentTable();
+        customCalculator.calculateLifeExpectancyEpochDays(new int[]{20, 30, 40});
+        clock.day = LocalDate.of(2024, 3, 2);
+        LocalDate nextDay = customCalculator.calculateLifeExpectancy(20);
+
+        // Assert
+        assertEquals(2 * (LifeExpectancyTable.MAX_AGE + 1), evaluations.get());
+        assertEquals(LocalDate.of(2034, 3, 1), first.lifeExpectancy(20));
+        assertEquals(LocalDate.of(2034, 3, 2), nextDay);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private LocalDate day;
+
+        private MutableClock(LocalDate day) {
+            this.day = day;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return day.atStartOfDay(ZoneOffset.UTC).toInstant();
+        }
+    }
+}